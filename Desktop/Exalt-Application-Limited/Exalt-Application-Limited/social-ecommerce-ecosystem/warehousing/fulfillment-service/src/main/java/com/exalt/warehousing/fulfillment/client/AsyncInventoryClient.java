@@ -0,0 +1,41 @@
+package com.exalt.warehousing.fulfillment.client;
+
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckResponse;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReleaseRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReservationRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReservationResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking client for the Inventory Service calls made on every
+ * fulfillment step. Calls return immediately; the futures complete when the
+ * inventory service answers, or exceptionally with a ServiceIntegrationException.
+ */
+public interface AsyncInventoryClient {
+
+    /**
+     * Check if inventory is available for the requested items
+     *
+     * @param request The inventory check request
+     * @return The inventory check response with availability information
+     */
+    CompletableFuture<InventoryCheckResponse> checkInventoryAvailabilityAsync(InventoryCheckRequest request);
+
+    /**
+     * Reserve inventory for the requested items
+     *
+     * @param request The inventory reservation request
+     * @return The inventory reservation response
+     */
+    CompletableFuture<InventoryReservationResponse> reserveInventoryAsync(InventoryReservationRequest request);
+
+    /**
+     * Release previously reserved inventory
+     *
+     * @param request The inventory release request
+     * @return True if successful, false otherwise
+     */
+    CompletableFuture<Boolean> releaseInventoryAsync(InventoryReleaseRequest request);
+}
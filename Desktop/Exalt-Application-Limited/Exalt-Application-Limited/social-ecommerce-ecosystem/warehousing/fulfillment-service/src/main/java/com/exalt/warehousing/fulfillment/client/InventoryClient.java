@@ -2,12 +2,17 @@ package com.exalt.warehousing.fulfillment.client;
 
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryAllocationRequest;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryAllocationResponse;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryChangeFeedDTO;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckRequest;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckResponse;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReleaseRequest;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReservationRequest;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReservationResponse;
+import com.exalt.warehousing.fulfillment.dto.inventory.SkuAvailability;
+import com.exalt.warehousing.fulfillment.dto.inventory.WarehouseLocationDTO;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -63,4 +68,28 @@ public interface InventoryClient {
      * @return The inventory allocation response
      */
     InventoryAllocationResponse allocateInventory(InventoryAllocationRequest request);
+
+    /**
+     * Get the unreserved quantity of SKUs at every warehouse that stocks them
+     *
+     * @param skus The SKUs to look up
+     * @return One entry per SKU and warehouse with available stock
+     */
+    List<SkuAvailability> getAvailabilityMatrix(Collection<String> skus);
+
+    /**
+     * Get all active warehouses
+     *
+     * @return The active warehouses with their locations
+     */
+    List<WarehouseLocationDTO> getActiveWarehouses();
+
+    /**
+     * Get a page of the inventory change feed
+     *
+     * @param sinceSequence The sequence to read changes after
+     * @param limit The maximum number of log entries to scan
+     * @return The changes since the given sequence and the cursor for the next page
+     */
+    InventoryChangeFeedDTO getInventoryChanges(long sinceSequence, int limit);
 } 
@@ -0,0 +1,142 @@
+package com.exalt.warehousing.fulfillment.client.impl;
+
+import com.exalt.warehousing.fulfillment.client.AsyncInventoryClient;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckResponse;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReleaseRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReleaseResponse;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReservationRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReservationResponse;
+import com.exalt.warehousing.fulfillment.exception.ServiceIntegrationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Non-blocking implementation of AsyncInventoryClient using the JDK HTTP client.
+ *
+ * Check, reserve and release calls made within a few milliseconds of each
+ * other are coalesced into one request to the matching batch endpoint of the
+ * inventory service, which takes a list of requests and answers with a list
+ * of responses in the same order. All calls share one HTTP/2 client, so
+ * concurrent batches are multiplexed over pooled connections instead of
+ * holding a thread each.
+ */
+@Component
+@Profile("!dev & !test & !local")
+@Slf4j
+public class AsyncInventoryClientImpl implements AsyncInventoryClient {
+
+    private static final String CHECK_BATCH_PATH = "/api/v1/inventory/check/batch";
+    private static final String RESERVE_BATCH_PATH = "/api/v1/inventory/reserve/batch";
+    private static final String RELEASE_BATCH_PATH = "/api/v1/inventory/release/batch";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String inventoryServiceBaseUrl;
+    private final Duration requestTimeout;
+    private final ScheduledExecutorService scheduler;
+
+    private final RequestCoalescer<InventoryCheckRequest, InventoryCheckResponse> checks;
+    private final RequestCoalescer<InventoryReservationRequest, InventoryReservationResponse> reservations;
+    private final RequestCoalescer<InventoryReleaseRequest, InventoryReleaseResponse> releases;
+
+    public AsyncInventoryClientImpl(
+            ObjectMapper objectMapper,
+            @Value("${services.inventory.baseUrl}") String inventoryServiceBaseUrl,
+            @Value("${services.inventory.async.window-millis:5}") long windowMillis,
+            @Value("${services.inventory.async.max-batch-size:100}") int maxBatchSize,
+            @Value("${services.inventory.async.connect-timeout-millis:2000}") long connectTimeoutMillis,
+            @Value("${services.inventory.async.request-timeout-millis:5000}") long requestTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.inventoryServiceBaseUrl = inventoryServiceBaseUrl;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-client-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.checks = new RequestCoalescer<>("inventory check",
+                batch -> post(CHECK_BATCH_PATH, batch, new TypeReference<List<InventoryCheckResponse>>() {}),
+                scheduler, windowMillis, maxBatchSize);
+        this.reservations = new RequestCoalescer<>("inventory reservation",
+                batch -> post(RESERVE_BATCH_PATH, batch, new TypeReference<List<InventoryReservationResponse>>() {}),
+                scheduler, windowMillis, maxBatchSize);
+        this.releases = new RequestCoalescer<>("inventory release",
+                batch -> post(RELEASE_BATCH_PATH, batch, new TypeReference<List<InventoryReleaseResponse>>() {}),
+                scheduler, windowMillis, maxBatchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<InventoryCheckResponse> checkInventoryAvailabilityAsync(InventoryCheckRequest request) {
+        return checks.submit(request);
+    }
+
+    @Override
+    public CompletableFuture<InventoryReservationResponse> reserveInventoryAsync(InventoryReservationRequest request) {
+        return reservations.submit(request);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> releaseInventoryAsync(InventoryReleaseRequest request) {
+        return releases.submit(request).thenApply(result -> result != null && result.isSuccess());
+    }
+
+    private <R> CompletableFuture<List<R>> post(String path, Object body, TypeReference<List<R>> responseType) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new ServiceIntegrationException("Failed to serialize request for " + path, e));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(inventoryServiceBaseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw new ServiceIntegrationException("Inventory service call to " + path + " failed",
+                                error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        throw new ServiceIntegrationException("Inventory service returned HTTP "
+                                + response.statusCode() + " for " + path);
+                    }
+                    try {
+                        return objectMapper.readValue(response.body(), responseType);
+                    } catch (IOException e) {
+                        throw new ServiceIntegrationException("Failed to read inventory service response for " + path, e);
+                    }
+                });
+    }
+}
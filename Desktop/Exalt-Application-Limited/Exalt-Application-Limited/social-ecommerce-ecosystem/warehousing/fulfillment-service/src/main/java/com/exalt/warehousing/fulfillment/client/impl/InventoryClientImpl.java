@@ -3,15 +3,20 @@ package com.exalt.warehousing.fulfillment.client.impl;
 import com.exalt.warehousing.fulfillment.client.InventoryClient;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryAllocationRequest;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryAllocationResponse;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryChangeFeedDTO;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckRequest;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckResponse;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReleaseRequest;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReleaseResponse;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReservationRequest;
 import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReservationResponse;
+import com.exalt.warehousing.fulfillment.dto.inventory.SkuAvailability;
+import com.exalt.warehousing.fulfillment.dto.inventory.WarehouseLocationDTO;
 import com.exalt.warehousing.fulfillment.exception.ServiceIntegrationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -20,12 +25,15 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Implementation of InventoryClient using RestTemplate
  */
 @Component
+@Profile("!dev & !test & !local")
 @Slf4j
 public class InventoryClientImpl implements InventoryClient {
 
@@ -147,4 +155,54 @@ public class InventoryClientImpl implements InventoryClient {
             throw new ServiceIntegrationException("Failed to check warehouse inventory", e);
         }
     }
+
+    @Override
+    public List<SkuAvailability> getAvailabilityMatrix(Collection<String> skus) {
+        log.debug("Getting availability matrix for {} SKUs", skus.size());
+        try {
+            String url = inventoryServiceBaseUrl + "/api/v1/inventory/availability";
+            ResponseEntity<List<SkuAvailability>> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(skus),
+                    new ParameterizedTypeReference<List<SkuAvailability>>() {});
+            return response.getBody() != null ? response.getBody() : List.of();
+        } catch (RestClientException e) {
+            log.error("Error getting availability matrix", e);
+            throw new ServiceIntegrationException("Failed to get availability matrix", e);
+        }
+    }
+
+    @Override
+    public List<WarehouseLocationDTO> getActiveWarehouses() {
+        log.debug("Getting active warehouses");
+        try {
+            String url = inventoryServiceBaseUrl + "/warehouses/active";
+            ResponseEntity<List<WarehouseLocationDTO>> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<List<WarehouseLocationDTO>>() {});
+            return response.getBody() != null ? response.getBody() : List.of();
+        } catch (RestClientException e) {
+            log.error("Error getting active warehouses", e);
+            throw new ServiceIntegrationException("Failed to get active warehouses", e);
+        }
+    }
+
+    @Override
+    public InventoryChangeFeedDTO getInventoryChanges(long sinceSequence, int limit) {
+        log.debug("Getting inventory changes since {}", sinceSequence);
+        try {
+            String url = UriComponentsBuilder.fromUriString(inventoryServiceBaseUrl)
+                    .path("/api/v1/inventory/changes")
+                    .queryParam("since", sinceSequence)
+                    .queryParam("limit", limit)
+                    .toUriString();
+            return restTemplate.getForObject(url, InventoryChangeFeedDTO.class);
+        } catch (RestClientException e) {
+            log.error("Error getting inventory changes", e);
+            throw new ServiceIntegrationException("Failed to get inventory changes", e);
+        }
+    }
 } 
@@ -1,5 +1,6 @@
 package com.exalt.warehousing.fulfillment.client.impl;
 
+import com.exalt.warehousing.fulfillment.client.AsyncInventoryClient;
 import com.exalt.warehousing.fulfillment.client.InventoryClient;
 import com.exalt.warehousing.fulfillment.dto.inventory.*;
 // import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -20,7 +22,7 @@ import java.util.stream.Collectors;
 @Profile({"dev", "test", "local"})
 // @Slf4j
 
-public class MockInventoryClientImpl implements InventoryClient {
+public class MockInventoryClientImpl implements InventoryClient, AsyncInventoryClient {
 
     private static final Logger log = LoggerFactory.getLogger(MockInventoryClientImpl.class);
 
@@ -264,6 +266,21 @@ public class MockInventoryClientImpl implements InventoryClient {
         return false;
     }
 
+    @Override
+    public CompletableFuture<InventoryCheckResponse> checkInventoryAvailabilityAsync(InventoryCheckRequest request) {
+        return CompletableFuture.completedFuture(checkInventoryAvailability(request));
+    }
+
+    @Override
+    public CompletableFuture<InventoryReservationResponse> reserveInventoryAsync(InventoryReservationRequest request) {
+        return CompletableFuture.completedFuture(reserveInventory(request));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> releaseInventoryAsync(InventoryReleaseRequest request) {
+        return CompletableFuture.completedFuture(releaseInventory(request));
+    }
+
     @Override
     public InventoryAllocationResponse allocateInventory(InventoryAllocationRequest request) {
         log.debug("Allocating inventory for order: {}", request.getOrderId());
@@ -369,4 +386,59 @@ public class MockInventoryClientImpl implements InventoryClient {
             INVENTORY.put(productId, productInventory);
         }
     }
-} 
+
+    @Override
+    public List<SkuAvailability> getAvailabilityMatrix(Collection<String> skus) {
+        log.debug("Getting mock availability matrix for {} SKUs", skus.size());
+
+        // Mock inventory is keyed by product, so derive a stable quantity per SKU and warehouse
+        List<SkuAvailability> availability = new ArrayList<>();
+        for (String sku : skus) {
+            for (UUID warehouseId : WAREHOUSES.keySet()) {
+                int quantity = Math.floorMod((sku + warehouseId).hashCode(), 100);
+                if (quantity > 0) {
+                    availability.add(SkuAvailability.builder()
+                            .sku(sku)
+                            .warehouseId(warehouseId)
+                            .availableQuantity(quantity)
+                            .build());
+                }
+            }
+        }
+        return availability;
+    }
+
+    @Override
+    public InventoryChangeFeedDTO getInventoryChanges(long sinceSequence, int limit) {
+        // Mock inventory never changes, so the feed is always caught up
+        return InventoryChangeFeedDTO.builder()
+                .changes(List.of())
+                .nextSequence(sinceSequence)
+                .headSequence(sinceSequence)
+                .hasMore(false)
+                .build();
+    }
+
+    @Override
+    public List<WarehouseLocationDTO> getActiveWarehouses() {
+        return List.of(
+                mockWarehouse("11111111-1111-1111-1111-111111111111", "NY", "10001", 40.7128, -74.0060),
+                mockWarehouse("22222222-2222-2222-2222-222222222222", "CA", "90001", 34.0522, -118.2437),
+                mockWarehouse("33333333-3333-3333-3333-333333333333", "IL", "60601", 41.8781, -87.6298));
+    }
+
+    private WarehouseLocationDTO mockWarehouse(String id, String state, String postalCode,
+                                               double latitude, double longitude) {
+        UUID warehouseId = UUID.fromString(id);
+        return WarehouseLocationDTO.builder()
+                .id(warehouseId)
+                .name(WAREHOUSES.get(warehouseId))
+                .stateProvince(state)
+                .postalCode(postalCode)
+                .country("US")
+                .latitude(latitude)
+                .longitude(longitude)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.exalt.warehousing.fulfillment.client.impl;
+
+import com.exalt.warehousing.fulfillment.exception.ServiceIntegrationException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Collects calls made within a short window and sends them as one bulk call.
+ *
+ * The first call after a flush schedules the next flush one window later;
+ * reaching the maximum batch size flushes at once. The bulk call must answer
+ * with one response per request, in request order.
+ */
+@Slf4j
+class RequestCoalescer<T, R> {
+
+    private final String name;
+    private final Function<List<T>, CompletableFuture<List<R>>> bulkCall;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final int maxBatchSize;
+
+    private final Queue<PendingCall<T, R>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    RequestCoalescer(String name, Function<List<T>, CompletableFuture<List<R>>> bulkCall,
+                     ScheduledExecutorService scheduler, long windowMillis, int maxBatchSize) {
+        this.name = name;
+        this.bulkCall = bulkCall;
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queue a call for the next bulk request
+     * @return completes with this call's response
+     */
+    CompletableFuture<R> submit(T request) {
+        PendingCall<T, R> call = new PendingCall<>(request, new CompletableFuture<>());
+        queue.add(call);
+        if (queued.incrementAndGet() >= maxBatchSize) {
+            scheduler.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return call.response;
+    }
+
+    private void flush() {
+        // Cleared before draining, so a call queued after the drain schedules its own flush
+        flushScheduled.set(false);
+        List<PendingCall<T, R>> batch = new ArrayList<>();
+        PendingCall<T, R> call;
+        while ((call = queue.poll()) != null) {
+            batch.add(call);
+            if (batch.size() == maxBatchSize) {
+                send(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(List<PendingCall<T, R>> batch) {
+        queued.addAndGet(-batch.size());
+        List<T> requests = new ArrayList<>(batch.size());
+        batch.forEach(call -> requests.add(call.request));
+        log.debug("Sending {} {} calls as one bulk request", batch.size(), name);
+
+        CompletableFuture<List<R>> responses;
+        try {
+            responses = bulkCall.apply(requests);
+        } catch (RuntimeException e) {
+            responses = CompletableFuture.failedFuture(e);
+        }
+        responses.whenComplete((results, error) -> {
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            if (error == null && results.size() != batch.size()) {
+                error = new ServiceIntegrationException("Bulk " + name + " returned " + results.size()
+                        + " responses for " + batch.size() + " requests");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (error != null) {
+                    batch.get(i).response.completeExceptionally(error);
+                } else {
+                    batch.get(i).response.complete(results.get(i));
+                }
+            }
+        });
+    }
+
+    private record PendingCall<T, R>(T request, CompletableFuture<R> response) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.exalt.warehousing.fulfillment.config;
+
+import com.exalt.warehousing.fulfillment.packing.CartonType;
+import com.exalt.warehousing.fulfillment.packing.Cartonizer;
+import com.exalt.warehousing.fulfillment.packing.PackItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration for cartonization
+ */
+@Configuration
+public class CartonizationConfig {
+
+    @Value("${fulfillment.packing.cartons:S:25x20x10:5:0.15,M:35x25x15:10:0.25,L:45x35x25:20:0.45,XL:60x40x40:30:0.8}")
+    private List<String> cartons;
+
+    @Value("${fulfillment.packing.dim-weight-divisor:5000}")
+    private double dimWeightDivisor;
+
+    @Value("${fulfillment.packing.default-item-dimensions:10x10x10}")
+    private String defaultItemDimensions;
+
+    @Value("${fulfillment.packing.default-item-weight-kg:0.5}")
+    private double defaultItemWeight;
+
+    /**
+     * Cartonizer over the configured carton catalogue
+     */
+    @Bean
+    public Cartonizer cartonizer() {
+        List<CartonType> catalogue = cartons.stream().map(CartonType::parse).toList();
+        double[] defaultDimensions = PackItem.parseDimensions(defaultItemDimensions);
+        if (defaultDimensions == null) {
+            throw new IllegalArgumentException("Invalid default item dimensions: " + defaultItemDimensions);
+        }
+        return new Cartonizer(catalogue, dimWeightDivisor, defaultDimensions, defaultItemWeight);
+    }
+}
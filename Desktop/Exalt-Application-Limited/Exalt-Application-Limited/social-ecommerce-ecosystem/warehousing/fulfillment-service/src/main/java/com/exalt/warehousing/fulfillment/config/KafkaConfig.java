@@ -10,8 +10,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,6 +33,24 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset:earliest}")
     private String autoOffsetReset;
 
+    @Value("${fulfillment.kafka.reservation.concurrency:3}")
+    private int reservationConcurrency;
+
+    @Value("${fulfillment.kafka.reservation.retry-interval-millis:1000}")
+    private long reservationRetryIntervalMillis;
+
+    @Value("${fulfillment.kafka.reservation.max-retries:3}")
+    private long reservationMaxRetries;
+
+    @Value("${fulfillment.kafka.tracking.concurrency:3}")
+    private int trackingConcurrency;
+
+    @Value("${fulfillment.kafka.tracking.retry-interval-millis:1000}")
+    private long trackingRetryIntervalMillis;
+
+    @Value("${fulfillment.kafka.tracking.max-retries:3}")
+    private long trackingMaxRetries;
+
     /**
      * Kafka producer configuration
      */
@@ -102,7 +122,45 @@ public class KafkaConfig {
         
         return factory;
     }
+
+    /**
+     * Batch listener container factory for inventory reservation events.
+     * Each consumer thread owns a share of the partitions and hands the
+     * records of one poll to the listener as a list; the offsets are
+     * committed once the listener acknowledges the batch. The listener
+     * reports a failure with the index of the failing record, so the handler
+     * commits the records before it, retries from it and, once the retries
+     * are used up, logs and skips that record alone.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> reservationBatchListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(reservationConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new FixedBackOff(reservationRetryIntervalMillis, reservationMaxRetries)));
+        return factory;
+    }
     
+    /**
+     * Batch listener container factory for order tracking events. A failed
+     * batch is retried before its records are logged and skipped; the orders
+     * of a skipped batch are projected again on their next change.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> trackingBatchListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(trackingConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new FixedBackOff(trackingRetryIntervalMillis, trackingMaxRetries)));
+        return factory;
+    }
+
     /**
      * Kafka topics bean to ensure topics are available
      */
@@ -113,6 +171,7 @@ public class KafkaConfig {
         topics.put("shipment-events", "shipment-events");
         topics.put("inventory-events", "inventory-events");
         topics.put("warehouse-events", "warehouse-events");
+        topics.put("order-tracking-events", "order-tracking-events");
         return topics;
     }
 } 
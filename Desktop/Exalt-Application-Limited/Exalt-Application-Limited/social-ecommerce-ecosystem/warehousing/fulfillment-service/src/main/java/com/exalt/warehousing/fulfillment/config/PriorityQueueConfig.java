@@ -0,0 +1,33 @@
+package com.exalt.warehousing.fulfillment.config;
+
+import com.exalt.warehousing.fulfillment.queue.PriorityScorer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the pending order queue
+ */
+@Configuration
+public class PriorityQueueConfig {
+
+    @Value("${fulfillment.queue.priority-lead-minutes:" + PriorityScorer.DEFAULT_PRIORITY_LEADS + "}")
+    private String priorityLeadMinutes;
+
+    @Value("${fulfillment.queue.tier-lead-minutes:" + PriorityScorer.DEFAULT_TIER_LEADS + "}")
+    private String tierLeadMinutes;
+
+    @Value("${fulfillment.queue.carrier-cutoffs:" + PriorityScorer.DEFAULT_CARRIER_CUTOFFS + "}")
+    private String carrierCutoffs;
+
+    @Value("${fulfillment.queue.default-sla-hours:" + PriorityScorer.DEFAULT_SLA_HOURS + "}")
+    private int defaultSlaHours;
+
+    /**
+     * Priority scorer from the configured leads and carrier cutoffs
+     */
+    @Bean
+    public PriorityScorer priorityScorer() {
+        return new PriorityScorer(priorityLeadMinutes, tierLeadMinutes, carrierCutoffs, defaultSlaHours);
+    }
+}
@@ -0,0 +1,33 @@
+package com.exalt.warehousing.fulfillment.config;
+
+import com.exalt.warehousing.fulfillment.wave.WavePlanner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for wave planning
+ */
+@Configuration
+public class WavePlanningConfig {
+
+    @Value("${fulfillment.waves.lines-per-picker:40}")
+    private int linesPerPicker;
+
+    @Value("${fulfillment.waves.max-zones-per-wave:3}")
+    private int maxZonesPerWave;
+
+    @Value("${fulfillment.waves.max-orders-per-wave:200}")
+    private int maxOrdersPerWave;
+
+    @Value("${fulfillment.waves.cutoff-bucket-minutes:60}")
+    private int cutoffBucketMinutes;
+
+    /**
+     * Wave planner sized from the configured picker and wave limits
+     */
+    @Bean
+    public WavePlanner wavePlanner() {
+        return new WavePlanner(linesPerPicker, maxZonesPerWave, maxOrdersPerWave, cutoffBucketMinutes);
+    }
+}
@@ -0,0 +1,31 @@
+package com.exalt.warehousing.fulfillment.controller;
+
+import com.exalt.warehousing.fulfillment.dto.FulfillmentCapacityReport;
+import com.exalt.warehousing.fulfillment.service.WarehouseSourcingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for live warehouse capacity
+ */
+@RestController
+@RequestMapping("/api/v1/fulfillment/capacity")
+@RequiredArgsConstructor
+@Tag(name = "Capacity", description = "Live warehouse capacity used to admit new orders")
+public class CapacityController {
+
+    private final WarehouseSourcingService warehouseSourcingService;
+
+    @GetMapping
+    @Operation(summary = "Get warehouse capacity", description = "Backlog, measured throughput and saturation per active warehouse")
+    @ApiResponse(responseCode = "200", description = "Capacity reported")
+    public ResponseEntity<List<FulfillmentCapacityReport>> getCapacity() {
+        return ResponseEntity.ok(warehouseSourcingService.getCapacityReports());
+    }
+}
@@ -0,0 +1,45 @@
+package com.exalt.warehousing.fulfillment.controller;
+
+import com.exalt.warehousing.fulfillment.dashboard.DashboardBroadcaster;
+import com.exalt.warehousing.fulfillment.dashboard.LiveDashboard;
+import com.exalt.warehousing.fulfillment.dto.FulfillmentDashboard;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * REST controller for the live fulfillment dashboard
+ */
+@RestController
+@RequestMapping("/api/v1/fulfillment/dashboard")
+@RequiredArgsConstructor
+@Tag(name = "Dashboard", description = "Live order counts, backlog, late orders and throughput")
+public class DashboardController {
+
+    private final LiveDashboard liveDashboard;
+    private final DashboardBroadcaster dashboardBroadcaster;
+
+    @GetMapping
+    @Operation(summary = "Get dashboard", description = "Current dashboard of one warehouse, or of all warehouses")
+    @ApiResponse(responseCode = "200", description = "Dashboard returned")
+    public ResponseEntity<FulfillmentDashboard> getDashboard(
+            @Parameter(description = "Warehouse ID, all warehouses if omitted") @RequestParam(required = false) UUID warehouseId) {
+        return ResponseEntity.ok(liveDashboard.snapshot(warehouseId));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dashboard", description = "Server-Sent Events carrying a new dashboard whenever it changes")
+    @ApiResponse(responseCode = "200", description = "Stream opened")
+    public SseEmitter streamDashboard(
+            @Parameter(description = "Warehouse ID, all warehouses if omitted") @RequestParam(required = false) UUID warehouseId) {
+        return dashboardBroadcaster.subscribe(warehouseId);
+    }
+}
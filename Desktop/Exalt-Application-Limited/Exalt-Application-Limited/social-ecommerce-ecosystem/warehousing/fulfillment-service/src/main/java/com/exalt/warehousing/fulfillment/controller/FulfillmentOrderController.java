@@ -1,6 +1,9 @@
 package com.exalt.warehousing.fulfillment.controller;
 
+import com.exalt.warehousing.fulfillment.dto.BatchOperationResult;
+import com.exalt.warehousing.fulfillment.dto.BatchOrderRequest;
 import com.exalt.warehousing.fulfillment.dto.FulfillmentOrderDTO;
+import com.exalt.warehousing.fulfillment.dto.OrderTrackingResponse;
 import com.exalt.warehousing.fulfillment.dto.StatusUpdateDTO;
 import com.exalt.warehousing.fulfillment.dto.WarehouseAssignmentDTO;
 import com.exalt.warehousing.fulfillment.mapper.manual.FulfillmentOrderManualMapper;
@@ -8,6 +11,8 @@ import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
 import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
 import com.exalt.warehousing.fulfillment.enums.ItemFulfillmentStatus;
 import com.exalt.warehousing.fulfillment.service.FulfillmentOrderService;
+import com.exalt.warehousing.fulfillment.service.OrderIngestionService;
+import com.exalt.warehousing.fulfillment.service.OrderTrackingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +39,8 @@ public class FulfillmentOrderController {
 
     private final FulfillmentOrderService fulfillmentOrderService;
     private final FulfillmentOrderManualMapper fulfillmentOrderMapper;
+    private final OrderIngestionService orderIngestionService;
+    private final OrderTrackingService orderTrackingService;
 
     @PostMapping
     @Operation(summary = "Create a new fulfillment order")
@@ -44,13 +51,37 @@ public class FulfillmentOrderController {
         return new ResponseEntity<>(fulfillmentOrderMapper.toDTO(savedOrder), HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create fulfillment orders in bulk, reporting success or failure per order")
+    public ResponseEntity<BatchOperationResult> createFulfillmentOrders(@RequestBody BatchOrderRequest request) {
+        if (request.getOrders() == null || request.getOrders().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<FulfillmentOrder> orders = request.getOrders().stream()
+                .map(fulfillmentOrderMapper::toEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(orderIngestionService.createFulfillmentOrders(orders));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a fulfillment order by ID")
     public ResponseEntity<FulfillmentOrderDTO> getFulfillmentOrder(@PathVariable UUID id) {
-        FulfillmentOrder order = fulfillmentOrderService.getFulfillmentOrder(id.toString());
+        FulfillmentOrder order = fulfillmentOrderService.getFulfillmentOrderIncludingArchived(id.toString());
         return ResponseEntity.ok(fulfillmentOrderMapper.toDTO(order));
     }
 
+    @GetMapping("/{id}/tracking")
+    @Operation(summary = "Get tracking information for a fulfillment order")
+    public ResponseEntity<OrderTrackingResponse> getOrderTracking(@PathVariable UUID id) {
+        return ResponseEntity.ok(orderTrackingService.getOrderTracking(id.toString()));
+    }
+
+    @GetMapping("/tracking/{trackingNumber}")
+    @Operation(summary = "Get tracking information for the order holding a tracking number")
+    public ResponseEntity<OrderTrackingResponse> getOrderTrackingByTrackingNumber(@PathVariable String trackingNumber) {
+        return ResponseEntity.ok(orderTrackingService.getOrderTrackingByTrackingNumber(trackingNumber));
+    }
+
     @GetMapping("/order/{orderId}")
     @Operation(summary = "Get fulfillment orders by order ID")
     public ResponseEntity<List<FulfillmentOrderDTO>> getFulfillmentOrdersByOrderId(@PathVariable UUID orderId) {
@@ -129,6 +160,12 @@ public class FulfillmentOrderController {
         return ResponseEntity.ok(statistics);
     }
 
+    @GetMapping("/statistics/live")
+    @Operation(summary = "Get the current number of orders per status and per warehouse")
+    public ResponseEntity<Map<String, Object>> getLiveOrderCounts() {
+        return ResponseEntity.ok(fulfillmentOrderService.getLiveOrderCounts());
+    }
+
     @PostMapping("/{id}/split")
     @Operation(summary = "Split a fulfillment order into multiple orders for multi-warehouse fulfillment")
     public ResponseEntity<List<FulfillmentOrderDTO>> splitFulfillmentOrder(@PathVariable UUID id) {
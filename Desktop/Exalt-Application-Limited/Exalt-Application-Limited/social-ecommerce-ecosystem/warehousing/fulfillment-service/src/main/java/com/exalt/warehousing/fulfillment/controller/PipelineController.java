@@ -0,0 +1,59 @@
+package com.exalt.warehousing.fulfillment.controller;
+
+import com.exalt.warehousing.fulfillment.dto.StageCheckpointDTO;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStage;
+import com.exalt.warehousing.fulfillment.service.FulfillmentPipelineService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for the asynchronous fulfillment pipeline
+ */
+@RestController
+@RequestMapping("/api/v1/fulfillment/pipeline")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Pipeline", description = "Progress of orders through the automated fulfillment stages")
+public class PipelineController {
+
+    private final FulfillmentPipelineService pipelineService;
+
+    @GetMapping("/orders/{id}")
+    @Operation(summary = "Get pipeline progress", description = "Returns the stage checkpoints of a fulfillment order")
+    @ApiResponse(responseCode = "200", description = "Checkpoints found")
+    public ResponseEntity<List<StageCheckpointDTO>> getCheckpoints(
+            @Parameter(description = "Fulfillment order ID") @PathVariable String id) {
+        return ResponseEntity.ok(pipelineService.getCheckpoints(id));
+    }
+
+    @PostMapping("/orders/{id}")
+    @Operation(summary = "Submit order to pipeline", description = "Queues the stage that starts from the order's current status")
+    @ApiResponse(responseCode = "202", description = "Stage queued")
+    @ApiResponse(responseCode = "204", description = "The order waits for staff or is finished")
+    public ResponseEntity<StageCheckpointDTO> submit(
+            @Parameter(description = "Fulfillment order ID") @PathVariable String id) {
+        return pipelineService.submit(id)
+                .map(checkpoint -> ResponseEntity.accepted().body(checkpoint))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/orders/{id}/stages/{stage}/retry")
+    @Operation(summary = "Retry failed stage", description = "Queues a stage again that failed all its attempts")
+    @ApiResponse(responseCode = "202", description = "Stage queued")
+    @ApiResponse(responseCode = "400", description = "The stage has not failed")
+    @ApiResponse(responseCode = "404", description = "The order never entered the stage")
+    public ResponseEntity<StageCheckpointDTO> retry(
+            @Parameter(description = "Fulfillment order ID") @PathVariable String id,
+            @Parameter(description = "Pipeline stage") @PathVariable FulfillmentStage stage) {
+        log.info("Retrying stage {} of fulfillment order {}", stage, id);
+        return ResponseEntity.accepted().body(pipelineService.retry(id, stage));
+    }
+}
@@ -0,0 +1,55 @@
+package com.exalt.warehousing.fulfillment.controller;
+
+import com.exalt.warehousing.fulfillment.dto.ReassignmentJobDTO;
+import com.exalt.warehousing.fulfillment.service.OrderReassignmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * REST controller for bulk order reassignment jobs
+ */
+@RestController
+@RequestMapping("/api/v1/fulfillment/reassignments")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reassignments", description = "Bulk order reassignment API for warehouse outages and low stock")
+public class ReassignmentController {
+
+    private final OrderReassignmentService orderReassignmentService;
+
+    @PostMapping("/warehouses/{warehouseId}")
+    @Operation(summary = "Reassign warehouse orders", description = "Moves the open orders of an unavailable warehouse, resuming an unfinished run if there is one")
+    @ApiResponse(responseCode = "200", description = "Reassignment finished")
+    public ResponseEntity<ReassignmentJobDTO> reassignFromWarehouse(
+            @Parameter(description = "Warehouse ID") @PathVariable UUID warehouseId) {
+        log.info("Reassigning orders from warehouse {}", warehouseId);
+        return ResponseEntity.ok(orderReassignmentService.reassignFromWarehouse(warehouseId));
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get reassignment job", description = "Returns the progress of a reassignment job")
+    @ApiResponse(responseCode = "200", description = "Job found")
+    @ApiResponse(responseCode = "404", description = "Job not found")
+    public ResponseEntity<ReassignmentJobDTO> getJob(
+            @Parameter(description = "Job ID") @PathVariable UUID jobId) {
+        return ResponseEntity.ok(orderReassignmentService.getJob(jobId));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    @Operation(summary = "Resume reassignment job", description = "Processes the orders a partial or interrupted job still affects")
+    @ApiResponse(responseCode = "200", description = "Job resumed and finished")
+    @ApiResponse(responseCode = "404", description = "Job not found")
+    public ResponseEntity<ReassignmentJobDTO> resume(
+            @Parameter(description = "Job ID") @PathVariable UUID jobId) {
+        log.info("Resuming reassignment job {}", jobId);
+        return ResponseEntity.ok(orderReassignmentService.resume(jobId));
+    }
+}
@@ -6,6 +6,7 @@ import com.exalt.warehousing.fulfillment.dto.StatusUpdateDTO;
 import com.exalt.warehousing.fulfillment.mapper.manual.ShipmentPackageManualMapper;
 import com.exalt.warehousing.fulfillment.entity.ShipmentPackage;
 import com.exalt.warehousing.fulfillment.enums.ShipmentStatus;
+import com.exalt.warehousing.fulfillment.service.OrderTrackingService;
 import com.exalt.warehousing.fulfillment.service.ShipmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -38,6 +39,7 @@ public class ShipmentController {
 
     private final ShipmentService shipmentService;
     private final ShipmentPackageManualMapper shipmentPackageMapper;
+    private final OrderTrackingService orderTrackingService;
 
     @PostMapping
     @Operation(summary = "Create a new shipment for a fulfillment order")
@@ -124,7 +126,6 @@ public class ShipmentController {
     @GetMapping("/tracking/{trackingNumber}")
     @Operation(summary = "Find shipment by tracking number")
     public ResponseEntity<ShipmentPackageDTO> findByTrackingNumber(@PathVariable String trackingNumber) {
-        ShipmentPackage shipment = shipmentService.findByTrackingNumber(trackingNumber);
-        return ResponseEntity.ok(shipmentPackageMapper.toDTO(shipment));
+        return ResponseEntity.ok(orderTrackingService.getShipmentByTrackingNumber(trackingNumber));
     }
 } 
@@ -0,0 +1,48 @@
+package com.exalt.warehousing.fulfillment.controller;
+
+import com.exalt.warehousing.fulfillment.dto.WaveDTO;
+import com.exalt.warehousing.fulfillment.service.WavePlanningService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for wave planning and release
+ */
+@RestController
+@RequestMapping("/api/v1/fulfillment/waves")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Waves", description = "Wave planning API for releasing orders to picking")
+public class WaveController {
+
+    private final WavePlanningService wavePlanningService;
+
+    @GetMapping("/plan")
+    @Operation(summary = "Plan waves", description = "Plans picking waves for a warehouse without releasing them")
+    @ApiResponse(responseCode = "200", description = "Waves planned")
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    public ResponseEntity<List<WaveDTO>> planWaves(
+            @Parameter(description = "Warehouse ID") @RequestParam Long warehouseId,
+            @Parameter(description = "Number of available pickers") @RequestParam int pickers) {
+        return ResponseEntity.ok(wavePlanningService.planWaves(warehouseId, pickers));
+    }
+
+    @PostMapping("/release")
+    @Operation(summary = "Release waves", description = "Plans picking waves and releases as many as the available pickers can take")
+    @ApiResponse(responseCode = "200", description = "Waves released")
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    public ResponseEntity<List<WaveDTO>> releaseWaves(
+            @Parameter(description = "Warehouse ID") @RequestParam Long warehouseId,
+            @Parameter(description = "Number of available pickers") @RequestParam int pickers) {
+        log.info("Releasing waves for warehouse {} with {} pickers", warehouseId, pickers);
+        return ResponseEntity.ok(wavePlanningService.releaseWaves(warehouseId, pickers));
+    }
+}
@@ -0,0 +1,213 @@
+package com.exalt.warehousing.fulfillment.dashboard;
+
+import com.exalt.warehousing.fulfillment.dto.FulfillmentDashboard;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes live dashboard snapshots to subscribed clients as Server-Sent
+ * Events.
+ *
+ * Snapshots are pushed at most once per push interval and only when the
+ * dashboard changed, with a comment sent in between so proxies keep idle
+ * streams open. One snapshot is built per warehouse watched and shared by
+ * every client watching it, so the cost of a push does not grow with the
+ * number of screens.
+ *
+ * Writes to clients run on a fixed pool of sender threads, with at most one
+ * write per client in flight, so a client reading slowly holds up its own
+ * stream only. A client still busy with its previous write skips the push
+ * and gets the latest snapshot once it catches up; a client that skips more
+ * than the allowed number of pushes in a row is dropped, and its stream is
+ * closed once the write it is stuck on ends.
+ */
+@Slf4j
+@Component
+public class DashboardBroadcaster {
+
+    static final String SNAPSHOT_EVENT = "dashboard";
+
+    private final LiveDashboard liveDashboard;
+    private final boolean enabled;
+    private final long pushIntervalMillis;
+    private final long heartbeatMillis;
+    private final long streamTimeoutMillis;
+    private final int maxMissedPushes;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    // Queues at most one write per client
+    private final ThreadPoolExecutor senders;
+
+    public DashboardBroadcaster(LiveDashboard liveDashboard,
+                                @Value("${fulfillment.dashboard.enabled:true}") boolean enabled,
+                                @Value("${fulfillment.dashboard.push-interval-millis:1000}") long pushIntervalMillis,
+                                @Value("${fulfillment.dashboard.heartbeat-seconds:15}") long heartbeatSeconds,
+                                @Value("${fulfillment.dashboard.stream-timeout-minutes:30}") long streamTimeoutMinutes,
+                                @Value("${fulfillment.dashboard.sender-threads:4}") int senderThreads,
+                                @Value("${fulfillment.dashboard.max-missed-pushes:30}") int maxMissedPushes) {
+        this.liveDashboard = liveDashboard;
+        this.enabled = enabled;
+        this.pushIntervalMillis = pushIntervalMillis;
+        this.heartbeatMillis = heartbeatSeconds * 1000;
+        this.streamTimeoutMillis = streamTimeoutMinutes * 60_000;
+        this.maxMissedPushes = maxMissedPushes;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-send");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::push, pushIntervalMillis, pushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        senders.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    /**
+     * Open a stream of dashboard snapshots. The current snapshot is sent
+     * right away; browsers reconnect on their own when the stream times out.
+     * @param warehouseId the warehouse to watch, null for all warehouses
+     * @return the stream
+     */
+    public SseEmitter subscribe(UUID warehouseId) {
+        return subscribe(warehouseId, new SseEmitter(streamTimeoutMillis));
+    }
+
+    SseEmitter subscribe(UUID warehouseId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(warehouseId, emitter);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(error -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        // Sends the first snapshot to the new client; the others are not due
+        scheduler.execute(this::push);
+        return emitter;
+    }
+
+    /**
+     * Get the number of open streams
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    synchronized void push() {
+        try {
+            long now = System.currentTimeMillis();
+            long version = liveDashboard.getVersion();
+            Map<UUID, FulfillmentDashboard> snapshots = new HashMap<>();
+            for (Subscription subscription : subscriptions) {
+                boolean changed = subscription.pushedVersion != version;
+                if (!changed && now - subscription.pushedAt < heartbeatMillis) {
+                    continue;
+                }
+                FulfillmentDashboard snapshot = changed
+                        ? snapshots.computeIfAbsent(subscription.warehouseId, liveDashboard::snapshot)
+                        : null;
+                if (deliver(subscription, snapshot)) {
+                    subscription.pushedVersion = version;
+                    subscription.pushedAt = now;
+                    subscription.missedPushes = 0;
+                } else if (++subscription.missedPushes > maxMissedPushes) {
+                    drop(subscription);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Dashboard push failed: {}", e.getMessage());
+        }
+    }
+
+    // Returns false if the client's previous write has not finished
+    private boolean deliver(Subscription subscription, FulfillmentDashboard snapshot) {
+        if (!subscription.sending.compareAndSet(false, true)) {
+            return false;
+        }
+        senders.execute(() -> {
+            try {
+                if (!subscription.dropped) {
+                    send(subscription, snapshot);
+                }
+            } finally {
+                subscription.sending.set(false);
+                if (subscription.dropped) {
+                    subscription.emitter.complete();
+                }
+            }
+        });
+        return true;
+    }
+
+    // The stream is closed by the write in flight when it ends, never on the push thread
+    private void drop(Subscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.dropped = true;
+        log.info("Dropped a dashboard stream that missed {} pushes", subscription.missedPushes);
+        if (subscription.sending.compareAndSet(false, true)) {
+            senders.execute(subscription.emitter::complete);
+        }
+    }
+
+    // Sends a snapshot, or a keep-alive comment for null; drops clients that went away
+    private void send(Subscription subscription, FulfillmentDashboard snapshot) {
+        try {
+            subscription.emitter.send(snapshot != null
+                    ? SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot)
+                    : SseEmitter.event().comment("keep-alive"));
+        } catch (IOException | IllegalStateException e) {
+            subscriptions.remove(subscription);
+            subscription.emitter.completeWithError(e);
+        }
+    }
+
+    private static final class Subscription {
+
+        private final UUID warehouseId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean dropped;
+
+        // Changed by pushes only
+        private long pushedVersion = -1;
+        private long pushedAt;
+        private int missedPushes;
+
+        private Subscription(UUID warehouseId, SseEmitter emitter) {
+            this.warehouseId = warehouseId;
+            this.emitter = emitter;
+        }
+    }
+}
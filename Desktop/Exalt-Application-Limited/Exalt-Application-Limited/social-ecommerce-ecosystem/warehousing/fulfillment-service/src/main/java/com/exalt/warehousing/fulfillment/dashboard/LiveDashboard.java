@@ -0,0 +1,456 @@
+package com.exalt.warehousing.fulfillment.dashboard;
+
+import com.exalt.warehousing.fulfillment.dto.FulfillmentDashboard;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.event.OrderChangedEvent;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fulfillment dashboard counters kept in memory and updated as orders
+ * change, so dashboards are served without aggregating the order tables.
+ *
+ * Open orders are tracked one by one, which lets every change be applied as
+ * a delta: the order leaves the counts of its previous status, warehouse and
+ * ship-by time and enters the new ones. Orders that finish move to the
+ * finished counts and, if shipped, to the per-minute throughput. Finished
+ * orders are not tracked; their counts are read from the live order counters
+ * the database maintains and corrected on every counter refresh.
+ *
+ * Changes made on this instance are applied right after they commit. Changes
+ * from bulk updates and other instances are picked up by polling for orders
+ * whose updated_at moved, as the active order index does, and the open
+ * orders are reloaded in full on a long interval. Every applied change
+ * advances a version, which tells pushers when a new snapshot is worth
+ * sending.
+ */
+@Slf4j
+@Component
+public class LiveDashboard {
+
+    private final FulfillmentOrderRepository fulfillmentOrderRepository;
+    private final boolean enabled;
+    private final long pollIntervalMillis;
+    private final long overlapSeconds;
+    private final long rebuildIntervalMillis;
+    private final long counterRefreshMillis;
+    private final int throughputWindowMinutes;
+    private final int pageSize;
+
+    private final Set<String> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshRequested = new AtomicBoolean();
+    private final AtomicLong version = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+
+    // Changed by the sync thread only, and read under the lock by snapshots
+    private Map<String, OrderState> openOrders = new HashMap<>();
+    private Map<Long, Map<FulfillmentStatus, Long>> openByWarehouse = new HashMap<>();
+    private Map<Long, NavigableMap<LocalDateTime, Long>> shipByByWarehouse = new HashMap<>();
+    private Map<Long, Map<FulfillmentStatus, Long>> finishedByWarehouse = new HashMap<>();
+    private final Map<Long, long[]> shippedByMinute = new HashMap<>();
+    private final Map<Long, long[]> receivedByMinute = new HashMap<>();
+
+    private LocalDateTime changedSince;
+    private volatile long builtAt;
+    private long countersReadAt;
+
+    public LiveDashboard(FulfillmentOrderRepository fulfillmentOrderRepository,
+                         @Value("${fulfillment.dashboard.enabled:true}") boolean enabled,
+                         @Value("${fulfillment.dashboard.poll-interval-millis:2000}") long pollIntervalMillis,
+                         @Value("${fulfillment.dashboard.overlap-seconds:60}") long overlapSeconds,
+                         @Value("${fulfillment.dashboard.rebuild-interval-minutes:60}") long rebuildIntervalMinutes,
+                         @Value("${fulfillment.dashboard.counter-refresh-seconds:30}") long counterRefreshSeconds,
+                         @Value("${fulfillment.dashboard.throughput-window-minutes:15}") int throughputWindowMinutes,
+                         @Value("${fulfillment.dashboard.page-size:1000}") int pageSize) {
+        this.fulfillmentOrderRepository = fulfillmentOrderRepository;
+        this.enabled = enabled;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.overlapSeconds = overlapSeconds;
+        this.rebuildIntervalMillis = rebuildIntervalMinutes * 60_000;
+        this.counterRefreshMillis = counterRefreshSeconds * 1000;
+        this.throughputWindowMinutes = throughputWindowMinutes;
+        this.pageSize = pageSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-dashboard");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::sync, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Check whether the open orders have been loaded
+     * @return true if snapshots reflect the orders
+     */
+    public boolean isReady() {
+        return enabled && builtAt > 0;
+    }
+
+    /**
+     * Get the number of changes applied so far; a snapshot taken at a higher
+     * version differs from one taken at a lower version
+     * @return the version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Build the dashboard of all warehouses
+     * @return the dashboard
+     */
+    public FulfillmentDashboard snapshot() {
+        return snapshot(null);
+    }
+
+    /**
+     * Build the dashboard of one warehouse, or of all warehouses
+     * @param warehouseId the warehouse ID, null for all warehouses
+     * @return the dashboard
+     */
+    public synchronized FulfillmentDashboard snapshot(UUID warehouseId) {
+        LocalDateTime now = LocalDateTime.now();
+        Long warehouseKey = warehouseId != null ? toWarehouseKey(warehouseId) : null;
+
+        Map<FulfillmentStatus, Long> open = new EnumMap<>(FulfillmentStatus.class);
+        Map<FulfillmentStatus, Long> finished = new EnumMap<>(FulfillmentStatus.class);
+        Map<Long, Integer> backlogByWarehouse = new TreeMap<>();
+        long late = 0;
+        for (Map.Entry<Long, Map<FulfillmentStatus, Long>> warehouse : openByWarehouse.entrySet()) {
+            if (warehouseKey == null || warehouseKey.equals(warehouse.getKey())) {
+                warehouse.getValue().forEach((status, count) -> open.merge(status, count, Long::sum));
+                if (warehouse.getKey() != null) {
+                    backlogByWarehouse.put(warehouse.getKey(),
+                            (int) warehouse.getValue().values().stream().mapToLong(Long::longValue).sum());
+                }
+            }
+        }
+        for (Map.Entry<Long, NavigableMap<LocalDateTime, Long>> warehouse : shipByByWarehouse.entrySet()) {
+            if (warehouseKey == null || warehouseKey.equals(warehouse.getKey())) {
+                late += warehouse.getValue().headMap(now, false).values().stream().mapToLong(Long::longValue).sum();
+            }
+        }
+        for (Map.Entry<Long, Map<FulfillmentStatus, Long>> warehouse : finishedByWarehouse.entrySet()) {
+            if (warehouseKey == null || warehouseKey.equals(warehouse.getKey())) {
+                warehouse.getValue().forEach((status, count) -> finished.merge(status, count, Long::sum));
+            }
+        }
+
+        Map<String, Integer> ordersByStatus = new LinkedHashMap<>();
+        long pending = 0;
+        long inProgress = 0;
+        long completed = 0;
+        for (FulfillmentStatus status : FulfillmentStatus.values()) {
+            long count = open.getOrDefault(status, 0L) + finished.getOrDefault(status, 0L);
+            if (count != 0) {
+                ordersByStatus.put(status.name(), (int) count);
+            }
+            if (status.isCompleted()) {
+                completed += count;
+            } else if (status.isInProgress()) {
+                inProgress += count;
+            } else if (!status.isTerminal()) {
+                pending += count;
+            }
+        }
+
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        long minute = toMinute(now);
+        metrics.put("shippedPerMinute",
+                (double) countSince(shippedByMinute, warehouseKey, minute - throughputWindowMinutes) / throughputWindowMinutes);
+        metrics.put("receivedPerMinute",
+                (double) countSince(receivedByMinute, warehouseKey, minute - throughputWindowMinutes) / throughputWindowMinutes);
+        metrics.put("lateOrders", (double) late);
+
+        return FulfillmentDashboard.builder()
+                .warehouseId(warehouseId)
+                .reportTimestamp(now)
+                .ordersByStatus(ordersByStatus)
+                .backlogByWarehouse(backlogByWarehouse)
+                .fulfillmentMetrics(metrics)
+                .totalOrdersPending((int) pending)
+                .totalOrdersInProgress((int) inProgress)
+                .totalOrdersCompleted((int) completed)
+                .totalOrdersDelayed((int) late)
+                .build();
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        requestRefresh(event.orderIds());
+    }
+
+    /**
+     * Reload orders from the database on the sync thread as soon as possible.
+     * Orders requested while a reload is pending are reloaded together.
+     * @param orderIds the IDs of orders that changed
+     */
+    public void requestRefresh(Collection<String> orderIds) {
+        if (!enabled || orderIds.isEmpty()) {
+            return;
+        }
+        pendingRefresh.addAll(orderIds);
+        if (refreshRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                refreshRequested.set(false);
+                List<String> ids = new ArrayList<>(pendingRefresh);
+                pendingRefresh.removeAll(ids);
+                try {
+                    refresh(ids);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to refresh {} orders on the live dashboard: {}", ids.size(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Reload the open orders when due, otherwise apply the orders that
+     * changed since the last poll; read the finished counts when due
+     */
+    void sync() {
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusSeconds(overlapSeconds);
+        try {
+            if (builtAt == 0 || startedAt - builtAt >= rebuildIntervalMillis) {
+                rebuild();
+                builtAt = startedAt;
+            } else {
+                refresh(fulfillmentOrderRepository.findIdsChangedSince(changedSince));
+            }
+            changedSince = since;
+        } catch (RuntimeException e) {
+            log.warn("Failed to update the live dashboard: {}", e.getMessage());
+        }
+        if (startedAt - countersReadAt >= counterRefreshMillis) {
+            try {
+                readFinishedCounts();
+            } catch (RuntimeException e) {
+                log.warn("Could not read the finished order counts, keeping the last ones: {}", e.getMessage());
+            }
+            countersReadAt = startedAt;
+        }
+    }
+
+    private void rebuild() {
+        Map<String, OrderState> loaded = new HashMap<>();
+        String afterId = "";
+        List<String> ids;
+        do {
+            ids = fulfillmentOrderRepository.findActiveOrderIdsAfter(afterId, PageRequest.of(0, pageSize));
+            for (OrderState state : loadStates(ids).values()) {
+                if (!state.status().isTerminal()) {
+                    loaded.put(state.orderId(), state);
+                }
+            }
+            if (!ids.isEmpty()) {
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == pageSize);
+
+        synchronized (this) {
+            openOrders = new HashMap<>();
+            openByWarehouse = new HashMap<>();
+            shipByByWarehouse = new HashMap<>();
+            loaded.values().forEach(this::add);
+            version.incrementAndGet();
+        }
+        log.info("Live dashboard loaded with {} open orders", openOrders.size());
+    }
+
+    void refresh(Collection<String> orderIds) {
+        List<String> ids = new ArrayList<>(new HashSet<>(orderIds));
+        for (int from = 0; from < ids.size(); from += pageSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + pageSize, ids.size()));
+            Map<String, OrderState> states = loadStates(chunk);
+            long minute = toMinute(LocalDateTime.now());
+            synchronized (this) {
+                boolean changed = false;
+                for (String orderId : chunk) {
+                    changed |= apply(orderId, states.get(orderId), minute);
+                }
+                if (changed) {
+                    version.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    // Returns true if the order changed anything the dashboard counts
+    private boolean apply(String orderId, OrderState current, long minute) {
+        OrderState previous = openOrders.get(orderId);
+        if (current != null && current.equals(previous)) {
+            return false;
+        }
+        if (previous != null) {
+            remove(previous);
+        }
+        if (current == null) {
+            // Deleted or archived while open
+            return previous != null;
+        }
+        if (!current.status().isTerminal()) {
+            add(current);
+            if (previous == null) {
+                count(receivedByMinute, current.warehouseId(), minute);
+            }
+            return true;
+        }
+        if (previous == null) {
+            // Finished orders changing again are left to the counter refresh
+            return false;
+        }
+        finishedByWarehouse.computeIfAbsent(current.warehouseId(), id -> new EnumMap<>(FulfillmentStatus.class))
+                .merge(current.status(), 1L, Long::sum);
+        if (current.status().isCompleted()) {
+            count(shippedByMinute, current.warehouseId(), minute);
+        }
+        return true;
+    }
+
+    private void add(OrderState state) {
+        openOrders.put(state.orderId(), state);
+        openByWarehouse.computeIfAbsent(state.warehouseId(), id -> new EnumMap<>(FulfillmentStatus.class))
+                .merge(state.status(), 1L, Long::sum);
+        if (state.shipBy() != null) {
+            shipByByWarehouse.computeIfAbsent(state.warehouseId(), id -> new TreeMap<>())
+                    .merge(state.shipBy(), 1L, Long::sum);
+        }
+    }
+
+    private void remove(OrderState state) {
+        openOrders.remove(state.orderId());
+        openByWarehouse.computeIfPresent(state.warehouseId(), (id, counts) -> {
+            counts.computeIfPresent(state.status(), (status, count) -> count > 1 ? count - 1 : null);
+            return counts.isEmpty() ? null : counts;
+        });
+        if (state.shipBy() != null) {
+            shipByByWarehouse.computeIfPresent(state.warehouseId(), (id, counts) -> {
+                counts.computeIfPresent(state.shipBy(), (shipBy, count) -> count > 1 ? count - 1 : null);
+                return counts.isEmpty() ? null : counts;
+            });
+        }
+    }
+
+    private void readFinishedCounts() {
+        Map<Long, Map<FulfillmentStatus, Long>> finished = new HashMap<>();
+        Map<FulfillmentStatus, Long> assigned = new EnumMap<>(FulfillmentStatus.class);
+        for (Object[] row : fulfillmentOrderRepository.sumOrderCountersByWarehouseAndStatus()) {
+            FulfillmentStatus status = FulfillmentStatus.valueOf((String) row[1]);
+            if (status.isTerminal()) {
+                long count = ((Number) row[2]).longValue();
+                finished.computeIfAbsent(((Number) row[0]).longValue(), id -> new EnumMap<>(FulfillmentStatus.class))
+                        .put(status, count);
+                assigned.merge(status, count, Long::sum);
+            }
+        }
+        // Orders without a warehouse are only in the per-status totals
+        for (Object[] row : fulfillmentOrderRepository.sumOrderCountersByStatus()) {
+            FulfillmentStatus status = FulfillmentStatus.valueOf((String) row[0]);
+            long unassigned = ((Number) row[1]).longValue() - assigned.getOrDefault(status, 0L);
+            if (status.isTerminal() && unassigned != 0) {
+                finished.computeIfAbsent(null, id -> new EnumMap<>(FulfillmentStatus.class)).put(status, unassigned);
+            }
+        }
+        synchronized (this) {
+            finishedByWarehouse = finished;
+            version.incrementAndGet();
+        }
+    }
+
+    private Map<String, OrderState> loadStates(Collection<String> orderIds) {
+        Map<String, OrderState> states = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return states;
+        }
+        for (Object[] row : fulfillmentOrderRepository.summarizeOrderStatesByIdIn(orderIds)) {
+            FulfillmentStatus status = (FulfillmentStatus) row[1];
+            if (status != null) {
+                String orderId = String.valueOf(row[0]);
+                // Orders are late once past their SLA deadline, or their due date without one
+                LocalDateTime shipBy = row[3] != null ? (LocalDateTime) row[3] : (LocalDateTime) row[4];
+                states.put(orderId, new OrderState(orderId, status, (Long) row[2], shipBy));
+            }
+        }
+        return states;
+    }
+
+    private void count(Map<Long, long[]> byMinute, Long warehouseId, long minute) {
+        // One slot per minute of the window, each holding the minute it counts and the count
+        long[] slots = byMinute.computeIfAbsent(warehouseId, id -> new long[throughputWindowMinutes * 2]);
+        int slot = (int) (minute % throughputWindowMinutes) * 2;
+        if (slots[slot] != minute) {
+            slots[slot] = minute;
+            slots[slot + 1] = 0;
+        }
+        slots[slot + 1]++;
+    }
+
+    private long countSince(Map<Long, long[]> byMinute, Long warehouseKey, long fromMinute) {
+        long total = 0;
+        for (Map.Entry<Long, long[]> warehouse : byMinute.entrySet()) {
+            if (warehouseKey != null && !warehouseKey.equals(warehouse.getKey())) {
+                continue;
+            }
+            long[] slots = warehouse.getValue();
+            for (int slot = 0; slot < slots.length; slot += 2) {
+                if (slots[slot] > fromMinute) {
+                    total += slots[slot + 1];
+                }
+            }
+        }
+        return total;
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static Long toWarehouseKey(UUID warehouseId) {
+        return warehouseId.getMostSignificantBits() & Long.MAX_VALUE;
+    }
+
+    /**
+     * What the dashboard counts of one open order
+     */
+    record OrderState(String orderId, FulfillmentStatus status, Long warehouseId, LocalDateTime shipBy) {
+    }
+}
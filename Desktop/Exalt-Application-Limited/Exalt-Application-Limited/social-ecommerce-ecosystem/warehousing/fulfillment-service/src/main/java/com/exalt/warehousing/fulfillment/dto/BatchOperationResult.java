@@ -1,10 +1,13 @@
 package com.exalt.warehousing.fulfillment.dto;
 
+import com.exalt.warehousing.fulfillment.enums.InventoryStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,5 +17,22 @@ public class BatchOperationResult {
     private Integer failed;
     private String status;
     private String details;
+    private List<OrderResult> results;
+
+    /**
+     * Outcome for one order of a batch
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderResult {
+        private int index;
+        private String externalOrderId;
+        private String fulfillmentOrderId;
+        private boolean success;
+        private InventoryStatus inventoryStatus;
+        private String error;
+    }
 }
-
+
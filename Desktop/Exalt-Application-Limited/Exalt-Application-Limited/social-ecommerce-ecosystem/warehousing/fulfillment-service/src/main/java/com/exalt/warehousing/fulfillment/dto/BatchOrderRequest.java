@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,5 +15,6 @@ public class BatchOrderRequest {
     private String operation;
     private String[] orderIds;
     private String parameters;
+    private List<FulfillmentOrderDTO> orders;
 }
-
+
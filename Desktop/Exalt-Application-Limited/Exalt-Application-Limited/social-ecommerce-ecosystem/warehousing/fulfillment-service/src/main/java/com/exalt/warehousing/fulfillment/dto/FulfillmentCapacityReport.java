@@ -30,4 +30,9 @@ public class FulfillmentCapacityReport {
     private Map<String, Double> utilizationByDepartment;
     private List<Map<String, Object>> capacityForecast;
     private Map<String, Object> bottlenecks;
+    // Live model: orders not yet through each stage and orders completing it per hour
+    private Map<String, Long> backlogByStage;
+    private Map<String, Double> throughputPerHourByStage;
+    private Double projectedDrainHours;
+    private boolean saturated;
 }
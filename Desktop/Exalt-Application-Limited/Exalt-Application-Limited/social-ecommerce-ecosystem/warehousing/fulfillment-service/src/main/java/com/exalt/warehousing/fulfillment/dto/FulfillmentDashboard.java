@@ -21,6 +21,7 @@ public class FulfillmentDashboard {
     private UUID warehouseId;
     private LocalDateTime reportTimestamp;
     private Map<String, Integer> ordersByStatus;
+    private Map<Long, Integer> backlogByWarehouse;
     private Map<String, Integer> shipmentsByStatus;
     private Map<String, Integer> tasksByStatus;
     private Map<String, Double> fulfillmentMetrics;
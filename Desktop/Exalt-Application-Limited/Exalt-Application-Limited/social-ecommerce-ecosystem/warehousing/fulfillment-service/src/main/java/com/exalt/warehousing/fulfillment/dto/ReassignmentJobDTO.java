@@ -0,0 +1,34 @@
+package com.exalt.warehousing.fulfillment.dto;
+
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobStatus;
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for the progress of a bulk order reassignment
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReassignmentJobDTO {
+    private UUID id;
+    private ReassignmentJobType jobType;
+    private UUID warehouseId;
+    private String sku;
+    private ReassignmentJobStatus status;
+    private int totalOrders;
+    private int processedOrders;
+    private int reassignedOrders;
+    private int heldOrders;
+    private int failedChunks;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
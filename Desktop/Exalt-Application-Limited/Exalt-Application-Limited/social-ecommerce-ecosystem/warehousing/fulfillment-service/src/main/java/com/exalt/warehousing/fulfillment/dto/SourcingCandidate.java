@@ -0,0 +1,28 @@
+package com.exalt.warehousing.fulfillment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO for a warehouse able to fill an order, with the factors it was ranked on
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SourcingCandidate {
+    private UUID warehouseId;
+    private String warehouseName;
+    private double distanceKm;
+    private long backlog;
+    // Hours to clear the backlog with this order added, null if throughput is not measured
+    private Double drainHours;
+    private boolean saturated;
+    private BigDecimal shippingCost;
+    private double score;
+}
@@ -0,0 +1,22 @@
+package com.exalt.warehousing.fulfillment.dto;
+
+import com.exalt.warehousing.fulfillment.entity.Address;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO for one order's demand in a bulk sourcing decision
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SourcingRequest {
+    private String orderId;
+    private Map<String, Integer> demand;
+    private Address destination;
+}
@@ -0,0 +1,22 @@
+package com.exalt.warehousing.fulfillment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the warehouses an order is split across, cheapest shipment first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SplitPlan {
+    private List<SplitShipment> shipments;
+
+    // False when the search hit its time or node budget and the plan is the best found so far
+    private boolean optimal;
+}
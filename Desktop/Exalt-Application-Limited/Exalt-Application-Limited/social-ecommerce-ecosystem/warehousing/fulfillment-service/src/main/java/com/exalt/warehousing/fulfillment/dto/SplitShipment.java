@@ -0,0 +1,24 @@
+package com.exalt.warehousing.fulfillment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * DTO for the part of a split order shipped from one warehouse
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SplitShipment {
+    private UUID warehouseId;
+    private String warehouseName;
+    private Map<String, Integer> quantities;
+    private BigDecimal shippingCost;
+}
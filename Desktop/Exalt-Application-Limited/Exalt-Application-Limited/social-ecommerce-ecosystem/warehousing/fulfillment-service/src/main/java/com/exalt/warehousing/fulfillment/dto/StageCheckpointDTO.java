@@ -0,0 +1,28 @@
+package com.exalt.warehousing.fulfillment.dto;
+
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStage;
+import com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the progress of an order through one fulfillment pipeline stage
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageCheckpointDTO {
+    private String fulfillmentOrderId;
+    private FulfillmentStage stage;
+    private StageCheckpointStatus status;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
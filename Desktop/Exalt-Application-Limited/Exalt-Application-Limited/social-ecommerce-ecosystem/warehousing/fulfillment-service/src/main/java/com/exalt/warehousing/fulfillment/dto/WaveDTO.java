@@ -0,0 +1,31 @@
+package com.exalt.warehousing.fulfillment.dto;
+
+import com.exalt.warehousing.fulfillment.enums.Priority;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DTO for a planned or released picking wave
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaveDTO {
+    private String waveId;
+    private Long warehouseId;
+    private String carrier;
+    private LocalDateTime cutoff;
+    private Priority priority;
+    private List<String> orderIds;
+    private Set<String> zones;
+    private int orderCount;
+    private int lineCount;
+    private long unitCount;
+}
@@ -0,0 +1,36 @@
+package com.exalt.warehousing.fulfillment.dto.inventory;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for one compacted change from the inventory service change feed.
+ * Upserts carry the current state of the record, deletions only its ID.
+ * Allocation upserts also carry the SKU of the item they belong to.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class InventoryChangeDTO {
+
+    public static final String ITEM = "ITEM";
+    public static final String ALLOCATION = "ALLOCATION";
+    public static final String DELETE = "DELETE";
+
+    private Long sequence;
+    private String entityType;
+    private String changeType;
+    private String entityId;
+    private String inventoryItemId;
+    private String sku;
+    private String warehouseId;
+    private BigDecimal availableQuantity;
+    private Boolean isActive;
+}
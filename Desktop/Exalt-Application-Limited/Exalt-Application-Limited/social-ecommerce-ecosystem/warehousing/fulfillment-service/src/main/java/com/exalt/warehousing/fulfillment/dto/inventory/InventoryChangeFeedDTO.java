@@ -0,0 +1,25 @@
+package com.exalt.warehousing.fulfillment.dto.inventory;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the inventory service change feed. The next page is
+ * requested with {@code nextSequence} while {@code hasMore} is true.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class InventoryChangeFeedDTO {
+    private List<InventoryChangeDTO> changes;
+    private Long nextSequence;
+    private Long headSequence;
+    private Boolean hasMore;
+}
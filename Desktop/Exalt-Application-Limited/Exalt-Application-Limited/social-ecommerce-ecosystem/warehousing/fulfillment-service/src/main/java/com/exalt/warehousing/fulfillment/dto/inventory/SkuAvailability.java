@@ -0,0 +1,34 @@
+package com.exalt.warehousing.fulfillment.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for the unreserved quantity of a SKU at one warehouse, as reported by
+ * the inventory service availability matrix
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkuAvailability {
+
+    /**
+     * SKU (Stock Keeping Unit)
+     */
+    private String sku;
+
+    /**
+     * Warehouse holding the stock
+     */
+    private UUID warehouseId;
+
+    /**
+     * Quantity not yet reserved
+     */
+    private Integer availableQuantity;
+}
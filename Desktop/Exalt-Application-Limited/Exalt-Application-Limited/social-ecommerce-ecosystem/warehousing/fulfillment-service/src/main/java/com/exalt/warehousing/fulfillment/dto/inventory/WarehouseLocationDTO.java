@@ -0,0 +1,28 @@
+package com.exalt.warehousing.fulfillment.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for the warehouse location fields used when sourcing orders
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseLocationDTO {
+    private UUID id;
+    private String name;
+    private String code;
+    private String city;
+    private String stateProvince;
+    private String postalCode;
+    private String country;
+    private Double latitude;
+    private Double longitude;
+    private Boolean isActive;
+}
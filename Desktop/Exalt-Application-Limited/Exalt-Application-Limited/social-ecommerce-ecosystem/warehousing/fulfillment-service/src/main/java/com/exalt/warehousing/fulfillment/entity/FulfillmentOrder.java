@@ -6,14 +6,22 @@ import com.exalt.warehousing.fulfillment.enums.Priority;
 import com.exalt.warehousing.fulfillment.enums.InventoryStatus;
 import com.exalt.warehousing.shared.common.BaseEntity;
 import com.exalt.warehousing.fulfillment.event.FulfillmentEvent;
+import com.exalt.warehousing.fulfillment.event.OrderChangeListener;
+import com.exalt.warehousing.fulfillment.queue.PriorityScoreListener;
+import com.exalt.warehousing.fulfillment.util.JsonAttributeMap;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -31,19 +39,24 @@ import java.util.UUID;
 @Entity
 @Table(name = "fulfillment_orders", indexes = {
     @Index(name = "idx_fulfillment_order_external_id", columnList = "external_order_id"),
+    @Index(name = "idx_fulfillment_order_parent_external_id", columnList = "parent_external_order_id"),
     @Index(name = "idx_fulfillment_order_status", columnList = "status"),
     @Index(name = "idx_fulfillment_order_warehouse", columnList = "warehouse_id"),
     @Index(name = "idx_fulfillment_order_priority", columnList = "priority"),
     @Index(name = "idx_fulfillment_order_created", columnList = "created_at"),
     @Index(name = "idx_fulfillment_order_customer", columnList = "customer_id"),
-    @Index(name = "idx_fulfillment_order_type", columnList = "fulfillment_type")
+    @Index(name = "idx_fulfillment_order_type", columnList = "fulfillment_type"),
+    @Index(name = "idx_fulfillment_order_queue", columnList = "status, priority_score, created_at"),
+    @Index(name = "idx_fulfillment_order_updated", columnList = "updated_at"),
+    @Index(name = "idx_fulfillment_order_shipped", columnList = "shipped_at")
 })
+@EntityListeners({PriorityScoreListener.class, OrderChangeListener.class})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-@ToString(exclude = {"orderItems", "events"})
+@ToString(exclude = {"orderItems", "events", "tags", "customAttributes"})
 public class FulfillmentOrder extends BaseEntity {
 
     // Order Identification
@@ -57,6 +70,11 @@ public class FulfillmentOrder extends BaseEntity {
     @Size(max = 100, message = "External order ID must not exceed 100 characters")
     private String externalOrderId;
 
+    // Set on orders split off another order: the external order ID they were split from
+    @Column(name = "parent_external_order_id", length = 100)
+    @Size(max = 100, message = "Parent external order ID must not exceed 100 characters")
+    private String parentExternalOrderId;
+
     @Column(name = "order_date", nullable = false)
     @NotNull(message = "Order date is required")
     private LocalDateTime orderDate;
@@ -95,10 +113,9 @@ public class FulfillmentOrder extends BaseEntity {
     @Builder.Default
     private Priority priority = Priority.STANDARD;
 
+    // Queue position while pending, lower is served first; see PriorityScorer
     @Column(name = "priority_score")
-    @Min(value = 0, message = "Priority score must be non-negative")
-    @Max(value = 1000, message = "Priority score must not exceed 1000")
-    private Integer priorityScore;
+    private Long priorityScore;
 
     // Order Status
     @Column(name = "status", nullable = false, length = 30)
@@ -368,13 +385,28 @@ public class FulfillmentOrder extends BaseEntity {
     @Size(max = 50, message = "Source channel must not exceed 50 characters")
     private String sourceChannel;
 
-    @Column(name = "tags", columnDefinition = "JSON")
-    @Convert(converter = JsonAttributeConverter.class)
-    private Map<String, String> tags;
-
-    @Column(name = "custom_attributes", columnDefinition = "JSON")
-    @Convert(converter = JsonAttributeConverter.class)
-    private Map<String, Object> customAttributes;
+    // Stored as raw JSON and exposed through getTags and getCustomAttributes
+    @Column(name = "tags")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String tagsJson;
+
+    @Column(name = "custom_attributes")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String customAttributesJson;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient JsonAttributeMap<String> tags;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient JsonAttributeMap<Object> customAttributes;
 
     // Relationships
     @OneToMany(mappedBy = "fulfillmentOrder", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
@@ -501,6 +533,11 @@ public class FulfillmentOrder extends BaseEntity {
         return orderNumber;
     }
     
+    // External order ID the order system knows this order by; orders split off another share its ID
+    public String getOriginalExternalOrderId() {
+        return parentExternalOrderId != null ? parentExternalOrderId : externalOrderId;
+    }
+    
     public void setShippedAt(LocalDateTime shippedAt) {
         this.shippedAt = shippedAt;
     }
@@ -620,23 +657,42 @@ public class FulfillmentOrder extends BaseEntity {
                 .mapToInt(item -> item.getQuantity() != null ? item.getQuantity() : 0)
                 .sum();
     }
-}
 
-/**
- * JSON Attribute Converter for Map storage
- */
-@Converter
-class JsonAttributeConverter implements AttributeConverter<Map<String, Object>, String> {
-    // Implementation would go here - using Jackson or similar
-    @Override
-    public String convertToDatabaseColumn(Map<String, Object> attribute) {
-        // Convert Map to JSON string
-        return "{}"; // Placeholder
-    }
-
-    @Override
-    public Map<String, Object> convertToEntityAttribute(String dbData) {
-        // Convert JSON string to Map
-        return new java.util.HashMap<>(); // Placeholder
+    // JSON attributes, parsed on first access and written back on change
+    public Map<String, String> getTags() {
+        if (tags == null && tagsJson != null) {
+            tags = JsonAttributeMap.read(tagsJson, String.class, json -> tagsJson = json);
+        }
+        return tags;
+    }
+
+    public void setTags(Map<String, String> tags) {
+        this.tags = tags != null ? JsonAttributeMap.copyOf(tags, json -> tagsJson = json) : null;
+        if (tags == null) {
+            tagsJson = null;
+        }
+    }
+
+    public Map<String, Object> getCustomAttributes() {
+        if (customAttributes == null && customAttributesJson != null) {
+            customAttributes = JsonAttributeMap.read(customAttributesJson, Object.class,
+                    json -> customAttributesJson = json);
+        }
+        return customAttributes;
+    }
+
+    public void setCustomAttributes(Map<String, Object> customAttributes) {
+        this.customAttributes = customAttributes != null
+                ? JsonAttributeMap.copyOf(customAttributes, json -> customAttributesJson = json) : null;
+        if (customAttributes == null) {
+            customAttributesJson = null;
+        }
+    }
+
+    // A refresh replaces the raw JSON, so drop the parsed views
+    @PostLoad
+    private void resetJsonAttributes() {
+        tags = null;
+        customAttributes = null;
     }
 }
@@ -1,15 +1,22 @@
 package com.exalt.warehousing.fulfillment.entity;
 
 import com.exalt.warehousing.fulfillment.enums.ItemFulfillmentStatus;
+import com.exalt.warehousing.fulfillment.event.OrderChangeListener;
+import com.exalt.warehousing.fulfillment.util.JsonAttributeMap;
 import com.exalt.warehousing.shared.common.BaseEntity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -26,14 +33,16 @@ import java.util.Map;
     @Index(name = "idx_item_order", columnList = "fulfillment_order_id"),
     @Index(name = "idx_item_sku", columnList = "sku"),
     @Index(name = "idx_item_status", columnList = "status"),
-    @Index(name = "idx_item_product", columnList = "product_id")
+    @Index(name = "idx_item_product", columnList = "product_id"),
+    @Index(name = "idx_item_updated", columnList = "updated_at")
 })
+@EntityListeners(OrderChangeListener.class)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-@ToString(exclude = {"fulfillmentOrder"})
+@ToString(exclude = {"fulfillmentOrder", "customAttributes"})
 public class FulfillmentOrderItem extends BaseEntity {
 
     // Relationship
@@ -248,9 +257,17 @@ public class FulfillmentOrderItem extends BaseEntity {
     private String shippingNotes;
 
     // Metadata
-    @Column(name = "custom_attributes", columnDefinition = "JSON")
-    @Convert(converter = JsonAttributeConverter.class)
-    private Map<String, Object> customAttributes;
+    // Stored as raw JSON and exposed through getCustomAttributes
+    @Column(name = "custom_attributes")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String customAttributesJson;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient JsonAttributeMap<Object> customAttributes;
 
     // Helper methods
     public boolean isFullyPicked() {
@@ -354,4 +371,27 @@ public class FulfillmentOrderItem extends BaseEntity {
     public Integer getQuantityPacked() {
         return quantityPacked;
     }
+
+    // JSON attributes, parsed on first access and written back on change
+    public Map<String, Object> getCustomAttributes() {
+        if (customAttributes == null && customAttributesJson != null) {
+            customAttributes = JsonAttributeMap.read(customAttributesJson, Object.class,
+                    json -> customAttributesJson = json);
+        }
+        return customAttributes;
+    }
+
+    public void setCustomAttributes(Map<String, Object> customAttributes) {
+        this.customAttributes = customAttributes != null
+                ? JsonAttributeMap.copyOf(customAttributes, json -> customAttributesJson = json) : null;
+        if (customAttributes == null) {
+            customAttributesJson = null;
+        }
+    }
+
+    // A refresh replaces the raw JSON, so drop the parsed view
+    @PostLoad
+    private void resetJsonAttributes() {
+        customAttributes = null;
+    }
 }
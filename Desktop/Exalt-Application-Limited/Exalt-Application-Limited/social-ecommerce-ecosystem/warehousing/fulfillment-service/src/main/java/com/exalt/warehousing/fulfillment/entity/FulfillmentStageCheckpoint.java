@@ -0,0 +1,69 @@
+package com.exalt.warehousing.fulfillment.entity;
+
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStage;
+import com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fulfillment Stage Checkpoint Entity
+ *
+ * Records where an order is in the fulfillment pipeline, one row per order
+ * and stage. Workers claim a checkpoint before running its stage, so a stage
+ * runs on one instance at a time, and the outcome is written back when it
+ * finishes. Checkpoints that are due, or whose worker stopped without
+ * finishing, are picked up again after a restart.
+ */
+@Entity
+@Table(name = "fulfillment_stage_checkpoint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stage_checkpoint_order_stage",
+                columnNames = {"fulfillment_order_id", "stage"}),
+        indexes = @Index(name = "idx_stage_checkpoint_due", columnList = "stage, status, next_attempt_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FulfillmentStageCheckpoint {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "fulfillment_order_id", nullable = false, length = 36)
+    private String fulfillmentOrderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false, length = 30)
+    private FulfillmentStage stage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private StageCheckpointStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,74 @@
+package com.exalt.warehousing.fulfillment.entity;
+
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobStatus;
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Order Reassignment Job Entity
+ *
+ * Tracks the progress of a bulk reassignment run. Counters are advanced as
+ * each chunk commits, so a run interrupted part way shows how far it got
+ * and can be resumed for the orders still affected.
+ */
+@Entity
+@Table(name = "order_reassignment_job")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReassignmentJob {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false, length = 30)
+    private ReassignmentJobType jobType;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private UUID warehouseId;
+
+    @Column(name = "sku", length = 100)
+    private String sku;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ReassignmentJobStatus status;
+
+    @Column(name = "total_orders", nullable = false)
+    private int totalOrders;
+
+    @Column(name = "processed_orders", nullable = false)
+    private int processedOrders;
+
+    @Column(name = "reassigned_orders", nullable = false)
+    private int reassignedOrders;
+
+    @Column(name = "held_orders", nullable = false)
+    private int heldOrders;
+
+    @Column(name = "failed_chunks", nullable = false)
+    private int failedChunks;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,57 @@
+package com.exalt.warehousing.fulfillment.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order Tracking Entity
+ *
+ * Read model for customer tracking lookups: one row per fulfillment order
+ * holding everything a tracking response needs, so a lookup reads a single
+ * row instead of walking the order and its shipments. Rows are rebuilt from
+ * the order whenever an order tracking event for it is consumed.
+ */
+@Entity
+@Table(name = "order_tracking", indexes = {
+    @Index(name = "idx_order_tracking_order_number", columnList = "order_number"),
+    @Index(name = "idx_order_tracking_customer", columnList = "customer_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTracking {
+
+    @Id
+    @Column(name = "fulfillment_order_id", length = 36)
+    private String fulfillmentOrderId;
+
+    @Column(name = "order_number", length = 50)
+    private String orderNumber;
+
+    @Column(name = "customer_id", length = 100)
+    private String customerId;
+
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    // OrderTrackingResponse as JSON
+    @Column(name = "tracking", nullable = false, columnDefinition = "TEXT")
+    private String tracking;
+
+    // ShipmentPackageDTO list as JSON
+    @Column(name = "shipments", nullable = false, columnDefinition = "TEXT")
+    private String shipments;
+
+    @Column(name = "projected_at", nullable = false)
+    private LocalDateTime projectedAt;
+}
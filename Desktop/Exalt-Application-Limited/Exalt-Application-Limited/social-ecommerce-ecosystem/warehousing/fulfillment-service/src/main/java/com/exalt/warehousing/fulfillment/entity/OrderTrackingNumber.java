@@ -0,0 +1,53 @@
+package com.exalt.warehousing.fulfillment.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Order Tracking Number Entity
+ *
+ * Maps a normalized carrier tracking number to the order tracking row that
+ * holds its shipment, so a tracking number lookup is an exact key match.
+ * Keyed by number and order, so orders sharing a number, such as the parts
+ * of a split order, are projected independently.
+ */
+@Entity
+@Table(name = "order_tracking_number", indexes = {
+    @Index(name = "idx_order_tracking_number_order", columnList = "fulfillment_order_id")
+})
+@IdClass(OrderTrackingNumber.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTrackingNumber {
+
+    @Id
+    @Column(name = "tracking_number", length = 100)
+    private String trackingNumber;
+
+    @Id
+    @Column(name = "fulfillment_order_id", nullable = false, length = 36)
+    private String fulfillmentOrderId;
+
+    /**
+     * Primary key of a tracking number row
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String trackingNumber;
+        private String fulfillmentOrderId;
+    }
+}
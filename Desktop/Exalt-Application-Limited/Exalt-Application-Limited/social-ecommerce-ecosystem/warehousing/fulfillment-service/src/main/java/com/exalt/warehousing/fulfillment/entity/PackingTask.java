@@ -17,7 +17,9 @@ import java.util.UUID;
  * Entity representing a packing task for a fulfillment order
  */
 @Entity
-@Table(name = "packing_tasks")
+@Table(name = "packing_tasks", indexes = {
+    @Index(name = "idx_packing_task_completed", columnList = "completed_at")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Builder
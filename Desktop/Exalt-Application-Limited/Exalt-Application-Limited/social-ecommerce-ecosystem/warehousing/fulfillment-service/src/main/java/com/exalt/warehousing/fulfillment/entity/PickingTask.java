@@ -17,7 +17,9 @@ import java.util.UUID;
  * Entity representing a picking task for a fulfillment order
  */
 @Entity
-@Table(name = "picking_tasks")
+@Table(name = "picking_tasks", indexes = {
+    @Index(name = "idx_picking_task_completed", columnList = "completed_at")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Builder
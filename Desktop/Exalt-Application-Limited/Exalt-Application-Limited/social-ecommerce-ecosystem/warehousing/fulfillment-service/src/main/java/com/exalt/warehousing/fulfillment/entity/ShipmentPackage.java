@@ -2,6 +2,7 @@ package com.exalt.warehousing.fulfillment.entity;
 
 import com.exalt.warehousing.fulfillment.enums.ShippingMethod;
 import com.exalt.warehousing.fulfillment.enums.ShipmentStatus;
+import com.exalt.warehousing.fulfillment.event.OrderChangeListener;
 import com.exalt.warehousing.shared.common.BaseEntity;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,6 +20,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "shipment_packages")
+@EntityListeners(OrderChangeListener.class)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Builder
@@ -0,0 +1,46 @@
+package com.exalt.warehousing.fulfillment.enums;
+
+import java.util.Optional;
+
+/**
+ * Enum representing the stages the fulfillment pipeline runs for an order
+ * without waiting for warehouse staff. Each stage starts from one order
+ * status and moves the order out of it. Allocated orders are released to
+ * picking by wave planning, which batches them per warehouse, so there is no
+ * stage starting from ALLOCATED.
+ */
+public enum FulfillmentStage {
+    ALLOCATION(FulfillmentStatus.PROCESSING, "Allocate inventory"),
+    PACK_RELEASE(FulfillmentStatus.PICKING_COMPLETE, "Create packing tasks"),
+    SHIP_RELEASE(FulfillmentStatus.PACKING_COMPLETE, "Release the packed order for shipping");
+
+    private final FulfillmentStatus entryStatus;
+    private final String description;
+
+    FulfillmentStage(FulfillmentStatus entryStatus, String description) {
+        this.entryStatus = entryStatus;
+        this.description = description;
+    }
+
+    public FulfillmentStatus getEntryStatus() {
+        return entryStatus;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Find the stage that starts from a status
+     * @param status the order status
+     * @return the stage, empty if the order waits for staff or is finished
+     */
+    public static Optional<FulfillmentStage> forStatus(FulfillmentStatus status) {
+        for (FulfillmentStage stage : values()) {
+            if (stage.entryStatus == status) {
+                return Optional.of(stage);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,20 @@
+package com.exalt.warehousing.fulfillment.enums;
+
+/**
+ * Enum representing the possible statuses of a bulk order reassignment
+ */
+public enum ReassignmentJobStatus {
+    RUNNING("Chunks are being processed"),
+    COMPLETED("All affected orders were processed"),
+    PARTIAL("Some chunks failed; resuming processes the orders still affected");
+
+    private final String description;
+
+    ReassignmentJobStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
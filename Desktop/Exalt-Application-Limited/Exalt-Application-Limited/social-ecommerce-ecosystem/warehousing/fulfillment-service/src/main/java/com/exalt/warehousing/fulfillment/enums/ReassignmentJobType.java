@@ -0,0 +1,19 @@
+package com.exalt.warehousing.fulfillment.enums;
+
+/**
+ * Enum representing what triggered a bulk order reassignment
+ */
+public enum ReassignmentJobType {
+    WAREHOUSE_OFFLINE("Orders moved away from a warehouse that went offline"),
+    LOW_STOCK("Remaining stock of a SKU allocated across pending orders");
+
+    private final String description;
+
+    ReassignmentJobType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
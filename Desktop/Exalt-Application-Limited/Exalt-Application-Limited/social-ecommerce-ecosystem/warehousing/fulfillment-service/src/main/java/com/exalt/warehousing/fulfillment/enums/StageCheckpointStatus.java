@@ -0,0 +1,22 @@
+package com.exalt.warehousing.fulfillment.enums;
+
+/**
+ * Enum representing the possible statuses of a fulfillment stage checkpoint
+ */
+public enum StageCheckpointStatus {
+    PENDING("Waiting for a worker, or for its next attempt"),
+    RUNNING("Claimed by a worker"),
+    COMPLETED("The stage moved the order on"),
+    SKIPPED("The order had left the stage's entry status before it ran"),
+    FAILED("All attempts failed; retried on request only");
+
+    private final String description;
+
+    StageCheckpointStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
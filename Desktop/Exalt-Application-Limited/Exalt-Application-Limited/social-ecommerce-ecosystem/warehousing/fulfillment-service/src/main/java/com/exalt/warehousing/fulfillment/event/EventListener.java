@@ -1,6 +1,7 @@
 package com.exalt.warehousing.fulfillment.event;
 
 import com.exalt.warehousing.fulfillment.service.FulfillmentService;
+import com.exalt.warehousing.fulfillment.sourcing.InventoryReadModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Component;
 public class EventListener {
     
     private final FulfillmentService fulfillmentService;
+    private final InventoryReadModel inventoryReadModel;
     
     /**
      * Listen for inventory events
@@ -27,6 +29,7 @@ public class EventListener {
     public void consumeInventoryEvent(InventoryEvent event, Acknowledgment ack) {
         try {
             log.info("Received inventory event: {}", event);
+            inventoryReadModel.requestSync();
             
             // Process inventory event based on the event type
             switch (event.getEventType()) {
@@ -0,0 +1,81 @@
+package com.exalt.warehousing.fulfillment.event;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
+import com.exalt.warehousing.fulfillment.entity.ShipmentPackage;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Publishes an {@link OrderChangedEvent} for orders created or changed
+ * through JPA, including changes to their items and shipments, once the
+ * transaction has committed, so read models never see changes that are
+ * rolled back. All orders changed in one transaction go in one event.
+ *
+ * Instantiated by Hibernate through Spring, which supplies the publisher;
+ * outside a full application context nothing is published.
+ */
+public class OrderChangeListener {
+
+    private static final Object CHANGED_ORDERS = new Object();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrderChangeListener() {
+        this(null);
+    }
+
+    @Autowired
+    public OrderChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        String orderId = null;
+        if (entity instanceof FulfillmentOrder order) {
+            orderId = order.getId();
+        } else if (entity instanceof FulfillmentOrderItem item && item.getFulfillmentOrder() != null) {
+            orderId = item.getFulfillmentOrder().getId();
+        } else if (entity instanceof ShipmentPackage shipment && shipment.getFulfillmentOrderId() != null) {
+            orderId = shipment.getFulfillmentOrderId().toString();
+        }
+        if (eventPublisher == null || orderId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new OrderChangedEvent(Set.of(orderId)));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> changedOrders = (Set<String>) TransactionSynchronizationManager.getResource(CHANGED_ORDERS);
+        if (changedOrders == null) {
+            Set<String> orderIds = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(CHANGED_ORDERS, orderIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(new OrderChangedEvent(orderIds));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_ORDERS);
+                }
+            });
+            changedOrders = orderIds;
+        }
+        changedOrders.add(orderId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.exalt.warehousing.fulfillment.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Application event telling local read models that fulfillment orders, their
+ * items or their shipments changed. Published once the change is committed.
+ *
+ * @param orderIds the IDs of the orders that changed
+ */
+public record OrderChangedEvent(Set<String> orderIds) {
+
+    public OrderChangedEvent(Collection<String> orderIds) {
+        this(Set.copyOf(orderIds));
+    }
+}
@@ -2,234 +2,313 @@ package com.exalt.warehousing.fulfillment.event.listener;
 
 import com.exalt.warehousing.shared.events.*;
 import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
-import com.exalt.warehousing.fulfillment.util.TypeConverterUtil;
 import com.exalt.warehousing.fulfillment.enums.InventoryStatus;
 import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
 import com.exalt.warehousing.fulfillment.service.FulfillmentOrderService;
+import com.exalt.warehousing.fulfillment.sourcing.InventoryReadModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Event listener for inventory reservation events.
  * This component consumes events from the inventory service and updates
  * fulfillment orders accordingly.
+ *
+ * Events are consumed in batches. Within a batch the events are grouped by
+ * order in the order they were received, all affected orders are loaded with
+ * one query, every event is applied to its order in memory and each order is
+ * saved once. Follow-up actions in the order service run once per order, for
+ * the last event of that order in the batch. The inventory service keys these
+ * events by order ID, so all events of an order land on the same partition
+ * and partitions can be consumed in parallel without reordering them.
+ * Orders split off an order share its external order ID and receive its
+ * events too.
+ *
+ * When an event cannot be applied, the events received before it are
+ * committed on their own and the listener reports the failing event's index
+ * to the container, which commits their offsets and retries from the failing
+ * event. Only that event is skipped once its retries are used up.
  */
 @Component
 public class InventoryReservationListener {
     private static final Logger log = LoggerFactory.getLogger(InventoryReservationListener.class);
-    
+
+    private static final String BATCH_FACTORY = "reservationBatchListenerContainerFactory";
+
     private final FulfillmentOrderRepository orderRepository;
     private final FulfillmentOrderService orderService;
-    
+    private final InventoryReadModel inventoryReadModel;
+    private final TransactionTemplate transactionTemplate;
+
     @Autowired
     public InventoryReservationListener(
             FulfillmentOrderRepository orderRepository,
-            FulfillmentOrderService orderService) {
+            FulfillmentOrderService orderService,
+            InventoryReadModel inventoryReadModel,
+            PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.orderService = orderService;
+        this.inventoryReadModel = inventoryReadModel;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
-    
+
     /**
      * Handles inventory reservation created events.
-     * 
-     * @param event The event data
+     *
+     * @param events The events in the batch
+     * @param ack The acknowledgment for the batch
      */
-    @KafkaListener(topics = "${events.topic.reservation.created:inventory.reservations.created}")
-    @Transactional
-    public void handleReservationCreated(InventoryReservationCreatedEvent event) {
-        log.info("Received reservation created event: {}", event.getReservationId());
-        
-        UUID orderId = event.getOrderId();
-        if (orderId == null) {
-            log.warn("Received reservation event with null orderId: {}", event.getReservationId());
-            return;
-        }
-        
-        FulfillmentOrder order = orderRepository.findByOrderIdString(orderId.toString()).orElse(null);
-        
-        if (order == null) {
-            log.warn("No fulfillment order found for orderId: {}", orderId);
-            return;
-        }
-        
-        // Update inventory status to RESERVED
-        order.setInventoryStatus(InventoryStatus.RESERVED);
-        order.setInventoryReservationId(event.getReservationId());
-        order.setInventoryReservationExpiresAt(event.getExpiresAt());
-        
-        // Add reservation details to notes
-        Map<String, Object> reservationDetails = new HashMap<>();
-        reservationDetails.put("reservationId", event.getReservationId());
-        reservationDetails.put("expiresAt", event.getExpiresAt());
-        reservationDetails.put("totalItems", event.getItems().size());
-        
-        order.addNote("Inventory reservation created: " + reservationDetails);
-        orderRepository.save(order);
-        
-        log.info("Updated fulfillment order {} with reservation {}", orderId, event.getReservationId());
+    @KafkaListener(topics = "${events.topic.reservation.created:inventory.reservations.created}",
+            containerFactory = BATCH_FACTORY)
+    public void handleReservationCreated(List<InventoryReservationCreatedEvent> events, Acknowledgment ack) {
+        applyBatch("reservation created", events,
+                event -> event.getOrderId() != null ? event.getOrderId().toString() : null,
+                (order, event) -> {
+                    // Update inventory status to RESERVED
+                    order.setInventoryStatus(InventoryStatus.RESERVED);
+                    order.setInventoryReservationId(event.getReservationId());
+                    order.setInventoryReservationExpiresAt(event.getExpiresAt());
+
+                    // Add reservation details to notes
+                    Map<String, Object> reservationDetails = new HashMap<>();
+                    reservationDetails.put("reservationId", event.getReservationId());
+                    reservationDetails.put("expiresAt", event.getExpiresAt());
+                    reservationDetails.put("totalItems", event.getItems().size());
+                    order.addNote("Inventory reservation created: " + reservationDetails);
+                },
+                null);
+        ack.acknowledge();
     }
-    
+
     /**
      * Handles inventory reservation status changed events.
-     * 
-     * @param event The event data
+     *
+     * @param events The events in the batch
+     * @param ack The acknowledgment for the batch
      */
-    @KafkaListener(topics = "${events.topic.reservation.status-changed:inventory.reservations.status-changed}")
-    @Transactional
-    public void handleReservationStatusChanged(InventoryReservationStatusChangedEvent event) {
-        log.info("Received reservation status changed event: {} -> {}", 
-                event.getPreviousStatus(), event.getNewStatus());
-        
-        UUID orderId = event.getOrderId();
-        if (orderId == null) {
-            log.warn("Received status change event with null orderId: {}", event.getReservationId());
-            return;
-        }
-        
-        FulfillmentOrder order = orderRepository.findByOrderIdString(orderId.toString()).orElse(null);
-        
-        if (order == null) {
-            log.warn("No fulfillment order found for orderId: {}", orderId);
-            return;
-        }
-        
-        // Update inventory status based on the new reservation status
-        switch (event.getNewStatus()) {
-            case CONFIRMED:
-                order.setInventoryStatus(InventoryStatus.CONFIRMED);
-                break;
-            case FULFILLED:
-                order.setInventoryStatus(InventoryStatus.ALLOCATED);
-                break;
-            case CANCELLED:
-                order.setInventoryStatus(InventoryStatus.CANCELLED);
-                break;
-            case EXPIRED:
-                order.setInventoryStatus(InventoryStatus.EXPIRED);
-                break;
-            default:
-                log.warn("Unhandled reservation status: {}", event.getNewStatus());
-        }
-        
-        order.addNote("Inventory reservation status changed: " + 
-                event.getPreviousStatus() + " -> " + event.getNewStatus() + 
-                " (" + event.getReason() + ")");
-        
-        orderRepository.save(order);
-        log.info("Updated fulfillment order {} inventory status to {}", 
-                orderId, order.getInventoryStatus());
+    @KafkaListener(topics = "${events.topic.reservation.status-changed:inventory.reservations.status-changed}",
+            containerFactory = BATCH_FACTORY)
+    public void handleReservationStatusChanged(List<InventoryReservationStatusChangedEvent> events, Acknowledgment ack) {
+        applyBatch("reservation status changed", events,
+                event -> event.getOrderId() != null ? event.getOrderId().toString() : null,
+                (order, event) -> {
+                    // Update inventory status based on the new reservation status
+                    switch (event.getNewStatus()) {
+                        case CONFIRMED:
+                            order.setInventoryStatus(InventoryStatus.CONFIRMED);
+                            break;
+                        case FULFILLED:
+                            order.setInventoryStatus(InventoryStatus.ALLOCATED);
+                            break;
+                        case CANCELLED:
+                            order.setInventoryStatus(InventoryStatus.CANCELLED);
+                            break;
+                        case EXPIRED:
+                            order.setInventoryStatus(InventoryStatus.EXPIRED);
+                            break;
+                        default:
+                            log.warn("Unhandled reservation status: {}", event.getNewStatus());
+                    }
+
+                    order.addNote("Inventory reservation status changed: " +
+                            event.getPreviousStatus() + " -> " + event.getNewStatus() +
+                            " (" + event.getReason() + ")");
+                },
+                null);
+        ack.acknowledge();
     }
-    
+
     /**
      * Handles inventory reservation completed events.
-     * 
-     * @param event The event data
+     *
+     * @param events The events in the batch
+     * @param ack The acknowledgment for the batch
      */
-    @KafkaListener(topics = "${events.topic.reservation.completed:inventory.reservations.completed}")
-    @Transactional
-    public void handleReservationCompleted(InventoryReservationCompletedEvent event) {
-        log.info("Received reservation completed event: {}", event.getReservationId());
-        
-        String orderId = event.getOrderId();
-        if (orderId == null) {
-            log.warn("Received completion event with null orderId: {}", event.getReservationId());
-            return;
-        }
-        
-        FulfillmentOrder order = orderRepository.findByOrderIdString(orderId).orElse(null);
-        
-        if (order == null) {
-            log.warn("No fulfillment order found for orderId: {}", orderId);
-            return;
-        }
-        
-        // Update inventory status to ALLOCATED
-        order.setInventoryStatus(InventoryStatus.ALLOCATED);
-        order.addNote("Inventory reservation completed at " + event.getCompletedAt());
-        
-        orderRepository.save(order);
-        
-        // Proceed with next steps in the fulfillment process if needed
-        orderService.proceedToNextFulfillmentStage(order);
-        
-        log.info("Completed inventory allocation for fulfillment order {}", orderId);
+    @KafkaListener(topics = "${events.topic.reservation.completed:inventory.reservations.completed}",
+            containerFactory = BATCH_FACTORY)
+    public void handleReservationCompleted(List<InventoryReservationCompletedEvent> events, Acknowledgment ack) {
+        applyBatch("reservation completed", events, InventoryReservationCompletedEvent::getOrderId,
+                (order, event) -> {
+                    // Update inventory status to ALLOCATED
+                    order.setInventoryStatus(InventoryStatus.ALLOCATED);
+                    order.addNote("Inventory reservation completed at " + event.getCompletedAt());
+                },
+                // Proceed with next steps in the fulfillment process if needed
+                (order, event) -> orderService.proceedToNextFulfillmentStage(order));
+        ack.acknowledge();
     }
-    
+
     /**
      * Handles inventory reservation cancelled events.
-     * 
-     * @param event The event data
+     *
+     * @param events The events in the batch
+     * @param ack The acknowledgment for the batch
      */
-    @KafkaListener(topics = "${events.topic.reservation.cancelled:inventory.reservations.cancelled}")
-    @Transactional
-    public void handleReservationCancelled(InventoryReservationCancelledEvent event) {
-        log.info("Received reservation cancelled event: {}", event.getReservationId());
-        
-        String orderId = event.getOrderId();
-        if (orderId == null) {
-            log.warn("Received cancellation event with null orderId: {}", event.getReservationId());
-            return;
+    @KafkaListener(topics = "${events.topic.reservation.cancelled:inventory.reservations.cancelled}",
+            containerFactory = BATCH_FACTORY)
+    public void handleReservationCancelled(List<InventoryReservationCancelledEvent> events, Acknowledgment ack) {
+        applyBatch("reservation cancelled", events, InventoryReservationCancelledEvent::getOrderId,
+                (order, event) -> {
+                    // Update inventory status to CANCELLED
+                    order.setInventoryStatus(InventoryStatus.CANCELLED);
+                    order.addNote("Inventory reservation cancelled");
+                },
+                // Handle cancellation in the order service
+                (order, event) -> orderService.handleInventoryCancellation(order, "Inventory reservation cancelled"));
+        ack.acknowledge();
+    }
+
+    /**
+     * Handles inventory reservation expired events.
+     *
+     * @param events The events in the batch
+     * @param ack The acknowledgment for the batch
+     */
+    @KafkaListener(topics = "${events.topic.reservation.expired:inventory.reservations.expired}",
+            containerFactory = BATCH_FACTORY)
+    public void handleReservationExpired(List<InventoryReservationExpiredEvent> events, Acknowledgment ack) {
+        applyBatch("reservation expired", events, InventoryReservationExpiredEvent::getOrderId,
+                (order, event) -> {
+                    // Update inventory status to EXPIRED
+                    order.setInventoryStatus(InventoryStatus.EXPIRED);
+                    order.addNote("Inventory reservation expired at " + event.getExpirationTime());
+                },
+                // Handle expiration in the order service
+                (order, event) -> orderService.handleInventoryExpiration(order));
+        ack.acknowledge();
+    }
+
+    /**
+     * Applies a batch of events to their fulfillment orders in one transaction.
+     * If an event fails, the events before it are applied again without it
+     * and the failure is reported with the event's index in the batch.
+     *
+     * @param kind Description of the event type for logging
+     * @param events The events in the order they were received
+     * @param orderIdOf Extracts the order ID from an event
+     * @param apply Applies one event to its order
+     * @param afterSave Follow-up for the last event of each order, may be null
+     * @throws BatchListenerFailedException if an event could not be applied
+     */
+    private <E> void applyBatch(String kind,
+                                List<E> events,
+                                Function<E, String> orderIdOf,
+                                BiConsumer<FulfillmentOrder, E> apply,
+                                BiConsumer<FulfillmentOrder, E> afterSave) {
+        log.info("Received {} {} events", events.size(), kind);
+        // Every reservation change moves available stock
+        inventoryReadModel.requestSync();
+
+        EventFailedException failure = null;
+        int end = events.size();
+        while (end > 0) {
+            List<E> prefix = events.subList(0, end);
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> applyEvents(kind, prefix, orderIdOf, apply, afterSave));
+                break;
+            } catch (EventFailedException e) {
+                // Each retry is shorter, so this ends at the first event that fails
+                failure = e;
+                end = e.index;
+            }
         }
-        
-        FulfillmentOrder order = orderRepository.findByOrderIdString(orderId).orElse(null);
-        
-        if (order == null) {
-            log.warn("No fulfillment order found for orderId: {}", orderId);
-            return;
+        if (failure != null) {
+            log.error("Failed to apply {} event at index {} of {}, committed the {} events before it",
+                    kind, failure.index, events.size(), failure.index, failure.getCause());
+            throw new BatchListenerFailedException("Failed to apply " + kind + " event",
+                    failure.getCause(), failure.index);
         }
-        
-        // Update inventory status to CANCELLED
-        order.setInventoryStatus(InventoryStatus.CANCELLED);
-        order.addNote("Inventory reservation cancelled");
-        
-        orderRepository.save(order);
-        
-        // Handle cancellation in the order service
-        orderService.handleInventoryCancellation(order, "Inventory reservation cancelled");
-        
-        log.info("Handled inventory cancellation for fulfillment order {}", orderId);
     }
-    
+
     /**
-     * Handles inventory reservation expired events.
-     * 
-     * @param event The event data
+     * Applies events to their orders and saves each order once.
      */
-    @KafkaListener(topics = "${events.topic.reservation.expired:inventory.reservations.expired}")
-    @Transactional
-    public void handleReservationExpired(InventoryReservationExpiredEvent event) {
-        log.info("Received reservation expired event: {}", event.getReservationId());
-        
-        String orderId = event.getOrderId();
-        if (orderId == null) {
-            log.warn("Received expiration event with null orderId: {}", event.getReservationId());
-            return;
+    private <E> void applyEvents(String kind,
+                                 List<E> events,
+                                 Function<E, String> orderIdOf,
+                                 BiConsumer<FulfillmentOrder, E> apply,
+                                 BiConsumer<FulfillmentOrder, E> afterSave) {
+        // Event indexes per order, in the order they were received
+        Map<String, List<Integer>> eventsByOrder = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            E event = events.get(i);
+            String orderId = orderIdOf.apply(event);
+            if (orderId == null) {
+                log.warn("Received {} event with null orderId: {}", kind, event);
+                continue;
+            }
+            eventsByOrder.computeIfAbsent(orderId, id -> new ArrayList<>()).add(i);
         }
-        
-        FulfillmentOrder order = orderRepository.findByOrderIdString(orderId).orElse(null);
-        
-        if (order == null) {
-            log.warn("No fulfillment order found for orderId: {}", orderId);
+        if (eventsByOrder.isEmpty()) {
             return;
         }
-        
-        // Update inventory status to EXPIRED
-        order.setInventoryStatus(InventoryStatus.EXPIRED);
-        order.addNote("Inventory reservation expired at " + event.getExpirationTime());
-        
-        orderRepository.save(order);
-        
-        // Handle expiration in the order service
-        orderService.handleInventoryExpiration(order);
-        
-        log.info("Handled inventory expiration for fulfillment order {}", orderId);
+
+        Map<String, List<FulfillmentOrder>> orders = new HashMap<>();
+        for (FulfillmentOrder order : orderRepository.findAllForExternalOrderIds(eventsByOrder.keySet())) {
+            orders.computeIfAbsent(order.getOriginalExternalOrderId(), id -> new ArrayList<>()).add(order);
+        }
+
+        List<FulfillmentOrder> updated = new ArrayList<>();
+        eventsByOrder.forEach((orderId, indexes) -> {
+            List<FulfillmentOrder> orderAndSplits = orders.get(orderId);
+            if (orderAndSplits == null) {
+                log.warn("No fulfillment order found for orderId: {}", orderId);
+                return;
+            }
+            for (FulfillmentOrder order : orderAndSplits) {
+                for (int index : indexes) {
+                    try {
+                        apply.accept(order, events.get(index));
+                    } catch (RuntimeException e) {
+                        throw new EventFailedException(index, e);
+                    }
+                }
+                updated.add(order);
+            }
+        });
+        List<FulfillmentOrder> saved = orderRepository.saveAll(updated);
+
+        if (afterSave != null) {
+            for (FulfillmentOrder order : saved) {
+                List<Integer> indexes = eventsByOrder.get(order.getOriginalExternalOrderId());
+                int last = indexes.get(indexes.size() - 1);
+                try {
+                    afterSave.accept(order, events.get(last));
+                } catch (RuntimeException e) {
+                    throw new EventFailedException(last, e);
+                }
+            }
+        }
+
+        log.info("Applied {} {} events to {} fulfillment orders", events.size(), kind, saved.size());
+    }
+
+    /**
+     * An event of the batch that could not be applied, with its index in the batch
+     */
+    private static final class EventFailedException extends RuntimeException {
+
+        private final int index;
+
+        EventFailedException(int index, RuntimeException cause) {
+            super(cause);
+            this.index = index;
+        }
     }
 }
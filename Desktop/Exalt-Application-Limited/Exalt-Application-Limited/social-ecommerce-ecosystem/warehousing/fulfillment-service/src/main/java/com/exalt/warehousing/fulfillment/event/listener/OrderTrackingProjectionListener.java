@@ -0,0 +1,86 @@
+package com.exalt.warehousing.fulfillment.event.listener;
+
+import com.exalt.warehousing.fulfillment.event.OrderChangedEvent;
+import com.exalt.warehousing.fulfillment.service.OrderTrackingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the order tracking read model current.
+ *
+ * Every committed change of an order, its items or its shipments is
+ * published as an ORDER_TRACKING_CHANGED event keyed by order ID, so all
+ * events of an order land on the same partition. Events are consumed in
+ * batches and each order in a batch is projected once from its current
+ * state, however many events it had. Projection works from the current
+ * state rather than from the event, so events that are redelivered or
+ * arrive late do no harm.
+ */
+@Slf4j
+@Component
+public class OrderTrackingProjectionListener {
+
+    public static final String ORDER_TRACKING_CHANGED = "ORDER_TRACKING_CHANGED";
+
+    private final OrderTrackingService orderTrackingService;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String topic;
+
+    public OrderTrackingProjectionListener(OrderTrackingService orderTrackingService,
+                                           KafkaTemplate<String, Object> kafkaTemplate,
+                                           @Value("${fulfillment.tracking.topic:order-tracking-events}") String topic) {
+        this.orderTrackingService = orderTrackingService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+    }
+
+    /**
+     * Publish a tracking event for each order that changed
+     *
+     * @param event the committed order changes
+     */
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        for (String orderId : event.orderIds()) {
+            Map<String, Object> message = new HashMap<>();
+            message.put("eventType", ORDER_TRACKING_CHANGED);
+            message.put("fulfillmentOrderId", orderId);
+            message.put("timestamp", LocalDateTime.now());
+            kafkaTemplate.send(topic, orderId, message);
+        }
+    }
+
+    /**
+     * Project the orders of a batch of tracking events
+     *
+     * @param events the events in the batch
+     * @param ack the acknowledgment for the batch
+     */
+    @KafkaListener(topics = "${fulfillment.tracking.topic:order-tracking-events}",
+            groupId = "${fulfillment.tracking.group-id:fulfillment-tracking}",
+            containerFactory = "trackingBatchListenerContainerFactory")
+    public void project(List<Map<String, Object>> events, Acknowledgment ack) {
+        Set<String> orderIds = new LinkedHashSet<>();
+        for (Map<String, Object> event : events) {
+            Object orderId = event.get("fulfillmentOrderId");
+            if (orderId != null) {
+                orderIds.add(orderId.toString());
+            }
+        }
+        orderTrackingService.project(orderIds);
+        log.debug("Projected tracking for {} orders from {} events", orderIds.size(), events.size());
+        ack.acknowledge();
+    }
+}
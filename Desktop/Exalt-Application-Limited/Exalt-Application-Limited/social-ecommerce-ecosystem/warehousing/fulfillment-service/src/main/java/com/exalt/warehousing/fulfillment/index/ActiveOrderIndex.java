@@ -0,0 +1,271 @@
+package com.exalt.warehousing.fulfillment.index;
+
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.event.OrderChangedEvent;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory inverted index from SKU to the active fulfillment orders that
+ * contain it, with the unfulfilled quantity per order, so inventory alerts
+ * can find the orders they affect without querying the database.
+ *
+ * The index is built from the database at startup and rebuilt on a long
+ * interval. Orders reported changed on this instance are reloaded by id
+ * right after their transaction commits. Orders changed by bulk updates or
+ * by other instances are picked up by polling for orders and items whose
+ * updated_at moved, looking back a little further than the last poll so
+ * that transactions committing late are not missed.
+ *
+ * Entries tell which orders to look at, never what to do with them: callers
+ * load the orders by id and decide on their current state. While the index
+ * has not been built or has not caught up within the configured staleness
+ * bound, lookups return nothing and callers query the database directly.
+ */
+@Slf4j
+@Component
+public class ActiveOrderIndex {
+
+    // Orders in these statuses are no longer affected by inventory changes
+    private static final Set<FulfillmentStatus> INACTIVE_STATUSES = EnumSet.of(
+            FulfillmentStatus.COMPLETED, FulfillmentStatus.DELIVERED, FulfillmentStatus.CANCELLED);
+
+    private static final Comparator<Line> QUEUE_ORDER = Comparator
+            .comparing(Line::priorityScore, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Line::createdAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final FulfillmentOrderRepository fulfillmentOrderRepository;
+    private final boolean enabled;
+    private final long pollIntervalMillis;
+    private final long overlapSeconds;
+    private final long rebuildIntervalMillis;
+    private final long maxStalenessMillis;
+    private final int pageSize;
+
+    private final Set<String> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshRequested = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    // Replaced on rebuild and otherwise changed only by the sync thread
+    private volatile Map<String, Map<String, Line>> ordersBySku = new ConcurrentHashMap<>();
+    private Map<String, Set<String>> skusByOrder = new HashMap<>();
+
+    private LocalDateTime changedSince;
+    private volatile long builtAt;
+    private volatile long caughtUpAt;
+
+    public ActiveOrderIndex(FulfillmentOrderRepository fulfillmentOrderRepository,
+                            @Value("${fulfillment.order-index.enabled:true}") boolean enabled,
+                            @Value("${fulfillment.order-index.poll-interval-millis:2000}") long pollIntervalMillis,
+                            @Value("${fulfillment.order-index.overlap-seconds:60}") long overlapSeconds,
+                            @Value("${fulfillment.order-index.rebuild-interval-minutes:60}") long rebuildIntervalMinutes,
+                            @Value("${fulfillment.order-index.max-staleness-seconds:30}") long maxStalenessSeconds,
+                            @Value("${fulfillment.order-index.page-size:1000}") int pageSize) {
+        this.fulfillmentOrderRepository = fulfillmentOrderRepository;
+        this.enabled = enabled;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.overlapSeconds = overlapSeconds;
+        this.rebuildIntervalMillis = rebuildIntervalMinutes * 60_000;
+        this.maxStalenessMillis = maxStalenessSeconds * 1000;
+        this.pageSize = pageSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "active-order-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::sync, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Check whether the index is built and has caught up within the staleness bound
+     * @return true if lookups are answered from the index
+     */
+    public boolean isFresh() {
+        return enabled && builtAt > 0 && System.currentTimeMillis() - caughtUpAt <= maxStalenessMillis;
+    }
+
+    /**
+     * Get the active orders containing a SKU
+     * @param sku the SKU
+     * @return one line per order with unfulfilled quantity of the SKU, or empty when the index is stale
+     */
+    public Optional<List<Line>> getActiveOrders(String sku) {
+        if (!isFresh()) {
+            return Optional.empty();
+        }
+        Map<String, Line> orders = ordersBySku.get(sku);
+        return Optional.of(orders != null ? List.copyOf(orders.values()) : List.of());
+    }
+
+    /**
+     * Get the unfulfilled quantity of a SKU per pending order, in queue order
+     * @param sku the SKU
+     * @return quantity by order ID, or empty when the index is stale
+     */
+    public Optional<Map<String, Integer>> getPendingDemand(String sku) {
+        return getActiveOrders(sku).map(lines -> {
+            Map<String, Integer> demand = new LinkedHashMap<>();
+            lines.stream()
+                    .filter(line -> line.status() == FulfillmentStatus.PENDING)
+                    .sorted(QUEUE_ORDER)
+                    .forEach(line -> demand.put(line.orderId(), line.quantity()));
+            return demand;
+        });
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        requestRefresh(event.orderIds());
+    }
+
+    /**
+     * Reload orders from the database on the sync thread as soon as possible.
+     * Orders requested while a reload is pending are reloaded together.
+     * @param orderIds the IDs of orders that changed
+     */
+    public void requestRefresh(Collection<String> orderIds) {
+        if (!enabled || orderIds.isEmpty()) {
+            return;
+        }
+        pendingRefresh.addAll(orderIds);
+        if (refreshRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                refreshRequested.set(false);
+                List<String> ids = new ArrayList<>(pendingRefresh);
+                pendingRefresh.removeAll(ids);
+                try {
+                    refresh(ids);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to refresh {} orders in the active order index: {}", ids.size(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Rebuild the index when it is due, otherwise reload the orders that changed since the last poll
+     */
+    synchronized void sync() {
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusSeconds(overlapSeconds);
+        try {
+            if (builtAt == 0 || startedAt - builtAt >= rebuildIntervalMillis) {
+                rebuild();
+                builtAt = startedAt;
+            } else {
+                refresh(fulfillmentOrderRepository.findIdsChangedSince(changedSince));
+            }
+            changedSince = since;
+            caughtUpAt = startedAt;
+        } catch (RuntimeException e) {
+            log.warn("Failed to update the active order index: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        Map<String, Map<String, Line>> bySku = new ConcurrentHashMap<>();
+        Map<String, Set<String>> byOrder = new HashMap<>();
+        String afterId = "";
+        List<String> ids;
+        do {
+            ids = fulfillmentOrderRepository.findActiveOrderIdsAfter(afterId, PageRequest.of(0, pageSize));
+            for (Line line : loadLines(ids)) {
+                put(bySku, byOrder, line);
+            }
+            if (!ids.isEmpty()) {
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == pageSize);
+
+        ordersBySku = bySku;
+        skusByOrder = byOrder;
+        log.info("Active order index built with {} orders over {} SKUs", byOrder.size(), bySku.size());
+    }
+
+    synchronized void refresh(Collection<String> orderIds) {
+        List<String> ids = new ArrayList<>(new HashSet<>(orderIds));
+        for (int from = 0; from < ids.size(); from += pageSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + pageSize, ids.size()));
+            List<Line> lines = loadLines(chunk);
+            // Orders without active lines are gone, finished or fully fulfilled
+            chunk.forEach(this::remove);
+            lines.forEach(line -> put(ordersBySku, skusByOrder, line));
+        }
+    }
+
+    private List<Line> loadLines(Collection<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        List<Line> lines = new ArrayList<>();
+        for (Object[] row : fulfillmentOrderRepository.summarizeOrderLinesByIdIn(orderIds)) {
+            FulfillmentStatus status = (FulfillmentStatus) row[2];
+            int quantity = ((Number) row[6]).intValue();
+            if (status != null && !INACTIVE_STATUSES.contains(status) && quantity > 0) {
+                lines.add(new Line(String.valueOf(row[0]), (Long) row[1], status, (String) row[5], quantity,
+                        (Long) row[3], (LocalDateTime) row[4]));
+            }
+        }
+        return lines;
+    }
+
+    private static void put(Map<String, Map<String, Line>> bySku, Map<String, Set<String>> byOrder, Line line) {
+        bySku.computeIfAbsent(line.sku(), sku -> new ConcurrentHashMap<>()).put(line.orderId(), line);
+        byOrder.computeIfAbsent(line.orderId(), id -> new HashSet<>()).add(line.sku());
+    }
+
+    private void remove(String orderId) {
+        Set<String> skus = skusByOrder.remove(orderId);
+        if (skus == null) {
+            return;
+        }
+        for (String sku : skus) {
+            ordersBySku.computeIfPresent(sku, (key, orders) -> {
+                orders.remove(orderId);
+                return orders.isEmpty() ? null : orders;
+            });
+        }
+    }
+
+    /**
+     * Unfulfilled quantity of one SKU in one active order, with what is needed to filter and queue it
+     */
+    public record Line(String orderId, Long warehouseId, FulfillmentStatus status, String sku, int quantity,
+                       Long priorityScore, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.exalt.warehousing.fulfillment.packing;
+
+import lombok.Getter;
+
+/**
+ * A carton size from the packing station catalogue
+ */
+@Getter
+public class CartonType {
+
+    private final String name;
+    private final double length;
+    private final double width;
+    private final double height;
+    private final double maxWeight;
+    private final double tareWeight;
+
+    /**
+     * @param name the carton code printed on the packing slip
+     * @param length inner length in cm
+     * @param width inner width in cm
+     * @param height inner height in cm
+     * @param maxWeight the maximum content weight in kg
+     * @param tareWeight the weight of the empty carton in kg
+     */
+    public CartonType(String name, double length, double width, double height, double maxWeight, double tareWeight) {
+        if (length <= 0 || width <= 0 || height <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Carton " + name + " must have positive dimensions and weight limit");
+        }
+        this.name = name;
+        this.length = length;
+        this.width = width;
+        this.height = height;
+        this.maxWeight = maxWeight;
+        this.tareWeight = tareWeight;
+    }
+
+    /**
+     * Parse a catalogue entry of the form {@code NAME:LxWxH:MAX_KG[:TARE_KG]}
+     * @param spec the catalogue entry
+     * @return the carton type
+     */
+    public static CartonType parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        double[] dimensions = PackItem.parseDimensions(parts.length > 1 ? parts[1] : null);
+        if (parts.length < 3 || dimensions == null) {
+            throw new IllegalArgumentException("Invalid carton specification: " + spec);
+        }
+        double tare = parts.length > 3 ? Double.parseDouble(parts[3].trim()) : 0.0;
+        return new CartonType(parts[0].trim(), dimensions[0], dimensions[1], dimensions[2],
+                Double.parseDouble(parts[2].trim()), tare);
+    }
+
+    public double getVolume() {
+        return length * width * height;
+    }
+}
@@ -0,0 +1,319 @@
+package com.exalt.warehousing.fulfillment.packing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chooses the cartons an order is packed in.
+ *
+ * Cartons are filled one at a time. If one catalogue carton holds everything
+ * still to pack, the smallest such carton is used, which also gives the
+ * lowest dimensional weight. Otherwise the carton that takes the most volume
+ * is filled and the rest carries over to the next carton, which keeps the
+ * carton count low.
+ *
+ * Filling a carton is an extreme point heuristic: units are placed largest
+ * first, each at the lowest, rearmost, leftmost free corner it fits in, in
+ * any of its six orientations. Every placement adds the corners next to the
+ * placed unit, pushed down and back against the units already in the carton.
+ * Units that fit no carton in any orientation, or are heavier than any carton
+ * takes, ship in their own packaging.
+ */
+public class Cartonizer {
+
+    private static final double EPSILON = 1e-9;
+
+    private final List<CartonType> cartons;
+    private final double dimWeightDivisor;
+    private final double[] defaultDimensions;
+    private final double defaultWeight;
+
+    /**
+     * @param cartons the carton catalogue
+     * @param dimWeightDivisor cubic cm per kg of dimensional weight
+     * @param defaultDimensions unit dimensions in cm for items without dimensions
+     * @param defaultWeight unit weight in kg for items without a weight
+     */
+    public Cartonizer(List<CartonType> cartons, double dimWeightDivisor, double[] defaultDimensions, double defaultWeight) {
+        if (cartons.isEmpty()) {
+            throw new IllegalArgumentException("The carton catalogue is empty");
+        }
+        this.cartons = new ArrayList<>(cartons);
+        this.cartons.sort(Comparator.comparingDouble(CartonType::getVolume));
+        this.dimWeightDivisor = dimWeightDivisor;
+        this.defaultDimensions = defaultDimensions.clone();
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * Pack order lines into cartons
+     * @param items the order lines
+     * @return the packages, catalogue cartons first
+     */
+    public List<PackedCarton> pack(List<PackItem> items) {
+        List<Unit> units = new ArrayList<>();
+        List<PackedCarton> ownPackaging = new ArrayList<>();
+        for (PackItem item : items) {
+            double[] dimensions = item.getDimensions() != null ? item.getDimensions() : defaultDimensions;
+            double weight = item.getWeight() != null ? item.getWeight() : defaultWeight;
+            Unit unit = new Unit(item.getSku(), dimensions, weight);
+            for (int i = 0; i < item.getQuantity(); i++) {
+                if (fitsAnyCarton(unit)) {
+                    units.add(unit);
+                } else {
+                    ownPackaging.add(new PackedCarton(null, dimensions[0], dimensions[1], dimensions[2],
+                            weight, dimWeightDivisor, Collections.singletonMap(unit.sku, 1)));
+                }
+            }
+        }
+        units.sort(Comparator.comparingDouble((Unit unit) -> unit.volume).reversed()
+                .thenComparing(Comparator.comparingDouble((Unit unit) -> unit.weight).reversed()));
+
+        List<PackedCarton> packed = new ArrayList<>();
+        while (!units.isEmpty()) {
+            Fill fill = fillNext(units);
+            packed.add(fill.toCarton());
+            List<Unit> rest = new ArrayList<>(units.size() - fill.count);
+            for (int i = 0; i < units.size(); i++) {
+                if (!fill.placed[i]) {
+                    rest.add(units.get(i));
+                }
+            }
+            units = rest;
+        }
+        packed.addAll(ownPackaging);
+        return packed;
+    }
+
+    private boolean fitsAnyCarton(Unit unit) {
+        for (CartonType carton : cartons) {
+            if (unit.weight <= carton.getMaxWeight() + EPSILON && unit.fitsIn(carton)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fill the next carton from the units still to pack
+     */
+    private Fill fillNext(List<Unit> units) {
+        double volume = 0;
+        double weight = 0;
+        for (Unit unit : units) {
+            volume += unit.volume;
+            weight += unit.weight;
+        }
+
+        // Smallest carton that takes everything
+        for (CartonType carton : cartons) {
+            if (carton.getVolume() + EPSILON >= volume && carton.getMaxWeight() + EPSILON >= weight) {
+                Fill fill = new Fill(carton, units);
+                if (fill.count == units.size()) {
+                    return fill;
+                }
+            }
+        }
+
+        // Otherwise the carton taking the most volume, smaller cartons winning ties
+        Fill best = null;
+        for (CartonType carton : cartons) {
+            Fill fill = new Fill(carton, units);
+            if (best == null || fill.volume > best.volume + EPSILON) {
+                best = fill;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One unit of an order line, with its distinct orientations lowest first
+     */
+    private static final class Unit {
+
+        private final String sku;
+        private final double weight;
+        private final double volume;
+        private final double[][] orientations;
+
+        Unit(String sku, double[] dimensions, double weight) {
+            this.sku = sku;
+            this.weight = weight;
+            this.volume = dimensions[0] * dimensions[1] * dimensions[2];
+
+            double[] d = dimensions;
+            double[][] all = {
+                    {d[0], d[1], d[2]}, {d[1], d[0], d[2]}, {d[0], d[2], d[1]},
+                    {d[2], d[0], d[1]}, {d[1], d[2], d[0]}, {d[2], d[1], d[0]}
+            };
+            List<double[]> distinct = new ArrayList<>();
+            for (double[] orientation : all) {
+                if (distinct.stream().noneMatch(known -> Arrays.equals(known, orientation))) {
+                    distinct.add(orientation);
+                }
+            }
+            // Lying flat first keeps layers low; then the longer side along the carton length
+            distinct.sort(Comparator.comparingDouble((double[] o) -> o[2]).thenComparingDouble(o -> -o[0]));
+            this.orientations = distinct.toArray(new double[0][]);
+        }
+
+        boolean fitsIn(CartonType carton) {
+            for (double[] o : orientations) {
+                if (o[0] <= carton.getLength() + EPSILON && o[1] <= carton.getWidth() + EPSILON
+                        && o[2] <= carton.getHeight() + EPSILON) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The units placed in one carton. Placed boxes are kept in flat arrays:
+     * position x, y, z and extent along each axis.
+     */
+    private final class Fill {
+
+        private final CartonType carton;
+        private final boolean[] placed;
+        private final double[][] boxes;
+        private final List<double[]> points = new ArrayList<>();
+        private final Map<String, Integer> contents = new LinkedHashMap<>();
+        private int count;
+        private double volume;
+        private double weight;
+
+        Fill(CartonType carton, List<Unit> units) {
+            this.carton = carton;
+            this.placed = new boolean[units.size()];
+            this.boxes = new double[units.size()][];
+            points.add(new double[]{0, 0, 0});
+
+            Unit failed = null;
+            for (int i = 0; i < units.size(); i++) {
+                Unit unit = units.get(i);
+                // Nothing changed since an identical unit did not fit
+                if (unit == failed || weight + unit.weight > carton.getMaxWeight() + EPSILON) {
+                    continue;
+                }
+                if (place(unit)) {
+                    placed[i] = true;
+                    count++;
+                    volume += unit.volume;
+                    weight += unit.weight;
+                    contents.merge(unit.sku, 1, Integer::sum);
+                    failed = null;
+                } else {
+                    failed = unit;
+                }
+            }
+        }
+
+        private boolean place(Unit unit) {
+            for (int p = 0; p < points.size(); p++) {
+                double[] point = points.get(p);
+                for (double[] o : unit.orientations) {
+                    if (point[0] + o[0] <= carton.getLength() + EPSILON
+                            && point[1] + o[1] <= carton.getWidth() + EPSILON
+                            && point[2] + o[2] <= carton.getHeight() + EPSILON
+                            && !overlaps(point, o)) {
+                        double[] box = {point[0], point[1], point[2], o[0], o[1], o[2]};
+                        boxes[count] = box;
+                        points.remove(p);
+                        addPoints(box);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean overlaps(double[] point, double[] size) {
+            for (int b = 0; b < count; b++) {
+                double[] box = boxes[b];
+                if (point[0] < box[0] + box[3] - EPSILON && box[0] < point[0] + size[0] - EPSILON
+                        && point[1] < box[1] + box[4] - EPSILON && box[1] < point[1] + size[1] - EPSILON
+                        && point[2] < box[2] + box[5] - EPSILON && box[2] < point[2] + size[2] - EPSILON) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Add the corners of a newly placed box, each projected towards the
+         * carton origin along the two axes it was not offset on, and drop
+         * points the box now covers
+         */
+        private void addPoints(double[] box) {
+            // boxes[count] is the new box; count is incremented by the caller afterwards
+            points.removeIf(point -> inside(point, box));
+            for (int axis = 0; axis < 3; axis++) {
+                double[] corner = {box[0], box[1], box[2]};
+                corner[axis] += box[3 + axis];
+                if (corner[axis] >= extent(axis) - EPSILON) {
+                    continue;
+                }
+                for (int along = 0; along < 3; along++) {
+                    if (along != axis) {
+                        addPoint(project(corner, along));
+                    }
+                }
+            }
+            points.sort(Comparator.comparingDouble((double[] p) -> p[2])
+                    .thenComparingDouble(p -> p[1])
+                    .thenComparingDouble(p -> p[0]));
+        }
+
+        /**
+         * Move a point towards zero along one axis until it meets a placed box or the carton wall
+         */
+        private double[] project(double[] point, int axis) {
+            int u = (axis + 1) % 3;
+            int v = (axis + 2) % 3;
+            double stop = 0;
+            for (int b = 0; b <= count; b++) {
+                double[] box = boxes[b];
+                double far = box[axis] + box[3 + axis];
+                if (far <= point[axis] + EPSILON && far > stop
+                        && box[u] <= point[u] + EPSILON && point[u] < box[u] + box[3 + u] - EPSILON
+                        && box[v] <= point[v] + EPSILON && point[v] < box[v] + box[3 + v] - EPSILON) {
+                    stop = far;
+                }
+            }
+            double[] projected = point.clone();
+            projected[axis] = stop;
+            return projected;
+        }
+
+        private void addPoint(double[] point) {
+            for (double[] known : points) {
+                if (Math.abs(known[0] - point[0]) < EPSILON && Math.abs(known[1] - point[1]) < EPSILON
+                        && Math.abs(known[2] - point[2]) < EPSILON) {
+                    return;
+                }
+            }
+            points.add(point);
+        }
+
+        private boolean inside(double[] point, double[] box) {
+            return point[0] >= box[0] - EPSILON && point[0] < box[0] + box[3] - EPSILON
+                    && point[1] >= box[1] - EPSILON && point[1] < box[1] + box[4] - EPSILON
+                    && point[2] >= box[2] - EPSILON && point[2] < box[2] + box[5] - EPSILON;
+        }
+
+        private double extent(int axis) {
+            return axis == 0 ? carton.getLength() : axis == 1 ? carton.getWidth() : carton.getHeight();
+        }
+
+        PackedCarton toCarton() {
+            return new PackedCarton(carton.getName(), carton.getLength(), carton.getWidth(), carton.getHeight(),
+                    weight + carton.getTareWeight(), dimWeightDivisor, contents);
+        }
+    }
+}
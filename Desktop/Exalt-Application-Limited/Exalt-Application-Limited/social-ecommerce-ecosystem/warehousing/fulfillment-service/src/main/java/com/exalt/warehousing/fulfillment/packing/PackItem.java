@@ -0,0 +1,90 @@
+package com.exalt.warehousing.fulfillment.packing;
+
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An order line to be packed, reduced to what cartonization needs
+ */
+@Getter
+public class PackItem {
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+(?:[.,]\\d+)?");
+    private static final double CM_PER_INCH = 2.54;
+
+    private final String sku;
+    private final double[] dimensions;
+    private final Double weight;
+    private final int quantity;
+
+    /**
+     * @param sku the SKU, used to label the carton contents
+     * @param dimensions length, width and height of one unit in cm, or null if unknown
+     * @param weight the weight of one unit in kg, or null if unknown
+     * @param quantity the number of units
+     */
+    public PackItem(String sku, double[] dimensions, Double weight, int quantity) {
+        this.sku = sku;
+        this.dimensions = dimensions;
+        this.weight = weight;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Parse an item dimensions string in "L x W x H" format. Values are taken
+     * as cm unless the string mentions inches.
+     * @param dimensions the dimensions string
+     * @return length, width and height in cm, or null if the string holds no three positive values
+     */
+    public static double[] parseDimensions(String dimensions) {
+        if (dimensions == null) {
+            return null;
+        }
+        Matcher matcher = NUMBER.matcher(dimensions);
+        double[] values = new double[3];
+        int found = 0;
+        while (found < 3 && matcher.find()) {
+            values[found++] = Double.parseDouble(matcher.group().replace(',', '.'));
+        }
+        if (found < 3 || values[0] <= 0 || values[1] <= 0 || values[2] <= 0) {
+            return null;
+        }
+        String lower = dimensions.toLowerCase(Locale.ROOT);
+        if (lower.contains("in") || lower.contains("\"")) {
+            for (int i = 0; i < 3; i++) {
+                values[i] *= CM_PER_INCH;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Convert a weight to kg
+     * @param weight the weight
+     * @param unit the weight unit (KG, G, LB or OZ), KG if null
+     * @return the weight in kg, or null if no weight is given
+     */
+    public static Double toKilograms(Number weight, String unit) {
+        if (weight == null) {
+            return null;
+        }
+        double value = weight.doubleValue();
+        if (unit == null) {
+            return value;
+        }
+        switch (unit.trim().toUpperCase(Locale.ROOT)) {
+            case "G":
+                return value / 1000;
+            case "LB":
+            case "LBS":
+                return value * 0.45359237;
+            case "OZ":
+                return value * 0.028349523125;
+            default:
+                return value;
+        }
+    }
+}
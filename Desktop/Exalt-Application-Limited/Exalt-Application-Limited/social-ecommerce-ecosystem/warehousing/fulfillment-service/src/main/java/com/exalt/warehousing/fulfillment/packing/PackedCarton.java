@@ -0,0 +1,43 @@
+package com.exalt.warehousing.fulfillment.packing;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One package of a packed order: a catalogue carton, or a single item too
+ * large or heavy for any carton shipped in its own packaging
+ */
+@Getter
+public class PackedCarton {
+
+    private final String cartonName;
+    private final double length;
+    private final double width;
+    private final double height;
+    private final double weight;
+    private final double billableWeight;
+    private final Map<String, Integer> contents;
+    private final int itemCount;
+
+    PackedCarton(String cartonName, double length, double width, double height, double weight,
+                 double dimWeightDivisor, Map<String, Integer> contents) {
+        this.cartonName = cartonName;
+        this.length = length;
+        this.width = width;
+        this.height = height;
+        this.weight = weight;
+        this.billableWeight = Math.max(weight, length * width * height / dimWeightDivisor);
+        this.contents = new LinkedHashMap<>(contents);
+        this.itemCount = contents.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Check whether the package is an item in its own packaging rather than a catalogue carton
+     * @return true if the item ships in its own packaging
+     */
+    public boolean isOwnPackaging() {
+        return cartonName == null;
+    }
+}
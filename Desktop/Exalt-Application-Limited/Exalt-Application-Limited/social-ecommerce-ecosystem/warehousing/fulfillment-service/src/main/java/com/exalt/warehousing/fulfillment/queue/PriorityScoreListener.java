@@ -0,0 +1,34 @@
+package com.exalt.warehousing.fulfillment.queue;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Keeps the priority score of a fulfillment order current whenever it is
+ * saved, so every way of creating or changing an order leaves it queued in
+ * the right place.
+ *
+ * Instantiated by Hibernate through Spring, which supplies the configured
+ * scorer; outside a full application context the default scorer is used.
+ */
+public class PriorityScoreListener {
+
+    private final PriorityScorer priorityScorer;
+
+    public PriorityScoreListener() {
+        this(PriorityScorer.defaults());
+    }
+
+    @Autowired
+    public PriorityScoreListener(PriorityScorer priorityScorer) {
+        this.priorityScorer = priorityScorer;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void score(FulfillmentOrder order) {
+        order.setPriorityScore(priorityScorer.score(order));
+    }
+}
@@ -0,0 +1,111 @@
+package com.exalt.warehousing.fulfillment.queue;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.enums.Priority;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Computes the queue position of a pending order.
+ *
+ * The score is the time, in minutes since the epoch, by which the order
+ * should leave the queue, and orders are served lowest score first. It
+ * starts from the promised ship time (SLA deadline, else due date, else the
+ * order date plus the default SLA), moves back to the last carrier cutoff
+ * at or before that time, and is then brought forward by a lead per
+ * priority and per customer tier. As the score is an absolute time it never
+ * has to be recomputed while the order waits, so the queue can be read in
+ * score order straight from an index.
+ */
+public class PriorityScorer {
+
+    /**
+     * Tag holding the customer tier of an order
+     */
+    public static final String CUSTOMER_TIER_TAG = "customerTier";
+
+    public static final String DEFAULT_PRIORITY_LEADS = "CRITICAL=480,HIGH=120,STANDARD=0,LOW=-240,BULK=-1440";
+    public static final String DEFAULT_TIER_LEADS = "PLATINUM=120,GOLD=60,SILVER=0";
+    public static final String DEFAULT_CARRIER_CUTOFFS = "";
+    public static final int DEFAULT_SLA_HOURS = 48;
+
+    private final Map<String, Long> priorityLeads;
+    private final Map<String, Long> tierLeads;
+    private final Map<String, LocalTime> carrierCutoffs;
+    private final int defaultSlaHours;
+
+    /**
+     * @param priorityLeads minutes an order is moved forward per priority, as NAME=MINUTES pairs
+     * @param tierLeads minutes an order is moved forward per customer tier, as NAME=MINUTES pairs
+     * @param carrierCutoffs daily pickup time per carrier, as NAME=HH:MM pairs
+     * @param defaultSlaHours hours from order date to ship time for orders without a deadline
+     */
+    public PriorityScorer(String priorityLeads, String tierLeads, String carrierCutoffs, int defaultSlaHours) {
+        this.priorityLeads = new HashMap<>();
+        parsePairs(priorityLeads).forEach((name, minutes) -> this.priorityLeads.put(name, Long.parseLong(minutes)));
+        this.tierLeads = new HashMap<>();
+        parsePairs(tierLeads).forEach((name, minutes) -> this.tierLeads.put(name, Long.parseLong(minutes)));
+        this.carrierCutoffs = new HashMap<>();
+        parsePairs(carrierCutoffs).forEach((name, time) -> this.carrierCutoffs.put(name, LocalTime.parse(time)));
+        this.defaultSlaHours = defaultSlaHours;
+    }
+
+    /**
+     * Scorer with the default leads and no carrier cutoffs
+     */
+    public static PriorityScorer defaults() {
+        return new PriorityScorer(DEFAULT_PRIORITY_LEADS, DEFAULT_TIER_LEADS, DEFAULT_CARRIER_CUTOFFS, DEFAULT_SLA_HOURS);
+    }
+
+    /**
+     * Compute the score of an order
+     * @param order the order
+     * @return the score, lower is served first
+     */
+    public long score(FulfillmentOrder order) {
+        LocalDateTime shipBy = order.getSlaDeadline() != null ? order.getSlaDeadline() : order.getDueDate();
+        if (shipBy == null) {
+            LocalDateTime ordered = order.getOrderDate() != null ? order.getOrderDate() : LocalDateTime.now();
+            shipBy = ordered.plusHours(defaultSlaHours);
+        }
+
+        // The order has to make the last pickup before its ship time
+        LocalTime cutoff = order.getCarrier() != null
+                ? carrierCutoffs.get(order.getCarrier().trim().toUpperCase(Locale.ROOT)) : null;
+        if (cutoff != null) {
+            LocalDateTime pickup = shipBy.toLocalDate().atTime(cutoff);
+            shipBy = pickup.isAfter(shipBy) ? pickup.minusDays(1) : pickup;
+        }
+
+        long minutes = shipBy.toEpochSecond(ZoneOffset.UTC) / 60;
+        Priority priority = order.getPriority() != null ? order.getPriority() : Priority.STANDARD;
+        minutes -= priorityLeads.getOrDefault(priority.name(), 0L);
+        String tier = order.getTags() != null ? order.getTags().get(CUSTOMER_TIER_TAG) : null;
+        if (tier != null) {
+            minutes -= tierLeads.getOrDefault(tier.trim().toUpperCase(Locale.ROOT), 0L);
+        }
+        return minutes;
+    }
+
+    private static Map<String, String> parsePairs(String pairs) {
+        Map<String, String> parsed = new HashMap<>();
+        if (pairs == null) {
+            return parsed;
+        }
+        for (String pair : pairs.split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parsed.put(pair.substring(0, separator).trim().toUpperCase(Locale.ROOT),
+                        pair.substring(separator + 1).trim());
+            } else if (!pair.isBlank()) {
+                throw new IllegalArgumentException("Invalid NAME=VALUE pair: " + pair);
+            }
+        }
+        return parsed;
+    }
+}
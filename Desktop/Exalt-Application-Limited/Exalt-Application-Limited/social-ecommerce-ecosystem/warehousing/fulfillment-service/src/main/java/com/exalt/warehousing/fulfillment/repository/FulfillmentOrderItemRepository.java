@@ -4,6 +4,7 @@ import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
 import com.exalt.warehousing.fulfillment.enums.ItemFulfillmentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -130,4 +131,17 @@ public interface FulfillmentOrderItemRepository extends JpaRepository<Fulfillmen
     @Query("SELECT i FROM FulfillmentOrderItem i WHERE i.specialInstructions IS NOT NULL " +
            "AND LENGTH(i.specialInstructions) > 0")
     List<FulfillmentOrderItem> findItemsWithSpecialInstructions();
+
+    /**
+     * Summarize the pick lines per zone of the orders ready to be released in a wave
+     *
+     * @param warehouseId the warehouse ID
+     * @return rows of order ID, zone, line count and unit count
+     */
+    @Query("SELECT i.fulfillmentOrder.id, i.zone, COUNT(i), SUM(i.quantity) FROM FulfillmentOrderItem i " +
+           "WHERE i.fulfillmentOrder.warehouseId = :warehouseId AND i.fulfillmentOrder.status IN " +
+           "(com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.ALLOCATED, " +
+           "com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.READY_FOR_PICKING) " +
+           "GROUP BY i.fulfillmentOrder.id, i.zone")
+    List<Object[]> summarizeWaveCandidateZones(@Param("warehouseId") Long warehouseId);
 }
@@ -1,18 +1,31 @@
 package com.exalt.warehousing.fulfillment.repository;
 
 import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStage;
 import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Repository interface for FulfillmentOrder entities
@@ -28,6 +41,16 @@ public interface FulfillmentOrderRepository extends JpaRepository<FulfillmentOrd
      */
     Optional<FulfillmentOrder> findByExternalOrderId(String externalOrderId);
 
+    /**
+     * Find the fulfillment orders of an external order, including the orders split off it
+     *
+     * @param externalOrderId the external order ID
+     * @return the order and its split orders
+     */
+    @Query("SELECT fo FROM FulfillmentOrder fo WHERE fo.externalOrderId = :externalOrderId " +
+           "OR fo.parentExternalOrderId = :externalOrderId")
+    List<FulfillmentOrder> findAllForExternalOrderId(@Param("externalOrderId") String externalOrderId);
+
     /**
      * Find fulfillment order by order reference
      *
@@ -76,6 +99,30 @@ public interface FulfillmentOrderRepository extends JpaRepository<FulfillmentOrd
            "com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.CANCELLED)")
     Page<FulfillmentOrder> findAllActiveOrders(Pageable pageable);
 
+    /**
+     * Find a page of active fulfillment orders with their items. A collection
+     * fetch cannot be paged in SQL, so the page is selected first and its
+     * items are loaded with one more query.
+     *
+     * @param pageable pagination information
+     * @return page of active fulfillment orders with items loaded
+     */
+    default Page<FulfillmentOrder> findAllActiveOrdersWithItems(Pageable pageable) {
+        Page<FulfillmentOrder> page = findAllActiveOrders(pageable);
+        if (page.isEmpty()) {
+            return page;
+        }
+        List<String> ids = page.getContent().stream()
+                .map(FulfillmentOrder::getId)
+                .collect(Collectors.toList());
+        Map<String, FulfillmentOrder> withItems = findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(FulfillmentOrder::getId, Function.identity()));
+        List<FulfillmentOrder> orders = page.getContent().stream()
+                .map(order -> withItems.getOrDefault(order.getId(), order))
+                .collect(Collectors.toList());
+        return new PageImpl<>(orders, pageable, page.getTotalElements());
+    }
+
     /**
      * Find all orders that need to be picked
      *
@@ -117,32 +164,43 @@ public interface FulfillmentOrderRepository extends JpaRepository<FulfillmentOrd
             FulfillmentStatus status, LocalDateTime since, Pageable pageable);
 
     /**
-     * Find orders by customer information
+     * Find orders by customer information. The lower-cased match is served by
+     * a trigram index, so terms should be at least three characters long.
      *
      * @param customerName customer name to search for
      * @param pageable pagination information
      * @return page of matching orders
      */
+    @Query("SELECT fo FROM FulfillmentOrder fo WHERE LOWER(fo.customerName) " +
+           "LIKE LOWER(CONCAT('%', :#{escape([0])}, '%')) ESCAPE :#{escapeCharacter()}")
     Page<FulfillmentOrder> findAllByCustomerNameContainingIgnoreCase(
             String customerName, Pageable pageable);
 
     /**
-     * Find orders by customer email
+     * Find orders by customer email. The lower-cased match is served by a
+     * trigram index, so terms should be at least three characters long.
      *
      * @param customerEmail customer email to search for
      * @param pageable pagination information
      * @return page of matching orders
      */
+    @Query("SELECT fo FROM FulfillmentOrder fo WHERE LOWER(fo.customerEmail) " +
+           "LIKE LOWER(CONCAT('%', :#{escape([0])}, '%')) ESCAPE :#{escapeCharacter()}")
     Page<FulfillmentOrder> findAllByCustomerEmailContainingIgnoreCase(
             String customerEmail, Pageable pageable);
 
     /**
-     * Find orders with tracking number
+     * Find orders with tracking number. The lower-cased match is served by a
+     * trigram index, so terms should be at least three characters long.
      *
      * @param trackingNumber tracking number to search for
-     * @return list of matching orders
+     * @param pageable pagination information
+     * @return page of matching orders
      */
-    List<FulfillmentOrder> findAllByTrackingNumberContainingIgnoreCase(String trackingNumber);
+    @Query("SELECT fo FROM FulfillmentOrder fo WHERE LOWER(fo.trackingNumber) " +
+           "LIKE LOWER(CONCAT('%', :#{escape([0])}, '%')) ESCAPE :#{escapeCharacter()}")
+    Page<FulfillmentOrder> findAllByTrackingNumberContainingIgnoreCase(
+            String trackingNumber, Pageable pageable);
 
     /**
      * Count orders by status
@@ -231,13 +289,52 @@ public interface FulfillmentOrderRepository extends JpaRepository<FulfillmentOrd
     List<FulfillmentOrder> findByWarehouseIdAndStatus(Long warehouseId, FulfillmentStatus status);
 
     /**
-     * Find pending fulfillment orders
+     * Find pending fulfillment orders, with their items
      *
      * @return list of pending fulfillment orders
      */
+    @EntityGraph(attributePaths = "orderItems")
     @Query("SELECT fo FROM FulfillmentOrder fo WHERE fo.status = 'PENDING' ORDER BY fo.priority DESC, fo.createdAt ASC")
     List<FulfillmentOrder> findPendingOrders();
 
+    /**
+     * Take the next pending orders off the queue, lowest priority score
+     * first, reading the queue index. The orders are locked for the rest of
+     * the transaction and orders locked by another transaction are skipped,
+     * so concurrent callers each get their own orders.
+     *
+     * @param pageable the number of orders to take
+     * @return the locked orders in queue order, without items
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT fo FROM FulfillmentOrder fo " +
+           "WHERE fo.status = com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.PENDING " +
+           "ORDER BY fo.priorityScore ASC NULLS LAST, fo.createdAt ASC")
+    List<FulfillmentOrder> lockNextPendingOrders(Pageable pageable);
+
+    /**
+     * Take the next pending orders off the queue with all their items. The
+     * orders are locked first, which cannot be combined with a collection
+     * fetch, and their items are then loaded with one more statement.
+     *
+     * @param count the maximum number of orders to take
+     * @return the locked orders in queue order, with items loaded
+     */
+    default List<FulfillmentOrder> dequeuePendingOrders(int count) {
+        List<FulfillmentOrder> orders = lockNextPendingOrders(PageRequest.of(0, count));
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<String, FulfillmentOrder> withItems = findWithItemsByIdIn(orders.stream()
+                .map(FulfillmentOrder::getId)
+                .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(FulfillmentOrder::getId, Function.identity()));
+        return orders.stream()
+                .map(order -> withItems.getOrDefault(order.getId(), order))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Find fulfillment orders created within a date range
      *
@@ -265,21 +362,23 @@ public interface FulfillmentOrderRepository extends JpaRepository<FulfillmentOrd
     long countByWarehouseIdAndStatus(Long warehouseId, FulfillmentStatus status);
     
     /**
-     * Find active orders containing a specific SKU
+     * Find active orders containing a specific SKU, with all their items
      *
      * @param warehouseId the warehouse ID
      * @param sku the product SKU
      * @return list of active orders with the specified SKU
      */
+    @EntityGraph(attributePaths = "orderItems")
     @Query("SELECT DISTINCT fo FROM FulfillmentOrder fo JOIN fo.orderItems item WHERE fo.warehouseId = :warehouseId AND item.sku = :sku AND fo.status NOT IN ('COMPLETED', 'DELIVERED', 'CANCELLED')")
     List<FulfillmentOrder> findActiveOrdersWithSku(@Param("warehouseId") Long warehouseId, @Param("sku") String sku);
     
     /**
-     * Find pending orders containing a specific SKU
+     * Find pending orders containing a specific SKU, with all their items
      *
      * @param sku the product SKU
      * @return list of pending orders with the specified SKU
      */
+    @EntityGraph(attributePaths = "orderItems")
     @Query("SELECT DISTINCT fo FROM FulfillmentOrder fo JOIN fo.orderItems item WHERE item.sku = :sku AND fo.status = 'PENDING'")
     List<FulfillmentOrder> findPendingOrdersWithSku(@Param("sku") String sku);
     
@@ -307,4 +406,321 @@ public interface FulfillmentOrderRepository extends JpaRepository<FulfillmentOrd
      */
     @Query("SELECT fo FROM FulfillmentOrder fo WHERE fo.warehouseId = :warehouseId AND fo.status IN :statuses")
     List<FulfillmentOrder> findByAssignedWarehouseIdAndStatusIn(@Param("warehouseId") Long warehouseId, @Param("statuses") List<FulfillmentStatus> statuses);
+
+    /**
+     * Find which of the given external order IDs already exist
+     *
+     * @param externalOrderIds the external order IDs to check
+     * @return the external order IDs that are already taken
+     */
+    @Query("SELECT fo.externalOrderId FROM FulfillmentOrder fo WHERE fo.externalOrderId IN :externalOrderIds")
+    List<String> findExistingExternalOrderIds(@Param("externalOrderIds") Collection<String> externalOrderIds);
+
+    /**
+     * Find the fulfillment orders for a set of external order IDs
+     *
+     * @param externalOrderIds the external order IDs
+     * @return the matching fulfillment orders
+     */
+    List<FulfillmentOrder> findByExternalOrderIdIn(Collection<String> externalOrderIds);
+
+    /**
+     * Find the fulfillment orders for a set of external order IDs, including the orders split off them
+     *
+     * @param externalOrderIds the external order IDs
+     * @return the matching fulfillment orders and their split orders
+     */
+    @Query("SELECT fo FROM FulfillmentOrder fo WHERE fo.externalOrderId IN :externalOrderIds " +
+           "OR fo.parentExternalOrderId IN :externalOrderIds")
+    List<FulfillmentOrder> findAllForExternalOrderIds(@Param("externalOrderIds") Collection<String> externalOrderIds);
+
+    /**
+     * Find which of the given order numbers already exist
+     *
+     * @param orderNumbers the order numbers to check
+     * @return the order numbers that are already taken
+     */
+    @Query("SELECT fo.orderNumber FROM FulfillmentOrder fo WHERE fo.orderNumber IN :orderNumbers")
+    List<String> findExistingOrderNumbers(@Param("orderNumbers") Collection<String> orderNumbers);
+
+    /**
+     * Count orders per warehouse in a set of statuses
+     *
+     * @param statuses the statuses to count
+     * @return rows of warehouse ID and order count
+     */
+    @Query("SELECT fo.warehouseId, COUNT(fo) FROM FulfillmentOrder fo " +
+           "WHERE fo.warehouseId IS NOT NULL AND fo.status IN :statuses GROUP BY fo.warehouseId")
+    List<Object[]> countOrdersByWarehouseAndStatusIn(@Param("statuses") List<FulfillmentStatus> statuses);
+
+    /**
+     * Count the orders per warehouse shipped since a time
+     *
+     * @param since start of the window
+     * @return rows of warehouse ID and order count
+     */
+    @Query("SELECT fo.warehouseId, COUNT(fo) FROM FulfillmentOrder fo " +
+           "WHERE fo.shippedAt >= :since AND fo.warehouseId IS NOT NULL GROUP BY fo.warehouseId")
+    List<Object[]> countOrdersShippedByWarehouseSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Find an order and lock it for the rest of the transaction, so a status
+     * it was read in cannot change before the transaction moves it on
+     *
+     * @param id the fulfillment order ID
+     * @return the locked order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT fo FROM FulfillmentOrder fo WHERE fo.id = :id")
+    Optional<FulfillmentOrder> lockById(@Param("id") String id);
+
+    /**
+     * Find orders and lock them for the rest of the transaction, in ID order
+     * so concurrent callers locking overlapping sets cannot deadlock
+     *
+     * @param ids the fulfillment order IDs
+     * @return the locked orders
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT fo FROM FulfillmentOrder fo WHERE fo.id IN :ids ORDER BY fo.id")
+    List<FulfillmentOrder> lockAllById(@Param("ids") Collection<String> ids);
+
+    /**
+     * Find orders sitting in the entry status of a pipeline stage that have
+     * no checkpoint for it, such as orders whose change notification was lost
+     *
+     * @param status the entry status of the stage
+     * @param stage the pipeline stage
+     * @param settledBefore only orders unchanged since this time
+     * @param pageable limits the number of orders returned
+     * @return the order IDs, least recently changed first
+     */
+    @Query("SELECT fo.id FROM FulfillmentOrder fo WHERE fo.status = :status AND fo.updatedAt < :settledBefore " +
+           "AND NOT EXISTS (SELECT c.id FROM FulfillmentStageCheckpoint c " +
+           "WHERE c.fulfillmentOrderId = fo.id AND c.stage = :stage) ORDER BY fo.updatedAt")
+    List<String> findOrderIdsAwaitingStage(@Param("status") FulfillmentStatus status,
+                                           @Param("stage") FulfillmentStage stage,
+                                           @Param("settledBefore") LocalDateTime settledBefore,
+                                           Pageable pageable);
+
+    /**
+     * Find the orders of a warehouse that are ready to be released in a wave
+     *
+     * @param warehouseId the warehouse ID
+     * @return rows of order ID, warehouse ID, carrier, cutoff, priority and order date
+     */
+    @Query("SELECT fo.id, fo.warehouseId, fo.carrier, COALESCE(fo.slaDeadline, fo.dueDate), fo.priority, fo.orderDate " +
+           "FROM FulfillmentOrder fo WHERE fo.warehouseId = :warehouseId AND fo.status IN " +
+           "(com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.ALLOCATED, " +
+           "com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.READY_FOR_PICKING)")
+    List<Object[]> findWaveCandidates(@Param("warehouseId") Long warehouseId);
+
+    /**
+     * Find the IDs of a warehouse's orders in a set of statuses
+     *
+     * @param warehouseId the warehouse ID
+     * @param statuses the statuses to match
+     * @return order IDs in ID order
+     */
+    @Query("SELECT fo.id FROM FulfillmentOrder fo WHERE fo.warehouseId = :warehouseId AND fo.status IN :statuses ORDER BY fo.id")
+    List<String> findIdsByWarehouseIdAndStatusIn(@Param("warehouseId") Long warehouseId, @Param("statuses") List<FulfillmentStatus> statuses);
+
+    /**
+     * Find orders by ID with their items loaded in the same query
+     *
+     * @param ids the order IDs
+     * @return the orders with items
+     */
+    @Query("SELECT DISTINCT fo FROM FulfillmentOrder fo LEFT JOIN FETCH fo.orderItems WHERE fo.id IN :ids")
+    List<FulfillmentOrder> findWithItemsByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Sum the unfulfilled quantity of a SKU per pending order, in queue order
+     *
+     * @param sku the SKU
+     * @return rows of order ID and unfulfilled quantity
+     */
+    @Query("SELECT fo.id, SUM(item.quantity - COALESCE(item.quantityFulfilled, 0)) " +
+           "FROM FulfillmentOrder fo JOIN fo.orderItems item " +
+           "WHERE item.sku = :sku AND fo.status = 'PENDING' " +
+           "GROUP BY fo.id, fo.priorityScore, fo.createdAt ORDER BY fo.priorityScore ASC NULLS LAST, fo.createdAt")
+    List<Object[]> summarizePendingDemandForSku(@Param("sku") String sku);
+
+    /**
+     * Find the IDs of active orders after a given ID, for reading all active orders page by page
+     *
+     * @param afterId the last ID of the previous page, empty for the first page
+     * @param pageable the page size
+     * @return active order IDs in ID order
+     */
+    @Query("SELECT fo.id FROM FulfillmentOrder fo " +
+           "WHERE fo.status NOT IN ('COMPLETED', 'DELIVERED', 'CANCELLED') AND fo.id > :afterId ORDER BY fo.id")
+    List<String> findActiveOrderIdsAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    /**
+     * Sum the unfulfilled quantity per order and SKU for a set of orders
+     *
+     * @param ids the order IDs
+     * @return rows of order ID, warehouse ID, status, priority score, creation time, SKU and unfulfilled quantity
+     */
+    @Query("SELECT fo.id, fo.warehouseId, fo.status, fo.priorityScore, fo.createdAt, item.sku, " +
+           "SUM(item.quantity - COALESCE(item.quantityFulfilled, 0)) " +
+           "FROM FulfillmentOrder fo JOIN fo.orderItems item WHERE fo.id IN :ids " +
+           "GROUP BY fo.id, fo.warehouseId, fo.status, fo.priorityScore, fo.createdAt, item.sku")
+    List<Object[]> summarizeOrderLinesByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Read what the live dashboard counts for a set of orders
+     *
+     * @param ids the order IDs
+     * @return rows of order ID, status, warehouse ID, SLA deadline and due date
+     */
+    @Query("SELECT fo.id, fo.status, fo.warehouseId, fo.slaDeadline, fo.dueDate " +
+           "FROM FulfillmentOrder fo WHERE fo.id IN :ids")
+    List<Object[]> summarizeOrderStatesByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Find the IDs of orders that were changed, or had items changed, after a given time
+     *
+     * @param since the time to look back to
+     * @return the order IDs
+     */
+    @Query(value = "SELECT id FROM fulfillment_orders WHERE updated_at > :since " +
+                   "UNION SELECT fulfillment_order_id FROM fulfillment_order_items WHERE updated_at > :since",
+           nativeQuery = true)
+    List<String> findIdsChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Move orders to another warehouse in one statement. Orders that already
+     * left the source warehouse or changed status are not touched, so a
+     * repeated call is harmless.
+     *
+     * @param ids the order IDs
+     * @param fromWarehouseId the warehouse the orders are assigned to
+     * @param toWarehouseId the warehouse to assign them to
+     * @param statuses the statuses an order must still be in
+     * @param note the note to record, see FulfillmentOrder#addNote
+     * @param appendedNote the note prefixed with a line break, for orders that already have notes
+     * @return number of orders moved
+     */
+    @Modifying
+    @Query("UPDATE FulfillmentOrder fo SET fo.warehouseId = :toWarehouseId, " +
+           "fo.internalNotes = CASE WHEN fo.internalNotes IS NULL OR LENGTH(fo.internalNotes) = 0 THEN :note " +
+           "ELSE CONCAT(fo.internalNotes, :appendedNote) END " +
+           "WHERE fo.id IN :ids AND fo.warehouseId = :fromWarehouseId AND fo.status IN :statuses")
+    int reassignWarehouse(@Param("ids") Collection<String> ids,
+                          @Param("fromWarehouseId") Long fromWarehouseId,
+                          @Param("toWarehouseId") Long toWarehouseId,
+                          @Param("statuses") List<FulfillmentStatus> statuses,
+                          @Param("note") String note,
+                          @Param("appendedNote") String appendedNote);
+
+    /**
+     * Send orders that were past processing in their new warehouse back to PROCESSING
+     *
+     * @param ids the order IDs
+     * @param warehouseId the warehouse the orders were moved to
+     * @param statuses the statuses to send back
+     * @param startedAt the processing start time
+     * @return number of orders updated
+     */
+    @Modifying
+    @Query("UPDATE FulfillmentOrder fo SET fo.status = com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.PROCESSING, " +
+           "fo.pickStartedAt = :startedAt " +
+           "WHERE fo.id IN :ids AND fo.warehouseId = :warehouseId AND fo.status IN :statuses")
+    int restartProcessing(@Param("ids") Collection<String> ids,
+                          @Param("warehouseId") Long warehouseId,
+                          @Param("statuses") List<FulfillmentStatus> statuses,
+                          @Param("startedAt") LocalDateTime startedAt);
+
+    /**
+     * Change the status of orders in one statement, recording a note.
+     * Orders no longer in one of the expected statuses are not touched.
+     *
+     * @param ids the order IDs
+     * @param fromStatuses the statuses an order must still be in
+     * @param toStatus the new status
+     * @param note the note to record, see FulfillmentOrder#addNote
+     * @param appendedNote the note prefixed with a line break, for orders that already have notes
+     * @return number of orders updated
+     */
+    @Modifying
+    @Query("UPDATE FulfillmentOrder fo SET fo.status = :toStatus, " +
+           "fo.internalNotes = CASE WHEN fo.internalNotes IS NULL OR LENGTH(fo.internalNotes) = 0 THEN :note " +
+           "ELSE CONCAT(fo.internalNotes, :appendedNote) END " +
+           "WHERE fo.id IN :ids AND fo.status IN :fromStatuses")
+    int updateStatusWithNote(@Param("ids") Collection<String> ids,
+                             @Param("fromStatuses") List<FulfillmentStatus> fromStatuses,
+                             @Param("toStatus") FulfillmentStatus toStatus,
+                             @Param("note") String note,
+                             @Param("appendedNote") String appendedNote);
+
+    /**
+     * Find the IDs of orders waiting for inventory that contain a SKU
+     *
+     * @param sku the SKU
+     * @return the order IDs
+     */
+    @Query("SELECT DISTINCT item.fulfillmentOrder.id FROM FulfillmentOrderItem item WHERE item.sku = :sku " +
+           "AND item.fulfillmentOrder.status = com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.PENDING_INVENTORY")
+    List<String> findIdsAwaitingSku(@Param("sku") String sku);
+
+    /**
+     * Put orders still waiting for inventory back into the pending queue,
+     * after stock of one of their SKUs changed
+     *
+     * @param ids the order IDs, see findIdsAwaitingSku
+     * @return number of orders requeued
+     */
+    @Modifying
+    @Query("UPDATE FulfillmentOrder fo SET fo.status = com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.PENDING " +
+           "WHERE fo.id IN :ids " +
+           "AND fo.status = com.exalt.warehousing.fulfillment.enums.FulfillmentStatus.PENDING_INVENTORY")
+    int requeueOrdersAwaitingInventory(@Param("ids") Collection<String> ids);
+
+    /**
+     * Count orders created within a date range per status
+     *
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, exclusive
+     * @return rows of status and order count
+     */
+    @Query("SELECT fo.status, COUNT(fo) FROM FulfillmentOrder fo " +
+           "WHERE fo.createdAt >= :start AND fo.createdAt < :end GROUP BY fo.status")
+    List<Object[]> countByStatusCreatedBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Average whole hours from creation to shipping of the orders created within a date range
+     *
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, exclusive
+     * @return the average, null if no order in the range has shipped
+     */
+    @Query(value = "SELECT AVG(FLOOR(EXTRACT(EPOCH FROM (shipped_at - created_at)) / 3600)) " +
+                   "FROM fulfillment_orders " +
+                   "WHERE created_at >= :start AND created_at < :end AND shipped_at IS NOT NULL",
+           nativeQuery = true)
+    Double averageProcessingHoursCreatedBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Current order count per status, from the counters the database keeps
+     * up to date on every insert, status change and delete
+     *
+     * @return rows of status and order count
+     */
+    @Query(value = "SELECT status, SUM(order_count) FROM fulfillment_order_counter " +
+                   "GROUP BY status HAVING SUM(order_count) <> 0",
+           nativeQuery = true)
+    List<Object[]> sumOrderCountersByStatus();
+
+    /**
+     * Current order count per warehouse and status, from the order counters.
+     * Orders without a warehouse are left out.
+     *
+     * @return rows of warehouse ID, status and order count
+     */
+    @Query(value = "SELECT warehouse_id, status, SUM(order_count) FROM fulfillment_order_counter " +
+                   "WHERE warehouse_id <> -1 GROUP BY warehouse_id, status HAVING SUM(order_count) <> 0",
+           nativeQuery = true)
+    List<Object[]> sumOrderCountersByWarehouseAndStatus();
 }
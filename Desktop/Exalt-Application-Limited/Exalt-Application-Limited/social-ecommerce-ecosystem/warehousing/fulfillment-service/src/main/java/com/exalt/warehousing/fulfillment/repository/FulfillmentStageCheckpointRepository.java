@@ -0,0 +1,99 @@
+package com.exalt.warehousing.fulfillment.repository;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentStageCheckpoint;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStage;
+import com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for FulfillmentStageCheckpoint entities
+ */
+@Repository
+public interface FulfillmentStageCheckpointRepository extends JpaRepository<FulfillmentStageCheckpoint, UUID> {
+
+    /**
+     * Find the checkpoint of an order for a stage
+     * @param fulfillmentOrderId the fulfillment order ID
+     * @param stage the pipeline stage
+     * @return the checkpoint, if the order entered the stage
+     */
+    Optional<FulfillmentStageCheckpoint> findByFulfillmentOrderIdAndStage(String fulfillmentOrderId,
+                                                                          FulfillmentStage stage);
+
+    /**
+     * Find all checkpoints of an order
+     * @param fulfillmentOrderId the fulfillment order ID
+     * @return the checkpoints, in the order the stages were entered
+     */
+    List<FulfillmentStageCheckpoint> findAllByFulfillmentOrderIdOrderByCreatedAtAsc(String fulfillmentOrderId);
+
+    /**
+     * Find the checkpoints of a stage waiting for a worker
+     * @param stage the pipeline stage
+     * @param now checkpoints due at or before this time
+     * @param pageable limits the number of checkpoints returned
+     * @return the due checkpoints, longest waiting first
+     */
+    @Query("SELECT c FROM FulfillmentStageCheckpoint c WHERE c.stage = :stage " +
+           "AND c.status = com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus.PENDING " +
+           "AND c.nextAttemptAt <= :now ORDER BY c.nextAttemptAt")
+    List<FulfillmentStageCheckpoint> findDue(@Param("stage") FulfillmentStage stage,
+                                             @Param("now") LocalDateTime now,
+                                             Pageable pageable);
+
+    /**
+     * Claim a waiting checkpoint for a worker. Only one claim succeeds however
+     * many workers or instances try.
+     * @param id the checkpoint ID
+     * @param now the claim time
+     * @return 1 if claimed, 0 if another worker has it or it is no longer waiting
+     */
+    @Modifying
+    @Query("UPDATE FulfillmentStageCheckpoint c SET " +
+           "c.status = com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus.RUNNING, " +
+           "c.attempts = c.attempts + 1, c.updatedAt = :now " +
+           "WHERE c.id = :id AND c.status = com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus.PENDING")
+    int claim(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    /**
+     * Record the outcome of a claimed checkpoint
+     * @param id the checkpoint ID
+     * @param status the new status
+     * @param nextAttemptAt when a waiting checkpoint is due again
+     * @param error the failure message, null on success
+     * @param now the time of the outcome
+     * @return number of rows affected
+     */
+    @Modifying
+    @Query("UPDATE FulfillmentStageCheckpoint c SET c.status = :status, c.nextAttemptAt = :nextAttemptAt, " +
+           "c.lastError = :error, c.updatedAt = :now " +
+           "WHERE c.id = :id AND c.status = com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus.RUNNING")
+    int finish(@Param("id") UUID id, @Param("status") StageCheckpointStatus status,
+               @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Put checkpoints back in the queue whose worker stopped without
+     * finishing, e.g. because its instance went down
+     * @param claimedBefore checkpoints claimed before this time
+     * @param now the time they are due again
+     * @return number of checkpoints released
+     */
+    @Modifying
+    @Query("UPDATE FulfillmentStageCheckpoint c SET " +
+           "c.status = com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus.PENDING, " +
+           "c.nextAttemptAt = :now, c.updatedAt = :now " +
+           "WHERE c.status = com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus.RUNNING " +
+           "AND c.updatedAt < :claimedBefore")
+    int releaseStalled(@Param("claimedBefore") LocalDateTime claimedBefore, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,59 @@
+package com.exalt.warehousing.fulfillment.repository;
+
+import com.exalt.warehousing.fulfillment.entity.OrderReassignmentJob;
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobStatus;
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for OrderReassignmentJob entities
+ */
+@Repository
+public interface OrderReassignmentJobRepository extends JpaRepository<OrderReassignmentJob, UUID> {
+
+    /**
+     * Find the latest job of a type for a warehouse in one of the given statuses
+     * @param jobType the job type
+     * @param warehouseId the warehouse ID
+     * @param statuses the job statuses
+     * @return the newest matching job, if any
+     */
+    Optional<OrderReassignmentJob> findFirstByJobTypeAndWarehouseIdAndStatusInOrderByStartedAtDesc(
+            ReassignmentJobType jobType, UUID warehouseId, Collection<ReassignmentJobStatus> statuses);
+
+    /**
+     * Add the outcome of a committed chunk to a job. Chunks run in parallel,
+     * so counters are incremented in the database rather than read and saved.
+     * @param id the job ID
+     * @param processed orders processed by the chunk
+     * @param reassigned orders moved to another warehouse or allocated stock
+     * @param held orders put on hold or backordered
+     * @return number of rows affected
+     */
+    @Modifying
+    @Query("UPDATE OrderReassignmentJob j SET " +
+           "j.processedOrders = j.processedOrders + :processed, " +
+           "j.reassignedOrders = j.reassignedOrders + :reassigned, " +
+           "j.heldOrders = j.heldOrders + :held " +
+           "WHERE j.id = :id")
+    int recordChunk(@Param("id") UUID id, @Param("processed") int processed,
+                    @Param("reassigned") int reassigned, @Param("held") int held);
+
+    /**
+     * Record a chunk that rolled back
+     * @param id the job ID
+     * @param error the failure message
+     * @return number of rows affected
+     */
+    @Modifying
+    @Query("UPDATE OrderReassignmentJob j SET j.failedChunks = j.failedChunks + 1, j.lastError = :error WHERE j.id = :id")
+    int recordFailedChunk(@Param("id") UUID id, @Param("error") String error);
+}
@@ -0,0 +1,34 @@
+package com.exalt.warehousing.fulfillment.repository;
+
+import com.exalt.warehousing.fulfillment.entity.OrderTrackingNumber;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for tracking numbers of the order tracking read model
+ */
+@Repository
+public interface OrderTrackingNumberRepository extends JpaRepository<OrderTrackingNumber, OrderTrackingNumber.Key> {
+
+    /**
+     * Find the orders a normalized tracking number belongs to
+     * @param trackingNumber the normalized tracking number
+     * @return the tracking number rows, one per order
+     */
+    List<OrderTrackingNumber> findByTrackingNumber(String trackingNumber);
+
+    /**
+     * Remove the tracking numbers of an order. Runs as a statement right
+     * away, so the numbers can be inserted again in the same transaction.
+     * @param fulfillmentOrderId the fulfillment order ID
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OrderTrackingNumber n WHERE n.fulfillmentOrderId = :fulfillmentOrderId")
+    int deleteByFulfillmentOrderId(@Param("fulfillmentOrderId") String fulfillmentOrderId);
+}
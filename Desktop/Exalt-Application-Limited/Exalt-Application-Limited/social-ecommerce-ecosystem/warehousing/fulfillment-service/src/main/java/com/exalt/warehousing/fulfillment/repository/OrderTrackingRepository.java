@@ -0,0 +1,12 @@
+package com.exalt.warehousing.fulfillment.repository;
+
+import com.exalt.warehousing.fulfillment.entity.OrderTracking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the order tracking read model
+ */
+@Repository
+public interface OrderTrackingRepository extends JpaRepository<OrderTracking, String> {
+}
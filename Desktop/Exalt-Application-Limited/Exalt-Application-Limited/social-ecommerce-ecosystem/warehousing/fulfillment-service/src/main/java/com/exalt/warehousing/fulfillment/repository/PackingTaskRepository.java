@@ -144,5 +144,16 @@ public interface PackingTaskRepository extends JpaRepository<PackingTask, UUID>
            "AND t.weightKg IS NOT NULL AND t.lengthCm IS NOT NULL " +
            "AND t.widthCm IS NOT NULL AND t.heightCm IS NOT NULL")
     Object getAveragePackageDimensions();
-}
 
+    /**
+     * Count the orders per warehouse with a packing task completed since a time. Tasks
+     * reference their order by the UUID form of its ID.
+     *
+     * @param since start of the window
+     * @return rows of warehouse ID and order count
+     */
+    @Query("SELECT fo.warehouseId, COUNT(DISTINCT t.fulfillmentOrderId) FROM PackingTask t, FulfillmentOrder fo " +
+           "WHERE CAST(t.fulfillmentOrderId AS String) = fo.id AND t.completedAt >= :since " +
+           "AND fo.warehouseId IS NOT NULL GROUP BY fo.warehouseId")
+    List<Object[]> countOrdersPackedByWarehouseSince(LocalDateTime since);
+}
@@ -139,4 +139,16 @@ public interface PickingTaskRepository extends JpaRepository<PickingTask, UUID>
            "WHERE t.status = com.exalt.warehousing.fulfillment.enums.TaskStatus.COMPLETED " +
            "AND t.startedAt IS NOT NULL AND t.completedAt IS NOT NULL")
     Double getAverageCompletionTimeMinutes();
+
+    /**
+     * Count the orders per warehouse with a picking task completed since a time. Tasks
+     * reference their order by the UUID form of its ID.
+     *
+     * @param since start of the window
+     * @return rows of warehouse ID and order count
+     */
+    @Query("SELECT fo.warehouseId, COUNT(DISTINCT t.fulfillmentOrderId) FROM PickingTask t, FulfillmentOrder fo " +
+           "WHERE CAST(t.fulfillmentOrderId AS String) = fo.id AND t.completedAt >= :since " +
+           "AND fo.warehouseId IS NOT NULL GROUP BY fo.warehouseId")
+    List<Object[]> countOrdersPickedByWarehouseSince(LocalDateTime since);
 }
@@ -30,6 +30,16 @@ public interface FulfillmentOrderService {
      */
     FulfillmentOrder getFulfillmentOrder(String fulfillmentOrderId);
 
+    /**
+     * Get a fulfillment order by ID for display, reading it from the archive
+     * once it has been archived. Archived orders are detached and must not be
+     * changed.
+     *
+     * @param fulfillmentOrderId the fulfillment order ID
+     * @return the fulfillment order if found
+     */
+    FulfillmentOrder getFulfillmentOrderIncludingArchived(String fulfillmentOrderId);
+
     /**
      * Get fulfillment orders by order ID
      *
@@ -98,6 +108,13 @@ public interface FulfillmentOrderService {
      */
     Map<String, Object> getFulfillmentStatistics(LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Get the current number of orders per status and per warehouse
+     *
+     * @return map of order counts
+     */
+    Map<String, Object> getLiveOrderCounts();
+
     /**
      * Split a fulfillment order into multiple orders (for multi-warehouse fulfillment)
      *
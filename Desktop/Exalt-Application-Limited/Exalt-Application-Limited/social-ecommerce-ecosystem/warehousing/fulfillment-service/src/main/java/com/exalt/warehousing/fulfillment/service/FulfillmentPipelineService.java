@@ -0,0 +1,48 @@
+package com.exalt.warehousing.fulfillment.service;
+
+import com.exalt.warehousing.fulfillment.dto.StageCheckpointDTO;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStage;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for moving orders through the fulfillment stages that
+ * need no warehouse staff, in the background and one stage at a time
+ */
+public interface FulfillmentPipelineService {
+
+    /**
+     * Queue the stage that starts from the order's current status
+     *
+     * @param fulfillmentOrderId the fulfillment order ID
+     * @return the checkpoint of the stage, empty if the order waits for staff or is finished
+     */
+    Optional<StageCheckpointDTO> submit(String fulfillmentOrderId);
+
+    /**
+     * Get the pipeline progress of an order
+     *
+     * @param fulfillmentOrderId the fulfillment order ID
+     * @return the checkpoints, in the order the stages were entered
+     */
+    List<StageCheckpointDTO> getCheckpoints(String fulfillmentOrderId);
+
+    /**
+     * Queue a stage again that failed all its attempts
+     *
+     * @param fulfillmentOrderId the fulfillment order ID
+     * @param stage the failed stage
+     * @return the checkpoint of the stage
+     */
+    StageCheckpointDTO retry(String fulfillmentOrderId, FulfillmentStage stage);
+
+    /**
+     * Queue the stages that are due: retries whose backoff has passed, stages
+     * left by a worker that stopped, stages that did not fit in a full queue
+     * and orders whose change was not seen by this instance
+     *
+     * @return the number of stages queued
+     */
+    int resumeDueStages();
+}
@@ -0,0 +1,37 @@
+package com.exalt.warehousing.fulfillment.service;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+
+import java.util.Optional;
+
+/**
+ * Service interface for moving finished orders out of the hot tables and
+ * reading them back
+ */
+public interface OrderArchiveService {
+
+    /**
+     * Move shipped, delivered and cancelled orders that have not changed for
+     * the configured age to the archive tables, in chunks that commit
+     * independently
+     *
+     * @return the number of orders archived
+     */
+    int archiveFinishedOrders();
+
+    /**
+     * Find an archived order with its items and events
+     *
+     * @param fulfillmentOrderId the fulfillment order ID
+     * @return the order, detached and read-only, if it was archived
+     */
+    Optional<FulfillmentOrder> findArchivedOrder(String fulfillmentOrderId);
+
+    /**
+     * Find an archived order by external order ID
+     *
+     * @param externalOrderId the external order ID
+     * @return the order, detached and read-only, if it was archived
+     */
+    Optional<FulfillmentOrder> findArchivedOrderByExternalOrderId(String externalOrderId);
+}
@@ -0,0 +1,21 @@
+package com.exalt.warehousing.fulfillment.service;
+
+import com.exalt.warehousing.fulfillment.dto.BatchOperationResult;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+
+import java.util.List;
+
+/**
+ * Service interface for bulk fulfillment order ingestion
+ */
+public interface OrderIngestionService {
+
+    /**
+     * Create a batch of fulfillment orders. Each order is validated and
+     * persisted on its own merits, so one bad order does not fail the batch.
+     *
+     * @param orders the fulfillment orders to create, with their items
+     * @return the batch result with one entry per order, in request order
+     */
+    BatchOperationResult createFulfillmentOrders(List<FulfillmentOrder> orders);
+}
@@ -0,0 +1,48 @@
+package com.exalt.warehousing.fulfillment.service;
+
+import com.exalt.warehousing.fulfillment.dto.ReassignmentJobDTO;
+
+import java.util.UUID;
+
+/**
+ * Service interface for moving large numbers of orders in bulk, in chunks
+ * that commit independently and can be resumed
+ */
+public interface OrderReassignmentService {
+
+    /**
+     * Move every open order of a warehouse to the best alternate warehouse,
+     * putting orders no warehouse can fill on hold. An unfinished run for the
+     * same warehouse is resumed instead of starting a new one.
+     *
+     * @param warehouseId the warehouse that went offline
+     * @return the job with its final progress
+     */
+    ReassignmentJobDTO reassignFromWarehouse(UUID warehouseId);
+
+    /**
+     * Share the remaining stock of a SKU across pending orders in queue order,
+     * backordering the orders it does not cover
+     *
+     * @param sku the SKU running low
+     * @param warehouseId the warehouse that raised the alert
+     * @return the job with its final progress
+     */
+    ReassignmentJobDTO allocateLowStock(String sku, UUID warehouseId);
+
+    /**
+     * Resume a job, processing the orders it still affects
+     *
+     * @param jobId the job ID
+     * @return the job with its final progress
+     */
+    ReassignmentJobDTO resume(UUID jobId);
+
+    /**
+     * Get the progress of a job
+     *
+     * @param jobId the job ID
+     * @return the job
+     */
+    ReassignmentJobDTO getJob(UUID jobId);
+}
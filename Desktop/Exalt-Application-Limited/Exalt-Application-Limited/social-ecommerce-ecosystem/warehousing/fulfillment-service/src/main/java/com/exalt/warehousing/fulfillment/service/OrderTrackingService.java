@@ -0,0 +1,45 @@
+package com.exalt.warehousing.fulfillment.service;
+
+import com.exalt.warehousing.fulfillment.dto.OrderTrackingResponse;
+import com.exalt.warehousing.fulfillment.dto.ShipmentPackageDTO;
+
+import java.util.Collection;
+
+/**
+ * Service interface for customer tracking lookups, answered from the order
+ * tracking read model rather than the order and shipment tables
+ */
+public interface OrderTrackingService {
+
+    /**
+     * Get tracking information for a fulfillment order
+     *
+     * @param fulfillmentOrderId the fulfillment order ID
+     * @return the tracking information
+     */
+    OrderTrackingResponse getOrderTracking(String fulfillmentOrderId);
+
+    /**
+     * Get tracking information for the order holding a shipment
+     *
+     * @param trackingNumber the carrier tracking number
+     * @return the tracking information of the order
+     */
+    OrderTrackingResponse getOrderTrackingByTrackingNumber(String trackingNumber);
+
+    /**
+     * Get a shipment by tracking number
+     *
+     * @param trackingNumber the carrier tracking number
+     * @return the shipment
+     */
+    ShipmentPackageDTO getShipmentByTrackingNumber(String trackingNumber);
+
+    /**
+     * Rebuild the read model rows of orders from their current state,
+     * removing the rows of orders that no longer exist
+     *
+     * @param fulfillmentOrderIds the fulfillment order IDs
+     */
+    void project(Collection<String> fulfillmentOrderIds);
+}
@@ -0,0 +1,113 @@
+package com.exalt.warehousing.fulfillment.service;
+
+import com.exalt.warehousing.fulfillment.dto.FulfillmentCapacityReport;
+import com.exalt.warehousing.fulfillment.dto.SourcingCandidate;
+import com.exalt.warehousing.fulfillment.dto.SourcingRequest;
+import com.exalt.warehousing.fulfillment.dto.SplitPlan;
+import com.exalt.warehousing.fulfillment.entity.Address;
+import com.exalt.warehousing.fulfillment.sourcing.SourcingLedger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service interface for choosing the warehouse an order is fulfilled from
+ */
+public interface WarehouseSourcingService {
+
+    /**
+     * Rank the active warehouses that can fill a demand, best first
+     *
+     * @param demand quantity required per SKU
+     * @param destination the shipping address, or null if unknown
+     * @param currentWarehouseId the warehouse the demand is moving away from, excluded from the ranking, or null
+     * @return warehouses holding the full demand, ordered by score
+     */
+    List<SourcingCandidate> rankWarehouses(Map<String, Integer> demand, Address destination, UUID currentWarehouseId);
+
+    /**
+     * Choose the best warehouse for a demand and hold its stock locally, so
+     * later decisions see the reduced availability
+     *
+     * @param demand quantity required per SKU
+     * @param destination the shipping address, or null if unknown
+     * @param currentWarehouseId the warehouse the demand is moving away from, or null
+     * @return the chosen warehouse, empty if no active warehouse holds the full demand
+     */
+    Optional<UUID> sourceWarehouse(Map<String, Integer> demand, Address destination, UUID currentWarehouseId);
+
+    /**
+     * Choose warehouses for many orders in one decision: availability,
+     * warehouses and backlog are read once, and each choice reduces the
+     * stock and raises the backlog the following orders are ranked against
+     *
+     * @param requests the orders to source, in the order they should be served
+     * @param currentWarehouseId the warehouse the orders are moving away from, or null
+     * @return the chosen warehouse by order ID; orders no warehouse can fill are left out
+     */
+    Map<String, UUID> sourceWarehouses(List<SourcingRequest> requests, UUID currentWarehouseId);
+
+    /**
+     * Choose warehouses for many orders against a ledger shared with other
+     * decisions of the same run. Decisions sharing a ledger are serialised,
+     * so concurrent callers never promise the same stock twice
+     *
+     * @param requests the orders to source, in the order they should be served
+     * @param currentWarehouseId the warehouse the orders are moving away from, or null
+     * @param ledger the run's ledger, from {@link #newLedger()}
+     * @return the chosen warehouse by order ID; orders no warehouse can fill are left out
+     */
+    Map<String, UUID> sourceWarehouses(List<SourcingRequest> requests, UUID currentWarehouseId, SourcingLedger ledger);
+
+    /**
+     * Start a ledger for a run of sourcing decisions made in several parts
+     *
+     * @return a ledger starting from the current warehouse capacity
+     */
+    SourcingLedger newLedger();
+
+    /**
+     * Split a demand no single warehouse can fill across the fewest active
+     * warehouses, and among those the cheapest, and hold the allocated stock
+     * locally
+     *
+     * @param demand quantity required per SKU
+     * @param destination the shipping address, or null if unknown
+     * @return the split, empty if the active warehouses together do not hold the demand
+     */
+    Optional<SplitPlan> planSplit(Map<String, Integer> demand, Address destination);
+
+    /**
+     * Get the available quantity of a SKU at a warehouse
+     *
+     * @param sku the SKU
+     * @param warehouseId the warehouse ID
+     * @return the available quantity
+     */
+    int getAvailableQuantity(String sku, UUID warehouseId);
+
+    /**
+     * Load availability for a set of SKUs ahead of sourcing many orders
+     *
+     * @param skus the SKUs about to be sourced
+     */
+    void prefetch(Collection<String> skus);
+
+    /**
+     * Report the live capacity of every active warehouse: backlog and measured
+     * throughput per stage, and whether it is saturated
+     *
+     * @return one report per active warehouse
+     */
+    List<FulfillmentCapacityReport> getCapacityReports();
+
+    /**
+     * Drop cached availability for a SKU whose stock is known to have changed
+     *
+     * @param sku the SKU
+     */
+    void invalidate(String sku);
+}
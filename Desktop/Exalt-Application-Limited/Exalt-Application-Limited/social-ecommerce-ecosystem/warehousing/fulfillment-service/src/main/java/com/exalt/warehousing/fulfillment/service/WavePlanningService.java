@@ -0,0 +1,31 @@
+package com.exalt.warehousing.fulfillment.service;
+
+import com.exalt.warehousing.fulfillment.dto.WaveDTO;
+
+import java.util.List;
+
+/**
+ * Service interface for planning and releasing picking waves
+ */
+public interface WavePlanningService {
+
+    /**
+     * Plan waves for the orders of a warehouse that are ready for picking,
+     * without changing any order
+     *
+     * @param warehouseId the warehouse ID
+     * @param availablePickers the number of pickers a wave is sized for
+     * @return planned waves in release order
+     */
+    List<WaveDTO> planWaves(Long warehouseId, int availablePickers);
+
+    /**
+     * Plan waves and release as many as the available pickers can take:
+     * released orders move to PICKING and get one picking task per zone
+     *
+     * @param warehouseId the warehouse ID
+     * @param availablePickers the number of available pickers
+     * @return the released waves
+     */
+    List<WaveDTO> releaseWaves(Long warehouseId, int availablePickers);
+}
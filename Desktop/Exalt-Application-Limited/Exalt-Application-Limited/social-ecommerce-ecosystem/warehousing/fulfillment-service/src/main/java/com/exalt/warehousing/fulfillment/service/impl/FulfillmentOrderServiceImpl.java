@@ -1,24 +1,30 @@
 package com.exalt.warehousing.fulfillment.service.impl;
 
+import com.exalt.warehousing.fulfillment.dto.SplitPlan;
+import com.exalt.warehousing.fulfillment.dto.SplitShipment;
 import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
 import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
 import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
 import com.exalt.warehousing.fulfillment.enums.InventoryStatus;
 import com.exalt.warehousing.fulfillment.enums.ItemFulfillmentStatus;
+import com.exalt.warehousing.fulfillment.exception.FulfillmentException;
 import com.exalt.warehousing.fulfillment.exception.ResourceNotFoundException;
 import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
 import com.exalt.warehousing.fulfillment.service.FulfillmentOrderService;
+import com.exalt.warehousing.fulfillment.service.OrderArchiveService;
+import com.exalt.warehousing.fulfillment.service.WarehouseSourcingService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of the FulfillmentOrderService
@@ -31,6 +37,16 @@ public class FulfillmentOrderServiceImpl implements FulfillmentOrderService {
 
     private final FulfillmentOrderRepository fulfillmentOrderRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final WarehouseSourcingService warehouseSourcingService;
+    private final OrderArchiveService orderArchiveService;
+
+    @Value("${fulfillment.queue.dequeue-batch-size:100}")
+    private int dequeueBatchSize;
+
+    // Orders that have not been handed to a warehouse yet
+    private static final Set<FulfillmentStatus> SPLITTABLE_STATUSES = EnumSet.of(
+            FulfillmentStatus.NEW, FulfillmentStatus.PENDING, FulfillmentStatus.RECEIVED,
+            FulfillmentStatus.VALIDATED, FulfillmentStatus.PENDING_INVENTORY, FulfillmentStatus.BACKORDERED);
 
     @Override
     @Transactional
@@ -86,13 +102,25 @@ public class FulfillmentOrderServiceImpl implements FulfillmentOrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Fulfillment order not found with ID: " + fulfillmentOrderId));
     }
 
+    @Override
+    public FulfillmentOrder getFulfillmentOrderIncludingArchived(String fulfillmentOrderId) {
+        return fulfillmentOrderRepository.findById(fulfillmentOrderId)
+                .or(() -> orderArchiveService.findArchivedOrder(fulfillmentOrderId))
+                .orElseThrow(() -> new ResourceNotFoundException("Fulfillment order not found with ID: " + fulfillmentOrderId));
+    }
+
     @Override
     public List<FulfillmentOrder> getFulfillmentOrdersByOrderId(String orderId) {
         log.debug("Getting fulfillment orders for order ID: {}", orderId);
         
         
-        Optional<FulfillmentOrder> optionalOrder = fulfillmentOrderRepository.findByExternalOrderId(orderId);
-        return optionalOrder.map(Arrays::asList).orElse(Collections.emptyList());
+        // The order and any orders split off it
+        List<FulfillmentOrder> orders = fulfillmentOrderRepository.findAllForExternalOrderId(orderId);
+        if (!orders.isEmpty()) {
+            return orders;
+        }
+        return orderArchiveService.findArchivedOrderByExternalOrderId(orderId)
+                .map(Arrays::asList).orElse(Collections.emptyList());
     }
 
     @Override
@@ -219,16 +247,17 @@ public class FulfillmentOrderServiceImpl implements FulfillmentOrderService {
     public int processPendingOrders() {
         log.info("Processing pending fulfillment orders");
         
-        List<FulfillmentOrder> pendingOrders = fulfillmentOrderRepository.findPendingOrders();
+        // Most urgent first; orders another instance is processing are skipped
+        List<FulfillmentOrder> pendingOrders = fulfillmentOrderRepository.dequeuePendingOrders(dequeueBatchSize);
         int processedCount = 0;
         
         for (FulfillmentOrder order : pendingOrders) {
             try {
-                // For now, just move to PROCESSING status
-                // In real implementation, would check inventory
-                order.setStatus(FulfillmentStatus.PROCESSING);
-                fulfillmentOrderRepository.save(order);
-                processedCount++;
+                // Orders no warehouse combination can fill wait in PENDING_INVENTORY
+                sourceOrSplit(order);
+                if (order.getStatus() == FulfillmentStatus.PROCESSING) {
+                    processedCount++;
+                }
             } catch (Exception e) {
                 log.error("Error processing fulfillment order {}: {}", order.getId(), e.getMessage(), e);
             }
@@ -282,51 +311,250 @@ public class FulfillmentOrderServiceImpl implements FulfillmentOrderService {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
         
-        List<FulfillmentOrder> orders = fulfillmentOrderRepository.findByCreatedAtBetween(startDateTime, endDateTime);
-        
         Map<String, Object> statistics = new HashMap<>();
         
-        // Count orders by status
-        Map<FulfillmentStatus, Long> ordersByStatus = orders.stream()
-                .collect(Collectors.groupingBy(FulfillmentOrder::getStatus, Collectors.counting()));
+        // Count orders by status, aggregated in the database
+        Map<FulfillmentStatus, Long> ordersByStatus = new EnumMap<>(FulfillmentStatus.class);
+        for (Object[] row : fulfillmentOrderRepository.countByStatusCreatedBetween(startDateTime, endDateTime)) {
+            ordersByStatus.put((FulfillmentStatus) row[0], ((Number) row[1]).longValue());
+        }
         statistics.put("ordersByStatus", ordersByStatus);
         
         // Total orders
-        statistics.put("totalOrders", orders.size());
+        statistics.put("totalOrders", ordersByStatus.values().stream().mapToLong(Long::longValue).sum());
         
-        // Completed orders
-        long completedOrders = orders.stream()
-                .filter(FulfillmentOrder::isCompleted)
-                .count();
+        // Completed orders, see FulfillmentOrder#isCompleted
+        long completedOrders = ordersByStatus.getOrDefault(FulfillmentStatus.COMPLETED, 0L)
+                + ordersByStatus.getOrDefault(FulfillmentStatus.DELIVERED, 0L)
+                + ordersByStatus.getOrDefault(FulfillmentStatus.SHIPPED, 0L);
         statistics.put("completedOrders", completedOrders);
         
         // Cancelled orders
-        long cancelledOrders = orders.stream()
-                .filter(o -> o.getStatus() == FulfillmentStatus.CANCELLED)
-                .count();
-        statistics.put("cancelledOrders", cancelledOrders);
+        statistics.put("cancelledOrders", ordersByStatus.getOrDefault(FulfillmentStatus.CANCELLED, 0L));
         
         // Average processing time (in hours)
-        double avgProcessingTime = orders.stream()
-                .filter(o -> o.getShippedAt() != null && o.getCreatedAt() != null)
-                .mapToLong(o -> java.time.Duration.between(o.getCreatedAt(), o.getShippedAt()).toHours())
-                .average()
-                .orElse(0.0);
-        statistics.put("averageProcessingTimeHours", avgProcessingTime);
+        Double avgProcessingTime = fulfillmentOrderRepository.averageProcessingHoursCreatedBetween(startDateTime, endDateTime);
+        statistics.put("averageProcessingTimeHours", avgProcessingTime != null ? avgProcessingTime : 0.0);
         
         return statistics;
     }
 
+    @Override
+    public Map<String, Object> getLiveOrderCounts() {
+        log.debug("Getting live fulfillment order counts");
+        
+        Map<FulfillmentStatus, Long> ordersByStatus = new EnumMap<>(FulfillmentStatus.class);
+        for (Object[] row : fulfillmentOrderRepository.sumOrderCountersByStatus()) {
+            ordersByStatus.put(FulfillmentStatus.valueOf((String) row[0]), ((Number) row[1]).longValue());
+        }
+        
+        Map<Long, Map<FulfillmentStatus, Long>> ordersByWarehouse = new TreeMap<>();
+        for (Object[] row : fulfillmentOrderRepository.sumOrderCountersByWarehouseAndStatus()) {
+            ordersByWarehouse.computeIfAbsent(((Number) row[0]).longValue(), id -> new EnumMap<>(FulfillmentStatus.class))
+                    .put(FulfillmentStatus.valueOf((String) row[1]), ((Number) row[2]).longValue());
+        }
+        
+        Map<String, Object> counts = new HashMap<>();
+        counts.put("ordersByStatus", ordersByStatus);
+        counts.put("ordersByWarehouse", ordersByWarehouse);
+        counts.put("totalOrders", ordersByStatus.values().stream().mapToLong(Long::longValue).sum());
+        return counts;
+    }
+
     @Override
     @Transactional
     public List<FulfillmentOrder> splitFulfillmentOrder(String fulfillmentOrderId) {
         log.info("Splitting fulfillment order: {}", fulfillmentOrderId);
         
         FulfillmentOrder originalOrder = getFulfillmentOrder(fulfillmentOrderId);
+        if (!SPLITTABLE_STATUSES.contains(originalOrder.getStatus())) {
+            throw new FulfillmentException("Cannot split fulfillment order " + fulfillmentOrderId
+                    + " in status " + originalOrder.getStatus());
+        }
         
-        // For now, just return the original order
-        // In real implementation, would split based on warehouse availability
-        return List.of(originalOrder);
+        return sourceOrSplit(originalOrder);
+    }
+
+    /**
+     * Ship the order from one warehouse when one holds all of it, otherwise
+     * split it across the fewest and cheapest warehouses that do. The order
+     * keeps the largest shipment and a new order is created for each other
+     * shipment, all saved in the caller's transaction.
+     *
+     * @return the order followed by the orders split off it
+     */
+    private List<FulfillmentOrder> sourceOrSplit(FulfillmentOrder order) {
+        Map<String, Integer> demand = new LinkedHashMap<>();
+        for (FulfillmentOrderItem item : order.getOrderItems()) {
+            if (item.getSku() != null && item.getQuantity() != null && item.getQuantity() > 0) {
+                demand.merge(item.getSku(), item.getQuantity(), Integer::sum);
+            }
+        }
+        if (demand.isEmpty()) {
+            throw new FulfillmentException("Fulfillment order " + order.getId() + " has no items to source");
+        }
+
+        Optional<UUID> single = warehouseSourcingService.sourceWarehouse(demand, order.getShippingAddress(), null);
+        if (single.isPresent()) {
+            order.setAssignedWarehouseId(single.get());
+            order.setStatus(FulfillmentStatus.PROCESSING);
+            FulfillmentOrder assigned = fulfillmentOrderRepository.save(order);
+            publishFulfillmentOrderEvent(assigned, "FULFILLMENT_ORDER_ASSIGNED");
+            return List.of(assigned);
+        }
+
+        Optional<SplitPlan> plan = warehouseSourcingService.planSplit(demand, order.getShippingAddress());
+        if (plan.isEmpty()) {
+            // Requeued to PENDING when stock of one of its SKUs arrives
+            order.setStatus(FulfillmentStatus.PENDING_INVENTORY);
+            order.addNote("No combination of warehouses can fill the order");
+            return List.of(fulfillmentOrderRepository.save(order));
+        }
+        if (!plan.get().isOptimal()) {
+            log.info("Split search for fulfillment order {} hit its budget, using best split found", order.getId());
+        }
+
+        List<SplitShipment> shipments = new ArrayList<>(plan.get().getShipments());
+        shipments.sort(Comparator.comparingInt((SplitShipment shipment) -> units(shipment)).reversed());
+
+        // Hand out each line's quantity to the shipments carrying its SKU
+        Map<SplitShipment, Map<String, Integer>> open = new LinkedHashMap<>();
+        shipments.forEach(shipment -> open.put(shipment, new HashMap<>(shipment.getQuantities())));
+        Map<SplitShipment, List<FulfillmentOrderItem>> childItems = new LinkedHashMap<>();
+        SplitShipment kept = shipments.get(0);
+
+        for (FulfillmentOrderItem item : new ArrayList<>(order.getOrderItems())) {
+            if (item.getSku() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                continue;
+            }
+            int remaining = item.getQuantity();
+            int keptQuantity = 0;
+            for (SplitShipment shipment : shipments) {
+                int take = Math.min(remaining, open.get(shipment).getOrDefault(item.getSku(), 0));
+                if (take == 0) {
+                    continue;
+                }
+                open.get(shipment).merge(item.getSku(), -take, Integer::sum);
+                remaining -= take;
+                if (shipment == kept) {
+                    keptQuantity = take;
+                } else {
+                    childItems.computeIfAbsent(shipment, s -> new ArrayList<>()).add(copyItem(item, take));
+                }
+                if (remaining == 0) {
+                    break;
+                }
+            }
+            if (keptQuantity == 0) {
+                order.getOrderItems().remove(item);
+            } else if (keptQuantity < item.getQuantity()) {
+                item.setQuantity(keptQuantity);
+                if (item.getUnitPrice() != null) {
+                    item.setTotalPrice(item.getUnitPrice().multiply(BigDecimal.valueOf(keptQuantity)));
+                }
+            }
+        }
+
+        assignShipment(order, kept);
+        order.addNote("Split into " + shipments.size() + " shipments");
+
+        List<FulfillmentOrder> orders = new ArrayList<>();
+        orders.add(order);
+        int part = 1;
+        for (Map.Entry<SplitShipment, List<FulfillmentOrderItem>> entry : childItems.entrySet()) {
+            FulfillmentOrder child = copyOrder(order, ++part);
+            entry.getValue().forEach(child::addOrderItem);
+            assignShipment(child, entry.getKey());
+            orders.add(child);
+        }
+
+        List<FulfillmentOrder> saved = fulfillmentOrderRepository.saveAll(orders);
+        saved.forEach(savedOrder -> publishFulfillmentOrderEvent(savedOrder, "FULFILLMENT_ORDER_SPLIT"));
+        log.info("Split fulfillment order {} into {} orders", order.getId(), saved.size());
+        return saved;
+    }
+
+    private static int units(SplitShipment shipment) {
+        return shipment.getQuantities().values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private void assignShipment(FulfillmentOrder order, SplitShipment shipment) {
+        order.setAssignedWarehouseId(shipment.getWarehouseId());
+        order.setWarehouseName(shipment.getWarehouseName());
+        order.setShippingCost(shipment.getShippingCost());
+        order.setStatus(FulfillmentStatus.PROCESSING);
+        order.setTotalItems(order.getOrderItems().stream().mapToInt(FulfillmentOrderItem::getQuantity).sum());
+    }
+
+    /**
+     * A new order for one shipment of a split, with the customer, shipping and
+     * handling details of the order it was split from. The split has no ID in
+     * the order system, so it is keyed by its own order number and refers to
+     * the order system's ID through its parent external order ID.
+     */
+    private FulfillmentOrder copyOrder(FulfillmentOrder parent, int part) {
+        FulfillmentOrder child = new FulfillmentOrder();
+        child.setOrderNumber(parent.getOrderNumber() + "-" + part);
+        child.setExternalOrderId(child.getOrderNumber());
+        child.setParentExternalOrderId(parent.getOriginalExternalOrderId());
+        child.setOrderDate(parent.getOrderDate());
+        child.setDueDate(parent.getDueDate());
+        child.setCustomerId(parent.getCustomerId());
+        child.setCustomerName(parent.getCustomerName());
+        child.setCustomerEmail(parent.getCustomerEmail());
+        child.setCustomerPhone(parent.getCustomerPhone());
+        child.setFulfillmentType(parent.getFulfillmentType());
+        child.setPriority(parent.getPriority());
+        child.setPriorityScore(parent.getPriorityScore());
+        child.setCurrency(parent.getCurrency());
+        child.setShippingAddress(parent.getShippingAddress());
+        child.setShippingMethod(parent.getShippingMethod());
+        child.setSlaDeadline(parent.getSlaDeadline());
+        child.setInventoryStatus(parent.getInventoryStatus());
+        child.setIsGift(parent.getIsGift());
+        child.setGiftMessage(parent.getGiftMessage());
+        child.setRequiresSignature(parent.getRequiresSignature());
+        child.setIsFragile(parent.getIsFragile());
+        child.setRequiresAgeVerification(parent.getRequiresAgeVerification());
+        child.setIsHazmat(parent.getIsHazmat());
+        child.setHazmatClass(parent.getHazmatClass());
+        child.setIsExpedited(parent.getIsExpedited());
+        child.setCustomerNotes(parent.getCustomerNotes());
+        child.setShippingInstructions(parent.getShippingInstructions());
+        child.setSourceSystem(parent.getSourceSystem());
+        child.setSourceChannel(parent.getSourceChannel());
+        Map<String, String> tags = parent.getTags() != null ? new HashMap<>(parent.getTags()) : new HashMap<>();
+        tags.put("splitFrom", parent.getExternalOrderId());
+        child.setTags(tags);
+        return child;
+    }
+
+    private FulfillmentOrderItem copyItem(FulfillmentOrderItem item, int quantity) {
+        FulfillmentOrderItem copy = new FulfillmentOrderItem();
+        copy.setOrderItemId(item.getOrderItemId());
+        copy.setProductId(item.getProductId());
+        copy.setSku(item.getSku());
+        copy.setProductName(item.getProductName());
+        copy.setProductImageUrl(item.getProductImageUrl());
+        copy.setVariantId(item.getVariantId());
+        copy.setVariantName(item.getVariantName());
+        copy.setQuantity(quantity);
+        copy.setUnitPrice(item.getUnitPrice());
+        if (item.getUnitPrice() != null) {
+            copy.setTotalPrice(item.getUnitPrice().multiply(BigDecimal.valueOf(quantity)));
+        }
+        copy.setWeight(item.getWeight());
+        copy.setWeightUnit(item.getWeightUnit());
+        copy.setDimensions(item.getDimensions());
+        copy.setRequiresSpecialHandling(item.getRequiresSpecialHandling());
+        copy.setSpecialInstructions(item.getSpecialInstructions());
+        copy.setIsFragile(item.getIsFragile());
+        copy.setIsHazmat(item.getIsHazmat());
+        copy.setIsTemperatureControlled(item.getIsTemperatureControlled());
+        copy.setTemperatureRange(item.getTemperatureRange());
+        copy.setIsReturnable(item.getIsReturnable());
+        copy.setReturnWindowDays(item.getReturnWindowDays());
+        return copy;
     }
 
     @Override
@@ -440,7 +668,7 @@ public class FulfillmentOrderServiceImpl implements FulfillmentOrderService {
         Map<String, Object> event = new HashMap<>();
         event.put("eventType", eventType);
         event.put("fulfillmentOrderId", order.getId());
-        event.put("orderId", order.getExternalOrderId());
+        event.put("orderId", order.getOriginalExternalOrderId());
         event.put("status", order.getStatus());
         event.put("warehouseId", order.getWarehouseId());
         event.put("timestamp", LocalDateTime.now());
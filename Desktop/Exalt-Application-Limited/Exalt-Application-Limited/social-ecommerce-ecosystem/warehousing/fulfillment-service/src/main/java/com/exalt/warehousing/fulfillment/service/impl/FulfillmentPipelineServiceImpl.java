@@ -0,0 +1,432 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.StageCheckpointDTO;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentStageCheckpoint;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStage;
+import com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus;
+import com.exalt.warehousing.fulfillment.event.OrderChangedEvent;
+import com.exalt.warehousing.fulfillment.exception.FulfillmentException;
+import com.exalt.warehousing.fulfillment.exception.ResourceNotFoundException;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentStageCheckpointRepository;
+import com.exalt.warehousing.fulfillment.service.FulfillmentPipelineService;
+import com.exalt.warehousing.fulfillment.service.FulfillmentService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the fulfillment pipeline.
+ *
+ * Every stage has its own worker pool and bounded queue, so a slow
+ * inventory call holds up allocation only, and each pool can be sized for
+ * its stage. A stage runs the existing service operation for it in its own
+ * transaction; the status change it commits is seen by the order change
+ * listener, which queues the next stage. Stages that wait for staff
+ * (picking, packing, handing over to the carrier) are left to the existing
+ * endpoints, and the pipeline picks the order up again when they complete.
+ * Allocated orders are left to wave planning to release to picking. The
+ * order row is locked while a stage checks its status and moves it on, so
+ * two workers or a worker and an endpoint cannot both act on one status.
+ *
+ * Progress is kept in one checkpoint row per order and stage. A worker
+ * claims the checkpoint before running the stage and records the outcome
+ * after; failures are retried with exponential backoff up to the configured
+ * number of attempts. Nothing is held in memory that the checkpoints do not
+ * also record: a full queue, a lost change notification or a restart only
+ * delays a stage until the next sweep queues it from the database.
+ */
+@Slf4j
+@Service
+public class FulfillmentPipelineServiceImpl implements FulfillmentPipelineService {
+
+    private final FulfillmentService fulfillmentService;
+    private final FulfillmentOrderRepository fulfillmentOrderRepository;
+    private final FulfillmentStageCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long retryBackoffSeconds;
+    private final long leaseSeconds;
+    private final long sweepIntervalSeconds;
+
+    private final Map<FulfillmentStage, ThreadPoolExecutor> workers = new EnumMap<>(FulfillmentStage.class);
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingAdmissions = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean admissionRequested = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    public FulfillmentPipelineServiceImpl(FulfillmentService fulfillmentService,
+                                          FulfillmentOrderRepository fulfillmentOrderRepository,
+                                          FulfillmentStageCheckpointRepository checkpointRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${fulfillment.pipeline.enabled:true}") boolean enabled,
+                                          @Value("${fulfillment.pipeline.workers:ALLOCATION=4,PACK_RELEASE=2,SHIP_RELEASE=2}") String workers,
+                                          @Value("${fulfillment.pipeline.queue-capacity:500}") int queueCapacity,
+                                          @Value("${fulfillment.pipeline.max-attempts:5}") int maxAttempts,
+                                          @Value("${fulfillment.pipeline.retry-backoff-seconds:10}") long retryBackoffSeconds,
+                                          @Value("${fulfillment.pipeline.lease-seconds:300}") long leaseSeconds,
+                                          @Value("${fulfillment.pipeline.sweep-interval-seconds:15}") long sweepIntervalSeconds) {
+        this.fulfillmentService = fulfillmentService;
+        this.fulfillmentOrderRepository = fulfillmentOrderRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffSeconds = retryBackoffSeconds;
+        this.leaseSeconds = leaseSeconds;
+        this.sweepIntervalSeconds = sweepIntervalSeconds;
+
+        Map<String, Integer> poolSizes = parseWorkers(workers);
+        for (FulfillmentStage stage : FulfillmentStage.values()) {
+            int size = poolSizes.getOrDefault(stage.name(), 1);
+            String name = "pipeline-" + stage.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            this.workers.put(stage, new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    }));
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runScheduled, sweepIntervalSeconds, sweepIntervalSeconds,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        // Running stages finish; queued checkpoints are still due and go to the next sweep on any instance
+        workers.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    /**
+     * Admit changed orders to the stage their new status starts, on the sweep
+     * thread so the committing request does not wait for it
+     */
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!enabled || event.orderIds().isEmpty()) {
+            return;
+        }
+        pendingAdmissions.addAll(event.orderIds());
+        if (admissionRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                admissionRequested.set(false);
+                List<String> ids = new ArrayList<>(pendingAdmissions);
+                pendingAdmissions.removeAll(ids);
+                admit(ids);
+            });
+        }
+    }
+
+    @Override
+    public Optional<StageCheckpointDTO> submit(String fulfillmentOrderId) {
+        return admitOrder(fulfillmentOrderId).map(checkpoint -> {
+            enqueue(checkpoint);
+            return toDTO(checkpoint);
+        });
+    }
+
+    @Override
+    public List<StageCheckpointDTO> getCheckpoints(String fulfillmentOrderId) {
+        return checkpointRepository.findAllByFulfillmentOrderIdOrderByCreatedAtAsc(fulfillmentOrderId).stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public StageCheckpointDTO retry(String fulfillmentOrderId, FulfillmentStage stage) {
+        FulfillmentStageCheckpoint checkpoint = transactionTemplate.execute(status -> {
+            FulfillmentStageCheckpoint failed = checkpointRepository
+                    .findByFulfillmentOrderIdAndStage(fulfillmentOrderId, stage)
+                    .orElseThrow(() -> new ResourceNotFoundException("FulfillmentStageCheckpoint", "stage",
+                            fulfillmentOrderId + "/" + stage));
+            if (failed.getStatus() != StageCheckpointStatus.FAILED) {
+                throw new FulfillmentException("Only failed stages can be retried, stage " + stage + " is "
+                        + failed.getStatus());
+            }
+            reset(failed, LocalDateTime.now());
+            return checkpointRepository.save(failed);
+        });
+        log.info("Retrying stage {} of fulfillment order {}", stage, fulfillmentOrderId);
+        enqueue(checkpoint);
+        return toDTO(checkpoint);
+    }
+
+    @Override
+    public int resumeDueStages() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer released = transactionTemplate.execute(status ->
+                checkpointRepository.releaseStalled(now.minusSeconds(leaseSeconds), now));
+        if (released != null && released > 0) {
+            log.warn("Released {} pipeline stages whose worker stopped without finishing", released);
+        }
+
+        int resumed = 0;
+        for (FulfillmentStage stage : FulfillmentStage.values()) {
+            // Orders changed by bulk updates or on instances that went down before admitting them
+            List<String> missed = fulfillmentOrderRepository.findOrderIdsAwaitingStage(stage.getEntryStatus(), stage,
+                    now.minusSeconds(sweepIntervalSeconds), PageRequest.of(0, queueCapacity));
+            admit(missed);
+
+            int free = workers.get(stage).getQueue().remainingCapacity();
+            if (free == 0) {
+                continue;
+            }
+            for (FulfillmentStageCheckpoint checkpoint : checkpointRepository.findDue(stage, now,
+                    PageRequest.of(0, free))) {
+                if (enqueue(checkpoint)) {
+                    resumed++;
+                }
+            }
+        }
+        return resumed;
+    }
+
+    /**
+     * Run a stage for a checkpoint, if it can still be claimed, and record the outcome
+     * @param checkpointId the checkpoint ID
+     * @param stage the stage
+     * @param fulfillmentOrderId the fulfillment order ID
+     */
+    void run(UUID checkpointId, FulfillmentStage stage, String fulfillmentOrderId) {
+        Integer attempts = transactionTemplate.execute(status -> {
+            if (checkpointRepository.claim(checkpointId, LocalDateTime.now()) == 0) {
+                return null;
+            }
+            return checkpointRepository.findById(checkpointId).map(FulfillmentStageCheckpoint::getAttempts).orElse(null);
+        });
+        if (attempts == null) {
+            return;
+        }
+
+        StageCheckpointStatus outcome;
+        LocalDateTime nextAttemptAt = LocalDateTime.now();
+        String error = null;
+        try {
+            outcome = runStage(stage, fulfillmentOrderId) ? StageCheckpointStatus.COMPLETED : StageCheckpointStatus.SKIPPED;
+        } catch (RuntimeException e) {
+            if (!isAtEntryStatus(stage, fulfillmentOrderId)) {
+                // Moved on by someone else while the stage ran
+                outcome = StageCheckpointStatus.SKIPPED;
+            } else if (attempts < maxAttempts) {
+                outcome = StageCheckpointStatus.PENDING;
+                nextAttemptAt = nextAttemptAt.plusSeconds(retryBackoffSeconds << Math.min(attempts - 1, 16));
+                error = e.getMessage();
+                log.warn("Stage {} of fulfillment order {} failed on attempt {}, retrying at {}: {}",
+                        stage, fulfillmentOrderId, attempts, nextAttemptAt, e.getMessage());
+            } else {
+                outcome = StageCheckpointStatus.FAILED;
+                error = e.getMessage();
+                log.error("Stage {} of fulfillment order {} failed after {} attempts: {}",
+                        stage, fulfillmentOrderId, attempts, e.getMessage(), e);
+            }
+        }
+
+        StageCheckpointStatus finalOutcome = outcome;
+        LocalDateTime due = nextAttemptAt;
+        String message = error;
+        transactionTemplate.execute(status ->
+                checkpointRepository.finish(checkpointId, finalOutcome, due, message, LocalDateTime.now()));
+    }
+
+    // Returns false if the order is no longer where the stage starts
+    private boolean runStage(FulfillmentStage stage, String fulfillmentOrderId) {
+        Boolean ran = transactionTemplate.execute(status -> {
+            // Held until the stage's status change commits
+            boolean atEntryStatus = fulfillmentOrderRepository.lockById(fulfillmentOrderId)
+                    .map(order -> order.getStatus() == stage.getEntryStatus())
+                    .orElse(false);
+            if (!atEntryStatus) {
+                return false;
+            }
+            UUID id = UUID.fromString(fulfillmentOrderId);
+            switch (stage) {
+                case ALLOCATION:
+                    fulfillmentService.allocateInventory(id);
+                    break;
+                case PACK_RELEASE:
+                    fulfillmentService.startPacking(id);
+                    break;
+                case SHIP_RELEASE:
+                    fulfillmentService.readyToShip(id);
+                    break;
+                default:
+                    throw new IllegalStateException("No operation for stage " + stage);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private boolean isAtEntryStatus(FulfillmentStage stage, String fulfillmentOrderId) {
+        return fulfillmentOrderRepository.findById(fulfillmentOrderId)
+                .map(order -> order.getStatus() == stage.getEntryStatus())
+                .orElse(false);
+    }
+
+    private void admit(List<String> fulfillmentOrderIds) {
+        for (String fulfillmentOrderId : fulfillmentOrderIds) {
+            try {
+                admitOrder(fulfillmentOrderId).ifPresent(this::enqueue);
+            } catch (RuntimeException e) {
+                // The sweep admits the order later
+                log.warn("Failed to admit fulfillment order {} to the pipeline: {}", fulfillmentOrderId, e.getMessage());
+            }
+        }
+    }
+
+    private Optional<FulfillmentStageCheckpoint> admitOrder(String fulfillmentOrderId) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Optional<FulfillmentStage> stage = fulfillmentOrderRepository.findById(fulfillmentOrderId)
+                        .map(FulfillmentOrder::getStatus)
+                        .flatMap(FulfillmentStage::forStatus);
+                if (stage.isEmpty()) {
+                    return Optional.<FulfillmentStageCheckpoint>empty();
+                }
+                LocalDateTime now = LocalDateTime.now();
+                Optional<FulfillmentStageCheckpoint> existing = checkpointRepository
+                        .findByFulfillmentOrderIdAndStage(fulfillmentOrderId, stage.get());
+                if (existing.isEmpty()) {
+                    return Optional.of(checkpointRepository.save(FulfillmentStageCheckpoint.builder()
+                            .id(UUID.randomUUID())
+                            .fulfillmentOrderId(fulfillmentOrderId)
+                            .stage(stage.get())
+                            .status(StageCheckpointStatus.PENDING)
+                            .nextAttemptAt(now)
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .build()));
+                }
+                FulfillmentStageCheckpoint checkpoint = existing.get();
+                if (checkpoint.getStatus() == StageCheckpointStatus.COMPLETED
+                        || checkpoint.getStatus() == StageCheckpointStatus.SKIPPED) {
+                    // The order came back to the stage, e.g. after being reassigned
+                    reset(checkpoint, now);
+                    checkpoint = checkpointRepository.save(checkpoint);
+                }
+                return Optional.of(checkpoint);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Fulfillment order {} was admitted by another instance", fulfillmentOrderId);
+            return Optional.empty();
+        }
+    }
+
+    private static void reset(FulfillmentStageCheckpoint checkpoint, LocalDateTime now) {
+        checkpoint.setStatus(StageCheckpointStatus.PENDING);
+        checkpoint.setAttempts(0);
+        checkpoint.setNextAttemptAt(now);
+        checkpoint.setLastError(null);
+        checkpoint.setUpdatedAt(now);
+    }
+
+    // Returns false if the checkpoint is not due, already queued, or the stage queue is full
+    private boolean enqueue(FulfillmentStageCheckpoint checkpoint) {
+        if (!enabled || checkpoint.getStatus() != StageCheckpointStatus.PENDING
+                || checkpoint.getNextAttemptAt().isAfter(LocalDateTime.now())
+                || !queued.add(checkpoint.getId())) {
+            return false;
+        }
+        UUID id = checkpoint.getId();
+        try {
+            workers.get(checkpoint.getStage()).execute(() -> {
+                try {
+                    run(id, checkpoint.getStage(), checkpoint.getFulfillmentOrderId());
+                } catch (RuntimeException e) {
+                    // The checkpoint stays claimed and is released once its lease runs out
+                    log.error("Pipeline stage {} for fulfillment order {} could not be recorded: {}",
+                            checkpoint.getStage(), checkpoint.getFulfillmentOrderId(), e.getMessage(), e);
+                } finally {
+                    queued.remove(id);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(id);
+            log.debug("Queue for stage {} is full, fulfillment order {} waits for the next sweep",
+                    checkpoint.getStage(), checkpoint.getFulfillmentOrderId());
+            return false;
+        }
+    }
+
+    private void runScheduled() {
+        try {
+            resumeDueStages();
+        } catch (Exception e) {
+            log.error("Pipeline sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private StageCheckpointDTO toDTO(FulfillmentStageCheckpoint checkpoint) {
+        return StageCheckpointDTO.builder()
+                .fulfillmentOrderId(checkpoint.getFulfillmentOrderId())
+                .stage(checkpoint.getStage())
+                .status(checkpoint.getStatus())
+                .attempts(checkpoint.getAttempts())
+                .nextAttemptAt(checkpoint.getNextAttemptAt())
+                .lastError(checkpoint.getLastError())
+                .createdAt(checkpoint.getCreatedAt())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .build();
+    }
+
+    private static Map<String, Integer> parseWorkers(String workers) {
+        Map<String, Integer> sizes = new HashMap<>();
+        if (workers == null) {
+            return sizes;
+        }
+        for (String pair : workers.split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                sizes.put(pair.substring(0, separator).trim().toUpperCase(Locale.ROOT),
+                        Math.max(1, Integer.parseInt(pair.substring(separator + 1).trim())));
+            } else if (!pair.isBlank()) {
+                throw new IllegalArgumentException("Invalid STAGE=WORKERS pair: " + pair);
+            }
+        }
+        return sizes;
+    }
+}
@@ -4,15 +4,19 @@ import com.exalt.warehousing.fulfillment.dto.FulfillmentOrderDTO;
 import com.exalt.warehousing.fulfillment.dto.FulfillmentOrderItemDTO;
 import com.exalt.warehousing.fulfillment.dto.PackingTaskDTO;
 import com.exalt.warehousing.fulfillment.dto.PickingTaskDTO;
+import com.exalt.warehousing.fulfillment.dto.ReassignmentJobDTO;
 import com.exalt.warehousing.fulfillment.dto.ShipmentPackageDTO;
+import com.exalt.warehousing.fulfillment.event.OrderChangedEvent;
 import com.exalt.warehousing.fulfillment.exception.FulfillmentException;
 import com.exalt.warehousing.fulfillment.exception.ResourceNotFoundException;
+import com.exalt.warehousing.fulfillment.index.ActiveOrderIndex;
 import com.exalt.warehousing.fulfillment.mapper.FulfillmentOrderItemMapper;
 import com.exalt.warehousing.fulfillment.mapper.FulfillmentOrderMapper;
 import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
 import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
 import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
 import com.exalt.warehousing.fulfillment.enums.ItemFulfillmentStatus;
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobStatus;
 import com.exalt.warehousing.fulfillment.entity.PackingTask;
 import com.exalt.warehousing.fulfillment.entity.PickingTask;
 import com.exalt.warehousing.fulfillment.entity.ShipmentPackage;
@@ -23,18 +27,24 @@ import com.exalt.warehousing.fulfillment.repository.PackingTaskRepository;
 import com.exalt.warehousing.fulfillment.repository.PickingTaskRepository;
 import com.exalt.warehousing.fulfillment.repository.ShipmentPackageRepository;
 import com.exalt.warehousing.fulfillment.service.FulfillmentService;
+import com.exalt.warehousing.fulfillment.service.OrderReassignmentService;
+import com.exalt.warehousing.fulfillment.service.WarehouseSourcingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -55,6 +65,10 @@ public class FulfillmentServiceImpl implements FulfillmentService {
     private final ShipmentPackageRepository shipmentPackageRepository;
     private final FulfillmentOrderMapper orderMapper;
     private final FulfillmentOrderItemMapper itemMapper;
+    private final WarehouseSourcingService warehouseSourcingService;
+    private final OrderReassignmentService orderReassignmentService;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     @Transactional(readOnly = true)
@@ -101,7 +115,7 @@ public class FulfillmentServiceImpl implements FulfillmentService {
     @Transactional(readOnly = true)
     public Page<FulfillmentOrderDTO> getActiveFulfillmentOrders(Pageable pageable) {
         log.debug("Getting active fulfillment orders with pagination");
-        return fulfillmentOrderRepository.findAllActiveOrders(pageable)
+        return fulfillmentOrderRepository.findAllActiveOrdersWithItems(pageable)
                 .map(orderMapper::toDTO);
     }
     
@@ -1083,9 +1097,41 @@ public class FulfillmentServiceImpl implements FulfillmentService {
     public int checkActiveOrdersForItem(String sku, UUID warehouseId) {
         log.info("Checking active orders for item with SKU: {} in warehouse: {}", sku, warehouseId);
         
+        // Stock for this SKU changed, so don't decide on cached availability
+        warehouseSourcingService.invalidate(sku);
+
+        // Most SKUs in an alert burst are in no active order, which the index answers without the database
+        Optional<List<ActiveOrderIndex.Line>> indexed = activeOrderIndex.getActiveOrders(sku);
+        
+        // Orders no combination of warehouses could fill get another try
+        if (indexed.isEmpty() || indexed.get().stream()
+                .anyMatch(line -> line.status() == FulfillmentStatus.PENDING_INVENTORY)) {
+            List<String> waiting = fulfillmentOrderRepository.findIdsAwaitingSku(sku);
+            int requeued = waiting.isEmpty() ? 0 : fulfillmentOrderRepository.requeueOrdersAwaitingInventory(waiting);
+            if (requeued > 0) {
+                log.info("Requeued {} orders waiting for inventory of SKU: {}", requeued, sku);
+                // Bulk updates bypass the entity listeners
+                publishAfterCommit(new OrderChangedEvent(waiting));
+            }
+        }
+        
         // Get all active orders in the warehouse that contain the SKU
         Long warehouseIdLong = uuidToLong(warehouseId);
-        List<FulfillmentOrder> activeOrders = fulfillmentOrderRepository.findActiveOrdersWithSku(warehouseIdLong, sku);
+        List<FulfillmentOrder> activeOrders;
+        if (indexed.isPresent()) {
+            // The index may trail the database, so decide on the orders as loaded
+            List<String> candidateIds = indexed.get().stream()
+                    .filter(line -> warehouseIdLong.equals(line.warehouseId()))
+                    .filter(line -> isStatusAffectedByInventory(line.status()))
+                    .map(ActiveOrderIndex.Line::orderId)
+                    .collect(Collectors.toList());
+            activeOrders = candidateIds.isEmpty() ? List.of() : fulfillmentOrderRepository.findWithItemsByIdIn(candidateIds)
+                    .stream()
+                    .filter(order -> warehouseIdLong.equals(order.getWarehouseId()))
+                    .collect(Collectors.toList());
+        } else {
+            activeOrders = fulfillmentOrderRepository.findActiveOrdersWithSku(warehouseIdLong, sku);
+        }
         
         if (activeOrders.isEmpty()) {
             log.debug("No active orders found for SKU: {} in warehouse: {}", sku, warehouseId);
@@ -1148,135 +1194,34 @@ public class FulfillmentServiceImpl implements FulfillmentService {
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void handleLowStockAlert(String sku, UUID warehouseId) {
         log.info("Handling low stock alert for SKU: {} in warehouse: {}", sku, warehouseId);
         
-        // 1. Get all pending orders that contain this SKU
-        List<FulfillmentOrder> pendingOrders = fulfillmentOrderRepository.findPendingOrdersWithSku(sku);
-        
-        if (pendingOrders.isEmpty()) {
-            log.debug("No pending orders found for low stock SKU: {}", sku);
-            return;
-        }
-        
-        // 2. Sort orders by priority (based on order date, customer tier, etc.)
-        pendingOrders.sort(this::compareOrderPriority);
-        
-        // 3. Get current available inventory
-        Integer availableInventory = getAvailableInventory(sku, warehouseId);
-        
-        if (availableInventory == null || availableInventory <= 0) {
-            log.warn("No inventory available for SKU: {} in warehouse: {}", sku, warehouseId);
-            // Mark all pending orders as backordered
-            for (FulfillmentOrder order : pendingOrders) {
-                order.setStatus(FulfillmentStatus.BACKORDERED);
-                order.setBackorderedAt(LocalDateTime.now());
-                order.setBackorderReason("Insufficient inventory");
-                fulfillmentOrderRepository.save(order);
-            }
-            return;
-        }
-        
-        // 4. Allocate remaining inventory to highest priority orders
-        int remainingInventory = availableInventory;
-        
-        for (FulfillmentOrder order : pendingOrders) {
-            int orderQuantity = getOrderQuantityForSku(order, sku);
-            
-            if (remainingInventory >= orderQuantity) {
-                // We have enough inventory for this order
-                remainingInventory -= orderQuantity;
-                
-                // If order is in RECEIVED status, move it to PROCESSING
-                if (order.getStatus() == FulfillmentStatus.RECEIVED) {
-                    order.setStatus(FulfillmentStatus.PROCESSING);
-                    order.setProcessingStartedAt(LocalDateTime.now());
-                    fulfillmentOrderRepository.save(order);
-                }
-            } else {
-                // Not enough inventory for this order
-                order.setStatus(FulfillmentStatus.BACKORDERED);
-                order.setBackorderedAt(LocalDateTime.now());
-                order.setBackorderReason("Insufficient inventory due to low stock");
-                fulfillmentOrderRepository.save(order);
-            }
-            
-            if (remainingInventory <= 0) {
-                break;
-            }
-        }
+        // Pending orders are decided in queue order and updated in chunked transactions
+        ReassignmentJobDTO job = orderReassignmentService.allocateLowStock(sku, warehouseId);
         
-        log.info("Completed handling low stock alert for SKU: {}. Remaining inventory: {}", 
-                sku, remainingInventory);
+        log.info("Completed handling low stock alert for SKU: {}. Orders covered: {}, backordered: {}", 
+                sku, job.getReassignedOrders(), job.getHeldOrders());
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int reassignOrdersFromWarehouse(UUID warehouseId) {
         log.info("Reassigning orders from warehouse: {}", warehouseId);
         
-        // Find all orders assigned to the warehouse that haven't been shipped yet
-        Long warehouseIdLong = uuidToLong(warehouseId);
-        List<FulfillmentOrder> ordersToReassign = fulfillmentOrderRepository
-                .findByAssignedWarehouseIdAndStatusIn(
-                        warehouseIdLong, 
-                        Arrays.asList(
-                                FulfillmentStatus.RECEIVED,
-                                FulfillmentStatus.PROCESSING,
-                                FulfillmentStatus.ALLOCATED,
-                                FulfillmentStatus.PICKING,
-                                FulfillmentStatus.PICKING_COMPLETE,
-                                FulfillmentStatus.PACKING,
-                                FulfillmentStatus.PACKING_COMPLETE,
-                                FulfillmentStatus.READY_TO_SHIP
-                        )
-                );
-        
-        if (ordersToReassign.isEmpty()) {
-            log.info("No orders to reassign from warehouse: {}", warehouseId);
-            return 0;
-        }
-        
-        int reassignedCount = 0;
-        
-        for (FulfillmentOrder order : ordersToReassign) {
-            // Find the best alternate warehouse for this order
-            UUID alternateWarehouse = findBestAlternateWarehouse(order, warehouseId);
-            
-            if (alternateWarehouse != null) {
-                // We found an alternate warehouse
-                log.info("Reassigning order: {} from warehouse: {} to warehouse: {}", 
-                        order.getId(), warehouseId, alternateWarehouse);
-                
-                // Update the warehouse assignment
-                order.setAssignedWarehouseId(alternateWarehouse);
-                order.setReassignedAt(LocalDateTime.now());
-                order.setReassignmentReason("Original warehouse unavailable");
-                
-                // Reset status based on current status
-                if (order.getStatus().ordinal() > FulfillmentStatus.PROCESSING.ordinal()) {
-                    // If we were already past PROCESSING, go back to PROCESSING
-                    order.setStatus(FulfillmentStatus.PROCESSING);
-                    order.setProcessingStartedAt(LocalDateTime.now());
-                }
-                
-                fulfillmentOrderRepository.save(order);
-                reassignedCount++;
-            } else {
-                // No alternate warehouse available
-                log.warn("No alternate warehouse available for order: {}. Marking as ON_HOLD.", 
-                        order.getId());
-                
-                order.setStatus(FulfillmentStatus.ON_HOLD);
-                order.setHoldStartedAt(LocalDateTime.now());
-                order.setHoldReason("Original warehouse unavailable and no alternate found");
-                fulfillmentOrderRepository.save(order);
-            }
+        // Orders are moved in parallel chunks that commit independently; a
+        // failed chunk leaves the job PARTIAL so a redelivered event resumes it
+        ReassignmentJobDTO job = orderReassignmentService.reassignFromWarehouse(warehouseId);
+        if (job.getStatus() == ReassignmentJobStatus.PARTIAL) {
+            throw new FulfillmentException("Reassignment from warehouse " + warehouseId + " incomplete: "
+                    + job.getFailedChunks() + " chunks failed, last error: " + job.getLastError());
         }
         
         log.info("Completed reassigning orders from warehouse: {}. Orders reassigned: {}", 
-                warehouseId, reassignedCount);
+                warehouseId, job.getReassignedOrders());
         
-        return reassignedCount;
+        return job.getReassignedOrders();
     }
     
     // Helper methods
@@ -1304,40 +1249,8 @@ public class FulfillmentServiceImpl implements FulfillmentService {
      * Find an alternate warehouse for a specific SKU
      */
     private UUID findAlternateWarehouseForSku(String sku, int quantity, UUID currentWarehouseId) {
-        // In a real implementation, this would query the Inventory Service
-        // to find warehouses with sufficient inventory
-        
-        // Mock implementation for development
-        // In production, this should be replaced with actual inventory service calls
-        return UUID.randomUUID(); // Simulate finding an alternate warehouse
-    }
-    
-    /**
-     * Compare order priority for sorting
-     * Higher priority orders should come first
-     */
-    private int compareOrderPriority(FulfillmentOrder o1, FulfillmentOrder o2) {
-        // In a real implementation, this would consider multiple factors:
-        // - Customer tier (premium, standard)
-        // - Order date (older orders first)
-        // - Order value (higher value first)
-        // - Shipping method (express before standard)
-        
-        // For this implementation, we'll just use the order date
-        return o1.getCreatedAt().compareTo(o2.getCreatedAt());
-    }
-    
-    /**
-     * Find the best alternate warehouse for an order
-     */
-    private UUID findBestAlternateWarehouse(FulfillmentOrder order, UUID currentWarehouseId) {
-        // In a real implementation, this would:
-        // 1. Find warehouses with sufficient inventory for all items
-        // 2. Choose the warehouse closest to the delivery address
-        // 3. Consider warehouse capacity and current workload
-        
-        // Mock implementation for development
-        return UUID.randomUUID(); // Simulate finding an alternate warehouse
+        return warehouseSourcingService.sourceWarehouse(Map.of(sku, quantity), null, currentWarehouseId)
+                .orElse(null);
     }
     
     /**
@@ -1361,9 +1274,23 @@ public class FulfillmentServiceImpl implements FulfillmentService {
      * @return the available quantity
      */
     private int getAvailableInventory(String sku, UUID warehouseId) {
-        // In a real implementation, this would call the inventory service
-        // For this demo, we'll simulate inventory availability
-        return 100;  // Simulate having 100 units available
+        return warehouseSourcingService.getAvailableQuantity(sku, warehouseId);
+    }
+    
+    /**
+     * Publish an event once the current transaction has committed, or right away outside one
+     */
+    private void publishAfterCommit(Object event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(event);
+            }
+        });
     }
     
     /**
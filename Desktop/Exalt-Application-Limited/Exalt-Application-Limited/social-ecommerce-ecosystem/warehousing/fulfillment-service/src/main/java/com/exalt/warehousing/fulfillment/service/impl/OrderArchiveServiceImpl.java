@@ -0,0 +1,235 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.event.FulfillmentEvent;
+import com.exalt.warehousing.fulfillment.service.OrderArchiveService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of order archival.
+ *
+ * Each chunk runs in its own transaction: it locks up to chunk-size finished
+ * orders that have not changed for the configured age, skipping orders
+ * locked by another instance, and moves them and their child rows to the
+ * archive tables with one DELETE ... RETURNING per table. A failed chunk
+ * rolls back alone and the orders are picked up again by the next run.
+ * The rows derived from an order, its tracking read model and stage
+ * checkpoints, are deleted with it rather than archived. A run is skipped
+ * while any archive table is missing, which happens when the archive
+ * migration found no fulfillment tables to copy.
+ * Archived orders are read back with the same entity mappings, from the
+ * archive tables, and returned detached so they are never written to the
+ * hot tables again.
+ */
+@Slf4j
+@Service
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private static final List<String> FINISHED_STATUSES = List.of(
+            FulfillmentStatus.SHIPPED.name(),
+            FulfillmentStatus.DELIVERED.name(),
+            FulfillmentStatus.CANCELLED.name());
+
+    // Children keyed by the order ID, then children keyed by the UUID derived from it
+    private static final List<String> ORDER_CHILD_TABLES = List.of("fulfillment_order_items", "fulfillment_events");
+    private static final List<String> TASK_CHILD_TABLES = List.of("picking_tasks", "packing_tasks", "shipment_packages");
+    // Rows rebuilt from the order, dropped with it
+    private static final List<String> DERIVED_TABLES = List.of("fulfillment_stage_checkpoint", "order_tracking_number",
+            "order_tracking");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTransactionTemplate;
+    private final boolean enabled;
+    private final long maxAgeDays;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long intervalMinutes;
+    private final ScheduledExecutorService scheduler;
+
+    public OrderArchiveServiceImpl(EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${fulfillment.archive.enabled:false}") boolean enabled,
+                                   @Value("${fulfillment.archive.max-age-days:180}") long maxAgeDays,
+                                   @Value("${fulfillment.archive.chunk-size:500}") int chunkSize,
+                                   @Value("${fulfillment.archive.max-chunks-per-run:200}") int maxChunksPerRun,
+                                   @Value("${fulfillment.archive.interval-minutes:60}") long intervalMinutes) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxAgeDays = maxAgeDays;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.intervalMinutes = intervalMinutes;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runScheduled, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    @Override
+    public int archiveFinishedOrders() {
+        List<String> missing = missingArchiveTables();
+        if (!missing.isEmpty()) {
+            log.warn("Skipping order archive run, archive tables {} do not exist", missing);
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        int archived = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            archived += moved != null ? moved : 0;
+            if (moved == null || moved < chunkSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} fulfillment orders finished before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    @Override
+    public Optional<FulfillmentOrder> findArchivedOrder(String fulfillmentOrderId) {
+        return readTransactionTemplate.execute(status ->
+                readArchivedOrder("SELECT * FROM fulfillment_orders_archive WHERE id = :key", fulfillmentOrderId));
+    }
+
+    @Override
+    public Optional<FulfillmentOrder> findArchivedOrderByExternalOrderId(String externalOrderId) {
+        return readTransactionTemplate.execute(status ->
+                readArchivedOrder("SELECT * FROM fulfillment_orders_archive WHERE external_order_id = :key",
+                        externalOrderId));
+    }
+
+    private void runScheduled() {
+        try {
+            archiveFinishedOrders();
+        } catch (Exception e) {
+            log.error("Order archive run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<String> missingArchiveTables() {
+        List<String> archiveTables = new ArrayList<>();
+        archiveTables.add("fulfillment_orders_archive");
+        ORDER_CHILD_TABLES.forEach(table -> archiveTables.add(table + "_archive"));
+        TASK_CHILD_TABLES.forEach(table -> archiveTables.add(table + "_archive"));
+        return readTransactionTemplate.execute(status -> archiveTables.stream()
+                .filter(table -> entityManager.createNativeQuery("SELECT CAST(to_regclass(:table) AS TEXT)")
+                        .setParameter("table", table)
+                        .getSingleResult() == null)
+                .toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<String> ids = entityManager.createNativeQuery(
+                        "SELECT id FROM fulfillment_orders WHERE status IN (:statuses) AND updated_at < :cutoff " +
+                        "ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED")
+                .setParameter("statuses", FINISHED_STATUSES)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", chunkSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // Keeps the live order counters from dropping the archived orders
+        entityManager.createNativeQuery("SELECT set_config('fulfillment.archiving', 'on', true)").getSingleResult();
+
+        for (String table : DERIVED_TABLES) {
+            entityManager.createNativeQuery("DELETE FROM " + table + " WHERE fulfillment_order_id IN (:ids)")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+        }
+        List<UUID> taskKeys = ids.stream().map(OrderArchiveServiceImpl::toUuid).toList();
+        for (String table : ORDER_CHILD_TABLES) {
+            move(table, "fulfillment_order_id", ids);
+        }
+        for (String table : TASK_CHILD_TABLES) {
+            move(table, "fulfillment_order_id", taskKeys);
+        }
+        return move("fulfillment_orders", "id", ids);
+    }
+
+    private int move(String table, String keyColumn, Collection<?> keys) {
+        return entityManager.createNativeQuery(
+                        "WITH moved AS (DELETE FROM " + table + " WHERE " + keyColumn + " IN (:keys) RETURNING *) " +
+                        "INSERT INTO " + table + "_archive SELECT * FROM moved")
+                .setParameter("keys", keys)
+                .executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<FulfillmentOrder> readArchivedOrder(String sql, String key) {
+        List<FulfillmentOrder> orders = entityManager.createNativeQuery(sql, FulfillmentOrder.class)
+                .setParameter("key", key)
+                .getResultList();
+        if (orders.isEmpty()) {
+            return Optional.empty();
+        }
+        FulfillmentOrder order = orders.get(0);
+        List<FulfillmentOrderItem> items = entityManager.createNativeQuery(
+                        "SELECT * FROM fulfillment_order_items_archive WHERE fulfillment_order_id = :id",
+                        FulfillmentOrderItem.class)
+                .setParameter("id", order.getId())
+                .getResultList();
+        List<FulfillmentEvent> events = entityManager.createNativeQuery(
+                        "SELECT * FROM fulfillment_events_archive WHERE fulfillment_order_id = :id " +
+                        "ORDER BY event_timestamp DESC",
+                        FulfillmentEvent.class)
+                .setParameter("id", order.getId())
+                .getResultList();
+
+        // Detached before the collections are replaced, so nothing is flushed to the hot tables
+        entityManager.detach(order);
+        items.forEach(entityManager::detach);
+        events.forEach(entityManager::detach);
+        order.setOrderItems(new ArrayList<>(items));
+        order.setEvents(new ArrayList<>(events));
+        return Optional.of(order);
+    }
+
+    private static UUID toUuid(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(id.getBytes());
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.client.AsyncInventoryClient;
+import com.exalt.warehousing.fulfillment.dto.BatchOperationResult;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckResponse;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.enums.InventoryStatus;
+import com.exalt.warehousing.fulfillment.enums.ItemFulfillmentStatus;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.service.OrderIngestionService;
+import com.exalt.warehousing.fulfillment.sourcing.InventoryReadModel;
+import com.exalt.warehousing.fulfillment.util.TypeConverterUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of bulk fulfillment order ingestion.
+ *
+ * A batch goes through four steps: orders are validated in parallel, checked
+ * for duplicates with one query per key, checked against the local inventory
+ * read model (or one availability call for the whole batch while the model is
+ * stale), and persisted in chunks so Hibernate
+ * can send the order and item inserts as JDBC batches. The availability call
+ * is sent before validation and runs alongside it and the duplicate checks. A chunk that fails to
+ * persist is retried order by order to find the failing orders.
+ */
+@Slf4j
+@Service
+public class OrderIngestionServiceImpl implements OrderIngestionService {
+
+    private final FulfillmentOrderRepository fulfillmentOrderRepository;
+    private final AsyncInventoryClient inventoryClient;
+    private final InventoryReadModel inventoryReadModel;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderIngestionServiceImpl(FulfillmentOrderRepository fulfillmentOrderRepository,
+                                     AsyncInventoryClient inventoryClient,
+                                     InventoryReadModel inventoryReadModel,
+                                     KafkaTemplate<String, Object> kafkaTemplate,
+                                     Validator validator,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${fulfillment.ingestion.chunk-size:500}") int chunkSize) {
+        this.fulfillmentOrderRepository = fulfillmentOrderRepository;
+        this.inventoryClient = inventoryClient;
+        this.inventoryReadModel = inventoryReadModel;
+        this.kafkaTemplate = kafkaTemplate;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BatchOperationResult createFulfillmentOrders(List<FulfillmentOrder> orders) {
+        log.info("Ingesting batch of {} fulfillment orders", orders.size());
+        LocalDateTime now = LocalDateTime.now();
+        orders.forEach(order -> prepare(order, now));
+        CompletableFuture<Map<String, Integer>> availability = requestAvailability(orders);
+
+        // Validation has no shared state, so it runs in parallel
+        List<String> errors = IntStream.range(0, orders.size())
+                .parallel()
+                .mapToObj(i -> validate(orders.get(i)))
+                .collect(Collectors.toCollection(ArrayList::new));
+        rejectDuplicates(orders, errors);
+
+        List<Integer> accepted = IntStream.range(0, orders.size())
+                .filter(i -> errors.get(i) == null)
+                .boxed()
+                .collect(Collectors.toList());
+        assignInventoryStatus(accepted.stream().map(orders::get).collect(Collectors.toList()), availability);
+
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            persistChunk(orders, accepted.subList(from, Math.min(from + chunkSize, accepted.size())), errors);
+        }
+
+        List<BatchOperationResult.OrderResult> results = new ArrayList<>(orders.size());
+        int successful = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            FulfillmentOrder order = orders.get(i);
+            boolean success = errors.get(i) == null;
+            if (success) {
+                successful++;
+                publishFulfillmentOrderEvent(order, "FULFILLMENT_ORDER_CREATED");
+            }
+            results.add(BatchOperationResult.OrderResult.builder()
+                    .index(i)
+                    .externalOrderId(order.getExternalOrderId())
+                    .fulfillmentOrderId(success ? String.valueOf(order.getId()) : null)
+                    .success(success)
+                    .inventoryStatus(success ? order.getInventoryStatus() : null)
+                    .error(errors.get(i))
+                    .build());
+        }
+
+        int failed = orders.size() - successful;
+        log.info("Ingested {} of {} fulfillment orders, {} failed", successful, orders.size(), failed);
+        return BatchOperationResult.builder()
+                .successful(successful)
+                .failed(failed)
+                .status(failed == 0 ? "COMPLETED" : successful == 0 ? "FAILED" : "PARTIAL")
+                .details(successful + " of " + orders.size() + " orders created")
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Apply the same defaults as single order creation
+     */
+    private void prepare(FulfillmentOrder order, LocalDateTime now) {
+        if (order.getStatus() == null) {
+            order.setStatus(FulfillmentStatus.RECEIVED);
+        }
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(now);
+        }
+        if (order.getOrderItems() != null) {
+            order.getOrderItems().forEach(item -> {
+                if (item.getStatus() == null) {
+                    item.setStatus(ItemFulfillmentStatus.PENDING);
+                }
+                if (item.getQuantityFulfilled() == null) {
+                    item.setQuantityFulfilled(0);
+                }
+                if (item.getQuantityPicked() == null) {
+                    item.setQuantityPicked(0);
+                }
+                if (item.getQuantityPacked() == null) {
+                    item.setQuantityPacked(0);
+                }
+                item.setFulfillmentOrder(order);
+            });
+        }
+    }
+
+    /**
+     * @return the validation error, or null if the order is valid
+     */
+    private String validate(FulfillmentOrder order) {
+        // Checked up front so duplicate detection never has to compare missing keys
+        if (order.getExternalOrderId() == null || order.getExternalOrderId().isBlank()) {
+            return "External order ID is required";
+        }
+        if (order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+            return "Order must have at least one item";
+        }
+        for (FulfillmentOrderItem item : order.getOrderItems()) {
+            if (item.getSku() == null || item.getSku().isBlank()) {
+                return "Order item SKU is required";
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                return "Order item quantity must be positive for SKU " + item.getSku();
+            }
+        }
+        Set<ConstraintViolation<FulfillmentOrder>> violations = validator.validate(order);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        return null;
+    }
+
+    /**
+     * Reject orders whose external order ID or order number is repeated in
+     * the batch or already exists. Missing keys are left to validation.
+     */
+    private void rejectDuplicates(List<FulfillmentOrder> orders, List<String> errors) {
+        Set<String> existingExternalIds = new HashSet<>(fulfillmentOrderRepository.findExistingExternalOrderIds(
+                collectValid(orders, errors, FulfillmentOrder::getExternalOrderId)));
+        Set<String> existingOrderNumbers = new HashSet<>(fulfillmentOrderRepository.findExistingOrderNumbers(
+                collectValid(orders, errors, FulfillmentOrder::getOrderNumber)));
+
+        Set<String> seenExternalIds = new HashSet<>();
+        Set<String> seenOrderNumbers = new HashSet<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (errors.get(i) != null) {
+                continue;
+            }
+            FulfillmentOrder order = orders.get(i);
+            if (isDuplicate(order.getExternalOrderId(), existingExternalIds, seenExternalIds)) {
+                errors.set(i, "Duplicate external order ID " + order.getExternalOrderId());
+            } else if (isDuplicate(order.getOrderNumber(), existingOrderNumbers, seenOrderNumbers)) {
+                errors.set(i, "Duplicate order number " + order.getOrderNumber());
+            }
+        }
+    }
+
+    private boolean isDuplicate(String key, Set<String> existing, Set<String> seen) {
+        return key != null && (existing.contains(key) || !seen.add(key));
+    }
+
+    private Set<String> collectValid(List<FulfillmentOrder> orders, List<String> errors,
+                                     Function<FulfillmentOrder, String> key) {
+        return IntStream.range(0, orders.size())
+                .filter(i -> errors.get(i) == null)
+                .mapToObj(i -> key.apply(orders.get(i)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Look up the available quantity of every SKU in the batch, from the
+     * inventory read model if it is current and otherwise with one inventory
+     * check. Runs before validation, so items without a SKU or quantity are
+     * skipped here and rejected later.
+     * @return completes with null if the inventory service could not be reached
+     */
+    private CompletableFuture<Map<String, Integer>> requestAvailability(List<FulfillmentOrder> orders) {
+        Map<String, Integer> demand = new HashMap<>();
+        Map<String, UUID> productIds = new HashMap<>();
+        for (FulfillmentOrder order : orders) {
+            if (order.getOrderItems() == null) {
+                continue;
+            }
+            for (FulfillmentOrderItem item : order.getOrderItems()) {
+                if (item.getSku() != null && item.getQuantity() != null) {
+                    demand.merge(item.getSku(), item.getQuantity(), Integer::sum);
+                    productIds.putIfAbsent(item.getSku(), TypeConverterUtil.stringToUuid(item.getProductId()));
+                }
+            }
+        }
+        if (demand.isEmpty()) {
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
+
+        Optional<Map<String, Map<UUID, Integer>>> local = inventoryReadModel.getAvailability(demand.keySet());
+        if (local.isPresent()) {
+            Map<String, Integer> available = new HashMap<>();
+            local.get().forEach((sku, byWarehouse) ->
+                    byWarehouse.values().forEach(quantity -> available.merge(sku, quantity, Integer::sum)));
+            return CompletableFuture.completedFuture(available);
+        }
+        return loadAvailable(demand, productIds);
+    }
+
+    /**
+     * Check the whole batch against inventory and hand out the available
+     * quantity per SKU to orders in request order
+     */
+    private void assignInventoryStatus(List<FulfillmentOrder> orders,
+                                       CompletableFuture<Map<String, Integer>> availability) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> remaining = availability.join();
+        if (remaining == null) {
+            // Orders are still taken in, their inventory is checked when they are processed
+            log.warn("Bulk inventory check failed for {} orders, leaving inventory status pending", orders.size());
+            orders.forEach(order -> order.setInventoryStatus(InventoryStatus.PENDING));
+            return;
+        }
+
+        for (FulfillmentOrder order : orders) {
+            int covered = 0;
+            for (FulfillmentOrderItem item : order.getOrderItems()) {
+                int available = remaining.getOrDefault(item.getSku(), 0);
+                if (available >= item.getQuantity()) {
+                    remaining.put(item.getSku(), available - item.getQuantity());
+                    covered++;
+                }
+            }
+            order.setInventoryStatus(covered == order.getOrderItems().size() ? InventoryStatus.AVAILABLE
+                    : covered > 0 ? InventoryStatus.PARTIAL : InventoryStatus.UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Check the batch demand against the inventory service in one call
+     * @return completes with null if the inventory service could not be reached
+     */
+    private CompletableFuture<Map<String, Integer>> loadAvailable(Map<String, Integer> demand,
+                                                                  Map<String, UUID> productIds) {
+        CompletableFuture<InventoryCheckResponse> response;
+        try {
+            response = inventoryClient.checkInventoryAvailabilityAsync(InventoryCheckRequest.builder()
+                    .orderId(UUID.randomUUID())
+                    .items(demand.entrySet().stream()
+                            .map(entry -> new InventoryCheckRequest.InventoryItemDTO(
+                                    productIds.get(entry.getKey()), entry.getKey(), entry.getValue()))
+                            .collect(Collectors.toList()))
+                    .build());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        return response.handle((result, error) -> {
+            if (error != null) {
+                log.warn("Bulk inventory check failed: {}", error.getMessage());
+                return null;
+            }
+            Map<String, Integer> available = new HashMap<>();
+            if (result != null && result.getItems() != null) {
+                for (InventoryCheckResponse.InventoryItemAvailabilityDTO item : result.getItems()) {
+                    available.merge(item.getSku(), item.getAvailableQuantity(), Integer::sum);
+                }
+            }
+            return available;
+        });
+    }
+
+    /**
+     * Persist a chunk of orders in one transaction, falling back to one
+     * transaction per order if the chunk fails
+     */
+    private void persistChunk(List<FulfillmentOrder> orders, List<Integer> chunk, List<String> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                chunk.forEach(i -> entityManager.persist(orders.get(i)));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Persisting chunk of {} orders failed, retrying one by one: {}", chunk.size(), e.getMessage());
+        }
+
+        for (Integer i : chunk) {
+            try {
+                FulfillmentOrder saved = transactionTemplate.execute(status ->
+                        fulfillmentOrderRepository.save(orders.get(i)));
+                orders.set(i, saved);
+            } catch (RuntimeException e) {
+                log.warn("Failed to create fulfillment order {}: {}", orders.get(i).getExternalOrderId(), e.getMessage());
+                errors.set(i, "Failed to save order: " + e.getMessage());
+            }
+        }
+    }
+
+    private void publishFulfillmentOrderEvent(FulfillmentOrder order, String eventType) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", eventType);
+        event.put("fulfillmentOrderId", order.getId());
+        event.put("orderId", order.getExternalOrderId());
+        event.put("status", order.getStatus());
+        event.put("warehouseId", order.getWarehouseId());
+        event.put("timestamp", LocalDateTime.now());
+
+        kafkaTemplate.send("fulfillment-events", String.valueOf(order.getId()), event);
+    }
+}
@@ -0,0 +1,383 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.ReassignmentJobDTO;
+import com.exalt.warehousing.fulfillment.dto.SourcingRequest;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
+import com.exalt.warehousing.fulfillment.entity.OrderReassignmentJob;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobStatus;
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobType;
+import com.exalt.warehousing.fulfillment.event.OrderChangedEvent;
+import com.exalt.warehousing.fulfillment.exception.ResourceNotFoundException;
+import com.exalt.warehousing.fulfillment.index.ActiveOrderIndex;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.OrderReassignmentJobRepository;
+import com.exalt.warehousing.fulfillment.service.OrderReassignmentService;
+import com.exalt.warehousing.fulfillment.service.WarehouseSourcingService;
+import com.exalt.warehousing.fulfillment.sourcing.SourcingLedger;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of bulk order reassignment.
+ *
+ * Affected order IDs are read up front and split into chunks. Chunks run in
+ * parallel, each in its own short transaction: the chunk's orders are sourced
+ * with one bulk decision and written with one update statement per target
+ * warehouse, and the job's counters are advanced in the same transaction.
+ * Sourcing decisions of all chunks go through one SourcingLedger and are
+ * serialised on it, so only the writes overlap. A failed chunk rolls back alone. Every update re-checks the order's warehouse
+ * and status, so resuming a job simply processes the orders still affected.
+ */
+@Slf4j
+@Service
+public class OrderReassignmentServiceImpl implements OrderReassignmentService {
+
+    private static final List<FulfillmentStatus> REASSIGNABLE_STATUSES = List.of(
+            FulfillmentStatus.RECEIVED,
+            FulfillmentStatus.PROCESSING,
+            FulfillmentStatus.ALLOCATED,
+            FulfillmentStatus.PICKING,
+            FulfillmentStatus.PICKING_COMPLETE,
+            FulfillmentStatus.PACKING,
+            FulfillmentStatus.PACKING_COMPLETE,
+            FulfillmentStatus.READY_TO_SHIP);
+
+    // Orders already past PROCESSING start over in their new warehouse
+    private static final List<FulfillmentStatus> RESTART_STATUSES = List.of(
+            FulfillmentStatus.ALLOCATED,
+            FulfillmentStatus.PICKING,
+            FulfillmentStatus.PICKING_COMPLETE,
+            FulfillmentStatus.PACKING,
+            FulfillmentStatus.PACKING_COMPLETE,
+            FulfillmentStatus.READY_TO_SHIP);
+
+    private static final List<ReassignmentJobStatus> UNFINISHED = List.of(
+            ReassignmentJobStatus.RUNNING, ReassignmentJobStatus.PARTIAL);
+
+    private final FulfillmentOrderRepository fulfillmentOrderRepository;
+    private final OrderReassignmentJobRepository jobRepository;
+    private final WarehouseSourcingService warehouseSourcingService;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int chunkSize;
+
+    public OrderReassignmentServiceImpl(FulfillmentOrderRepository fulfillmentOrderRepository,
+                                        OrderReassignmentJobRepository jobRepository,
+                                        WarehouseSourcingService warehouseSourcingService,
+                                        ActiveOrderIndex activeOrderIndex,
+                                        ApplicationEventPublisher eventPublisher,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${fulfillment.reassignment.chunk-size:500}") int chunkSize,
+                                        @Value("${fulfillment.reassignment.parallelism:4}") int parallelism) {
+        this.fulfillmentOrderRepository = fulfillmentOrderRepository;
+        this.jobRepository = jobRepository;
+        this.warehouseSourcingService = warehouseSourcingService;
+        this.activeOrderIndex = activeOrderIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "order-reassignment-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public ReassignmentJobDTO reassignFromWarehouse(UUID warehouseId) {
+        OrderReassignmentJob job = jobRepository
+                .findFirstByJobTypeAndWarehouseIdAndStatusInOrderByStartedAtDesc(
+                        ReassignmentJobType.WAREHOUSE_OFFLINE, warehouseId, UNFINISHED)
+                .orElse(null);
+        if (job != null) {
+            log.info("Resuming reassignment job {} for warehouse {}", job.getId(), warehouseId);
+            return run(job);
+        }
+        return run(startJob(ReassignmentJobType.WAREHOUSE_OFFLINE, warehouseId, null));
+    }
+
+    @Override
+    public ReassignmentJobDTO allocateLowStock(String sku, UUID warehouseId) {
+        return run(startJob(ReassignmentJobType.LOW_STOCK, warehouseId, sku));
+    }
+
+    @Override
+    public ReassignmentJobDTO resume(UUID jobId) {
+        OrderReassignmentJob job = findJob(jobId);
+        if (job.getStatus() == ReassignmentJobStatus.COMPLETED) {
+            return toDTO(job);
+        }
+        return run(job);
+    }
+
+    @Override
+    public ReassignmentJobDTO getJob(UUID jobId) {
+        return toDTO(findJob(jobId));
+    }
+
+    private OrderReassignmentJob findJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("OrderReassignmentJob", "id", jobId));
+    }
+
+    private OrderReassignmentJob startJob(ReassignmentJobType jobType, UUID warehouseId, String sku) {
+        OrderReassignmentJob job = OrderReassignmentJob.builder()
+                .id(UUID.randomUUID())
+                .jobType(jobType)
+                .warehouseId(warehouseId)
+                .sku(sku)
+                .status(ReassignmentJobStatus.RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build();
+        return transactionTemplate.execute(status -> jobRepository.save(job));
+    }
+
+    private ReassignmentJobDTO run(OrderReassignmentJob job) {
+        if (job.getJobType() == ReassignmentJobType.WAREHOUSE_OFFLINE) {
+            runWarehouseOffline(job);
+        } else {
+            runLowStock(job);
+        }
+        return finish(job.getId());
+    }
+
+    private void runWarehouseOffline(OrderReassignmentJob job) {
+        UUID warehouseId = job.getWarehouseId();
+        List<String> orderIds = fulfillmentOrderRepository
+                .findIdsByWarehouseIdAndStatusIn(toWarehouseKey(warehouseId), REASSIGNABLE_STATUSES);
+        log.info("Reassigning {} orders from warehouse {} in chunks of {}", orderIds.size(), warehouseId, chunkSize);
+
+        // Orders processed by an earlier attempt no longer match, so they add to the total
+        updateJob(job.getId(), saved -> {
+            saved.setStatus(ReassignmentJobStatus.RUNNING);
+            saved.setTotalOrders(saved.getProcessedOrders() + orderIds.size());
+            saved.setFailedChunks(0);
+            saved.setLastError(null);
+        });
+        // One ledger for all chunks, so parallel chunks never promise the same stock twice
+        SourcingLedger ledger = warehouseSourcingService.newLedger();
+        runChunks(job.getId(), orderIds, chunk -> reassignChunk(warehouseId, chunk, ledger));
+    }
+
+    private ChunkOutcome reassignChunk(UUID fromWarehouseId, List<String> orderIds, SourcingLedger ledger) {
+        List<SourcingRequest> requests = fulfillmentOrderRepository.findWithItemsByIdIn(orderIds).stream()
+                .map(this::toSourcingRequest)
+                .collect(Collectors.toList());
+        Map<String, UUID> destinations = warehouseSourcingService.sourceWarehouses(requests, fromWarehouseId, ledger);
+
+        Map<UUID, List<String>> byDestination = new LinkedHashMap<>();
+        List<String> unplaced = new ArrayList<>();
+        for (SourcingRequest request : requests) {
+            UUID destination = destinations.get(request.getOrderId());
+            if (destination != null) {
+                byDestination.computeIfAbsent(destination, id -> new ArrayList<>()).add(request.getOrderId());
+            } else {
+                unplaced.add(request.getOrderId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Long fromKey = toWarehouseKey(fromWarehouseId);
+        String reassignedNote = notes(now, "Reassigned at: " + now, "Reassignment reason: Original warehouse unavailable");
+        int reassigned = 0;
+        for (Map.Entry<UUID, List<String>> entry : byDestination.entrySet()) {
+            Long toKey = toWarehouseKey(entry.getKey());
+            reassigned += fulfillmentOrderRepository.reassignWarehouse(entry.getValue(), fromKey, toKey,
+                    REASSIGNABLE_STATUSES, reassignedNote, "\n" + reassignedNote);
+            fulfillmentOrderRepository.restartProcessing(entry.getValue(), toKey, RESTART_STATUSES, now);
+        }
+
+        int held = 0;
+        if (!unplaced.isEmpty()) {
+            log.warn("No alternate warehouse available for {} orders. Marking as ON_HOLD.", unplaced.size());
+            String holdNote = notes(now, "Hold started at: " + now,
+                    "Hold reason: Original warehouse unavailable and no alternate found");
+            held = fulfillmentOrderRepository.updateStatusWithNote(unplaced, REASSIGNABLE_STATUSES,
+                    FulfillmentStatus.ON_HOLD, holdNote, "\n" + holdNote);
+        }
+        return new ChunkOutcome(orderIds.size(), reassigned, held);
+    }
+
+    private void runLowStock(OrderReassignmentJob job) {
+        String sku = job.getSku();
+        warehouseSourcingService.invalidate(sku);
+        int available = warehouseSourcingService.getAvailableQuantity(sku, job.getWarehouseId());
+
+        // Decide in queue order in memory, then write only the orders that change
+        Map<String, Integer> pending = activeOrderIndex.getPendingDemand(sku)
+                .orElseGet(() -> summarizePendingDemand(sku));
+        int remaining = Math.max(available, 0);
+        int covered = 0;
+        List<String> backordered = new ArrayList<>();
+        for (Map.Entry<String, Integer> demand : pending.entrySet()) {
+            if (available <= 0) {
+                backordered.add(demand.getKey());
+                continue;
+            }
+            int quantity = demand.getValue();
+            if (remaining >= quantity) {
+                remaining -= quantity;
+                covered++;
+            } else {
+                backordered.add(demand.getKey());
+            }
+            if (remaining <= 0) {
+                break;
+            }
+        }
+        log.info("Low stock for SKU {}: {} units cover {} pending orders, {} to backorder",
+                sku, available, covered, backordered.size());
+
+        // Decisions are recomputed from current stock on every run, so counters start over
+        int coveredOrders = covered;
+        updateJob(job.getId(), saved -> {
+            saved.setStatus(ReassignmentJobStatus.RUNNING);
+            saved.setTotalOrders(coveredOrders + backordered.size());
+            saved.setProcessedOrders(coveredOrders);
+            saved.setReassignedOrders(coveredOrders);
+            saved.setHeldOrders(0);
+            saved.setFailedChunks(0);
+            saved.setLastError(null);
+        });
+
+        String reason = available <= 0 ? "Insufficient inventory" : "Insufficient inventory due to low stock";
+        runChunks(job.getId(), backordered, chunk -> {
+            LocalDateTime now = LocalDateTime.now();
+            String note = notes(now, "Backordered at: " + now, "Backorder reason: " + reason);
+            int updated = fulfillmentOrderRepository.updateStatusWithNote(chunk, List.of(FulfillmentStatus.PENDING),
+                    FulfillmentStatus.BACKORDERED, note, "\n" + note);
+            return new ChunkOutcome(chunk.size(), 0, updated);
+        });
+    }
+
+    /**
+     * Process chunks in parallel, each in its own transaction, and wait for all of them
+     */
+    private void runChunks(UUID jobId, List<String> orderIds, Function<List<String>, ChunkOutcome> work) {
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            List<String> chunk = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+            chunks.add(CompletableFuture.runAsync(() -> processChunk(jobId, chunk, work), executor));
+        }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void processChunk(UUID jobId, List<String> chunk, Function<List<String>, ChunkOutcome> work) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ChunkOutcome outcome = work.apply(chunk);
+                // Last statement of the chunk, so the job row is locked only briefly
+                jobRepository.recordChunk(jobId, outcome.processed(), outcome.reassigned(), outcome.held());
+            });
+            // Bulk updates bypass the entity listeners
+            eventPublisher.publishEvent(new OrderChangedEvent(chunk));
+        } catch (RuntimeException e) {
+            log.error("Reassignment chunk of {} orders failed for job {}: {}", chunk.size(), jobId, e.getMessage(), e);
+            transactionTemplate.executeWithoutResult(status -> jobRepository.recordFailedChunk(jobId, e.getMessage()));
+        }
+    }
+
+    private ReassignmentJobDTO finish(UUID jobId) {
+        return transactionTemplate.execute(status -> {
+            OrderReassignmentJob job = findJob(jobId);
+            job.setStatus(job.getFailedChunks() == 0 ? ReassignmentJobStatus.COMPLETED : ReassignmentJobStatus.PARTIAL);
+            job.setCompletedAt(LocalDateTime.now());
+            log.info("Reassignment job {} {}: {} of {} orders processed, {} reassigned, {} held, {} failed chunks",
+                    job.getId(), job.getStatus(), job.getProcessedOrders(), job.getTotalOrders(),
+                    job.getReassignedOrders(), job.getHeldOrders(), job.getFailedChunks());
+            return toDTO(job);
+        });
+    }
+
+    private void updateJob(UUID jobId, Consumer<OrderReassignmentJob> update) {
+        transactionTemplate.executeWithoutResult(status -> update.accept(findJob(jobId)));
+    }
+
+    private Map<String, Integer> summarizePendingDemand(String sku) {
+        Map<String, Integer> demand = new LinkedHashMap<>();
+        for (Object[] row : fulfillmentOrderRepository.summarizePendingDemandForSku(sku)) {
+            demand.put(String.valueOf(row[0]), ((Number) row[1]).intValue());
+        }
+        return demand;
+    }
+
+    private SourcingRequest toSourcingRequest(FulfillmentOrder order) {
+        Map<String, Integer> demand = new HashMap<>();
+        for (FulfillmentOrderItem item : order.getItems()) {
+            int remaining = item.getQuantity() - item.getQuantityFulfilled();
+            if (remaining > 0) {
+                demand.merge(item.getSku(), remaining, Integer::sum);
+            }
+        }
+        return SourcingRequest.builder()
+                .orderId(String.valueOf(order.getId()))
+                .demand(demand)
+                .destination(order.getShippingAddress())
+                .build();
+    }
+
+    /**
+     * Format notes the way FulfillmentOrder#addNote does
+     */
+    private String notes(LocalDateTime now, String... notes) {
+        return Arrays.stream(notes)
+                .map(note -> "[" + now + "] " + note)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private Long toWarehouseKey(UUID warehouseId) {
+        return warehouseId.getMostSignificantBits() & Long.MAX_VALUE;
+    }
+
+    private ReassignmentJobDTO toDTO(OrderReassignmentJob job) {
+        return ReassignmentJobDTO.builder()
+                .id(job.getId())
+                .jobType(job.getJobType())
+                .warehouseId(job.getWarehouseId())
+                .sku(job.getSku())
+                .status(job.getStatus())
+                .totalOrders(job.getTotalOrders())
+                .processedOrders(job.getProcessedOrders())
+                .reassignedOrders(job.getReassignedOrders())
+                .heldOrders(job.getHeldOrders())
+                .failedChunks(job.getFailedChunks())
+                .lastError(job.getLastError())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    private record ChunkOutcome(int processed, int reassigned, int held) {
+    }
+}
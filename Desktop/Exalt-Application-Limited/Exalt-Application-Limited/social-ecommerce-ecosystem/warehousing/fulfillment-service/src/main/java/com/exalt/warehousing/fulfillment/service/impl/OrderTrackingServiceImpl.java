@@ -0,0 +1,251 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.OrderTrackingResponse;
+import com.exalt.warehousing.fulfillment.dto.ShipmentPackageDTO;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.OrderTracking;
+import com.exalt.warehousing.fulfillment.entity.OrderTrackingNumber;
+import com.exalt.warehousing.fulfillment.exception.FulfillmentException;
+import com.exalt.warehousing.fulfillment.exception.ResourceNotFoundException;
+import com.exalt.warehousing.fulfillment.mapper.manual.ShipmentPackageManualMapper;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.OrderTrackingNumberRepository;
+import com.exalt.warehousing.fulfillment.repository.OrderTrackingRepository;
+import com.exalt.warehousing.fulfillment.repository.ShipmentPackageRepository;
+import com.exalt.warehousing.fulfillment.service.OrderTrackingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the OrderTrackingService
+ *
+ * Lookups read one order tracking row, and one tracking number row when
+ * looking up by tracking number. Lookups never write: an order without a
+ * row yet, such as one created before the read model existed, is answered
+ * from the write model, and its row is written by the projector on the
+ * order's next change. Only the projector writes rows, so it never races a
+ * lookup for the same key.
+ */
+@Slf4j
+@Service
+public class OrderTrackingServiceImpl implements OrderTrackingService {
+
+    private static final TypeReference<List<ShipmentPackageDTO>> SHIPMENT_LIST = new TypeReference<>() {
+    };
+
+    private final OrderTrackingRepository trackingRepository;
+    private final OrderTrackingNumberRepository trackingNumberRepository;
+    private final FulfillmentOrderRepository fulfillmentOrderRepository;
+    private final ShipmentPackageRepository shipmentPackageRepository;
+    private final ShipmentPackageManualMapper shipmentPackageMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderTrackingServiceImpl(OrderTrackingRepository trackingRepository,
+                                    OrderTrackingNumberRepository trackingNumberRepository,
+                                    FulfillmentOrderRepository fulfillmentOrderRepository,
+                                    ShipmentPackageRepository shipmentPackageRepository,
+                                    ShipmentPackageManualMapper shipmentPackageMapper,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.trackingRepository = trackingRepository;
+        this.trackingNumberRepository = trackingNumberRepository;
+        this.fulfillmentOrderRepository = fulfillmentOrderRepository;
+        this.shipmentPackageRepository = shipmentPackageRepository;
+        this.shipmentPackageMapper = shipmentPackageMapper;
+        // Rows written by an older version may hold fields this one no longer has
+        this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public OrderTrackingResponse getOrderTracking(String fulfillmentOrderId) {
+        return fromJson(findTracking(fulfillmentOrderId).getTracking(), OrderTrackingResponse.class);
+    }
+
+    @Override
+    public OrderTrackingResponse getOrderTrackingByTrackingNumber(String trackingNumber) {
+        return getOrderTracking(findOrderIdByTrackingNumber(trackingNumber));
+    }
+
+    @Override
+    public ShipmentPackageDTO getShipmentByTrackingNumber(String trackingNumber) {
+        String normalized = normalize(trackingNumber);
+        OrderTracking tracking = findTracking(findOrderIdByTrackingNumber(trackingNumber));
+        return fromJson(tracking.getShipments(), SHIPMENT_LIST).stream()
+                .filter(shipment -> normalized.equals(normalize(shipment.getTrackingNumber())))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with tracking number: " + trackingNumber));
+    }
+
+    @Override
+    public void project(Collection<String> fulfillmentOrderIds) {
+        for (String fulfillmentOrderId : new LinkedHashSet<>(fulfillmentOrderIds)) {
+            transactionTemplate.executeWithoutResult(status -> projectOrder(fulfillmentOrderId));
+        }
+    }
+
+    private OrderTracking findTracking(String fulfillmentOrderId) {
+        return trackingRepository.findById(fulfillmentOrderId)
+                // Not projected yet; build the row without storing it
+                .or(() -> fulfillmentOrderRepository.findById(fulfillmentOrderId)
+                        .map(order -> toTracking(order, findShipments(fulfillmentOrderId))))
+                .orElseThrow(() -> new ResourceNotFoundException("Fulfillment order not found with id: " + fulfillmentOrderId));
+    }
+
+    private String findOrderIdByTrackingNumber(String trackingNumber) {
+        return trackingNumberRepository.findByTrackingNumber(normalize(trackingNumber)).stream()
+                .findFirst()
+                .map(OrderTrackingNumber::getFulfillmentOrderId)
+                // Not projected yet; the shipment lookup is an exact match on the write model
+                .or(() -> shipmentPackageRepository.findByTrackingNumber(trackingNumber)
+                        .map(shipment -> shipment.getFulfillmentOrderId().toString()))
+                .orElseThrow(() -> new ResourceNotFoundException("Shipment not found with tracking number: " + trackingNumber));
+    }
+
+    private void projectOrder(String fulfillmentOrderId) {
+        trackingNumberRepository.deleteByFulfillmentOrderId(fulfillmentOrderId);
+        Optional<FulfillmentOrder> found = fulfillmentOrderRepository.findById(fulfillmentOrderId);
+        if (found.isEmpty()) {
+            trackingRepository.deleteById(fulfillmentOrderId);
+            return;
+        }
+
+        FulfillmentOrder order = found.get();
+        List<ShipmentPackageDTO> shipments = findShipments(fulfillmentOrderId);
+        trackingRepository.save(toTracking(order, shipments));
+
+        Set<String> trackingNumbers = new LinkedHashSet<>();
+        if (order.getTrackingNumber() != null) {
+            trackingNumbers.add(normalize(order.getTrackingNumber()));
+        }
+        shipments.stream()
+                .map(ShipmentPackageDTO::getTrackingNumber)
+                .filter(number -> number != null && !number.isBlank())
+                .forEach(number -> trackingNumbers.add(normalize(number)));
+        trackingNumberRepository.saveAll(trackingNumbers.stream()
+                .map(number -> new OrderTrackingNumber(number, fulfillmentOrderId))
+                .collect(Collectors.toList()));
+        log.debug("Projected tracking for order {} with {} shipments", fulfillmentOrderId, shipments.size());
+    }
+
+    private List<ShipmentPackageDTO> findShipments(String fulfillmentOrderId) {
+        return shipmentPackageRepository.findByFulfillmentOrderId(toUuid(fulfillmentOrderId))
+                .stream()
+                .map(shipmentPackageMapper::toDTO)
+                .sorted(Comparator.comparing(ShipmentPackageDTO::getShippedAt, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+    }
+
+    private OrderTracking toTracking(FulfillmentOrder order, List<ShipmentPackageDTO> shipments) {
+        return OrderTracking.builder()
+                .fulfillmentOrderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .customerId(order.getCustomerId())
+                .status(String.valueOf(order.getStatus()))
+                .tracking(toJson(toResponse(order, shipments)))
+                .shipments(toJson(shipments))
+                .projectedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private OrderTrackingResponse toResponse(FulfillmentOrder order, List<ShipmentPackageDTO> shipments) {
+        // The latest shipment stands for the order when the order has no tracking details of its own
+        ShipmentPackageDTO latest = shipments.isEmpty() ? null : shipments.get(shipments.size() - 1);
+
+        List<OrderTrackingResponse.TrackingEvent> events = new ArrayList<>();
+        addEvent(events, order.getOrderDate(), "RECEIVED", "Order received");
+        for (ShipmentPackageDTO shipment : shipments) {
+            String label = shipment.getTrackingNumber() != null ? shipment.getTrackingNumber() : "package";
+            addEvent(events, shipment.getShippedAt(), "SHIPPED", "Shipment " + label + " handed to " + shipment.getCarrier());
+            addEvent(events, shipment.getDeliveredAt(), "DELIVERED", "Shipment " + label + " delivered");
+        }
+        if (shipments.isEmpty()) {
+            addEvent(events, order.getShippedAt(), "SHIPPED", "Order shipped");
+            addEvent(events, order.getDeliveredAt(), "DELIVERED", "Order delivered");
+        }
+        addEvent(events, order.getCancelledAt(), "CANCELLED", "Order cancelled");
+        events.sort(Comparator.comparing(OrderTrackingResponse.TrackingEvent::getTimestamp));
+
+        return OrderTrackingResponse.builder()
+                .orderId(toUuid(order.getId()))
+                .orderNumber(order.getOrderNumber())
+                .status(String.valueOf(order.getStatus()))
+                .trackingNumber(order.getTrackingNumber() != null || latest == null
+                        ? order.getTrackingNumber() : latest.getTrackingNumber())
+                .courierCode(order.getCarrier() != null || latest == null ? order.getCarrier() : latest.getCarrier())
+                .estimatedDelivery(order.getEstimatedDeliveryDate() != null || latest == null
+                        ? order.getEstimatedDeliveryDate() : latest.getEstimatedDeliveryDate())
+                .lastUpdate(events.isEmpty() ? null : events.get(events.size() - 1).getTimestamp())
+                .events(events)
+                .build();
+    }
+
+    private static void addEvent(List<OrderTrackingResponse.TrackingEvent> events, LocalDateTime timestamp,
+                                 String status, String description) {
+        if (timestamp != null) {
+            events.add(OrderTrackingResponse.TrackingEvent.builder()
+                    .timestamp(timestamp)
+                    .status(status)
+                    .description(description)
+                    .build());
+        }
+    }
+
+    private static String normalize(String trackingNumber) {
+        return trackingNumber == null ? "" : trackingNumber.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Convert an order ID to the UUID shipments refer to it by, the way ShipmentPackage does
+     */
+    private static UUID toUuid(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(id.getBytes());
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new FulfillmentException("Failed to serialize order tracking: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new FulfillmentException("Failed to read order tracking: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> T fromJson(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new FulfillmentException("Failed to read order tracking: " + e.getMessage(), e);
+        }
+    }
+}
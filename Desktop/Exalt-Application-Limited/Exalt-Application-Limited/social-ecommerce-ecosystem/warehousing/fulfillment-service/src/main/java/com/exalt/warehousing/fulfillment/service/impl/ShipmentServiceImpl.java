@@ -7,6 +7,9 @@ import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
 import com.exalt.warehousing.fulfillment.entity.ShipmentPackage;
 import com.exalt.warehousing.fulfillment.enums.ShipmentStatus;
 import com.exalt.warehousing.fulfillment.enums.ShippingMethod;
+import com.exalt.warehousing.fulfillment.packing.Cartonizer;
+import com.exalt.warehousing.fulfillment.packing.PackItem;
+import com.exalt.warehousing.fulfillment.packing.PackedCarton;
 import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
 import com.exalt.warehousing.fulfillment.repository.ShipmentPackageRepository;
 import com.exalt.warehousing.fulfillment.service.FulfillmentOrderService;
@@ -34,6 +37,7 @@ public class ShipmentServiceImpl implements ShipmentService {
     private final FulfillmentOrderRepository fulfillmentOrderRepository;
     private final FulfillmentOrderService fulfillmentOrderService;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Cartonizer cartonizer;
 
     @Override
     @Transactional
@@ -228,55 +232,36 @@ public class ShipmentServiceImpl implements ShipmentService {
     public List<ShipmentPackage> optimizeShipmentPackaging(FulfillmentOrder fulfillmentOrder) {
         log.info("Optimizing shipment packaging for fulfillment order: {}", fulfillmentOrder.getId());
         
-        // For simple implementation, we'll create a single shipment for all items
-        // In a real implementation, this would use a more advanced algorithm to optimize packaging
+        List<PackItem> items = fulfillmentOrder.getItems().stream()
+                .filter(item -> item.getQuantity() != null && item.getQuantity() > 0)
+                .map(item -> new PackItem(item.getSku() != null ? item.getSku() : item.getProductId(),
+                        PackItem.parseDimensions(item.getDimensions()),
+                        PackItem.toKilograms(item.getWeight(), item.getWeightUnit()),
+                        item.getQuantity()))
+                .collect(Collectors.toList());
         
-        ShipmentPackage shipment = new ShipmentPackage();
-        shipment.setFulfillmentOrder(fulfillmentOrder);
-        
-        // Set dimensions and weight based on order items
-        // This is a simple calculation - in a real system this would be more sophisticated
-        double totalWeight = fulfillmentOrder.getItems().stream()
-                .mapToDouble(item -> 0.5 * item.getQuantity()) // Assuming 0.5 kg per item as a placeholder
-                .sum();
-        
-        shipment.setWeight(totalWeight);
-        
-        // Set default dimensions - in a real system this would be calculated based on item dimensions
-        shipment.setLength(30.0); // cm
-        shipment.setWidth(20.0);  // cm
-        shipment.setHeight(15.0); // cm
-        
-        // Add all items to this shipment
-        shipment.setItemCount(fulfillmentOrder.getTotalItemCount());
-        
-        // For orders with many items or heavy items, split into multiple shipments
         List<ShipmentPackage> shipments = new ArrayList<>();
-        
-        // If weight exceeds 20kg, split into multiple packages
-        if (totalWeight > 20.0) {
-            int numPackages = (int) Math.ceil(totalWeight / 20.0);
-            double weightPerPackage = totalWeight / numPackages;
+        for (PackedCarton carton : cartonizer.pack(items)) {
+            ShipmentPackage pkg = new ShipmentPackage();
+            pkg.setFulfillmentOrder(fulfillmentOrder);
+            pkg.setWeight(carton.getWeight());
+            pkg.setLength(carton.getLength());
+            pkg.setWidth(carton.getWidth());
+            pkg.setHeight(carton.getHeight());
+            pkg.setItemCount(carton.getItemCount());
             
-            for (int i = 0; i < numPackages; i++) {
-                ShipmentPackage pkg = new ShipmentPackage();
-                pkg.setFulfillmentOrder(fulfillmentOrder);
-                pkg.setWeight(weightPerPackage);
-                pkg.setLength(30.0);
-                pkg.setWidth(20.0);
-                pkg.setHeight(15.0);
-                
-                // Distribute items evenly (simplified)
-                int itemsPerPackage = fulfillmentOrder.getTotalItemCount() / numPackages;
-                pkg.setItemCount(i < numPackages - 1 ? itemsPerPackage : 
-                        fulfillmentOrder.getTotalItemCount() - (itemsPerPackage * (numPackages - 1)));
-                
-                shipments.add(pkg);
-            }
-        } else {
-            shipments.add(shipment);
+            // Tell the packing station which carton to use and what goes in it
+            String contents = carton.getContents().entrySet().stream()
+                    .map(entry -> entry.getKey() + " x" + entry.getValue())
+                    .collect(Collectors.joining(", "));
+            pkg.setNotes((carton.isOwnPackaging() ? "Own packaging" : "Carton " + carton.getCartonName())
+                    + ": " + contents);
+            
+            shipments.add(pkg);
         }
         
+        log.debug("Packed {} items of fulfillment order {} into {} packages",
+                fulfillmentOrder.getTotalItemCount(), fulfillmentOrder.getId(), shipments.size());
         return shipments;
     }
     
@@ -0,0 +1,352 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.FulfillmentCapacityReport;
+import com.exalt.warehousing.fulfillment.dto.SourcingCandidate;
+import com.exalt.warehousing.fulfillment.dto.SourcingRequest;
+import com.exalt.warehousing.fulfillment.dto.SplitPlan;
+import com.exalt.warehousing.fulfillment.dto.SplitShipment;
+import com.exalt.warehousing.fulfillment.dto.inventory.WarehouseLocationDTO;
+import com.exalt.warehousing.fulfillment.entity.Address;
+import com.exalt.warehousing.fulfillment.service.WarehouseSourcingService;
+import com.exalt.warehousing.fulfillment.sourcing.AvailabilityMatrixCache;
+import com.exalt.warehousing.fulfillment.sourcing.SourcingLedger;
+import com.exalt.warehousing.fulfillment.sourcing.SplitOptimizer;
+import com.exalt.warehousing.fulfillment.sourcing.WarehouseCapacity;
+import com.exalt.warehousing.fulfillment.sourcing.WarehouseCapacityModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Implementation of warehouse sourcing.
+ *
+ * Only active warehouses holding the full demand qualify. They are ranked by
+ * a weighted sum of distance, backlog (orders already assigned and not yet
+ * shipped), the hours the warehouse needs to clear that backlog at its
+ * measured throughput, and estimated shipping cost, lowest first. Warehouses
+ * that would need longer than the configured bound are saturated and only
+ * receive orders no other warehouse can fill. Shipping addresses carry
+ * no coordinates, so distance to a destination is estimated from how much of
+ * the address the warehouse shares (postal area, state, country); without a
+ * destination it is the great-circle distance from the current warehouse.
+ *
+ * Demand no single warehouse can fill is split by SplitOptimizer, using the
+ * same score as the cost of each shipment.
+ */
+@Slf4j
+@Service
+public class WarehouseSourcingServiceImpl implements WarehouseSourcingService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double SAME_POSTAL_AREA_KM = 50;
+    private static final double SAME_STATE_KM = 300;
+    private static final double SAME_COUNTRY_KM = 1500;
+    private static final double OTHER_COUNTRY_KM = 5000;
+
+    private final AvailabilityMatrixCache availabilityCache;
+    private final WarehouseCapacityModel capacityModel;
+    private final double distanceWeight;
+    private final double backlogWeight;
+    private final double drainWeight;
+    private final double costWeight;
+    private final BigDecimal baseShippingCost;
+    private final BigDecimal shippingCostPerKm;
+    private final SplitOptimizer splitOptimizer;
+
+    public WarehouseSourcingServiceImpl(AvailabilityMatrixCache availabilityCache,
+                                        WarehouseCapacityModel capacityModel,
+                                        @Value("${fulfillment.sourcing.distance-weight:1.0}") double distanceWeight,
+                                        @Value("${fulfillment.sourcing.backlog-weight:2.0}") double backlogWeight,
+                                        @Value("${fulfillment.sourcing.drain-weight:10.0}") double drainWeight,
+                                        @Value("${fulfillment.sourcing.cost-weight:10.0}") double costWeight,
+                                        @Value("${fulfillment.sourcing.base-shipping-cost:5.00}") BigDecimal baseShippingCost,
+                                        @Value("${fulfillment.sourcing.shipping-cost-per-km:0.01}") BigDecimal shippingCostPerKm,
+                                        @Value("${fulfillment.split.max-search-millis:50}") long splitMaxSearchMillis,
+                                        @Value("${fulfillment.split.max-search-nodes:200000}") long splitMaxSearchNodes) {
+        this.availabilityCache = availabilityCache;
+        this.capacityModel = capacityModel;
+        this.distanceWeight = distanceWeight;
+        this.backlogWeight = backlogWeight;
+        this.drainWeight = drainWeight;
+        this.costWeight = costWeight;
+        this.baseShippingCost = baseShippingCost;
+        this.shippingCostPerKm = shippingCostPerKm;
+        this.splitOptimizer = new SplitOptimizer(splitMaxSearchMillis, splitMaxSearchNodes);
+    }
+
+    @Override
+    public List<SourcingCandidate> rankWarehouses(Map<String, Integer> demand, Address destination, UUID currentWarehouseId) {
+        if (demand.isEmpty()) {
+            return List.of();
+        }
+
+        List<WarehouseLocationDTO> warehouses = availabilityCache.getActiveWarehouses();
+        return rank(demand, destination, currentWarehouseId, warehouses,
+                availabilityCache.getAvailability(demand.keySet()), capacityModel.getCapacity());
+    }
+
+    @Override
+    public Optional<UUID> sourceWarehouse(Map<String, Integer> demand, Address destination, UUID currentWarehouseId) {
+        List<SourcingCandidate> candidates = rankWarehouses(demand, destination, currentWarehouseId);
+        if (candidates.isEmpty()) {
+            log.debug("No active warehouse holds demand {}", demand);
+            return Optional.empty();
+        }
+
+        UUID chosen = candidates.get(0).getWarehouseId();
+        demand.forEach((sku, quantity) -> availabilityCache.consume(sku, chosen, quantity));
+        capacityModel.recordAssignment(toWarehouseKey(chosen));
+        return Optional.of(chosen);
+    }
+
+    @Override
+    public Map<String, UUID> sourceWarehouses(List<SourcingRequest> requests, UUID currentWarehouseId) {
+        return sourceWarehouses(requests, currentWarehouseId, newLedger());
+    }
+
+    @Override
+    public Map<String, UUID> sourceWarehouses(List<SourcingRequest> requests, UUID currentWarehouseId,
+                                              SourcingLedger ledger) {
+        Set<String> skus = new HashSet<>();
+        requests.forEach(request -> skus.addAll(request.getDemand().keySet()));
+        List<WarehouseLocationDTO> warehouses = availabilityCache.getActiveWarehouses();
+
+        // Each decision sees the stock and capacity taken by the ones before it, including other callers'
+        synchronized (ledger) {
+            Map<String, Map<UUID, Integer>> availability = ledger.availability(skus, availabilityCache::getAvailability);
+            Map<Long, WarehouseCapacity> workingCapacity = ledger.capacity();
+
+            Map<String, UUID> chosen = new HashMap<>();
+            for (SourcingRequest request : requests) {
+                if (request.getDemand().isEmpty()) {
+                    continue;
+                }
+                List<SourcingCandidate> candidates = rank(request.getDemand(), request.getDestination(), currentWarehouseId,
+                        warehouses, availability, workingCapacity);
+                if (candidates.isEmpty()) {
+                    continue;
+                }
+                UUID warehouseId = candidates.get(0).getWarehouseId();
+                request.getDemand().forEach((sku, quantity) -> {
+                    availability.get(sku).computeIfPresent(warehouseId, (id, available) -> available - quantity);
+                    availabilityCache.consume(sku, warehouseId, quantity);
+                });
+                Long warehouseKey = toWarehouseKey(warehouseId);
+                workingCapacity.put(warehouseKey,
+                        workingCapacity.getOrDefault(warehouseKey, WarehouseCapacity.idle(warehouseKey)).withAssigned(1));
+                capacityModel.recordAssignment(warehouseKey);
+                chosen.put(request.getOrderId(), warehouseId);
+            }
+            log.debug("Sourced {} of {} orders in one decision", chosen.size(), requests.size());
+            return chosen;
+        }
+    }
+
+    @Override
+    public SourcingLedger newLedger() {
+        return new SourcingLedger(capacityModel.getCapacity());
+    }
+
+    @Override
+    public Optional<SplitPlan> planSplit(Map<String, Integer> demand, Address destination) {
+        if (demand.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<Long, WarehouseCapacity> currentCapacity = capacityModel.getCapacity();
+        Map<UUID, Map<String, Integer>> stock = SplitOptimizer.byWarehouse(demand,
+                availabilityCache.getAvailability(demand.keySet()));
+        Map<UUID, SourcingCandidate> scored = new HashMap<>();
+        List<SplitOptimizer.Candidate> candidates = new ArrayList<>();
+        for (WarehouseLocationDTO warehouse : availabilityCache.getActiveWarehouses()) {
+            if (warehouse.getId() == null || Boolean.FALSE.equals(warehouse.getIsActive())
+                    || !stock.containsKey(warehouse.getId())) {
+                continue;
+            }
+            SourcingCandidate candidate = score(warehouse, destination, null, currentCapacity);
+            scored.put(warehouse.getId(), candidate);
+            candidates.add(new SplitOptimizer.Candidate(warehouse.getId(), candidate.getScore(), stock.get(warehouse.getId())));
+        }
+
+        Optional<SplitOptimizer.Split> split = splitOptimizer.optimize(demand, candidates);
+        if (split.isEmpty()) {
+            log.debug("Active warehouses together do not hold demand {}", demand);
+            return Optional.empty();
+        }
+        if (!split.get().optimal()) {
+            log.info("Split search for {} SKUs over {} warehouses stopped at its budget, using best split found",
+                    demand.size(), candidates.size());
+        }
+
+        List<SplitShipment> shipments = new ArrayList<>();
+        split.get().allocation().forEach((warehouseId, quantities) -> {
+            quantities.forEach((sku, quantity) -> availabilityCache.consume(sku, warehouseId, quantity));
+            capacityModel.recordAssignment(toWarehouseKey(warehouseId));
+            SourcingCandidate candidate = scored.get(warehouseId);
+            shipments.add(SplitShipment.builder()
+                    .warehouseId(warehouseId)
+                    .warehouseName(candidate.getWarehouseName())
+                    .quantities(quantities)
+                    .shippingCost(candidate.getShippingCost())
+                    .build());
+        });
+        return Optional.of(SplitPlan.builder()
+                .shipments(shipments)
+                .optimal(split.get().optimal())
+                .build());
+    }
+
+    private List<SourcingCandidate> rank(Map<String, Integer> demand, Address destination, UUID currentWarehouseId,
+                                         List<WarehouseLocationDTO> warehouses,
+                                         Map<String, Map<UUID, Integer>> availability,
+                                         Map<Long, WarehouseCapacity> capacity) {
+        WarehouseLocationDTO origin = warehouses.stream()
+                .filter(warehouse -> warehouse.getId().equals(currentWarehouseId))
+                .findFirst()
+                .orElse(null);
+
+        List<SourcingCandidate> candidates = new ArrayList<>();
+        for (WarehouseLocationDTO warehouse : warehouses) {
+            if (warehouse.getId() == null || warehouse.getId().equals(currentWarehouseId)
+                    || Boolean.FALSE.equals(warehouse.getIsActive())
+                    || !holdsDemand(warehouse.getId(), demand, availability)) {
+                continue;
+            }
+
+            candidates.add(score(warehouse, destination, origin, capacity));
+        }
+
+        // Saturated warehouses only take orders no other warehouse can fill
+        if (candidates.stream().anyMatch(candidate -> !candidate.isSaturated())) {
+            candidates.removeIf(SourcingCandidate::isSaturated);
+        }
+        candidates.sort(Comparator.comparingDouble(SourcingCandidate::getScore));
+        return candidates;
+    }
+
+    private SourcingCandidate score(WarehouseLocationDTO warehouse, Address destination, WarehouseLocationDTO origin,
+                                    Map<Long, WarehouseCapacity> capacity) {
+        double distanceKm = estimateDistanceKm(warehouse, destination, origin);
+        Long warehouseKey = toWarehouseKey(warehouse.getId());
+        WarehouseCapacity current = capacity.getOrDefault(warehouseKey, WarehouseCapacity.idle(warehouseKey));
+        // Judged with the order being placed already on the warehouse
+        WarehouseCapacity withOrder = current.withAssigned(1);
+        OptionalDouble drainHours = withOrder.drainHours();
+        BigDecimal shippingCost = baseShippingCost
+                .add(shippingCostPerKm.multiply(BigDecimal.valueOf(distanceKm)))
+                .setScale(2, RoundingMode.HALF_UP);
+        double score = distanceWeight * distanceKm
+                + backlogWeight * current.shipBacklog()
+                + drainWeight * drainHours.orElse(0)
+                + costWeight * shippingCost.doubleValue();
+
+        return SourcingCandidate.builder()
+                .warehouseId(warehouse.getId())
+                .warehouseName(warehouse.getName())
+                .distanceKm(distanceKm)
+                .backlog(current.shipBacklog())
+                .drainHours(drainHours.isPresent() ? drainHours.getAsDouble() : null)
+                .saturated(capacityModel.isSaturated(withOrder))
+                .shippingCost(shippingCost)
+                .score(score)
+                .build();
+    }
+
+    @Override
+    public int getAvailableQuantity(String sku, UUID warehouseId) {
+        return availabilityCache.getAvailable(sku, warehouseId);
+    }
+
+    @Override
+    public void prefetch(Collection<String> skus) {
+        availabilityCache.getAvailability(skus);
+    }
+
+    @Override
+    public List<FulfillmentCapacityReport> getCapacityReports() {
+        Map<Long, WarehouseCapacity> capacity = capacityModel.getCapacity();
+        List<FulfillmentCapacityReport> reports = new ArrayList<>();
+        for (WarehouseLocationDTO warehouse : availabilityCache.getActiveWarehouses()) {
+            if (warehouse.getId() == null) {
+                continue;
+            }
+            Long warehouseKey = toWarehouseKey(warehouse.getId());
+            reports.add(capacityModel.toReport(warehouse.getId(),
+                    capacity.getOrDefault(warehouseKey, WarehouseCapacity.idle(warehouseKey))));
+        }
+        return reports;
+    }
+
+    @Override
+    public void invalidate(String sku) {
+        availabilityCache.invalidate(sku);
+    }
+
+    private boolean holdsDemand(UUID warehouseId, Map<String, Integer> demand, Map<String, Map<UUID, Integer>> availability) {
+        for (Map.Entry<String, Integer> entry : demand.entrySet()) {
+            if (availability.get(entry.getKey()).getOrDefault(warehouseId, 0) < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double estimateDistanceKm(WarehouseLocationDTO warehouse, Address destination, WarehouseLocationDTO origin) {
+        if (destination != null && destination.getCountry() != null) {
+            if (!destination.getCountry().equalsIgnoreCase(warehouse.getCountry())) {
+                return OTHER_COUNTRY_KM;
+            }
+            if (samePostalArea(destination.getPostalCode(), warehouse.getPostalCode())) {
+                return SAME_POSTAL_AREA_KM;
+            }
+            if (destination.getState() != null && destination.getState().equalsIgnoreCase(warehouse.getStateProvince())) {
+                return SAME_STATE_KM;
+            }
+            return SAME_COUNTRY_KM;
+        }
+        if (origin != null && hasCoordinates(origin) && hasCoordinates(warehouse)) {
+            return haversineKm(origin.getLatitude(), origin.getLongitude(), warehouse.getLatitude(), warehouse.getLongitude());
+        }
+        return SAME_COUNTRY_KM;
+    }
+
+    private boolean samePostalArea(String a, String b) {
+        return a != null && b != null && a.length() >= 3 && b.length() >= 3
+                && a.substring(0, 3).equalsIgnoreCase(b.substring(0, 3));
+    }
+
+    private boolean hasCoordinates(WarehouseLocationDTO warehouse) {
+        return warehouse.getLatitude() != null && warehouse.getLongitude() != null;
+    }
+
+    private double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    /**
+     * Orders store warehouse IDs as longs, see FulfillmentOrder#setAssignedWarehouseId
+     */
+    private Long toWarehouseKey(UUID warehouseId) {
+        return Objects.requireNonNull(warehouseId).getMostSignificantBits() & Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,200 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.WaveDTO;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.PickingTask;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.enums.Priority;
+import com.exalt.warehousing.fulfillment.enums.TaskStatus;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderItemRepository;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.PickingTaskRepository;
+import com.exalt.warehousing.fulfillment.service.WavePlanningService;
+import com.exalt.warehousing.fulfillment.wave.PlannedWave;
+import com.exalt.warehousing.fulfillment.wave.WaveCandidate;
+import com.exalt.warehousing.fulfillment.wave.WavePlanner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the wave planning service.
+ *
+ * Candidates are loaded as two projections, one row per order and one per
+ * order and zone, so planning never loads order entities or item collections.
+ * Only the orders in released waves are loaded, locked, and their status is
+ * checked under the lock, so concurrent releases for one warehouse cannot
+ * both move an order to picking and create its tasks twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WavePlanningServiceImpl implements WavePlanningService {
+
+    private static final List<FulfillmentStatus> RELEASABLE_STATUSES =
+            List.of(FulfillmentStatus.ALLOCATED, FulfillmentStatus.READY_FOR_PICKING);
+
+    private final WavePlanner wavePlanner;
+    private final FulfillmentOrderRepository fulfillmentOrderRepository;
+    private final FulfillmentOrderItemRepository fulfillmentOrderItemRepository;
+    private final PickingTaskRepository pickingTaskRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaveDTO> planWaves(Long warehouseId, int availablePickers) {
+        return plan(warehouseId, availablePickers).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public List<WaveDTO> releaseWaves(Long warehouseId, int availablePickers) {
+        List<PlannedWave> waves = plan(warehouseId, availablePickers);
+        if (waves.isEmpty()) {
+            return List.of();
+        }
+
+        // Release waves in order until the pickers are busy, always at least one
+        int lineCapacity = wavePlanner.lineCapacity(availablePickers);
+        List<PlannedWave> released = new ArrayList<>();
+        int releasedLines = 0;
+        for (PlannedWave wave : waves) {
+            if (!released.isEmpty() && releasedLines + wave.getLineCount() > lineCapacity) {
+                break;
+            }
+            released.add(wave);
+            releasedLines += wave.getLineCount();
+        }
+
+        List<String> orderIds = released.stream()
+                .flatMap(wave -> wave.getOrders().stream())
+                .map(WaveCandidate::getOrderId)
+                .collect(Collectors.toList());
+        Map<String, FulfillmentOrder> orders = fulfillmentOrderRepository.lockAllById(orderIds).stream()
+                .collect(Collectors.toMap(order -> String.valueOf(order.getId()), Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<FulfillmentOrder> updatedOrders = new ArrayList<>();
+        List<PickingTask> tasks = new ArrayList<>();
+        for (PlannedWave wave : released) {
+            for (WaveCandidate candidate : wave.getOrders()) {
+                FulfillmentOrder order = orders.get(candidate.getOrderId());
+                // Skip orders that changed since the candidates were read, e.g. released by another call
+                if (order == null || !RELEASABLE_STATUSES.contains(order.getStatus())) {
+                    continue;
+                }
+                order.setStatus(FulfillmentStatus.PICKING);
+                order.setPickingStartedAt(now);
+                updatedOrders.add(order);
+                tasks.addAll(createPickingTasks(wave, candidate, order, now));
+            }
+        }
+
+        fulfillmentOrderRepository.saveAll(updatedOrders);
+        pickingTaskRepository.saveAll(tasks);
+        log.info("Released {} waves with {} orders and {} picking tasks for warehouse {}",
+                released.size(), updatedOrders.size(), tasks.size(), warehouseId);
+
+        return released.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    private List<PlannedWave> plan(Long warehouseId, int availablePickers) {
+        Map<String, WaveCandidate> candidates = new HashMap<>();
+        for (Object[] row : fulfillmentOrderRepository.findWaveCandidates(warehouseId)) {
+            Priority priority = (Priority) row[4];
+            WaveCandidate candidate = new WaveCandidate(
+                    (String) row[0],
+                    (Long) row[1],
+                    (String) row[2],
+                    (LocalDateTime) row[3],
+                    priority != null ? priority.getLevel() : Priority.STANDARD.getLevel(),
+                    (LocalDateTime) row[5]);
+            candidates.put(candidate.getOrderId(), candidate);
+        }
+
+        for (Object[] row : fulfillmentOrderItemRepository.summarizeWaveCandidateZones(warehouseId)) {
+            WaveCandidate candidate = candidates.get((String) row[0]);
+            if (candidate != null) {
+                long units = row[3] != null ? ((Number) row[3]).longValue() : 0L;
+                candidate.addZoneLines((String) row[1], ((Number) row[2]).intValue(), units);
+            }
+        }
+
+        // Orders without items have nothing to pick
+        candidates.values().removeIf(candidate -> candidate.getLineCount() == 0);
+
+        List<PlannedWave> waves = wavePlanner.plan(candidates.values(), availablePickers);
+        log.debug("Planned {} waves for {} orders in warehouse {}", waves.size(), candidates.size(), warehouseId);
+        return waves;
+    }
+
+    /**
+     * Create one picking task per zone of an order, tagged with the wave ID
+     */
+    private List<PickingTask> createPickingTasks(PlannedWave wave, WaveCandidate candidate,
+                                                 FulfillmentOrder order, LocalDateTime now) {
+        UUID fulfillmentOrderId = toUuid(String.valueOf(order.getId()));
+        LocalDateTime dueBy = wave.getCutoff() != null ? wave.getCutoff() : now.plusHours(2);
+
+        List<PickingTask> tasks = new ArrayList<>();
+        for (Map.Entry<String, Integer> zone : candidate.getLinesByZone().entrySet()) {
+            tasks.add(PickingTask.builder()
+                    .fulfillmentOrderId(fulfillmentOrderId)
+                    .status(TaskStatus.PENDING)
+                    .priority(taskPriority(candidate.getPriorityLevel()))
+                    .batchId(wave.getWaveId())
+                    .zone(zone.getKey())
+                    .dueBy(dueBy)
+                    .instruction("Pick " + zone.getValue() + " lines in zone " + zone.getKey()
+                            + " for order " + order.getOrderReference())
+                    .build());
+        }
+        return tasks;
+    }
+
+    /**
+     * Picking task priority for an order priority level. Tasks carry the
+     * enum ordinal, as the tasks created by FulfillmentServiceImpl do, so
+     * wave and non-wave tasks sort together.
+     */
+    static int taskPriority(int priorityLevel) {
+        return Priority.getByLevel(priorityLevel).ordinal();
+    }
+
+    private UUID toUuid(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(id.getBytes());
+        }
+    }
+
+    private WaveDTO convertToDTO(PlannedWave wave) {
+        return WaveDTO.builder()
+                .waveId(wave.getWaveId())
+                .warehouseId(wave.getWarehouseId())
+                .carrier(wave.getCarrier().isEmpty() ? null : wave.getCarrier())
+                .cutoff(wave.getCutoff())
+                .priority(Priority.getByLevel(wave.getPriorityLevel()))
+                .orderIds(wave.getOrders().stream().map(WaveCandidate::getOrderId).collect(Collectors.toList()))
+                .zones(new LinkedHashSet<>(wave.getZones()))
+                .orderCount(wave.getOrders().size())
+                .lineCount(wave.getLineCount())
+                .unitCount(wave.getUnitCount())
+                .build();
+    }
+}
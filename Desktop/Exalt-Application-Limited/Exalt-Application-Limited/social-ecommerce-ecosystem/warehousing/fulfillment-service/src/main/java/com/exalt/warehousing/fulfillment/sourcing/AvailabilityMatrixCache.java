@@ -0,0 +1,162 @@
+package com.exalt.warehousing.fulfillment.sourcing;
+
+import com.exalt.warehousing.fulfillment.client.InventoryClient;
+import com.exalt.warehousing.fulfillment.dto.inventory.SkuAvailability;
+import com.exalt.warehousing.fulfillment.dto.inventory.WarehouseLocationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Local copy of the inventory availability matrix (SKU x warehouse) and of
+ * the active warehouses.
+ *
+ * Lookups for several SKUs refresh every missing or expired SKU with a single
+ * call to the inventory service, so ranking warehouses for a batch of orders
+ * costs one call instead of one per SKU. Quantities handed out by sourcing
+ * decisions are subtracted locally until the next refresh, so consecutive
+ * decisions do not promise the same stock twice.
+ *
+ * While the InventoryReadModel is in sync with the inventory change feed,
+ * availability is answered from it and the inventory service is not called.
+ */
+@Slf4j
+@Component
+public class AvailabilityMatrixCache {
+
+    private final InventoryClient inventoryClient;
+    private final InventoryReadModel readModel;
+    private final long availabilityTtlMillis;
+    private final long warehouseTtlMillis;
+
+    private final Map<String, CachedAvailability> availability = new ConcurrentHashMap<>();
+    private volatile List<WarehouseLocationDTO> warehouses = List.of();
+    private volatile long warehousesLoadedAt;
+
+    public AvailabilityMatrixCache(InventoryClient inventoryClient,
+                                   InventoryReadModel readModel,
+                                   @Value("${fulfillment.sourcing.availability-ttl-seconds:30}") long availabilityTtlSeconds,
+                                   @Value("${fulfillment.sourcing.warehouse-ttl-seconds:300}") long warehouseTtlSeconds) {
+        this.inventoryClient = inventoryClient;
+        this.readModel = readModel;
+        this.availabilityTtlMillis = availabilityTtlSeconds * 1000;
+        this.warehouseTtlMillis = warehouseTtlSeconds * 1000;
+    }
+
+    /**
+     * Get the available quantity per warehouse for a set of SKUs
+     * @param skus the SKUs to look up
+     * @return available quantity by warehouse, per SKU; SKUs without stock map to an empty map
+     */
+    public Map<String, Map<UUID, Integer>> getAvailability(Collection<String> skus) {
+        Optional<Map<String, Map<UUID, Integer>>> local = readModel.getAvailability(skus);
+        if (local.isPresent()) {
+            return local.get();
+        }
+
+        long now = System.currentTimeMillis();
+        List<String> stale = skus.stream()
+                .distinct()
+                .filter(sku -> {
+                    CachedAvailability cached = availability.get(sku);
+                    return cached == null || now - cached.loadedAt > availabilityTtlMillis;
+                })
+                .collect(Collectors.toList());
+        if (!stale.isEmpty()) {
+            refresh(stale, now);
+        }
+
+        Map<String, Map<UUID, Integer>> result = new HashMap<>();
+        for (String sku : skus) {
+            CachedAvailability cached = availability.get(sku);
+            result.put(sku, cached != null ? cached.byWarehouse : Map.of());
+        }
+        return result;
+    }
+
+    /**
+     * Get the available quantity of a SKU at one warehouse
+     * @param sku the SKU
+     * @param warehouseId the warehouse ID
+     * @return the available quantity, 0 if the warehouse holds none
+     */
+    public int getAvailable(String sku, UUID warehouseId) {
+        return getAvailability(List.of(sku)).get(sku).getOrDefault(warehouseId, 0);
+    }
+
+    /**
+     * Subtract quantity promised to an order from the local copy
+     * @param sku the SKU
+     * @param warehouseId the warehouse the quantity was taken from
+     * @param quantity the quantity taken
+     */
+    public void consume(String sku, UUID warehouseId, int quantity) {
+        readModel.consume(sku, warehouseId, quantity);
+        availability.computeIfPresent(sku, (key, cached) -> {
+            Map<UUID, Integer> byWarehouse = new HashMap<>(cached.byWarehouse);
+            byWarehouse.computeIfPresent(warehouseId, (id, available) -> Math.max(0, available - quantity));
+            return new CachedAvailability(Collections.unmodifiableMap(byWarehouse), cached.loadedAt);
+        });
+    }
+
+    /**
+     * Drop a SKU so the next lookup reads it from the inventory service
+     * @param sku the SKU
+     */
+    public void invalidate(String sku) {
+        availability.remove(sku);
+    }
+
+    /**
+     * Get the active warehouses, refreshed when older than the warehouse TTL
+     * @return the active warehouses
+     */
+    public List<WarehouseLocationDTO> getActiveWarehouses() {
+        long now = System.currentTimeMillis();
+        if (warehouses.isEmpty() || now - warehousesLoadedAt > warehouseTtlMillis) {
+            try {
+                warehouses = List.copyOf(inventoryClient.getActiveWarehouses());
+                warehousesLoadedAt = now;
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh active warehouses, keeping {} cached: {}", warehouses.size(), e.getMessage());
+            }
+        }
+        return warehouses;
+    }
+
+    private void refresh(List<String> skus, long now) {
+        List<SkuAvailability> rows;
+        try {
+            rows = inventoryClient.getAvailabilityMatrix(skus);
+        } catch (RuntimeException e) {
+            // Keep serving what we have; unknown SKUs have no known stock
+            log.warn("Failed to refresh availability for {} SKUs: {}", skus.size(), e.getMessage());
+            return;
+        }
+
+        Map<String, Map<UUID, Integer>> loaded = new HashMap<>();
+        skus.forEach(sku -> loaded.put(sku, new HashMap<>()));
+        for (SkuAvailability row : rows) {
+            if (row.getWarehouseId() != null && row.getAvailableQuantity() != null) {
+                loaded.computeIfAbsent(row.getSku(), sku -> new HashMap<>())
+                        .merge(row.getWarehouseId(), row.getAvailableQuantity(), Integer::sum);
+            }
+        }
+        loaded.forEach((sku, byWarehouse) ->
+                availability.put(sku, new CachedAvailability(Collections.unmodifiableMap(byWarehouse), now)));
+        log.debug("Refreshed availability for {} SKUs", skus.size());
+    }
+
+    private record CachedAvailability(Map<UUID, Integer> byWarehouse, long loadedAt) {
+    }
+}
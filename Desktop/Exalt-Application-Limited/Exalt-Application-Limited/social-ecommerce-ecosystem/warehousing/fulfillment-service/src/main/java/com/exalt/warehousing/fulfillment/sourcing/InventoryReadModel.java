@@ -0,0 +1,330 @@
+package com.exalt.warehousing.fulfillment.sourcing;
+
+import com.exalt.warehousing.fulfillment.client.InventoryClient;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryChangeDTO;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryChangeFeedDTO;
+import com.exalt.warehousing.fulfillment.dto.inventory.SkuAvailability;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local read model of the available quantity per SKU and warehouse, kept
+ * current from the inventory service change feed.
+ *
+ * Availability answered from here is "probably available": good enough to
+ * pre-check and source orders, never a substitute for the reservation
+ * itself. The feed is polled on a fixed delay and additionally right away
+ * whenever an inventory or reservation event arrives on Kafka, so the model
+ * usually trails the inventory service by one feed round trip.
+ *
+ * Availability is tracked per warehouse allocation, the same records the
+ * availability matrix sums, so reservations show up as soon as the feed
+ * reports the allocation they were taken from. The feed carries the current
+ * state of each allocation that changed, so allocations that changed since
+ * startup are known exactly. Stock held by allocations that have not changed
+ * is read once per SKU from the matrix and kept as a per-warehouse residual
+ * next to the known allocations; when a previously unseen allocation of a
+ * seeded SKU changes, the residual no longer adds up and the SKU is seeded
+ * again on its next lookup. Item changes are not applied: the matrix does not
+ * look at item state either.
+ *
+ * When the feed has not been read up to its head within the configured
+ * staleness bound, lookups return nothing and callers fall back to asking
+ * the inventory service directly.
+ */
+@Slf4j
+@Component
+public class InventoryReadModel {
+
+    private final InventoryClient inventoryClient;
+    private final boolean enabled;
+    private final long maxStalenessMillis;
+    private final long pollIntervalMillis;
+    private final int pageSize;
+
+    private final Map<String, SkuState> skus = new ConcurrentHashMap<>();
+    private final Map<String, String> skuByAllocation = new ConcurrentHashMap<>();
+    private final AtomicBoolean syncRequested = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Long cursor;
+    private volatile long caughtUpAt;
+
+    public InventoryReadModel(InventoryClient inventoryClient,
+                              @Value("${fulfillment.read-model.enabled:true}") boolean enabled,
+                              @Value("${fulfillment.read-model.max-staleness-seconds:10}") long maxStalenessSeconds,
+                              @Value("${fulfillment.read-model.poll-interval-millis:1000}") long pollIntervalMillis,
+                              @Value("${fulfillment.read-model.page-size:500}") int pageSize) {
+        this.inventoryClient = inventoryClient;
+        this.enabled = enabled;
+        this.maxStalenessMillis = maxStalenessSeconds * 1000;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.pageSize = pageSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-read-model");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::sync, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Read the change feed on the sync thread as soon as possible, without
+     * waiting for the next poll. Requests made while one is pending are merged.
+     */
+    public void requestSync() {
+        if (enabled && syncRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                syncRequested.set(false);
+                sync();
+            });
+        }
+    }
+
+    /**
+     * Check whether the model has caught up with the feed within the staleness bound
+     * @return true if lookups are answered locally
+     */
+    public boolean isFresh() {
+        return enabled && cursor != null && System.currentTimeMillis() - caughtUpAt <= maxStalenessMillis;
+    }
+
+    /**
+     * Get the available quantity per warehouse for a set of SKUs
+     * @param skuList the SKUs to look up
+     * @return available quantity by warehouse per SKU, or empty when the model is stale
+     */
+    public Optional<Map<String, Map<UUID, Integer>>> getAvailability(Collection<String> skuList) {
+        if (!isFresh()) {
+            return Optional.empty();
+        }
+
+        List<String> unseeded = skuList.stream()
+                .distinct()
+                .filter(sku -> {
+                    SkuState state = skus.get(sku);
+                    return state == null || !state.isSeeded();
+                })
+                .toList();
+        if (!unseeded.isEmpty() && !seed(unseeded)) {
+            return Optional.empty();
+        }
+
+        Map<String, Map<UUID, Integer>> result = new HashMap<>();
+        for (String sku : skuList) {
+            SkuState state = skus.get(sku);
+            result.put(sku, state != null ? state.available() : Map.of());
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Subtract quantity promised to an order until the next change of that
+     * SKU at that warehouse arrives from the feed
+     * @param sku the SKU
+     * @param warehouseId the warehouse the quantity was taken from
+     * @param quantity the quantity taken
+     */
+    public void consume(String sku, UUID warehouseId, int quantity) {
+        SkuState state = skus.get(sku);
+        if (state != null) {
+            state.promise(warehouseId, quantity);
+        }
+    }
+
+    /**
+     * Read the change feed up to its head and apply every allocation change
+     */
+    synchronized void sync() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            if (cursor == null) {
+                // Start at the head; stock that does not change is seeded from the matrix on demand
+                InventoryChangeFeedDTO head = inventoryClient.getInventoryChanges(0, 1);
+                cursor = head != null && head.getHeadSequence() != null ? head.getHeadSequence() : 0L;
+                caughtUpAt = startedAt;
+                log.info("Inventory read model starting at change sequence {}", cursor);
+                return;
+            }
+
+            InventoryChangeFeedDTO page;
+            do {
+                page = inventoryClient.getInventoryChanges(cursor, pageSize);
+                if (page == null) {
+                    return;
+                }
+                if (page.getChanges() != null) {
+                    page.getChanges().forEach(this::apply);
+                }
+                if (page.getNextSequence() != null) {
+                    cursor = page.getNextSequence();
+                }
+            } while (Boolean.TRUE.equals(page.getHasMore()));
+            caughtUpAt = startedAt;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read inventory change feed at sequence {}: {}", cursor, e.getMessage());
+        }
+    }
+
+    private void apply(InventoryChangeDTO change) {
+        if (!InventoryChangeDTO.ALLOCATION.equals(change.getEntityType()) || change.getEntityId() == null) {
+            return;
+        }
+        String allocationId = change.getEntityId();
+
+        if (InventoryChangeDTO.DELETE.equals(change.getChangeType())) {
+            String sku = skuByAllocation.remove(allocationId);
+            if (sku != null) {
+                skus.get(sku).remove(allocationId);
+            }
+            return;
+        }
+        if (change.getSku() == null || change.getWarehouseId() == null) {
+            return;
+        }
+
+        // Not clamped per allocation, the matrix only clamps the per-warehouse sum
+        int available = change.getAvailableQuantity() != null ? change.getAvailableQuantity().intValue() : 0;
+        String previousSku = skuByAllocation.put(allocationId, change.getSku());
+        if (previousSku != null && !previousSku.equals(change.getSku())) {
+            skus.get(previousSku).remove(allocationId);
+        }
+        skus.computeIfAbsent(change.getSku(), sku -> new SkuState())
+                .put(allocationId, UUID.fromString(change.getWarehouseId()), available);
+    }
+
+    private boolean seed(List<String> skuList) {
+        // Allocations first seen while the matrix is read make the seed unreliable; those SKUs stay unseeded
+        Map<String, Long> generations = new HashMap<>();
+        for (String sku : skuList) {
+            generations.put(sku, skus.computeIfAbsent(sku, key -> new SkuState()).generation());
+        }
+
+        List<SkuAvailability> rows;
+        try {
+            rows = inventoryClient.getAvailabilityMatrix(skuList);
+        } catch (RuntimeException e) {
+            log.warn("Failed to seed availability for {} SKUs: {}", skuList.size(), e.getMessage());
+            return false;
+        }
+
+        Map<String, Map<UUID, Integer>> matrix = new HashMap<>();
+        for (SkuAvailability row : rows) {
+            if (row.getWarehouseId() != null && row.getAvailableQuantity() != null) {
+                matrix.computeIfAbsent(row.getSku(), sku -> new HashMap<>())
+                        .merge(row.getWarehouseId(), row.getAvailableQuantity(), Integer::sum);
+            }
+        }
+        for (String sku : skuList) {
+            skus.get(sku).seed(matrix.getOrDefault(sku, Map.of()), generations.get(sku));
+        }
+        log.debug("Seeded availability for {} SKUs", skuList.size());
+        return true;
+    }
+
+    /**
+     * Availability of one SKU: exact state of the allocations seen on the feed plus
+     * the residual per warehouse from the last seed, less promised quantity
+     */
+    private static final class SkuState {
+
+        private final Map<String, AllocationState> allocations = new HashMap<>();
+        private final Map<UUID, Integer> residual = new HashMap<>();
+        private final Map<UUID, Integer> promised = new HashMap<>();
+        private boolean seeded;
+        private long generation;
+
+        synchronized boolean isSeeded() {
+            return seeded;
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized void put(String allocationId, UUID warehouseId, int available) {
+            AllocationState previous = allocations.put(allocationId, new AllocationState(warehouseId, available));
+            if (previous == null) {
+                // The residual may already hold this allocation's stock under its old value
+                seeded = false;
+                generation++;
+            } else {
+                promised.remove(previous.warehouseId());
+            }
+            promised.remove(warehouseId);
+        }
+
+        synchronized void remove(String allocationId) {
+            AllocationState previous = allocations.remove(allocationId);
+            if (previous != null) {
+                promised.remove(previous.warehouseId());
+            }
+        }
+
+        synchronized void seed(Map<UUID, Integer> matrix, long expectedGeneration) {
+            if (generation != expectedGeneration) {
+                return;
+            }
+            Map<UUID, Integer> known = sumAllocations();
+            residual.clear();
+            promised.clear();
+            matrix.forEach((warehouseId, available) -> {
+                int rest = available - known.getOrDefault(warehouseId, 0);
+                if (rest > 0) {
+                    residual.put(warehouseId, rest);
+                }
+            });
+            seeded = true;
+        }
+
+        synchronized void promise(UUID warehouseId, int quantity) {
+            promised.merge(warehouseId, quantity, Integer::sum);
+        }
+
+        synchronized Map<UUID, Integer> available() {
+            Map<UUID, Integer> available = sumAllocations();
+            residual.forEach((warehouseId, quantity) -> available.merge(warehouseId, quantity, Integer::sum));
+            promised.forEach((warehouseId, quantity) -> available.computeIfPresent(warehouseId,
+                    (id, current) -> Math.max(0, current - quantity)));
+            available.values().removeIf(quantity -> quantity <= 0);
+            return available;
+        }
+
+        private Map<UUID, Integer> sumAllocations() {
+            Map<UUID, Integer> sums = new HashMap<>();
+            for (AllocationState allocation : allocations.values()) {
+                sums.merge(allocation.warehouseId(), allocation.available(), Integer::sum);
+            }
+            return sums;
+        }
+    }
+
+    private record AllocationState(UUID warehouseId, int available) {
+    }
+}
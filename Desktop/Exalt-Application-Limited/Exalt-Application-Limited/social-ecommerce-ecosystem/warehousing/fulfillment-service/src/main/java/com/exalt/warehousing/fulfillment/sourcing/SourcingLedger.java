@@ -0,0 +1,62 @@
+package com.exalt.warehousing.fulfillment.sourcing;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stock and backlog that several sourcing decisions of one run are made
+ * against, e.g. the chunks of a reassignment job.
+ *
+ * Each SKU's availability is copied in the first time a decision needs it
+ * and only ever reduced afterwards, so stock promised by one decision stays
+ * promised even if the AvailabilityMatrixCache refreshes in between. Stock
+ * promised to a chunk that later rolls back is not handed back; the next run
+ * starts from fresh availability.
+ *
+ * Not thread-safe by itself: WarehouseSourcingServiceImpl holds the ledger's
+ * monitor for the whole of a decision, which serialises decisions sharing a
+ * ledger while their database writes run in parallel.
+ */
+public class SourcingLedger {
+
+    private final Map<String, Map<UUID, Integer>> availability = new HashMap<>();
+    private final Map<Long, WarehouseCapacity> capacity;
+
+    /**
+     * @param capacity the warehouse capacity at the start of the run
+     */
+    public SourcingLedger(Map<Long, WarehouseCapacity> capacity) {
+        this.capacity = new HashMap<>(capacity);
+    }
+
+    /**
+     * Get the remaining availability of a set of SKUs, loading the ones the ledger has not seen yet
+     * @param skus the SKUs about to be sourced
+     * @param loader reads current availability for SKUs new to the ledger
+     * @return the ledger's working availability by warehouse, per SKU
+     */
+    public Map<String, Map<UUID, Integer>> availability(Collection<String> skus,
+                                                        Function<Collection<String>, Map<String, Map<UUID, Integer>>> loader) {
+        List<String> missing = skus.stream()
+                .filter(sku -> !availability.containsKey(sku))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            loader.apply(missing).forEach((sku, byWarehouse) -> availability.put(sku, new HashMap<>(byWarehouse)));
+            missing.forEach(sku -> availability.putIfAbsent(sku, new HashMap<>()));
+        }
+        return availability;
+    }
+
+    /**
+     * Get the working capacity, including the orders assigned by earlier decisions
+     */
+    public Map<Long, WarehouseCapacity> capacity() {
+        return capacity;
+    }
+}
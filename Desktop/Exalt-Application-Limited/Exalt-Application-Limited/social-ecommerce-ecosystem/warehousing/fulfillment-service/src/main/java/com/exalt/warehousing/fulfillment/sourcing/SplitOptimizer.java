@@ -0,0 +1,321 @@
+package com.exalt.warehousing.fulfillment.sourcing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Chooses the warehouses an order is split across when no single warehouse
+ * holds all of it.
+ *
+ * A split is better when it needs fewer shipments and, for the same number of
+ * shipments, when the summed cost of the shipping warehouses is lower. The
+ * search starts from a greedy split (repeatedly take the warehouse covering
+ * the most outstanding units) and then runs a depth-first branch and bound
+ * over the warehouses, pruned by a lower bound on the shipments still needed
+ * and by the stock left in the warehouses not yet considered. The search
+ * stops at a time and node budget, in which case the best split found so far
+ * is returned and marked as not proven optimal.
+ */
+public class SplitOptimizer {
+
+    private final long maxSearchNanos;
+    private final long maxNodes;
+
+    public SplitOptimizer(long maxSearchMillis, long maxNodes) {
+        this.maxSearchNanos = maxSearchMillis * 1_000_000;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * A warehouse that may take part in a split
+     *
+     * @param warehouseId the warehouse ID
+     * @param cost the cost of shipping from this warehouse
+     * @param stock available quantity per SKU
+     */
+    public record Candidate(UUID warehouseId, double cost, Map<String, Integer> stock) {
+    }
+
+    /**
+     * The chosen split
+     *
+     * @param allocation quantity per SKU for each shipping warehouse, cheapest warehouse first
+     * @param optimal whether the search finished within its budget
+     */
+    public record Split(Map<UUID, Map<String, Integer>> allocation, boolean optimal) {
+    }
+
+    /**
+     * Find the split with the fewest shipments and the lowest cost
+     *
+     * @param demand quantity required per SKU
+     * @param candidates the warehouses to choose from
+     * @return the split, empty if the warehouses together do not hold the demand
+     */
+    public Optional<Split> optimize(Map<String, Integer> demand, List<Candidate> candidates) {
+        List<String> skus = new ArrayList<>(demand.keySet());
+        int[] need = new int[skus.size()];
+        for (int s = 0; s < need.length; s++) {
+            need[s] = Math.max(0, demand.get(skus.get(s)));
+        }
+
+        List<Candidate> useful = new ArrayList<>();
+        List<int[]> covers = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            int[] cover = new int[need.length];
+            int total = 0;
+            for (int s = 0; s < need.length; s++) {
+                cover[s] = Math.min(need[s], Math.max(0, candidate.stock().getOrDefault(skus.get(s), 0)));
+                total += cover[s];
+            }
+            if (total > 0) {
+                useful.add(candidate);
+                covers.add(cover);
+            }
+        }
+
+        Search search = new Search(useful, covers, need);
+        if (!search.feasible()) {
+            return Optional.empty();
+        }
+        search.greedy();
+        search.branch(0, need.clone(), sum(need), 0, 0.0);
+
+        List<Candidate> chosen = new ArrayList<>();
+        for (int i = 0; i < search.order.length; i++) {
+            if (search.best[i]) {
+                chosen.add(useful.get(search.order[i]));
+            }
+        }
+        return Optional.of(new Split(allocate(skus, need, chosen), !search.aborted));
+    }
+
+    /**
+     * Spread the demand over the chosen warehouses: a SKU goes to the cheapest
+     * warehouse holding all of it, otherwise it is filled cheapest first
+     */
+    private Map<UUID, Map<String, Integer>> allocate(List<String> skus, int[] need, List<Candidate> chosen) {
+        chosen.sort(Comparator.comparingDouble(Candidate::cost));
+        Map<UUID, Map<String, Integer>> allocation = new LinkedHashMap<>();
+        chosen.forEach(candidate -> allocation.put(candidate.warehouseId(), new LinkedHashMap<>()));
+
+        for (int s = 0; s < skus.size(); s++) {
+            String sku = skus.get(s);
+            int remaining = need[s];
+            if (remaining == 0) {
+                continue;
+            }
+            int required = remaining;
+            Candidate whole = chosen.stream()
+                    .filter(candidate -> candidate.stock().getOrDefault(sku, 0) >= required)
+                    .findFirst()
+                    .orElse(null);
+            if (whole != null) {
+                allocation.get(whole.warehouseId()).put(sku, remaining);
+                continue;
+            }
+            for (Candidate candidate : chosen) {
+                int take = Math.min(remaining, Math.max(0, candidate.stock().getOrDefault(sku, 0)));
+                if (take > 0) {
+                    allocation.get(candidate.warehouseId()).put(sku, take);
+                    remaining -= take;
+                }
+                if (remaining == 0) {
+                    break;
+                }
+            }
+        }
+
+        allocation.values().removeIf(Map::isEmpty);
+        return allocation;
+    }
+
+    /**
+     * Working stock for the SKUs of a demand, keyed by warehouse
+     *
+     * @param demand the demand
+     * @param availability available quantity by warehouse, per SKU
+     * @return available quantity by SKU, per warehouse
+     */
+    public static Map<UUID, Map<String, Integer>> byWarehouse(Map<String, Integer> demand,
+                                                              Map<String, Map<UUID, Integer>> availability) {
+        Map<UUID, Map<String, Integer>> stock = new HashMap<>();
+        for (String sku : demand.keySet()) {
+            availability.getOrDefault(sku, Map.of()).forEach((warehouseId, available) -> {
+                if (available > 0) {
+                    stock.computeIfAbsent(warehouseId, id -> new HashMap<>()).put(sku, available);
+                }
+            });
+        }
+        return stock;
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * State of one search. Candidates are visited by descending coverage so
+     * that the include branch finds small splits early.
+     */
+    private final class Search {
+
+        private final int[] order;
+        private final int[][] cover;
+        private final double[] cost;
+        private final int[][] suffixStock;
+        private final int[] suffixMaxCover;
+        private final double[] suffixMinCost;
+        private final int[] need;
+        private final long deadline;
+
+        private final boolean[] current;
+        private boolean[] best;
+        private int bestCount = Integer.MAX_VALUE;
+        private double bestCost = Double.MAX_VALUE;
+        private long nodes;
+        private boolean aborted;
+
+        Search(List<Candidate> candidates, List<int[]> covers, int[] need) {
+            int n = candidates.size();
+            this.need = need;
+            this.deadline = System.nanoTime() + maxSearchNanos;
+
+            Integer[] sorted = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                sorted[i] = i;
+            }
+            Arrays.sort(sorted, Comparator
+                    .comparingInt((Integer i) -> -sum(covers.get(i)))
+                    .thenComparingDouble(i -> candidates.get(i).cost()));
+
+            this.order = new int[n];
+            this.cover = new int[n][];
+            this.cost = new double[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = sorted[i];
+                cover[i] = covers.get(sorted[i]);
+                cost[i] = candidates.get(sorted[i]).cost();
+            }
+
+            this.suffixStock = new int[n + 1][need.length];
+            this.suffixMaxCover = new int[n + 1];
+            this.suffixMinCost = new double[n + 1];
+            suffixMinCost[n] = Double.MAX_VALUE;
+            for (int i = n - 1; i >= 0; i--) {
+                for (int s = 0; s < need.length; s++) {
+                    suffixStock[i][s] = suffixStock[i + 1][s] + cover[i][s];
+                }
+                suffixMaxCover[i] = Math.max(suffixMaxCover[i + 1], sum(cover[i]));
+                suffixMinCost[i] = Math.min(suffixMinCost[i + 1], cost[i]);
+            }
+
+            this.current = new boolean[n];
+            this.best = new boolean[n];
+        }
+
+        boolean feasible() {
+            for (int s = 0; s < need.length; s++) {
+                if (suffixStock[0][s] < need[s]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void greedy() {
+            int[] remaining = need.clone();
+            boolean[] taken = new boolean[order.length];
+            int count = 0;
+            double total = 0;
+            while (sum(remaining) > 0) {
+                int pick = -1;
+                int pickGain = 0;
+                for (int i = 0; i < order.length; i++) {
+                    if (taken[i]) {
+                        continue;
+                    }
+                    int gain = gain(i, remaining);
+                    if (gain > pickGain || (gain == pickGain && gain > 0 && cost[i] < cost[pick])) {
+                        pick = i;
+                        pickGain = gain;
+                    }
+                }
+                taken[pick] = true;
+                take(pick, remaining);
+                count++;
+                total += cost[pick];
+            }
+            best = taken;
+            bestCount = count;
+            bestCost = total;
+        }
+
+        void branch(int i, int[] remaining, int remainingUnits, int count, double total) {
+            if (aborted) {
+                return;
+            }
+            if (++nodes > maxNodes || (nodes % 1024 == 0 && System.nanoTime() > deadline)) {
+                aborted = true;
+                return;
+            }
+            if (remainingUnits == 0) {
+                if (count < bestCount || (count == bestCount && total < bestCost)) {
+                    best = current.clone();
+                    bestCount = count;
+                    bestCost = total;
+                }
+                return;
+            }
+            if (i == order.length || suffixMaxCover[i] == 0) {
+                return;
+            }
+
+            int lowerCount = count + (remainingUnits + suffixMaxCover[i] - 1) / suffixMaxCover[i];
+            double lowerCost = total + (lowerCount - count) * suffixMinCost[i];
+            if (lowerCount > bestCount || (lowerCount == bestCount && lowerCost >= bestCost)) {
+                return;
+            }
+            for (int s = 0; s < need.length; s++) {
+                if (suffixStock[i][s] < remaining[s]) {
+                    return;
+                }
+            }
+
+            int gain = gain(i, remaining);
+            if (gain > 0) {
+                int[] next = remaining.clone();
+                take(i, next);
+                current[i] = true;
+                branch(i + 1, next, remainingUnits - gain, count + 1, total + cost[i]);
+                current[i] = false;
+            }
+            branch(i + 1, remaining, remainingUnits, count, total);
+        }
+
+        private int gain(int i, int[] remaining) {
+            int gain = 0;
+            for (int s = 0; s < remaining.length; s++) {
+                gain += Math.min(cover[i][s], remaining[s]);
+            }
+            return gain;
+        }
+
+        private void take(int i, int[] remaining) {
+            for (int s = 0; s < remaining.length; s++) {
+                remaining[s] -= Math.min(cover[i][s], remaining[s]);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.exalt.warehousing.fulfillment.sourcing;
+
+import java.util.OptionalDouble;
+
+/**
+ * Backlog and measured throughput of one warehouse, per stage. The backlog of
+ * a stage counts the orders assigned to the warehouse that have not completed
+ * it yet, so each stage's backlog includes the one before. A throughput of
+ * zero means too few completions were seen to measure it.
+ *
+ * @param warehouseId the warehouse ID as stored on orders
+ * @param pickBacklog orders not yet picked
+ * @param packBacklog orders not yet packed
+ * @param shipBacklog orders not yet shipped
+ * @param pickPerHour orders picked per hour
+ * @param packPerHour orders packed per hour
+ * @param shipPerHour orders shipped per hour
+ */
+public record WarehouseCapacity(Long warehouseId, long pickBacklog, long packBacklog, long shipBacklog,
+                                double pickPerHour, double packPerHour, double shipPerHour) {
+
+    /**
+     * A warehouse holding no orders and without measured throughput
+     */
+    public static WarehouseCapacity idle(Long warehouseId) {
+        return new WarehouseCapacity(warehouseId, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * The same warehouse with more orders assigned, which enter every stage's backlog
+     * @param orders the number of orders assigned
+     * @return the new capacity
+     */
+    public WarehouseCapacity withAssigned(long orders) {
+        return new WarehouseCapacity(warehouseId, pickBacklog + orders, packBacklog + orders, shipBacklog + orders,
+                pickPerHour, packPerHour, shipPerHour);
+    }
+
+    /**
+     * Hours the warehouse needs to clear its backlog at its slowest measured stage
+     * @return the hours, empty if no stage throughput was measured
+     */
+    public OptionalDouble drainHours() {
+        double hours = Math.max(stageHours(pickBacklog, pickPerHour),
+                Math.max(stageHours(packBacklog, packPerHour), stageHours(shipBacklog, shipPerHour)));
+        return hours >= 0 ? OptionalDouble.of(hours) : OptionalDouble.empty();
+    }
+
+    private static double stageHours(long backlog, double perHour) {
+        return perHour > 0 ? backlog / perHour : -1;
+    }
+}
@@ -0,0 +1,226 @@
+package com.exalt.warehousing.fulfillment.sourcing;
+
+import com.exalt.warehousing.fulfillment.dto.FulfillmentCapacityReport;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.PackingTaskRepository;
+import com.exalt.warehousing.fulfillment.repository.PickingTaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live pick, pack and ship capacity per warehouse.
+ *
+ * Throughput is measured over a recent window from the orders that completed
+ * each stage: picking task completions, packing task completions and
+ * shipments. Backlog per stage is read from the live order counters rather
+ * than by counting orders, so it costs the same however many orders are
+ * open. Backlog divided by throughput gives the hours a warehouse needs to
+ * clear what it already holds; sourcing steers new orders away from
+ * warehouses that would not clear them within the configured bound.
+ *
+ * The model is read at most once per refresh interval and counted up locally
+ * for assignments made in between. If it cannot be read, the last snapshot
+ * is kept, and without one no warehouse is considered saturated.
+ */
+@Slf4j
+@Component
+public class WarehouseCapacityModel {
+
+    private static final Set<FulfillmentStatus> PICK_BACKLOG = EnumSet.of(
+            FulfillmentStatus.RECEIVED,
+            FulfillmentStatus.VALIDATED,
+            FulfillmentStatus.INVENTORY_RESERVED,
+            FulfillmentStatus.PROCESSING,
+            FulfillmentStatus.ALLOCATED,
+            FulfillmentStatus.READY_FOR_PICKING,
+            FulfillmentStatus.PICKING_ASSIGNED,
+            FulfillmentStatus.PICKING);
+    private static final Set<FulfillmentStatus> PACK_BACKLOG = EnumSet.of(
+            FulfillmentStatus.PICKING_COMPLETE,
+            FulfillmentStatus.PACKING);
+    private static final Set<FulfillmentStatus> SHIP_BACKLOG = EnumSet.of(
+            FulfillmentStatus.PACKING_COMPLETE,
+            FulfillmentStatus.READY_TO_SHIP);
+
+    private final FulfillmentOrderRepository fulfillmentOrderRepository;
+    private final PickingTaskRepository pickingTaskRepository;
+    private final PackingTaskRepository packingTaskRepository;
+    private final long windowMinutes;
+    private final long refreshMillis;
+    private final long minCompletions;
+    private final double maxDrainHours;
+
+    private volatile Map<Long, WarehouseCapacity> capacity = new ConcurrentHashMap<>();
+    private volatile long loadedAt;
+
+    public WarehouseCapacityModel(FulfillmentOrderRepository fulfillmentOrderRepository,
+                                  PickingTaskRepository pickingTaskRepository,
+                                  PackingTaskRepository packingTaskRepository,
+                                  @Value("${fulfillment.capacity.window-minutes:120}") long windowMinutes,
+                                  @Value("${fulfillment.capacity.refresh-seconds:30}") long refreshSeconds,
+                                  @Value("${fulfillment.capacity.min-completions:10}") long minCompletions,
+                                  @Value("${fulfillment.capacity.max-drain-hours:24}") double maxDrainHours) {
+        this.fulfillmentOrderRepository = fulfillmentOrderRepository;
+        this.pickingTaskRepository = pickingTaskRepository;
+        this.packingTaskRepository = packingTaskRepository;
+        this.windowMinutes = windowMinutes;
+        this.refreshMillis = refreshSeconds * 1000;
+        this.minCompletions = minCompletions;
+        this.maxDrainHours = maxDrainHours;
+    }
+
+    /**
+     * Get the capacity of every warehouse holding orders or completing work
+     * @return capacity by warehouse ID as stored on orders
+     */
+    public Map<Long, WarehouseCapacity> getCapacity() {
+        long now = System.currentTimeMillis();
+        if (now - loadedAt > refreshMillis) {
+            try {
+                capacity = load();
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh warehouse capacity, keeping the last snapshot: {}", e.getMessage());
+            }
+            loadedAt = now;
+        }
+        return capacity;
+    }
+
+    /**
+     * Get the capacity of a warehouse
+     * @param warehouseId the warehouse ID as stored on orders
+     * @return the capacity, idle if the warehouse holds no orders
+     */
+    public WarehouseCapacity getCapacity(Long warehouseId) {
+        return getCapacity().getOrDefault(warehouseId, WarehouseCapacity.idle(warehouseId));
+    }
+
+    /**
+     * Count an order assigned to a warehouse until the next refresh
+     * @param warehouseId the warehouse ID as stored on orders
+     */
+    public void recordAssignment(Long warehouseId) {
+        getCapacity().merge(warehouseId, WarehouseCapacity.idle(warehouseId).withAssigned(1),
+                (current, added) -> current.withAssigned(1));
+    }
+
+    /**
+     * Check whether a warehouse would need longer than the bound to clear its backlog
+     * @param warehouse the warehouse capacity
+     * @return true if new orders should go elsewhere
+     */
+    public boolean isSaturated(WarehouseCapacity warehouse) {
+        return warehouse.drainHours().orElse(0) > maxDrainHours;
+    }
+
+    /**
+     * Describe the capacity of a warehouse
+     * @param warehouseId the warehouse ID
+     * @param warehouse the warehouse capacity
+     * @return the report
+     */
+    public FulfillmentCapacityReport toReport(UUID warehouseId, WarehouseCapacity warehouse) {
+        Map<String, Long> backlogByStage = new LinkedHashMap<>();
+        backlogByStage.put("PICK", warehouse.pickBacklog());
+        backlogByStage.put("PACK", warehouse.packBacklog());
+        backlogByStage.put("SHIP", warehouse.shipBacklog());
+        Map<String, Double> throughput = new LinkedHashMap<>();
+        throughput.put("PICK", warehouse.pickPerHour());
+        throughput.put("PACK", warehouse.packPerHour());
+        throughput.put("SHIP", warehouse.shipPerHour());
+
+        Map<String, Double> utilization = new LinkedHashMap<>();
+        String bottleneck = null;
+        double bottleneckRate = 0;
+        for (String stage : throughput.keySet()) {
+            double perHour = throughput.get(stage);
+            if (perHour > 0) {
+                utilization.put(stage, backlogByStage.get(stage) / perHour / maxDrainHours * 100);
+                if (bottleneck == null || utilization.get(stage) > utilization.get(bottleneck)) {
+                    bottleneck = stage;
+                    bottleneckRate = perHour;
+                }
+            }
+        }
+
+        OptionalDouble drainHours = warehouse.drainHours();
+        FulfillmentCapacityReport.FulfillmentCapacityReportBuilder report = FulfillmentCapacityReport.builder()
+                .warehouseId(warehouseId)
+                .reportTimestamp(LocalDateTime.now())
+                .maxDailyOrderCapacity((int) Math.round(bottleneckRate * 24))
+                .capacityUtilizationPercentage(drainHours.orElse(0) / maxDrainHours * 100)
+                .availablePickingCapacity(headroom(warehouse.pickBacklog(), warehouse.pickPerHour()))
+                .availablePackingCapacity(headroom(warehouse.packBacklog(), warehouse.packPerHour()))
+                .availableShippingCapacity(headroom(warehouse.shipBacklog(), warehouse.shipPerHour()))
+                .utilizationByDepartment(utilization)
+                .backlogByStage(backlogByStage)
+                .throughputPerHourByStage(throughput)
+                .projectedDrainHours(drainHours.isPresent() ? drainHours.getAsDouble() : null)
+                .saturated(isSaturated(warehouse));
+        if (bottleneck != null) {
+            report.bottlenecks(Map.of("stage", bottleneck, "drainHours", drainHours.orElse(0)));
+        }
+        return report.build();
+    }
+
+    // Orders a measured stage can still take within the drain bound
+    private int headroom(long backlog, double perHour) {
+        return perHour > 0 ? (int) Math.max(0, Math.floor(maxDrainHours * perHour - backlog)) : 0;
+    }
+
+    private Map<Long, WarehouseCapacity> load() {
+        Map<Long, long[]> backlog = new HashMap<>();
+        for (Object[] row : fulfillmentOrderRepository.sumOrderCountersByWarehouseAndStatus()) {
+            FulfillmentStatus status = FulfillmentStatus.valueOf((String) row[1]);
+            int stage = PICK_BACKLOG.contains(status) ? 0 : PACK_BACKLOG.contains(status) ? 1
+                    : SHIP_BACKLOG.contains(status) ? 2 : -1;
+            if (stage < 0) {
+                continue;
+            }
+            long[] counts = backlog.computeIfAbsent(((Number) row[0]).longValue(), id -> new long[3]);
+            // An order not yet picked is not packed or shipped either
+            for (int i = stage; i < 3; i++) {
+                counts[i] += ((Number) row[2]).longValue();
+            }
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusMinutes(windowMinutes);
+        Map<Long, Double> picked = perHour(pickingTaskRepository.countOrdersPickedByWarehouseSince(since));
+        Map<Long, Double> packed = perHour(packingTaskRepository.countOrdersPackedByWarehouseSince(since));
+        Map<Long, Double> shipped = perHour(fulfillmentOrderRepository.countOrdersShippedByWarehouseSince(since));
+
+        Map<Long, WarehouseCapacity> loaded = new ConcurrentHashMap<>();
+        for (Map<Long, ?> source : List.of(backlog, picked, packed, shipped)) {
+            for (Long warehouseId : source.keySet()) {
+                long[] counts = backlog.getOrDefault(warehouseId, new long[3]);
+                loaded.computeIfAbsent(warehouseId, id -> new WarehouseCapacity(id, counts[0], counts[1], counts[2],
+                        picked.getOrDefault(id, 0.0), packed.getOrDefault(id, 0.0), shipped.getOrDefault(id, 0.0)));
+            }
+        }
+        return loaded;
+    }
+
+    private Map<Long, Double> perHour(List<Object[]> completions) {
+        Map<Long, Double> rates = new HashMap<>();
+        for (Object[] row : completions) {
+            long count = ((Number) row[1]).longValue();
+            if (count >= minCompletions) {
+                rates.put(((Number) row[0]).longValue(), count * 60.0 / windowMinutes);
+            }
+        }
+        return rates;
+    }
+}
@@ -1,49 +0,0 @@
-package com.exalt.warehousing.fulfillment.util;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.persistence.AttributeConverter;
-import jakarta.persistence.Converter;
-import lombok.extern.slf4j.Slf4j;
-
-import java.util.Map;
-
-/**
- * JPA Attribute Converter for JSON fields
- * Converts Map<String, Object> to JSON string and vice versa
- */
-@Converter
-@Slf4j
-public class JsonAttributeConverter implements AttributeConverter<Map<String, Object>, String> {
-
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-
-    @Override
-    public String convertToDatabaseColumn(Map<String, Object> attribute) {
-        if (attribute == null || attribute.isEmpty()) {
-            return null;
-        }
-        
-        try {
-            return objectMapper.writeValueAsString(attribute);
-        } catch (JsonProcessingException e) {
-            log.error("Error converting Map to JSON string: {}", e.getMessage(), e);
-            return null;
-        }
-    }
-
-    @Override
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.trim().isEmpty()) {
-            return null;
-        }
-        
-        try {
-            return objectMapper.readValue(dbData, Map.class);
-        } catch (JsonProcessingException e) {
-            log.error("Error converting JSON string to Map: {}", e.getMessage(), e);
-            return null;
-        }
-    }
-}
\ No newline at end of file
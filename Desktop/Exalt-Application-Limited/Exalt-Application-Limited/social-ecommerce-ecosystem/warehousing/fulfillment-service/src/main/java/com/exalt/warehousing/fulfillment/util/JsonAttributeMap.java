@@ -0,0 +1,185 @@
+package com.exalt.warehousing.fulfillment.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Map view over a JSON object column.
+ *
+ * The entity maps the raw JSON string, so Hibernate's dirty check compares
+ * one string per flush instead of serialising and comparing the map. The
+ * view is created when the attribute is first read, and every change made
+ * through it writes the new JSON back to the entity, which is then the only
+ * time the map is serialised. Changes made inside a nested value are not
+ * seen; put the value again to store them.
+ *
+ * @param <V> the value type
+ */
+@Slf4j
+public class JsonAttributeMap<V> extends AbstractMap<String, V> {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final Map<String, V> values;
+    private final Consumer<String> writer;
+
+    private JsonAttributeMap(Map<String, V> values, Consumer<String> writer) {
+        this.values = values;
+        this.writer = writer;
+    }
+
+    /**
+     * Parse a column value
+     * @param json the JSON object read from the column
+     * @param valueType the value type
+     * @param writer receives the new JSON whenever the map changes
+     * @return the view, empty if the JSON cannot be parsed
+     */
+    public static <V> JsonAttributeMap<V> read(String json, Class<V> valueType, Consumer<String> writer) {
+        Map<String, V> values;
+        try {
+            values = objectMapper.readValue(json,
+                    objectMapper.getTypeFactory().constructMapType(LinkedHashMap.class, String.class, valueType));
+        } catch (JsonProcessingException e) {
+            log.error("Error converting JSON string to Map: {}", e.getMessage(), e);
+            values = new LinkedHashMap<>();
+        }
+        return new JsonAttributeMap<>(values, writer);
+    }
+
+    /**
+     * Create a view holding a copy of the given map and write it out
+     * @param values the entries
+     * @param writer receives the JSON now and whenever the map changes
+     * @return the view
+     */
+    public static <V> JsonAttributeMap<V> copyOf(Map<String, ? extends V> values, Consumer<String> writer) {
+        JsonAttributeMap<V> map = new JsonAttributeMap<>(new LinkedHashMap<>(values), writer);
+        map.changed();
+        return map;
+    }
+
+    /**
+     * Serialise a map to a column value
+     * @param values the entries
+     * @return the JSON object, or null if the map is empty
+     */
+    public static String write(Map<String, ?> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Attribute values cannot be stored as JSON", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return values.get(key);
+    }
+
+    @Override
+    public V put(String key, V value) {
+        V previous = values.put(key, value);
+        changed();
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends V> entries) {
+        if (!entries.isEmpty()) {
+            values.putAll(entries);
+            changed();
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!values.containsKey(key)) {
+            return null;
+        }
+        V previous = values.remove(key);
+        changed();
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (!values.isEmpty()) {
+            values.clear();
+            changed();
+        }
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    private void changed() {
+        writer.accept(write(values));
+    }
+
+    /**
+     * Entries whose removal and setValue go through the view
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, V>> {
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+            Iterator<Entry<String, V>> entries = values.entrySet().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Entry<String, V> next() {
+                    Entry<String, V> entry = entries.next();
+                    return new SimpleEntry<>(entry) {
+                        @Override
+                        public V setValue(V value) {
+                            super.setValue(value);
+                            V previous = entry.setValue(value);
+                            changed();
+                            return previous;
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    entries.remove();
+                    changed();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.exalt.warehousing.fulfillment.wave;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A group of orders planned to be released to the pickers together
+ */
+@Getter
+public class PlannedWave {
+
+    private final String waveId;
+    private final Long warehouseId;
+    private final String carrier;
+    private final int priorityLevel;
+    private final List<WaveCandidate> orders = new ArrayList<>();
+    private final Set<String> zones = new LinkedHashSet<>();
+    private LocalDateTime cutoff;
+    private int lineCount;
+    private long unitCount;
+
+    PlannedWave(String waveId, WaveCandidate seed) {
+        this.waveId = waveId;
+        this.warehouseId = seed.getWarehouseId();
+        this.carrier = seed.getCarrier();
+        this.priorityLevel = seed.getPriorityLevel();
+        add(seed);
+    }
+
+    void add(WaveCandidate candidate) {
+        orders.add(candidate);
+        zones.addAll(candidate.getZones());
+        lineCount += candidate.getLineCount();
+        unitCount += candidate.getUnitCount();
+        if (candidate.getCutoff() != null && (cutoff == null || candidate.getCutoff().isBefore(cutoff))) {
+            cutoff = candidate.getCutoff();
+        }
+    }
+
+    public List<WaveCandidate> getOrders() {
+        return Collections.unmodifiableList(orders);
+    }
+
+    public Set<String> getZones() {
+        return Collections.unmodifiableSet(zones);
+    }
+
+    LocalDateTime getFirstOrderDate() {
+        return orders.get(0).getOrderDate();
+    }
+}
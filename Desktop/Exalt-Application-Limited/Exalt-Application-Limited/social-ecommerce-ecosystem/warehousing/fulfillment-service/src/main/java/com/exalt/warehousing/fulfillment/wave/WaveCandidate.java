@@ -0,0 +1,68 @@
+package com.exalt.warehousing.fulfillment.wave;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An order that is ready for picking, reduced to what wave planning needs
+ */
+@Getter
+public class WaveCandidate {
+
+    /**
+     * Zone used for items without a zone assignment
+     */
+    public static final String UNZONED = "UNZONED";
+
+    private final String orderId;
+    private final Long warehouseId;
+    private final String carrier;
+    private final LocalDateTime cutoff;
+    private final int priorityLevel;
+    private final LocalDateTime orderDate;
+    private final Map<String, Integer> linesByZone = new LinkedHashMap<>();
+    private int lineCount;
+    private long unitCount;
+
+    // Position in the planner's sort order and numbered zones, set while planning one group
+    int rank;
+    int[] zoneIds;
+
+    /**
+     * @param orderId the fulfillment order ID
+     * @param warehouseId the warehouse the order is assigned to
+     * @param carrier the carrier the order ships with, or null
+     * @param cutoff the time the order must leave the building by, or null
+     * @param priorityLevel the order priority level, lower is more urgent
+     * @param orderDate the order date, used as a tie-breaker
+     */
+    public WaveCandidate(String orderId, Long warehouseId, String carrier, LocalDateTime cutoff,
+                         int priorityLevel, LocalDateTime orderDate) {
+        this.orderId = orderId;
+        this.warehouseId = warehouseId;
+        this.carrier = carrier != null ? carrier : "";
+        this.cutoff = cutoff;
+        this.priorityLevel = priorityLevel;
+        this.orderDate = orderDate;
+    }
+
+    /**
+     * Add pick lines in a zone
+     * @param zone the zone, or null if unassigned
+     * @param lines number of order lines in the zone
+     * @param units number of units across those lines
+     */
+    public void addZoneLines(String zone, int lines, long units) {
+        linesByZone.merge(zone != null ? zone : UNZONED, lines, Integer::sum);
+        lineCount += lines;
+        unitCount += units;
+    }
+
+    public Set<String> getZones() {
+        return linesByZone.keySet();
+    }
+}
@@ -0,0 +1,251 @@
+package com.exalt.warehousing.fulfillment.wave;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Groups orders that are ready for picking into waves.
+ *
+ * Orders are first split by warehouse, carrier and carrier cutoff window, as
+ * a wave has to leave the building on one truck. Within a group the most
+ * urgent unplanned order seeds a wave, which is then filled with orders whose
+ * zones are already covered before orders that add new zones, so pickers
+ * visit as few zones as possible. A wave is capped at the line count the
+ * available pickers can handle and at a maximum number of zones and orders.
+ *
+ * Candidates are found through a per-zone index scanned a bounded number of
+ * entries deep, so planning stays close to linear in the number of orders.
+ */
+public class WavePlanner {
+
+    private static final int SCAN_LIMIT = 64;
+
+    private static final Comparator<WaveCandidate> CANDIDATE_ORDER = Comparator
+            .comparingInt(WaveCandidate::getPriorityLevel)
+            .thenComparing(WaveCandidate::getCutoff, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(WaveCandidate::getOrderDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(WaveCandidate::getOrderId);
+
+    private static final Comparator<PlannedWave> RELEASE_ORDER = Comparator
+            .comparing(PlannedWave::getCutoff, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(PlannedWave::getPriorityLevel)
+            .thenComparing(PlannedWave::getFirstOrderDate, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final int linesPerPicker;
+    private final int maxZonesPerWave;
+    private final int maxOrdersPerWave;
+    private final int cutoffBucketMinutes;
+
+    public WavePlanner(int linesPerPicker, int maxZonesPerWave, int maxOrdersPerWave, int cutoffBucketMinutes) {
+        this.linesPerPicker = linesPerPicker;
+        this.maxZonesPerWave = maxZonesPerWave;
+        this.maxOrdersPerWave = maxOrdersPerWave;
+        this.cutoffBucketMinutes = cutoffBucketMinutes;
+    }
+
+    /**
+     * Get the number of pick lines a set of pickers can take in one wave
+     * @param availablePickers the number of available pickers
+     * @return the wave line capacity
+     */
+    public int lineCapacity(int availablePickers) {
+        return availablePickers * linesPerPicker;
+    }
+
+    /**
+     * Plan waves for a set of candidate orders
+     * @param candidates orders ready for picking
+     * @param availablePickers the number of pickers a wave is sized for
+     * @return planned waves in release order: earliest cutoff, then priority
+     */
+    public List<PlannedWave> plan(Collection<WaveCandidate> candidates, int availablePickers) {
+        if (availablePickers <= 0) {
+            throw new IllegalArgumentException("At least one picker is required to plan waves");
+        }
+        int lineCapacity = lineCapacity(availablePickers);
+
+        Map<GroupKey, List<WaveCandidate>> groups = new LinkedHashMap<>();
+        for (WaveCandidate candidate : candidates) {
+            GroupKey key = new GroupKey(candidate.getWarehouseId(), candidate.getCarrier(), cutoffBucket(candidate.getCutoff()));
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(candidate);
+        }
+
+        List<PlannedWave> waves = new ArrayList<>();
+        for (List<WaveCandidate> group : groups.values()) {
+            planGroup(group, lineCapacity, waves);
+        }
+        waves.sort(RELEASE_ORDER);
+        return waves;
+    }
+
+    private void planGroup(List<WaveCandidate> group, int lineCapacity, List<PlannedWave> waves) {
+        group.sort(CANDIDATE_ORDER);
+
+        // Zones are numbered per group so zone checks are array lookups
+        Map<String, Integer> zoneIds = new HashMap<>();
+        List<ZoneIndex> zoneIndex = new ArrayList<>();
+        for (int rank = 0; rank < group.size(); rank++) {
+            WaveCandidate candidate = group.get(rank);
+            candidate.rank = rank;
+            candidate.zoneIds = new int[candidate.getZones().size()];
+            int i = 0;
+            for (String zone : candidate.getZones()) {
+                int zoneId = zoneIds.computeIfAbsent(zone, z -> {
+                    zoneIndex.add(new ZoneIndex());
+                    return zoneIndex.size() - 1;
+                });
+                zoneIndex.get(zoneId).entries.add(candidate);
+                candidate.zoneIds[i++] = zoneId;
+            }
+        }
+
+        boolean[] planned = new boolean[group.size()];
+        WaveZones waveZones = new WaveZones(zoneIndex.size());
+        for (WaveCandidate seed : group) {
+            if (planned[seed.rank]) {
+                continue;
+            }
+            PlannedWave wave = new PlannedWave(UUID.randomUUID().toString(), seed);
+            planned[seed.rank] = true;
+            waveZones.reset();
+            waveZones.addAll(seed);
+
+            while (wave.getOrders().size() < maxOrdersPerWave && wave.getLineCount() < lineCapacity) {
+                WaveCandidate next = findNext(wave, waveZones, zoneIndex, planned, lineCapacity);
+                if (next == null) {
+                    break;
+                }
+                wave.add(next);
+                waveZones.addAll(next);
+                planned[next.rank] = true;
+            }
+            waves.add(wave);
+        }
+    }
+
+    /**
+     * Find the best fitting unplanned order sharing a zone with the wave:
+     * fewest new zones first, then the planner's priority order
+     */
+    private WaveCandidate findNext(PlannedWave wave, WaveZones waveZones, List<ZoneIndex> zoneIndex,
+                                   boolean[] planned, int lineCapacity) {
+        WaveCandidate best = null;
+        int bestNewZones = Integer.MAX_VALUE;
+
+        for (int z = 0; z < waveZones.count; z++) {
+            ZoneIndex index = zoneIndex.get(waveZones.ids[z]);
+            int scanned = 0;
+            int skipped = 0;
+            for (int i = index.head; i < index.entries.size() && scanned < SCAN_LIMIT; i++) {
+                WaveCandidate candidate = index.entries.get(i);
+                if (planned[candidate.rank]) {
+                    if (i == index.head) {
+                        index.head++;
+                    } else {
+                        skipped++;
+                    }
+                    continue;
+                }
+                scanned++;
+                if (wave.getLineCount() + candidate.getLineCount() > lineCapacity) {
+                    continue;
+                }
+                int newZones = waveZones.countNew(candidate);
+                if (waveZones.count + newZones > maxZonesPerWave) {
+                    continue;
+                }
+                if (newZones < bestNewZones || (newZones == bestNewZones && candidate.rank < best.rank)) {
+                    best = candidate;
+                    bestNewZones = newZones;
+                }
+                if (newZones == 0) {
+                    // Entries are in priority order, nothing later in this zone can beat it
+                    break;
+                }
+            }
+            if (skipped > SCAN_LIMIT) {
+                index.compact(planned);
+            }
+        }
+        return best;
+    }
+
+    private LocalDateTime cutoffBucket(LocalDateTime cutoff) {
+        if (cutoff == null) {
+            return null;
+        }
+        int minuteOfDay = cutoff.getHour() * 60 + cutoff.getMinute();
+        return cutoff.toLocalDate().atStartOfDay().plusMinutes(minuteOfDay - minuteOfDay % cutoffBucketMinutes);
+    }
+
+    /**
+     * Zones covered by the wave being built
+     */
+    private static class WaveZones {
+        private final boolean[] member;
+        private final int[] ids;
+        private int count;
+
+        WaveZones(int zoneCount) {
+            this.member = new boolean[zoneCount];
+            this.ids = new int[zoneCount];
+        }
+
+        void reset() {
+            for (int i = 0; i < count; i++) {
+                member[ids[i]] = false;
+            }
+            count = 0;
+        }
+
+        void addAll(WaveCandidate candidate) {
+            for (int zoneId : candidate.zoneIds) {
+                if (!member[zoneId]) {
+                    member[zoneId] = true;
+                    ids[count++] = zoneId;
+                }
+            }
+        }
+
+        int countNew(WaveCandidate candidate) {
+            int added = 0;
+            for (int zoneId : candidate.zoneIds) {
+                if (!member[zoneId]) {
+                    added++;
+                }
+            }
+            return added;
+        }
+    }
+
+    private record GroupKey(Long warehouseId, String carrier, LocalDateTime cutoffBucket) {
+    }
+
+    /**
+     * Candidates touching one zone in priority order. Planned entries are
+     * skipped lazily and removed once enough of them pile up.
+     */
+    private static class ZoneIndex {
+        private final List<WaveCandidate> entries = new ArrayList<>();
+        private int head;
+
+        void compact(boolean[] planned) {
+            List<WaveCandidate> remaining = new ArrayList<>();
+            for (int i = head; i < entries.size(); i++) {
+                if (!planned[entries.get(i).rank]) {
+                    remaining.add(entries.get(i));
+                }
+            }
+            entries.clear();
+            entries.addAll(remaining);
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- V10__Index_fulfillment_stage_completions.sql
+
+-- The warehouse capacity model measures pick, pack and ship throughput from the completions of
+-- the last few hours, so each of these lookups reads only the recent end of an index.
+DO $$
+BEGIN
+    IF to_regclass('picking_tasks') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_picking_task_completed ON picking_tasks (completed_at);
+    END IF;
+    IF to_regclass('packing_tasks') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_packing_task_completed ON packing_tasks (completed_at);
+    END IF;
+    IF to_regclass('fulfillment_orders') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_fulfillment_order_shipped ON fulfillment_orders (shipped_at);
+    END IF;
+END;
+$$;
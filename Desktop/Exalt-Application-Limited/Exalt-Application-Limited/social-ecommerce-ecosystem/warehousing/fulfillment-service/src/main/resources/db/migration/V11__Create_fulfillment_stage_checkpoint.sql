@@ -0,0 +1,20 @@
+-- V11__Create_fulfillment_stage_checkpoint.sql
+
+-- Progress of orders through the asynchronous fulfillment pipeline, one row per order and stage
+CREATE TABLE IF NOT EXISTS fulfillment_stage_checkpoint (
+    id UUID PRIMARY KEY,
+    fulfillment_order_id VARCHAR(36) NOT NULL,
+    stage VARCHAR(30) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_stage_checkpoint_order_stage UNIQUE (fulfillment_order_id, stage),
+    CONSTRAINT chk_stage_checkpoint_stage CHECK (stage IN ('ALLOCATION', 'PACK_RELEASE', 'SHIP_RELEASE')),
+    CONSTRAINT chk_stage_checkpoint_status CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'SKIPPED', 'FAILED'))
+);
+
+-- Workers look for due checkpoints per stage; finished checkpoints are never scanned
+CREATE INDEX IF NOT EXISTS idx_stage_checkpoint_due ON fulfillment_stage_checkpoint (stage, status, next_attempt_at);
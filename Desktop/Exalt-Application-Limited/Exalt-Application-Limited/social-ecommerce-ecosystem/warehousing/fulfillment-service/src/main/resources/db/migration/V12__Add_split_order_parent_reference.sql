@@ -0,0 +1,10 @@
+-- V12__Add_split_order_parent_reference.sql
+
+-- Orders split off another order are keyed by their own order number and keep the external order
+-- ID of the order they were split from, so inventory events for that order still reach them.
+ALTER TABLE fulfillment_orders ADD COLUMN IF NOT EXISTS parent_external_order_id VARCHAR(100);
+CREATE INDEX IF NOT EXISTS idx_fulfillment_order_parent_external_id
+    ON fulfillment_orders (parent_external_order_id);
+
+-- Archived orders are moved with SELECT *, see V9
+ALTER TABLE IF EXISTS fulfillment_orders_archive ADD COLUMN IF NOT EXISTS parent_external_order_id VARCHAR(100);
@@ -0,0 +1,26 @@
+-- V2__Create_order_reassignment_job.sql
+
+-- Progress of bulk order reassignment runs (warehouse offline, low stock)
+CREATE TABLE IF NOT EXISTS order_reassignment_job (
+    id UUID PRIMARY KEY,
+    job_type VARCHAR(30) NOT NULL,
+    warehouse_id UUID NOT NULL,
+    sku VARCHAR(100),
+    status VARCHAR(20) NOT NULL,
+    total_orders INTEGER NOT NULL DEFAULT 0,
+    processed_orders INTEGER NOT NULL DEFAULT 0,
+    reassigned_orders INTEGER NOT NULL DEFAULT 0,
+    held_orders INTEGER NOT NULL DEFAULT 0,
+    failed_chunks INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    started_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_reassignment_job_type CHECK (job_type IN ('WAREHOUSE_OFFLINE', 'LOW_STOCK')),
+    CONSTRAINT chk_reassignment_job_status CHECK (status IN ('RUNNING', 'COMPLETED', 'PARTIAL'))
+);
+
+CREATE INDEX idx_order_reassignment_job_warehouse ON order_reassignment_job(warehouse_id, status);
+
+CREATE TRIGGER update_order_reassignment_job_updated_at BEFORE UPDATE ON order_reassignment_job FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
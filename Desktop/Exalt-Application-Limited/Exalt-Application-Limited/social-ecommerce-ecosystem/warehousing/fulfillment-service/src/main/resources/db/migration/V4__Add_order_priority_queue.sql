@@ -0,0 +1,30 @@
+-- V4__Add_order_priority_queue.sql
+
+-- Pending orders are served lowest priority_score first. The score is the ship-by time in minutes
+-- since the epoch, brought forward by a lead per priority and customer tier (see PriorityScorer),
+-- so it never changes while an order waits and the queue can be read straight from an index.
+-- Existing orders are scored with the default priority leads; the application rescores an order
+-- whenever it is saved.
+DO $$
+BEGIN
+    IF to_regclass('fulfillment_orders') IS NOT NULL THEN
+        ALTER TABLE fulfillment_orders ALTER COLUMN priority_score TYPE BIGINT;
+
+        UPDATE fulfillment_orders
+        SET priority_score = FLOOR(EXTRACT(EPOCH FROM COALESCE(sla_deadline, due_date,
+                COALESCE(order_date, created_at) + INTERVAL '48 hours')) / 60)
+            - CASE priority
+                WHEN 'CRITICAL' THEN 480
+                WHEN 'HIGH' THEN 120
+                WHEN 'LOW' THEN -240
+                WHEN 'BULK' THEN -1440
+                ELSE 0
+              END;
+
+        CREATE INDEX IF NOT EXISTS idx_fulfillment_order_queue
+            ON fulfillment_orders (status, priority_score, created_at);
+        CREATE INDEX IF NOT EXISTS idx_fulfillment_order_pending_queue
+            ON fulfillment_orders (priority_score, created_at) WHERE status = 'PENDING';
+    END IF;
+END;
+$$;
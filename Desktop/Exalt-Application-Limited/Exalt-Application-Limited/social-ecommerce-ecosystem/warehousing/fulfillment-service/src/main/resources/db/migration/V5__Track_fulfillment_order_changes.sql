@@ -0,0 +1,23 @@
+-- V5__Track_fulfillment_order_changes.sql
+
+-- The in-memory active order index catches up by polling for orders and items whose updated_at
+-- moved. Bulk JPQL updates do not touch updated_at themselves, so the database keeps it current.
+DO $$
+BEGIN
+    IF to_regclass('fulfillment_orders') IS NOT NULL THEN
+        DROP TRIGGER IF EXISTS update_fulfillment_orders_updated_at ON fulfillment_orders;
+        CREATE TRIGGER update_fulfillment_orders_updated_at
+            BEFORE UPDATE ON fulfillment_orders
+            FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+        CREATE INDEX IF NOT EXISTS idx_fulfillment_order_updated ON fulfillment_orders (updated_at);
+    END IF;
+
+    IF to_regclass('fulfillment_order_items') IS NOT NULL THEN
+        DROP TRIGGER IF EXISTS update_fulfillment_order_items_updated_at ON fulfillment_order_items;
+        CREATE TRIGGER update_fulfillment_order_items_updated_at
+            BEFORE UPDATE ON fulfillment_order_items
+            FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+        CREATE INDEX IF NOT EXISTS idx_item_updated ON fulfillment_order_items (updated_at);
+    END IF;
+END;
+$$;
@@ -0,0 +1,27 @@
+-- V6__Create_order_tracking_read_model.sql
+
+-- Read model for customer tracking lookups: one row per fulfillment order with its tracking
+-- response and shipments as JSON, rebuilt from the order whenever it changes, plus an exact
+-- match index from normalized tracking number to order. Orders without a row are answered from
+-- the order tables and projected on their next change, so existing orders need no backfill.
+CREATE TABLE IF NOT EXISTS order_tracking (
+    fulfillment_order_id VARCHAR(36) PRIMARY KEY,
+    order_number VARCHAR(50),
+    customer_id VARCHAR(100),
+    status VARCHAR(50) NOT NULL,
+    tracking TEXT NOT NULL,
+    shipments TEXT NOT NULL,
+    projected_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_tracking_order_number ON order_tracking(order_number);
+CREATE INDEX IF NOT EXISTS idx_order_tracking_customer ON order_tracking(customer_id);
+
+-- Orders may share a tracking number, e.g. the parts of a split order shipped together
+CREATE TABLE IF NOT EXISTS order_tracking_number (
+    tracking_number VARCHAR(100) NOT NULL,
+    fulfillment_order_id VARCHAR(36) NOT NULL,
+    PRIMARY KEY (tracking_number, fulfillment_order_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_tracking_number_order ON order_tracking_number(fulfillment_order_id);
@@ -0,0 +1,20 @@
+-- V7__Add_order_search_trigram_indexes.sql
+
+-- Support agents search orders by any part of the customer name, customer email or tracking
+-- number. A B-tree cannot serve a leading wildcard, so these searches scanned the whole table.
+-- Trigram GIN indexes on the lower-cased columns answer the LIKE '%term%' queries of
+-- FulfillmentOrderRepository for terms of three characters or more.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DO $$
+BEGIN
+    IF to_regclass('fulfillment_orders') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_fulfillment_order_customer_name_trgm
+            ON fulfillment_orders USING gin (lower(customer_name) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_fulfillment_order_customer_email_trgm
+            ON fulfillment_orders USING gin (lower(customer_email) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_fulfillment_order_tracking_number_trgm
+            ON fulfillment_orders USING gin (lower(tracking_number) gin_trgm_ops);
+    END IF;
+END;
+$$;
@@ -0,0 +1,21 @@
+-- V8__Store_order_attributes_as_jsonb.sql
+
+-- Order tags and custom attributes are mapped as raw JSON strings and parsed only when read.
+-- Store them as jsonb so the database validates them and can index into them.
+DO $$
+DECLARE
+    attribute RECORD;
+BEGIN
+    FOR attribute IN
+        SELECT table_name, column_name
+        FROM information_schema.columns
+        WHERE table_schema = current_schema()
+          AND ((table_name = 'fulfillment_orders' AND column_name IN ('tags', 'custom_attributes'))
+            OR (table_name = 'fulfillment_order_items' AND column_name = 'custom_attributes'))
+          AND data_type <> 'jsonb'
+    LOOP
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I TYPE jsonb USING NULLIF(%I::text, '''')::jsonb',
+                attribute.table_name, attribute.column_name, attribute.column_name);
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,58 @@
+-- V9__Create_fulfillment_archive.sql
+
+-- Cold copies of the fulfillment tables. Orders that were shipped, delivered or cancelled long
+-- enough ago are moved here in chunks, together with their items, events, picking and packing
+-- tasks and shipment packages, so the hot tables and their indexes only hold recent orders.
+-- Rows are moved with SELECT *, so a column added to a hot table must be added to its archive
+-- table in the same migration. An order's tracking read model rows and stage checkpoints are
+-- derived from it and are deleted, not archived. When the hot tables do not exist nothing is
+-- created here and the archive job skips its runs.
+DO $$
+DECLARE
+    hot TEXT;
+BEGIN
+    FOREACH hot IN ARRAY ARRAY['fulfillment_orders', 'fulfillment_order_items', 'fulfillment_events',
+                               'picking_tasks', 'packing_tasks', 'shipment_packages']
+    LOOP
+        IF to_regclass(hot) IS NOT NULL THEN
+            EXECUTE format('CREATE TABLE IF NOT EXISTS %I (LIKE %I INCLUDING DEFAULTS)', hot || '_archive', hot);
+            -- Archive rows are only ever inserted, so pack pages full
+            EXECUTE format('ALTER TABLE %I SET (fillfactor = 100)', hot || '_archive');
+            IF hot = 'fulfillment_orders' THEN
+                CREATE UNIQUE INDEX IF NOT EXISTS idx_fulfillment_orders_archive_id ON fulfillment_orders_archive (id);
+                CREATE INDEX IF NOT EXISTS idx_fulfillment_orders_archive_external_id
+                    ON fulfillment_orders_archive (external_order_id);
+            ELSE
+                EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON %I (fulfillment_order_id)',
+                        'idx_' || hot || '_archive_order', hot || '_archive');
+            END IF;
+        END IF;
+    END LOOP;
+END;
+$$;
+
+-- Archived orders still count in the live order counters: deleting them from the hot table
+-- in an archive transaction leaves the counters alone.
+CREATE OR REPLACE FUNCTION count_fulfillment_order_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    counter_slot SMALLINT := pg_backend_pid() % 16;
+BEGIN
+    IF TG_OP = 'DELETE' AND current_setting('fulfillment.archiving', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO fulfillment_order_counter (warehouse_id, status, slot, order_count)
+        VALUES (COALESCE(OLD.warehouse_id, -1), OLD.status, counter_slot, -1)
+        ON CONFLICT (warehouse_id, status, slot)
+        DO UPDATE SET order_count = fulfillment_order_counter.order_count - 1;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO fulfillment_order_counter (warehouse_id, status, slot, order_count)
+        VALUES (COALESCE(NEW.warehouse_id, -1), NEW.status, counter_slot, 1)
+        ON CONFLICT (warehouse_id, status, slot)
+        DO UPDATE SET order_count = fulfillment_order_counter.order_count + 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
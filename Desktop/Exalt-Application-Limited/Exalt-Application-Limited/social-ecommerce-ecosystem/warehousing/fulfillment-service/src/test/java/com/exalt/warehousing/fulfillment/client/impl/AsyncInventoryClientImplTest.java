@@ -0,0 +1,149 @@
+package com.exalt.warehousing.fulfillment.client.impl;
+
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckResponse;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryReleaseRequest;
+import com.exalt.warehousing.fulfillment.exception.ServiceIntegrationException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the async client against a local stub of the inventory service's
+ * batch check and release endpoints.
+ */
+class AsyncInventoryClientImplTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private HttpServer server;
+    private AsyncInventoryClientImpl client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void concurrentChecksShareOneBatchRequest() {
+        start(50, 100);
+
+        List<UUID> orderIds = new ArrayList<>();
+        List<CompletableFuture<InventoryCheckResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            UUID orderId = UUID.randomUUID();
+            orderIds.add(orderId);
+            responses.add(client.checkInventoryAvailabilityAsync(InventoryCheckRequest.builder().orderId(orderId).build()));
+        }
+
+        for (int i = 0; i < orderIds.size(); i++) {
+            assertEquals(orderIds.get(i), responses.get(i).join().getOrderId());
+        }
+        assertEquals(List.of(20), batchSizes);
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() {
+        start(60_000, 10);
+
+        List<CompletableFuture<InventoryCheckResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            responses.add(client.checkInventoryAvailabilityAsync(InventoryCheckRequest.builder().orderId(UUID.randomUUID()).build()));
+        }
+
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+        assertEquals(3, batchSizes.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size == 10));
+    }
+
+    @Test
+    void releaseReportsTheServiceOutcome() {
+        start(5, 100);
+
+        assertFalse(client.releaseInventoryAsync(new InventoryReleaseRequest()).join());
+    }
+
+    @Test
+    void failedBatchRequestFailsEveryCall() {
+        start(20, 100);
+        status.set(503);
+
+        CompletableFuture<InventoryCheckResponse> first =
+                client.checkInventoryAvailabilityAsync(InventoryCheckRequest.builder().orderId(UUID.randomUUID()).build());
+        CompletableFuture<InventoryCheckResponse> second =
+                client.checkInventoryAvailabilityAsync(InventoryCheckRequest.builder().orderId(UUID.randomUUID()).build());
+
+        CompletionException error = assertThrows(CompletionException.class, first::join);
+        assertInstanceOf(ServiceIntegrationException.class, error.getCause());
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    private void start(long windowMillis, int maxBatchSize) {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        server.createContext("/api/v1/inventory/check/batch", this::handleCheckBatch);
+        server.createContext("/api/v1/inventory/release/batch", this::handleReleaseBatch);
+        server.start();
+        client = new AsyncInventoryClientImpl(objectMapper,
+                "http://localhost:" + server.getAddress().getPort(), windowMillis, maxBatchSize, 2000, 5000);
+    }
+
+    private void handleCheckBatch(HttpExchange exchange) throws IOException {
+        List<InventoryCheckRequest> requests = objectMapper.readValue(exchange.getRequestBody().readAllBytes(),
+                new TypeReference<List<InventoryCheckRequest>>() {});
+        batchSizes.add(requests.size());
+
+        List<InventoryCheckResponse> responses = new ArrayList<>();
+        for (InventoryCheckRequest request : requests) {
+            InventoryCheckResponse response = new InventoryCheckResponse();
+            response.setOrderId(request.getOrderId());
+            response.setAllItemsAvailable(true);
+            responses.add(response);
+        }
+        respond(exchange, objectMapper.writeValueAsBytes(responses));
+    }
+
+    private void handleReleaseBatch(HttpExchange exchange) throws IOException {
+        List<InventoryReleaseRequest> requests = objectMapper.readValue(exchange.getRequestBody().readAllBytes(),
+                new TypeReference<List<InventoryReleaseRequest>>() {});
+        List<Map<String, Object>> responses = new ArrayList<>();
+        requests.forEach(request -> responses.add(Map.of("success", false)));
+        respond(exchange, objectMapper.writeValueAsBytes(responses));
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status.get(), body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.exalt.warehousing.fulfillment.dashboard;
+
+import com.exalt.warehousing.fulfillment.dto.FulfillmentDashboard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Streams snapshots to clients that read at different speeds.
+ */
+class DashboardBroadcasterTest {
+
+    private final LiveDashboard liveDashboard = mock(LiveDashboard.class);
+    private final AtomicLong version = new AtomicLong(1);
+    private final List<ClientEmitter> clients = new ArrayList<>();
+
+    // Two sender threads, a client is dropped after missing two pushes in a row
+    private final DashboardBroadcaster broadcaster = new DashboardBroadcaster(liveDashboard, false, 1000, 15, 30, 2, 2);
+
+    @BeforeEach
+    void setUp() {
+        when(liveDashboard.getVersion()).thenAnswer(invocation -> version.get());
+        when(liveDashboard.snapshot(any())).thenAnswer(invocation -> FulfillmentDashboard.builder().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.forEach(client -> client.reading.countDown());
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void slowClientDoesNotHoldUpTheOthers() throws InterruptedException {
+        ClientEmitter slow = client(false);
+        ClientEmitter fast = client(true);
+
+        broadcaster.subscribe(null, slow);
+        broadcaster.subscribe(null, fast);
+
+        assertNotNull(fast.received.poll(5, TimeUnit.SECONDS));
+        assertTrue(slow.writing.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.received.isEmpty());
+    }
+
+    @Test
+    void clientThatKeepsMissingPushesIsDropped() throws InterruptedException {
+        ClientEmitter slow = client(false);
+        broadcaster.subscribe(null, slow);
+        assertTrue(slow.writing.await(5, TimeUnit.SECONDS));
+
+        for (int push = 0; push < 3; push++) {
+            version.incrementAndGet();
+            broadcaster.push();
+        }
+
+        // Closed once the write it is stuck on ends, not by the push
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertFalse(slow.completed.await(100, TimeUnit.MILLISECONDS));
+        slow.reading.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, slow.received.size());
+    }
+
+    private ClientEmitter client(boolean reading) {
+        ClientEmitter client = new ClientEmitter(reading);
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * Emitter whose writes block until the client reads
+     */
+    private static class ClientEmitter extends SseEmitter {
+
+        private final CountDownLatch reading;
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final BlockingQueue<SseEventBuilder> received = new LinkedBlockingQueue<>();
+
+        private ClientEmitter(boolean reading) {
+            super(30_000L);
+            this.reading = new CountDownLatch(reading ? 0 : 1);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writing.countDown();
+            try {
+                reading.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing", e);
+            }
+            received.add(builder);
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+}
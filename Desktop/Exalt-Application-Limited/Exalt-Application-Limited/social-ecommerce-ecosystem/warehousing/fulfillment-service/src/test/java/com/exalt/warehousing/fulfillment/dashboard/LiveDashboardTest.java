@@ -0,0 +1,101 @@
+package com.exalt.warehousing.fulfillment.dashboard;
+
+import com.exalt.warehousing.fulfillment.dto.FulfillmentDashboard;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Applies order changes to the live dashboard from a stubbed repository.
+ */
+class LiveDashboardTest {
+
+    private static final Long NORTH = 1L;
+    private static final Long SOUTH = 2L;
+
+    private final FulfillmentOrderRepository repository = mock(FulfillmentOrderRepository.class);
+    private final Map<String, Object[]> orders = new LinkedHashMap<>();
+
+    // Fifteen minute throughput window
+    private final LiveDashboard dashboard = new LiveDashboard(repository, false, 2000, 60, 60, 30, 15, 1000);
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        order("A", FulfillmentStatus.PICKING, NORTH, now.minusHours(1));
+        order("B", FulfillmentStatus.PICKING, NORTH, null);
+        order("C", FulfillmentStatus.PENDING, SOUTH, now.plusHours(4));
+
+        when(repository.findActiveOrderIdsAfter(eq(""), any())).thenAnswer(invocation -> new ArrayList<>(orders.keySet()));
+        when(repository.summarizeOrderStatesByIdIn(any())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().filter(orders::containsKey).map(orders::get).toList();
+        });
+        when(repository.sumOrderCountersByWarehouseAndStatus()).thenReturn(List.<Object[]>of(
+                new Object[] {NORTH, "SHIPPED", 40L}));
+        when(repository.sumOrderCountersByStatus()).thenReturn(List.of(
+                new Object[] {"SHIPPED", 45L},
+                new Object[] {"PICKING", 2L}));
+        dashboard.sync();
+    }
+
+    @Test
+    void openOrdersAreCountedByStatusWarehouseAndLateness() {
+        FulfillmentDashboard snapshot = dashboard.snapshot();
+
+        assertEquals(Map.of("PENDING", 1, "PICKING", 2, "SHIPPED", 45), snapshot.getOrdersByStatus());
+        assertEquals(Map.of(NORTH, 2, SOUTH, 1), snapshot.getBacklogByWarehouse());
+        assertEquals(1, snapshot.getTotalOrdersDelayed());
+        assertEquals(45, snapshot.getTotalOrdersCompleted());
+    }
+
+    @Test
+    void shippedOrderMovesFromBacklogToThroughput() {
+        long version = dashboard.getVersion();
+        order("A", FulfillmentStatus.SHIPPED, NORTH, LocalDateTime.now().minusHours(1));
+
+        dashboard.refresh(List.of("A"));
+
+        FulfillmentDashboard north = dashboard.snapshot(new UUID(NORTH, 0));
+        assertEquals(Map.of("PICKING", 1, "SHIPPED", 41), north.getOrdersByStatus());
+        assertEquals(0, north.getTotalOrdersDelayed());
+        assertEquals(1.0 / 15, north.getFulfillmentMetrics().get("shippedPerMinute"), 1e-9);
+        assertTrue(dashboard.getVersion() > version);
+    }
+
+    @Test
+    void newOrdersAreReceivedAndUnchangedOrdersAreIgnored() {
+        order("D", FulfillmentStatus.RECEIVED, SOUTH, null);
+        dashboard.refresh(List.of("D"));
+        long version = dashboard.getVersion();
+
+        dashboard.refresh(List.of("B", "D"));
+
+        FulfillmentDashboard south = dashboard.snapshot(new UUID(SOUTH, 0));
+        assertEquals(2, south.getTotalOrdersPending());
+        assertEquals(1.0 / 15, south.getFulfillmentMetrics().get("receivedPerMinute"), 1e-9);
+        assertNull(south.getOrdersByStatus().get("PICKING"));
+        assertEquals(version, dashboard.getVersion());
+    }
+
+    private void order(String id, FulfillmentStatus status, Long warehouseId, LocalDateTime slaDeadline) {
+        orders.put(id, new Object[] {id, status, warehouseId, slaDeadline, null});
+    }
+}
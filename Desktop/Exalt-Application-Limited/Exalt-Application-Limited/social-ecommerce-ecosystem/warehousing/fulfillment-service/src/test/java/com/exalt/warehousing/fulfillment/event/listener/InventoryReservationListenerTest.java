@@ -0,0 +1,90 @@
+package com.exalt.warehousing.fulfillment.event.listener;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.service.FulfillmentOrderService;
+import com.exalt.warehousing.fulfillment.sourcing.InventoryReadModel;
+import com.exalt.warehousing.shared.events.InventoryReservationCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delivers reservation batches with one event that cannot be applied and
+ * checks which part of the batch is kept.
+ */
+class InventoryReservationListenerTest {
+
+    private final FulfillmentOrderRepository orderRepository = mock(FulfillmentOrderRepository.class);
+    private final Acknowledgment ack = mock(Acknowledgment.class);
+
+    private final InventoryReservationListener listener = new InventoryReservationListener(orderRepository,
+            mock(FulfillmentOrderService.class), mock(InventoryReadModel.class), mock(PlatformTransactionManager.class));
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID broken = UUID.randomUUID();
+    private final UUID last = UUID.randomUUID();
+    private final FulfillmentOrder firstOrder = order(first);
+    private final FulfillmentOrder brokenOrder = order(broken);
+    private final FulfillmentOrder lastOrder = order(last);
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.findAllForExternalOrderIds(any())).thenReturn(List.of(firstOrder, brokenOrder, lastOrder));
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void failingEventIsReportedByIndexAndEarlierEventsAreKept() {
+        List<InventoryReservationCreatedEvent> events = List.of(created(first, true), created(broken, false),
+                created(last, true));
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+                () -> listener.handleReservationCreated(events, ack));
+
+        assertEquals(1, failure.getIndex());
+        assertEquals(NullPointerException.class, failure.getCause().getClass());
+        // The full batch failed before saving; only the event before the failing one is saved again
+        verify(orderRepository, times(1)).saveAll(anyList());
+        verify(orderRepository).saveAll(List.of(firstOrder));
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    void batchWithoutFailuresIsSavedOnceAndAcknowledged() {
+        listener.handleReservationCreated(List.of(created(first, true), created(last, true)), ack);
+
+        verify(orderRepository).saveAll(List.of(firstOrder, lastOrder));
+        verify(ack).acknowledge();
+    }
+
+    private InventoryReservationCreatedEvent created(UUID orderId, boolean withItems) {
+        InventoryReservationCreatedEvent event = mock(InventoryReservationCreatedEvent.class);
+        when(event.getOrderId()).thenReturn(orderId);
+        when(event.getReservationId()).thenReturn(UUID.randomUUID());
+        // Without items the note cannot be written
+        when(event.getItems()).thenReturn(withItems ? List.of() : null);
+        return event;
+    }
+
+    private FulfillmentOrder order(UUID externalOrderId) {
+        FulfillmentOrder order = mock(FulfillmentOrder.class);
+        when(order.getOriginalExternalOrderId()).thenReturn(externalOrderId.toString());
+        return order;
+    }
+}
@@ -0,0 +1,88 @@
+package com.exalt.warehousing.fulfillment.index;
+
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Builds the index from a stubbed repository and follows changed orders.
+ */
+class ActiveOrderIndexTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 4, 9, 0);
+
+    private final FulfillmentOrderRepository repository = mock(FulfillmentOrderRepository.class);
+    private ActiveOrderIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ActiveOrderIndex(repository, true, 1000, 60, 60, 60, 2);
+        when(repository.findActiveOrderIdsAfter(eq(""), any())).thenReturn(List.of("FO-1", "FO-2"));
+        when(repository.findActiveOrderIdsAfter(eq("FO-2"), any())).thenReturn(List.of("FO-3"));
+        when(repository.summarizeOrderLinesByIdIn(List.of("FO-1", "FO-2"))).thenReturn(rows(
+                row("FO-1", FulfillmentStatus.PENDING, 200L, "SKU-1", 2),
+                row("FO-1", FulfillmentStatus.PENDING, 200L, "SKU-2", 1),
+                row("FO-2", FulfillmentStatus.PENDING, 100L, "SKU-1", 5)));
+        when(repository.summarizeOrderLinesByIdIn(List.of("FO-3"))).thenReturn(rows(
+                row("FO-3", FulfillmentStatus.ALLOCATED, 50L, "SKU-1", 4)));
+        index.sync();
+    }
+
+    @Test
+    void staleIndexAnswersNothing() {
+        ActiveOrderIndex stale = new ActiveOrderIndex(repository, true, 1000, 60, 60, 60, 2);
+
+        assertTrue(stale.getActiveOrders("SKU-1").isEmpty());
+        assertTrue(stale.getPendingDemand("SKU-1").isEmpty());
+    }
+
+    @Test
+    void findsActiveOrdersPerSkuAcrossPages() {
+        assertEquals(3, index.getActiveOrders("SKU-1").orElseThrow().size());
+        assertEquals(1, index.getActiveOrders("SKU-2").orElseThrow().size());
+        assertEquals(List.of(), index.getActiveOrders("SKU-3").orElseThrow());
+    }
+
+    @Test
+    void pendingDemandIsInQueueOrder() {
+        Map<String, Integer> demand = index.getPendingDemand("SKU-1").orElseThrow();
+
+        assertEquals(List.of("FO-2", "FO-1"), new ArrayList<>(demand.keySet()));
+        assertEquals(5, demand.get("FO-2"));
+    }
+
+    @Test
+    void changedOrdersAreReloaded() {
+        when(repository.findIdsChangedSince(any())).thenReturn(List.of("FO-1", "FO-4"));
+        when(repository.summarizeOrderLinesByIdIn(anyCollection())).thenReturn(rows(
+                row("FO-1", FulfillmentStatus.COMPLETED, 200L, "SKU-1", 2),
+                row("FO-4", FulfillmentStatus.PENDING, 10L, "SKU-2", 3)));
+
+        index.sync();
+
+        assertEquals(2, index.getActiveOrders("SKU-1").orElseThrow().size());
+        assertEquals(List.of("FO-4"), new ArrayList<>(index.getPendingDemand("SKU-2").orElseThrow().keySet()));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+
+    private static Object[] row(String orderId, FulfillmentStatus status, Long priorityScore, String sku, int quantity) {
+        return new Object[] {orderId, 42L, status, priorityScore, CREATED, sku, (long) quantity};
+    }
+}
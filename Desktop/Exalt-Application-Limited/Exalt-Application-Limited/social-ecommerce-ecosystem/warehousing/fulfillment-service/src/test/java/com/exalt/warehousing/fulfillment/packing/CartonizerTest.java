@@ -0,0 +1,87 @@
+package com.exalt.warehousing.fulfillment.packing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Packs small orders whose best cartons are known and a large mixed order.
+ */
+class CartonizerTest {
+
+    private final Cartonizer cartonizer = new Cartonizer(
+            List.of(CartonType.parse("S:25x20x10:5:0.1"),
+                    CartonType.parse("M:35x25x15:10:0.2"),
+                    CartonType.parse("L:45x35x25:20:0.4")),
+            5000, new double[]{10, 10, 10}, 0.5);
+
+    @Test
+    void usesTheSmallestCartonHoldingEverything() {
+        List<PackedCarton> packed = cartonizer.pack(List.of(new PackItem("BOOK", new double[]{15, 20, 3}, 0.4, 3)));
+
+        assertEquals(1, packed.size());
+        assertEquals("S", packed.get(0).getCartonName());
+        assertEquals(3, packed.get(0).getItemCount());
+        assertEquals(1.3, packed.get(0).getWeight(), 1e-9);
+    }
+
+    @Test
+    void rotatesItemsToFit() {
+        // Only fits the small carton lying on its side
+        List<PackedCarton> packed = cartonizer.pack(List.of(new PackItem("POSTER", new double[]{8, 5, 24}, 0.2, 1)));
+
+        assertEquals("S", packed.get(0).getCartonName());
+    }
+
+    @Test
+    void splitsByWeightLimit() {
+        List<PackedCarton> packed = cartonizer.pack(List.of(new PackItem("PLATE", new double[]{20, 20, 2}, 4.0, 6)));
+
+        assertEquals(2, packed.size());
+        assertEquals(6, packed.stream().mapToInt(PackedCarton::getItemCount).sum());
+        assertTrue(packed.stream().allMatch(carton -> carton.getWeight() <= 20.4 + 1e-9));
+    }
+
+    @Test
+    void shipsOversizedItemsInOwnPackaging() {
+        List<PackedCarton> packed = cartonizer.pack(List.of(
+                new PackItem("SKI", new double[]{170, 12, 8}, 3.0, 1),
+                new PackItem("WAX", new double[]{10, 5, 3}, 0.1, 1)));
+
+        assertEquals(2, packed.size());
+        assertEquals("S", packed.get(0).getCartonName());
+        assertTrue(packed.get(1).isOwnPackaging());
+        assertEquals(170 * 12 * 8 / 5000.0, packed.get(1).getBillableWeight(), 1e-9);
+    }
+
+    @Test
+    void packsAHundredMixedItemsQuickly() {
+        Random random = new Random(7);
+        List<PackItem> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new PackItem("SKU-" + i, new double[]{2 + random.nextInt(15), 2 + random.nextInt(15),
+                    1 + random.nextInt(6)}, 0.05 + random.nextDouble() * 0.2, 1));
+        }
+        cartonizer.pack(items);
+
+        long started = System.nanoTime();
+        List<PackedCarton> packed = cartonizer.pack(items);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(100, packed.stream().mapToInt(PackedCarton::getItemCount).sum());
+        assertTrue(elapsedMillis < 50, "packing took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void parsesDimensionsInInches() {
+        assertArrayEquals(new double[]{25.4, 12.7, 2.54}, PackItem.parseDimensions("10 x 5 x 1 in"), 1e-9);
+        assertArrayEquals(new double[]{30, 20, 15}, PackItem.parseDimensions("30x20x15"), 1e-9);
+        assertEquals(null, PackItem.parseDimensions("30x20"));
+    }
+}
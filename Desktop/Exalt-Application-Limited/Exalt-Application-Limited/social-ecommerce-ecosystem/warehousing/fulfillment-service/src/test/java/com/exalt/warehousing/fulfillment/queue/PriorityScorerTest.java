@@ -0,0 +1,75 @@
+package com.exalt.warehousing.fulfillment.queue;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.enums.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Orders pairs of orders whose queue order is known.
+ */
+class PriorityScorerTest {
+
+    private static final LocalDateTime SHIP_BY = LocalDateTime.of(2024, 3, 4, 16, 0);
+
+    private final PriorityScorer scorer = new PriorityScorer(
+            PriorityScorer.DEFAULT_PRIORITY_LEADS, PriorityScorer.DEFAULT_TIER_LEADS, "UPS=15:00", 48);
+
+    @Test
+    void scoreIsTheShipByTimeInMinutes() {
+        FulfillmentOrder order = order(Priority.STANDARD, SHIP_BY);
+
+        assertEquals(SHIP_BY.toEpochSecond(ZoneOffset.UTC) / 60, scorer.score(order));
+    }
+
+    @Test
+    void earlierDeadlineIsServedFirst() {
+        assertTrue(scorer.score(order(Priority.STANDARD, SHIP_BY.minusHours(1)))
+                < scorer.score(order(Priority.STANDARD, SHIP_BY)));
+    }
+
+    @Test
+    void priorityAndTierMoveAnOrderForward() {
+        FulfillmentOrder standard = order(Priority.STANDARD, SHIP_BY);
+        FulfillmentOrder high = order(Priority.HIGH, SHIP_BY);
+        FulfillmentOrder gold = order(Priority.STANDARD, SHIP_BY);
+        gold.getTags().put(PriorityScorer.CUSTOMER_TIER_TAG, "gold");
+
+        assertEquals(scorer.score(standard) - 120, scorer.score(high));
+        assertEquals(scorer.score(standard) - 60, scorer.score(gold));
+    }
+
+    @Test
+    void carrierCutoffMovesTheShipByTimeToTheLastPickup() {
+        FulfillmentOrder afterCutoff = order(Priority.STANDARD, SHIP_BY);
+        afterCutoff.setCarrier("ups");
+        FulfillmentOrder beforeCutoff = order(Priority.STANDARD, SHIP_BY.withHour(10));
+        beforeCutoff.setCarrier("UPS");
+
+        assertEquals(SHIP_BY.withHour(15).toEpochSecond(ZoneOffset.UTC) / 60, scorer.score(afterCutoff));
+        assertEquals(SHIP_BY.minusDays(1).withHour(15).toEpochSecond(ZoneOffset.UTC) / 60,
+                scorer.score(beforeCutoff));
+    }
+
+    @Test
+    void ordersWithoutDeadlineGetTheDefaultSla() {
+        FulfillmentOrder order = order(Priority.STANDARD, null);
+        order.setOrderDate(SHIP_BY.minusHours(48));
+
+        assertEquals(SHIP_BY.toEpochSecond(ZoneOffset.UTC) / 60, scorer.score(order));
+    }
+
+    private static FulfillmentOrder order(Priority priority, LocalDateTime slaDeadline) {
+        FulfillmentOrder order = new FulfillmentOrder();
+        order.setPriority(priority);
+        order.setSlaDeadline(slaDeadline);
+        order.setTags(new HashMap<>());
+        return order;
+    }
+}
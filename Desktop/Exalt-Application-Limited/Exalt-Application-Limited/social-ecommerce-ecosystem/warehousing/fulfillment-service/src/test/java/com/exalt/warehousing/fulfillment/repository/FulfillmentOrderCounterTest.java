@@ -0,0 +1,82 @@
+package com.exalt.warehousing.fulfillment.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sums order counter slots the way the triggers from V3 leave them behind.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class FulfillmentOrderCounterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FulfillmentOrderRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        // Not mapped by an entity, so the test schema does not have it
+        execute("CREATE TABLE IF NOT EXISTS fulfillment_order_counter (warehouse_id BIGINT NOT NULL, " +
+                "status VARCHAR(50) NOT NULL, slot SMALLINT NOT NULL, order_count BIGINT NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (warehouse_id, status, slot))");
+        execute("DELETE FROM fulfillment_order_counter");
+
+        // Three pending orders in warehouse 1, counted by two backends
+        counter(1, "PENDING", 0, 2);
+        counter(1, "PENDING", 3, 1);
+        // One order moved out of PROCESSING by another backend than the one that counted it in
+        counter(1, "PROCESSING", 0, 1);
+        counter(1, "PROCESSING", 5, -1);
+        counter(2, "SHIPPED", 1, 3);
+        // Pending orders without a warehouse
+        counter(-1, "PENDING", 2, 4);
+    }
+
+    @Test
+    void slotsAreSummedPerStatusAndEmptyCountsLeftOut() {
+        Map<String, Long> byStatus = new HashMap<>();
+        for (Object[] row : repository.sumOrderCountersByStatus()) {
+            byStatus.put((String) row[0], ((Number) row[1]).longValue());
+        }
+
+        assertEquals(Map.of("PENDING", 7L, "SHIPPED", 3L), byStatus);
+    }
+
+    @Test
+    void ordersWithoutAWarehouseAreLeftOutPerWarehouse() {
+        Map<List<Object>, Long> byWarehouse = new HashMap<>();
+        for (Object[] row : repository.sumOrderCountersByWarehouseAndStatus()) {
+            byWarehouse.put(List.of(((Number) row[0]).longValue(), row[1]), ((Number) row[2]).longValue());
+        }
+
+        assertEquals(Map.of(List.of(1L, "PENDING"), 3L, List.of(2L, "SHIPPED"), 3L), byWarehouse);
+    }
+
+    private void counter(long warehouseId, String status, int slot, long count) {
+        entityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO fulfillment_order_counter (warehouse_id, status, slot, order_count) " +
+                        "VALUES (?1, ?2, ?3, ?4)")
+                .setParameter(1, warehouseId)
+                .setParameter(2, status)
+                .setParameter(3, slot)
+                .setParameter(4, count)
+                .executeUpdate();
+    }
+
+    private void execute(String sql) {
+        entityManager.getEntityManager().createNativeQuery(sql).executeUpdate();
+    }
+}
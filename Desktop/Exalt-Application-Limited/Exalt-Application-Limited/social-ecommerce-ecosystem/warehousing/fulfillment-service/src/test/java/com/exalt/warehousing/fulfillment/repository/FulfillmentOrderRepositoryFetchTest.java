@@ -0,0 +1,118 @@
+package com.exalt.warehousing.fulfillment.repository;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the statements it takes to load orders and walk their items.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class FulfillmentOrderRepositoryFetchTest {
+
+    private static final long WAREHOUSE = 42L;
+    private static final int ORDERS = 20;
+    private static final String SKU = "SKU-HOT";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FulfillmentOrderRepository repository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDERS; i++) {
+            entityManager.persist(order(i, i % 2 == 0 ? FulfillmentStatus.PENDING : FulfillmentStatus.PROCESSING));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void activeOrdersWithSkuLoadTheirItemsInOneStatement() {
+        Collection<FulfillmentOrder> orders = repository.findActiveOrdersWithSku(WAREHOUSE, SKU);
+
+        assertEquals(ORDERS, orders.size());
+        assertEquals(ORDERS * 3, units(orders));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pendingOrdersWithSkuLoadTheirItemsInOneStatement() {
+        Collection<FulfillmentOrder> orders = repository.findPendingOrdersWithSku(SKU);
+
+        assertEquals(ORDERS / 2, orders.size());
+        assertEquals(ORDERS / 2 * 3, units(orders));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pendingOrdersLoadTheirItemsInOneStatement() {
+        Collection<FulfillmentOrder> orders = repository.findPendingOrders();
+
+        assertEquals(ORDERS / 2 * 3, units(orders));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void activeOrderPageLoadsItsItemsWithOneMoreStatement() {
+        Page<FulfillmentOrder> page = repository.findAllActiveOrdersWithItems(PageRequest.of(0, 5));
+
+        assertEquals(ORDERS, page.getTotalElements());
+        assertEquals(5 * 3, units(page.getContent()));
+        // Page, count and items
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private static int units(Collection<FulfillmentOrder> orders) {
+        return orders.stream()
+                .flatMap(order -> order.getOrderItems().stream())
+                .mapToInt(FulfillmentOrderItem::getQuantity)
+                .sum();
+    }
+
+    private static FulfillmentOrder order(int index, FulfillmentStatus status) {
+        FulfillmentOrder order = new FulfillmentOrder();
+        order.setOrderNumber("FO-" + index);
+        order.setExternalOrderId("ORDER-" + index);
+        order.setOrderDate(LocalDateTime.now());
+        order.setCustomerId("CUSTOMER-1");
+        order.setWarehouseId(WAREHOUSE);
+        order.setStatus(status);
+        order.addOrderItem(item(index + "-1", SKU, 2));
+        order.addOrderItem(item(index + "-2", "SKU-" + index, 1));
+        return order;
+    }
+
+    private static FulfillmentOrderItem item(String id, String sku, int quantity) {
+        FulfillmentOrderItem item = new FulfillmentOrderItem();
+        item.setOrderItemId("ITEM-" + id);
+        item.setProductId("PRODUCT-" + sku);
+        item.setSku(sku);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,80 @@
+package com.exalt.warehousing.fulfillment.repository;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the substring searches support agents use to find orders.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class FulfillmentOrderRepositorySearchTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FulfillmentOrderRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(order(1, "Ada Lovelace", "ada@example.com", "1Z999AA10123456784"));
+        entityManager.persist(order(2, "Grace Hopper", "grace_hopper@example.com", "1Z999AA10123456785"));
+        entityManager.persist(order(3, "Alan Turing", "graceXhopper@example.com", "9400111899223100000001"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void customerNameMatchesAnyPartIgnoringCase() {
+        Page<FulfillmentOrder> page = repository.findAllByCustomerNameContainingIgnoreCase(
+                "LOVEL", PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals("FO-1", page.getContent().get(0).getOrderNumber());
+    }
+
+    @Test
+    void wildcardsInTheTermAreMatchedLiterally() {
+        Page<FulfillmentOrder> page = repository.findAllByCustomerEmailContainingIgnoreCase(
+                "grace_hopper", PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals("FO-2", page.getContent().get(0).getOrderNumber());
+    }
+
+    @Test
+    void trackingNumberMatchesArePaged() {
+        Page<FulfillmentOrder> page = repository.findAllByTrackingNumberContainingIgnoreCase(
+                "1z999aa", PageRequest.of(0, 1));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+    }
+
+    private static FulfillmentOrder order(int index, String name, String email, String trackingNumber) {
+        FulfillmentOrder order = new FulfillmentOrder();
+        order.setOrderNumber("FO-" + index);
+        order.setExternalOrderId("ORDER-" + index);
+        order.setOrderDate(LocalDateTime.now());
+        order.setCustomerId("CUSTOMER-" + index);
+        order.setCustomerName(name);
+        order.setCustomerEmail(email);
+        order.setTrackingNumber(trackingNumber);
+        order.setWarehouseId(42L);
+        order.setStatus(FulfillmentStatus.SHIPPED);
+        return order;
+    }
+}
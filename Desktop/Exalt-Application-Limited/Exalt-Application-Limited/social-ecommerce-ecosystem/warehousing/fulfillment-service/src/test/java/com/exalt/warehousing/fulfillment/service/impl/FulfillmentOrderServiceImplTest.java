@@ -0,0 +1,137 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.SplitPlan;
+import com.exalt.warehousing.fulfillment.dto.SplitShipment;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.service.OrderArchiveService;
+import com.exalt.warehousing.fulfillment.service.WarehouseSourcingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sources orders against a stubbed sourcing service and checks how a split
+ * order and its parts are keyed, and reads live counts from stubbed counters.
+ */
+class FulfillmentOrderServiceImplTest {
+
+    private static final UUID NEAR = new UUID(1, 0);
+    private static final UUID FAR = new UUID(2, 0);
+
+    private final FulfillmentOrderRepository orderRepository = mock(FulfillmentOrderRepository.class);
+    private final WarehouseSourcingService sourcingService = mock(WarehouseSourcingService.class);
+
+    @SuppressWarnings("unchecked")
+    private final FulfillmentOrderServiceImpl service = new FulfillmentOrderServiceImpl(orderRepository,
+            mock(KafkaTemplate.class), sourcingService, mock(OrderArchiveService.class));
+
+    private final FulfillmentOrder order = new FulfillmentOrder();
+
+    @BeforeEach
+    void setUp() {
+        order.setOrderNumber("ORD-1");
+        order.setExternalOrderId("EXT-1");
+        order.setStatus(FulfillmentStatus.PENDING);
+        order.setOrderItems(new ArrayList<>(List.of(item("SKU-A", 5), item("SKU-B", 3))));
+
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order));
+        when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sourcingService.sourceWarehouse(any(), any(), eq(null))).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void splitPartsKeepTheExternalOrderIdOfTheOrderTheyWereSplitFrom() {
+        when(sourcingService.planSplit(any(), any())).thenReturn(Optional.of(new SplitPlan(List.of(
+                shipment(FAR, Map.of("SKU-B", 3)), shipment(NEAR, Map.of("SKU-A", 5))), true)));
+
+        List<FulfillmentOrder> orders = service.splitFulfillmentOrder("order-1");
+
+        assertEquals(2, orders.size());
+        // The largest shipment stays with the order
+        FulfillmentOrder kept = orders.get(0);
+        assertEquals("EXT-1", kept.getExternalOrderId());
+        assertNull(kept.getParentExternalOrderId());
+        assertEquals(Long.valueOf(1), kept.getWarehouseId());
+        assertEquals(List.of("SKU-A"), kept.getOrderItems().stream().map(FulfillmentOrderItem::getSku).toList());
+
+        FulfillmentOrder split = orders.get(1);
+        assertEquals("ORD-1-2", split.getOrderNumber());
+        assertEquals("ORD-1-2", split.getExternalOrderId());
+        assertEquals("EXT-1", split.getParentExternalOrderId());
+        assertEquals("EXT-1", split.getOriginalExternalOrderId());
+        assertEquals(Long.valueOf(2), split.getWarehouseId());
+        assertEquals(FulfillmentStatus.PROCESSING, split.getStatus());
+        assertEquals(Integer.valueOf(3), split.getTotalItems());
+    }
+
+    @Test
+    void orderOneWarehouseCanFillIsNotSplit() {
+        when(sourcingService.sourceWarehouse(any(), any(), eq(null))).thenReturn(Optional.of(NEAR));
+
+        List<FulfillmentOrder> orders = service.splitFulfillmentOrder("order-1");
+
+        assertEquals(List.of(order), orders);
+        assertEquals(FulfillmentStatus.PROCESSING, order.getStatus());
+        assertEquals(2, order.getOrderItems().size());
+    }
+
+    @Test
+    void orderNoWarehousesCanFillWaitsForInventory() {
+        when(sourcingService.planSplit(any(), any())).thenReturn(Optional.empty());
+
+        service.splitFulfillmentOrder("order-1");
+
+        assertEquals(FulfillmentStatus.PENDING_INVENTORY, order.getStatus());
+    }
+
+    @Test
+    void liveCountsAddUpTheCounterSums() {
+        when(orderRepository.sumOrderCountersByStatus()).thenReturn(List.of(
+                new Object[]{"PENDING", 7L}, new Object[]{"SHIPPED", 3L}));
+        when(orderRepository.sumOrderCountersByWarehouseAndStatus()).thenReturn(List.of(
+                new Object[]{1L, "PENDING", 3L}, new Object[]{2L, "SHIPPED", 3L}));
+
+        Map<String, Object> counts = service.getLiveOrderCounts();
+
+        assertEquals(10L, counts.get("totalOrders"));
+        assertEquals(Map.of(FulfillmentStatus.PENDING, 7L, FulfillmentStatus.SHIPPED, 3L), counts.get("ordersByStatus"));
+        assertEquals(Map.of(1L, Map.of(FulfillmentStatus.PENDING, 3L), 2L, Map.of(FulfillmentStatus.SHIPPED, 3L)),
+                counts.get("ordersByWarehouse"));
+    }
+
+    private SplitShipment shipment(UUID warehouseId, Map<String, Integer> quantities) {
+        return SplitShipment.builder()
+                .warehouseId(warehouseId)
+                .warehouseName("WH-" + warehouseId.getMostSignificantBits())
+                .quantities(quantities)
+                .shippingCost(new BigDecimal("5.00"))
+                .build();
+    }
+
+    private FulfillmentOrderItem item(String sku, int quantity) {
+        FulfillmentOrderItem item = new FulfillmentOrderItem();
+        item.setSku(sku);
+        item.setQuantity(quantity);
+        item.setUnitPrice(BigDecimal.ONE);
+        return item;
+    }
+}
@@ -0,0 +1,178 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.StageCheckpointDTO;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentStageCheckpoint;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStage;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.enums.StageCheckpointStatus;
+import com.exalt.warehousing.fulfillment.exception.ServiceIntegrationException;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentStageCheckpointRepository;
+import com.exalt.warehousing.fulfillment.service.FulfillmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs pipeline stages against stubbed repositories and records the outcome written to the checkpoint.
+ */
+class FulfillmentPipelineServiceImplTest {
+
+    private static final String ORDER_ID = UUID.randomUUID().toString();
+    private static final UUID CHECKPOINT_ID = UUID.randomUUID();
+
+    private final FulfillmentService fulfillmentService = mock(FulfillmentService.class);
+    private final FulfillmentOrderRepository orderRepository = mock(FulfillmentOrderRepository.class);
+    private final FulfillmentStageCheckpointRepository checkpointRepository = mock(FulfillmentStageCheckpointRepository.class);
+
+    // Three attempts, ten seconds before the first retry
+    private final FulfillmentPipelineServiceImpl service = new FulfillmentPipelineServiceImpl(fulfillmentService,
+            orderRepository, checkpointRepository, mock(PlatformTransactionManager.class), false,
+            "ALLOCATION=1", 10, 3, 10, 300, 15);
+
+    @BeforeEach
+    void setUp() {
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkpointRepository.claim(eq(CHECKPOINT_ID), any())).thenReturn(1);
+    }
+
+    @Test
+    void submittedOrderEntersTheStageItsStatusStarts() {
+        order(FulfillmentStatus.PICKING_COMPLETE);
+
+        Optional<StageCheckpointDTO> checkpoint = service.submit(ORDER_ID);
+
+        assertEquals(FulfillmentStage.PACK_RELEASE, checkpoint.orElseThrow().getStage());
+        assertEquals(StageCheckpointStatus.PENDING, checkpoint.get().getStatus());
+        assertTrue(service.submit(UUID.randomUUID().toString()).isEmpty());
+    }
+
+    @Test
+    void ordersWaitingForStaffAreNotAdmitted() {
+        order(FulfillmentStatus.PICKING);
+
+        assertTrue(service.submit(ORDER_ID).isEmpty());
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    @Test
+    void completedStageIsRecorded() {
+        order(FulfillmentStatus.PICKING_COMPLETE);
+        attempt(1);
+
+        service.run(CHECKPOINT_ID, FulfillmentStage.PACK_RELEASE, ORDER_ID);
+
+        verify(fulfillmentService).startPacking(UUID.fromString(ORDER_ID));
+        verify(checkpointRepository).finish(eq(CHECKPOINT_ID), eq(StageCheckpointStatus.COMPLETED), any(),
+                isNull(), any());
+    }
+
+    @Test
+    void failedStageIsRetriedWithBackoff() {
+        order(FulfillmentStatus.PROCESSING);
+        attempt(2);
+        when(fulfillmentService.allocateInventory(any()))
+                .thenThrow(new ServiceIntegrationException("Inventory service timed out"));
+        LocalDateTime before = LocalDateTime.now();
+
+        service.run(CHECKPOINT_ID, FulfillmentStage.ALLOCATION, ORDER_ID);
+
+        // Second attempt, so twice the base backoff
+        verify(checkpointRepository).finish(eq(CHECKPOINT_ID), eq(StageCheckpointStatus.PENDING),
+                argThat(due -> !due.isBefore(before.plusSeconds(20))), eq("Inventory service timed out"), any());
+    }
+
+    @Test
+    void stageFailsForGoodAfterTheLastAttempt() {
+        order(FulfillmentStatus.PROCESSING);
+        attempt(3);
+        when(fulfillmentService.allocateInventory(any()))
+                .thenThrow(new ServiceIntegrationException("Inventory service timed out"));
+
+        service.run(CHECKPOINT_ID, FulfillmentStage.ALLOCATION, ORDER_ID);
+
+        verify(checkpointRepository).finish(eq(CHECKPOINT_ID), eq(StageCheckpointStatus.FAILED), any(),
+                eq("Inventory service timed out"), any());
+    }
+
+    @Test
+    void stageIsSkippedForOrdersThatMovedOn() {
+        order(FulfillmentStatus.CANCELLED);
+        attempt(1);
+
+        service.run(CHECKPOINT_ID, FulfillmentStage.ALLOCATION, ORDER_ID);
+
+        verifyNoInteractions(fulfillmentService);
+        verify(checkpointRepository).finish(eq(CHECKPOINT_ID), eq(StageCheckpointStatus.SKIPPED), any(),
+                isNull(), any());
+    }
+
+    @Test
+    void allocatedOrdersAreLeftToWavePlanning() {
+        order(FulfillmentStatus.ALLOCATED);
+
+        assertTrue(service.submit(ORDER_ID).isEmpty());
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    @Test
+    void stageChecksTheStatusOfTheLockedOrder() {
+        order(FulfillmentStatus.PROCESSING);
+        attempt(1);
+        // Moved on by another worker between the unlocked read and the lock
+        FulfillmentOrder allocated = mock(FulfillmentOrder.class);
+        when(allocated.getStatus()).thenReturn(FulfillmentStatus.ALLOCATED);
+        when(orderRepository.lockById(ORDER_ID)).thenReturn(Optional.of(allocated));
+
+        service.run(CHECKPOINT_ID, FulfillmentStage.ALLOCATION, ORDER_ID);
+
+        verifyNoInteractions(fulfillmentService);
+        verify(checkpointRepository).finish(eq(CHECKPOINT_ID), eq(StageCheckpointStatus.SKIPPED), any(),
+                isNull(), any());
+    }
+
+    @Test
+    void stageClaimedElsewhereDoesNotRun() {
+        order(FulfillmentStatus.PROCESSING);
+        when(checkpointRepository.claim(eq(CHECKPOINT_ID), any())).thenReturn(0);
+
+        service.run(CHECKPOINT_ID, FulfillmentStage.ALLOCATION, ORDER_ID);
+
+        verifyNoInteractions(fulfillmentService);
+        verify(checkpointRepository, never()).finish(any(), any(), any(), any(), any());
+    }
+
+    private void order(FulfillmentStatus status) {
+        FulfillmentOrder order = mock(FulfillmentOrder.class);
+        when(order.getId()).thenReturn(ORDER_ID);
+        when(order.getStatus()).thenReturn(status);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderRepository.lockById(ORDER_ID)).thenReturn(Optional.of(order));
+    }
+
+    private void attempt(int attempts) {
+        when(checkpointRepository.findById(CHECKPOINT_ID)).thenReturn(Optional.of(FulfillmentStageCheckpoint.builder()
+                .id(CHECKPOINT_ID)
+                .fulfillmentOrderId(ORDER_ID)
+                .status(StageCheckpointStatus.RUNNING)
+                .attempts(attempts)
+                .build()));
+    }
+}
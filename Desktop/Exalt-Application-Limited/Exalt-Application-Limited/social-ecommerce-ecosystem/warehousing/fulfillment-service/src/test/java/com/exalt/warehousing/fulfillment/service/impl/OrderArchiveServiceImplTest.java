@@ -0,0 +1,128 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs archive chunks against a stubbed entity manager and records the statements issued.
+ */
+class OrderArchiveServiceImplTest {
+
+    private static final String FIRST = UUID.randomUUID().toString();
+    private static final String SECOND = UUID.randomUUID().toString();
+    private static final String THIRD = "LEGACY-3";
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final Query selectQuery = mock(Query.class, RETURNS_SELF);
+    private final Query moveQuery = mock(Query.class);
+    private final Query tableQuery = mock(Query.class);
+    private final List<String> moves = new ArrayList<>();
+    private final List<Collection<?>> moveKeys = new ArrayList<>();
+    private final List<String> deletes = new ArrayList<>();
+    private final List<String> existingTables = new ArrayList<>(List.of("fulfillment_orders_archive",
+            "fulfillment_order_items_archive", "fulfillment_events_archive", "picking_tasks_archive",
+            "packing_tasks_archive", "shipment_packages_archive"));
+
+    private final OrderArchiveServiceImpl service = new OrderArchiveServiceImpl(entityManager,
+            mock(PlatformTransactionManager.class), false, 180, 2, 10, 60);
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.startsWith("SELECT id")) {
+                return selectQuery;
+            }
+            if (sql.contains("to_regclass")) {
+                return tableQuery;
+            }
+            if (sql.startsWith("DELETE FROM ")) {
+                deletes.add(sql.substring(12, sql.indexOf(" WHERE")));
+                return mock(Query.class, RETURNS_SELF);
+            }
+            if (sql.startsWith("WITH moved")) {
+                moves.add(sql.substring(sql.indexOf("DELETE FROM ") + 12, sql.indexOf(" WHERE")));
+                return moveQuery;
+            }
+            return mock(Query.class);
+        });
+        String[] table = new String[1];
+        when(tableQuery.setParameter(eq("table"), anyString())).thenAnswer(invocation -> {
+            table[0] = invocation.getArgument(1);
+            return tableQuery;
+        });
+        when(tableQuery.getSingleResult()).thenAnswer(invocation -> existingTables.contains(table[0]) ? table[0] : null);
+        when(moveQuery.setParameter(eq("keys"), any())).thenAnswer(invocation -> {
+            moveKeys.add(invocation.getArgument(1));
+            return moveQuery;
+        });
+        when(moveQuery.executeUpdate()).thenAnswer(invocation -> moveKeys.get(moveKeys.size() - 1).size());
+    }
+
+    @Test
+    void ordersMoveAfterTheirChildrenUntilAChunkComesUpShort() {
+        when(selectQuery.getResultList()).thenReturn(List.of(FIRST, SECOND), List.of(THIRD));
+
+        assertEquals(3, service.archiveFinishedOrders());
+
+        List<String> chunk = List.of("fulfillment_order_items", "fulfillment_events", "picking_tasks",
+                "packing_tasks", "shipment_packages", "fulfillment_orders");
+        List<String> expected = new ArrayList<>(chunk);
+        expected.addAll(chunk);
+        assertEquals(expected, moves);
+    }
+
+    @Test
+    void trackingAndCheckpointRowsAreDeletedWithTheOrder() {
+        when(selectQuery.getResultList()).thenReturn(List.of(THIRD));
+
+        service.archiveFinishedOrders();
+
+        assertEquals(List.of("fulfillment_stage_checkpoint", "order_tracking_number", "order_tracking"), deletes);
+    }
+
+    @Test
+    void runIsSkippedWhileAnArchiveTableIsMissing() {
+        existingTables.remove("packing_tasks_archive");
+        when(selectQuery.getResultList()).thenReturn(List.of(FIRST));
+
+        assertEquals(0, service.archiveFinishedOrders());
+        assertTrue(moves.isEmpty());
+        assertTrue(deletes.isEmpty());
+    }
+
+    @Test
+    void tasksAreMatchedByTheUuidDerivedFromTheOrderId() {
+        when(selectQuery.getResultList()).thenReturn(List.of(THIRD));
+
+        service.archiveFinishedOrders();
+
+        assertEquals(List.of(THIRD), moveKeys.get(0));
+        assertEquals(List.of(UUID.nameUUIDFromBytes(THIRD.getBytes())), moveKeys.get(2));
+    }
+
+    @Test
+    void nothingMovesWhenNoOrderIsDue() {
+        when(selectQuery.getResultList()).thenReturn(List.of());
+
+        assertEquals(0, service.archiveFinishedOrders());
+        assertTrue(moves.isEmpty());
+    }
+}
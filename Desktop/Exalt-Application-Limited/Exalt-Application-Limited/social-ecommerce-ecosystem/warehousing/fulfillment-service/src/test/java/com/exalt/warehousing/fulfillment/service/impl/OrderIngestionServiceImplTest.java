@@ -0,0 +1,153 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.client.AsyncInventoryClient;
+import com.exalt.warehousing.fulfillment.dto.BatchOperationResult;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryCheckResponse;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
+import com.exalt.warehousing.fulfillment.enums.InventoryStatus;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.sourcing.InventoryReadModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ingests small batches against stubbed persistence and inventory and checks the per-order results.
+ */
+class OrderIngestionServiceImplTest {
+
+    private final FulfillmentOrderRepository orderRepository = mock(FulfillmentOrderRepository.class);
+    private final InventoryReadModel inventoryReadModel = mock(InventoryReadModel.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final AsyncInventoryClient inventoryClient = mock(AsyncInventoryClient.class);
+
+    @SuppressWarnings("unchecked")
+    private final OrderIngestionServiceImpl service = new OrderIngestionServiceImpl(orderRepository,
+            inventoryClient, inventoryReadModel, mock(KafkaTemplate.class), mock(Validator.class),
+            mock(PlatformTransactionManager.class), 500);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        when(inventoryReadModel.getAvailability(any()))
+                .thenReturn(Optional.of(Map.of("SKU-1", Map.of(UUID.randomUUID(), 5))));
+    }
+
+    @Test
+    void missingExternalOrderIdIsRejectedAsMissingNotDuplicate() {
+        BatchOperationResult result = service.createFulfillmentOrders(List.of(
+                order(null, "NO-1", 1), order(null, "NO-2", 1)));
+
+        assertEquals(0, result.getSuccessful());
+        result.getResults().forEach(order -> assertEquals("External order ID is required", order.getError()));
+    }
+
+    @Test
+    void repeatedOrExistingKeysAreRejected() {
+        when(orderRepository.findExistingOrderNumbers(any())).thenReturn(List.of("NO-3"));
+
+        BatchOperationResult result = service.createFulfillmentOrders(List.of(
+                order("EXT-1", "NO-1", 1), order("EXT-1", "NO-2", 1), order("EXT-3", "NO-3", 1)));
+
+        assertEquals(1, result.getSuccessful());
+        assertEquals("PARTIAL", result.getStatus());
+        assertNull(result.getResults().get(0).getError());
+        assertEquals("Duplicate external order ID EXT-1", result.getResults().get(1).getError());
+        assertEquals("Duplicate order number NO-3", result.getResults().get(2).getError());
+    }
+
+    @Test
+    void availableStockIsHandedOutInRequestOrder() {
+        BatchOperationResult result = service.createFulfillmentOrders(List.of(
+                order("EXT-1", "NO-1", 3), order("EXT-2", "NO-2", 3), order("EXT-3", "NO-3", 2)));
+
+        assertEquals(InventoryStatus.AVAILABLE, result.getResults().get(0).getInventoryStatus());
+        assertEquals(InventoryStatus.UNAVAILABLE, result.getResults().get(1).getInventoryStatus());
+        assertEquals(InventoryStatus.AVAILABLE, result.getResults().get(2).getInventoryStatus());
+    }
+
+    @Test
+    void staleReadModelFallsBackToOneInventoryCheck() {
+        InventoryCheckResponse.InventoryItemAvailabilityDTO stock = new InventoryCheckResponse.InventoryItemAvailabilityDTO();
+        stock.setSku("SKU-1");
+        stock.setAvailableQuantity(2);
+        InventoryCheckResponse response = new InventoryCheckResponse();
+        response.setItems(List.of(stock));
+        when(inventoryReadModel.getAvailability(any())).thenReturn(Optional.empty());
+        when(inventoryClient.checkInventoryAvailabilityAsync(any())).thenReturn(CompletableFuture.completedFuture(response));
+
+        BatchOperationResult result = service.createFulfillmentOrders(List.of(
+                order("EXT-1", "NO-1", 2), order("EXT-2", "NO-2", 1)));
+
+        assertEquals(InventoryStatus.AVAILABLE, result.getResults().get(0).getInventoryStatus());
+        assertEquals(InventoryStatus.UNAVAILABLE, result.getResults().get(1).getInventoryStatus());
+        verify(inventoryClient, times(1)).checkInventoryAvailabilityAsync(any());
+    }
+
+    @Test
+    void unreachableInventoryLeavesStatusPending() {
+        when(inventoryReadModel.getAvailability(any())).thenReturn(Optional.empty());
+        when(inventoryClient.checkInventoryAvailabilityAsync(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection refused")));
+
+        BatchOperationResult result = service.createFulfillmentOrders(List.of(order("EXT-1", "NO-1", 1)));
+
+        assertEquals(1, result.getSuccessful());
+        assertEquals(InventoryStatus.PENDING, result.getResults().get(0).getInventoryStatus());
+    }
+
+    @Test
+    void failedChunkIsRetriedOrderByOrder() {
+        doThrow(new PersistenceException("constraint violated")).when(entityManager).flush();
+        when(orderRepository.save(any())).thenAnswer(invocation -> {
+            FulfillmentOrder order = invocation.getArgument(0);
+            if ("EXT-2".equals(order.getExternalOrderId())) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return order;
+        });
+
+        BatchOperationResult result = service.createFulfillmentOrders(List.of(
+                order("EXT-1", "NO-1", 1), order("EXT-2", "NO-2", 1)));
+
+        assertEquals(1, result.getSuccessful());
+        assertNull(result.getResults().get(0).getError());
+        assertEquals("Failed to save order: duplicate key", result.getResults().get(1).getError());
+    }
+
+    private FulfillmentOrder order(String externalOrderId, String orderNumber, int quantity) {
+        FulfillmentOrderItem item = new FulfillmentOrderItem();
+        item.setSku("SKU-1");
+        item.setProductId(UUID.randomUUID().toString());
+        item.setQuantity(quantity);
+
+        FulfillmentOrder order = new FulfillmentOrder();
+        order.setExternalOrderId(externalOrderId);
+        order.setOrderNumber(orderNumber);
+        order.setOrderItems(new ArrayList<>(List.of(item)));
+        return order;
+    }
+}
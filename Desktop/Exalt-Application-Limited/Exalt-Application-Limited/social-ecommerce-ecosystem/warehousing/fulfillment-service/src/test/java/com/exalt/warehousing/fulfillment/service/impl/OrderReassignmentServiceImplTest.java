@@ -0,0 +1,152 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.ReassignmentJobDTO;
+import com.exalt.warehousing.fulfillment.dto.SourcingRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.WarehouseLocationDTO;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrderItem;
+import com.exalt.warehousing.fulfillment.entity.OrderReassignmentJob;
+import com.exalt.warehousing.fulfillment.enums.ReassignmentJobStatus;
+import com.exalt.warehousing.fulfillment.index.ActiveOrderIndex;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.OrderReassignmentJobRepository;
+import com.exalt.warehousing.fulfillment.sourcing.AvailabilityMatrixCache;
+import com.exalt.warehousing.fulfillment.sourcing.SourcingLedger;
+import com.exalt.warehousing.fulfillment.sourcing.WarehouseCapacityModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs a warehouse-offline job whose chunks reach sourcing at the same time
+ * and checks they do not promise the same stock twice.
+ */
+class OrderReassignmentServiceImplTest {
+
+    private static final UUID OFFLINE = new UUID(9, 0);
+    private static final UUID FIRST_CHOICE = new UUID(1, 0);
+    private static final UUID SECOND_CHOICE = new UUID(2, 0);
+
+    private final FulfillmentOrderRepository orderRepository = mock(FulfillmentOrderRepository.class);
+    private final OrderReassignmentJobRepository jobRepository = mock(OrderReassignmentJobRepository.class);
+    private final AvailabilityMatrixCache availabilityCache = mock(AvailabilityMatrixCache.class);
+    private final WarehouseCapacityModel capacityModel = mock(WarehouseCapacityModel.class);
+    private final Map<String, Long> movedTo = new ConcurrentHashMap<>();
+    private final AtomicReference<OrderReassignmentJob> job = new AtomicReference<>();
+
+    private final WarehouseSourcingServiceImpl sourcingService = new WarehouseSourcingServiceImpl(availabilityCache,
+            capacityModel, 1.0, 2.0, 10.0, 10.0, new BigDecimal("5.00"), new BigDecimal("0.01"), 50, 200_000);
+
+    // One order per chunk, two chunks in parallel
+    private final OrderReassignmentServiceImpl service = new OrderReassignmentServiceImpl(orderRepository,
+            jobRepository, sourcingService, mock(ActiveOrderIndex.class), mock(ApplicationEventPublisher.class),
+            mock(PlatformTransactionManager.class), 1, 2);
+
+    @BeforeEach
+    void setUp() {
+        // Both warehouses score the same, so without a shared ledger both chunks pick the first
+        when(availabilityCache.getActiveWarehouses()).thenReturn(List.of(warehouse(FIRST_CHOICE), warehouse(SECOND_CHOICE)));
+        when(availabilityCache.getAvailability(any())).thenReturn(Map.of("SKU-1", Map.of(FIRST_CHOICE, 10, SECOND_CHOICE, 10)));
+        when(capacityModel.getCapacity()).thenReturn(Map.of());
+
+        when(jobRepository.save(any())).thenAnswer(invocation -> {
+            job.set(invocation.getArgument(0));
+            return job.get();
+        });
+        when(jobRepository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(job.get()));
+        when(orderRepository.findIdsByWarehouseIdAndStatusIn(eq(9L), any())).thenReturn(List.of("O1", "O2"));
+
+        // Hold each chunk until the other has also read its orders
+        Map<String, FulfillmentOrder> orders = Map.of("O1", orderNeedingSix("O1"), "O2", orderNeedingSix("O2"));
+        CyclicBarrier bothChunksLoaded = new CyclicBarrier(2);
+        when(orderRepository.findWithItemsByIdIn(any())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            bothChunksLoaded.await(5, TimeUnit.SECONDS);
+            return ids.stream().map(orders::get).collect(Collectors.toList());
+        });
+        when(orderRepository.reassignWarehouse(any(), eq(9L), any(), any(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    Collection<String> ids = invocation.getArgument(0);
+                    ids.forEach(id -> movedTo.put(id, invocation.getArgument(2)));
+                    return ids.size();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void parallelChunksCompetingForStockAreSentToDifferentWarehouses() {
+        ReassignmentJobDTO result = service.reassignFromWarehouse(OFFLINE);
+
+        // Each warehouse holds 10 units, so only one six-unit order fits in either
+        assertEquals(ReassignmentJobStatus.COMPLETED, result.getStatus());
+        assertEquals(Set.of("O1", "O2"), movedTo.keySet());
+        assertEquals(Set.of(1L, 2L), new HashSet<>(movedTo.values()));
+    }
+
+    @Test
+    void ledgerKeepsPromisedStockAcrossDecisions() {
+        SourcingLedger ledger = sourcingService.newLedger();
+        Map<String, UUID> first = sourcingService.sourceWarehouses(List.of(request("O1")), OFFLINE, ledger);
+        Map<String, UUID> second = sourcingService.sourceWarehouses(List.of(request("O2")), OFFLINE, ledger);
+        Map<String, UUID> third = sourcingService.sourceWarehouses(List.of(request("O3")), OFFLINE, ledger);
+
+        assertEquals(Map.of("O1", FIRST_CHOICE), first);
+        assertEquals(Map.of("O2", SECOND_CHOICE), second);
+        assertEquals(Map.of(), third);
+    }
+
+    private SourcingRequest request(String orderId) {
+        return SourcingRequest.builder()
+                .orderId(orderId)
+                .demand(Map.of("SKU-1", 6))
+                .build();
+    }
+
+    private FulfillmentOrder orderNeedingSix(String id) {
+        FulfillmentOrderItem item = new FulfillmentOrderItem();
+        item.setSku("SKU-1");
+        item.setQuantity(6);
+        item.setQuantityFulfilled(0);
+
+        FulfillmentOrder order = mock(FulfillmentOrder.class);
+        when(order.getId()).thenReturn(id);
+        when(order.getItems()).thenReturn(List.of(item));
+        return order;
+    }
+
+    private WarehouseLocationDTO warehouse(UUID id) {
+        return WarehouseLocationDTO.builder()
+                .id(id)
+                .name("WH-" + id.getMostSignificantBits())
+                .country("US")
+                .isActive(true)
+                .build();
+    }
+}
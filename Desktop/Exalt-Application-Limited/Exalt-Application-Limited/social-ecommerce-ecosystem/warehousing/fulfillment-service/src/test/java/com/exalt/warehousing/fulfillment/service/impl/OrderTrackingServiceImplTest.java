@@ -0,0 +1,126 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.OrderTrackingResponse;
+import com.exalt.warehousing.fulfillment.dto.ShipmentPackageDTO;
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.OrderTracking;
+import com.exalt.warehousing.fulfillment.entity.OrderTrackingNumber;
+import com.exalt.warehousing.fulfillment.entity.ShipmentPackage;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.enums.ShipmentStatus;
+import com.exalt.warehousing.fulfillment.exception.ResourceNotFoundException;
+import com.exalt.warehousing.fulfillment.mapper.manual.ShipmentPackageManualMapper;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.OrderTrackingNumberRepository;
+import com.exalt.warehousing.fulfillment.repository.OrderTrackingRepository;
+import com.exalt.warehousing.fulfillment.repository.ShipmentPackageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Projects orders from stubbed repositories and answers lookups from the projected rows.
+ */
+class OrderTrackingServiceImplTest {
+
+    private static final String ORDER_ID = UUID.randomUUID().toString();
+    private static final LocalDateTime ORDERED = LocalDateTime.of(2024, 3, 4, 9, 0);
+
+    private final OrderTrackingRepository trackingRepository = mock(OrderTrackingRepository.class);
+    private final OrderTrackingNumberRepository trackingNumberRepository = mock(OrderTrackingNumberRepository.class);
+    private final FulfillmentOrderRepository fulfillmentOrderRepository = mock(FulfillmentOrderRepository.class);
+    private final ShipmentPackageRepository shipmentPackageRepository = mock(ShipmentPackageRepository.class);
+
+    private final OrderTrackingServiceImpl service = new OrderTrackingServiceImpl(trackingRepository,
+            trackingNumberRepository, fulfillmentOrderRepository, shipmentPackageRepository,
+            new ShipmentPackageManualMapper(), new ObjectMapper().findAndRegisterModules(),
+            mock(PlatformTransactionManager.class));
+
+    @Test
+    void lookupsAreAnsweredFromTheProjectedRow() {
+        FulfillmentOrder order = mock(FulfillmentOrder.class);
+        when(order.getId()).thenReturn(ORDER_ID);
+        when(order.getOrderNumber()).thenReturn("FO-1");
+        when(order.getStatus()).thenReturn(FulfillmentStatus.SHIPPED);
+        when(order.getOrderDate()).thenReturn(ORDERED);
+        when(fulfillmentOrderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(shipmentPackageRepository.findByFulfillmentOrderId(UUID.fromString(ORDER_ID))).thenReturn(List.of(
+                ShipmentPackage.builder()
+                        .fulfillmentOrderId(UUID.fromString(ORDER_ID))
+                        .status(ShipmentStatus.SHIPPED)
+                        .carrier("UPS")
+                        .trackingNumber("1z999")
+                        .shippedAt(ORDERED.plusDays(1))
+                        .build()));
+
+        service.project(List.of(ORDER_ID));
+
+        ArgumentCaptor<OrderTracking> row = ArgumentCaptor.forClass(OrderTracking.class);
+        verify(trackingRepository).save(row.capture());
+        verify(trackingNumberRepository).saveAll(List.of(new OrderTrackingNumber("1Z999", ORDER_ID)));
+        when(trackingRepository.findById(ORDER_ID)).thenReturn(Optional.of(row.getValue()));
+        when(trackingNumberRepository.findByTrackingNumber("1Z999")).thenReturn(List.of(new OrderTrackingNumber("1Z999", ORDER_ID)));
+
+        ShipmentPackageDTO shipment = service.getShipmentByTrackingNumber(" 1Z999 ");
+        OrderTrackingResponse tracking = service.getOrderTrackingByTrackingNumber("1z999");
+
+        assertEquals("UPS", shipment.getCarrier());
+        assertEquals("SHIPPED", tracking.getStatus());
+        assertEquals("1z999", tracking.getTrackingNumber());
+        assertEquals(List.of("RECEIVED", "SHIPPED"), tracking.getEvents().stream()
+                .map(OrderTrackingResponse.TrackingEvent::getStatus)
+                .toList());
+        verify(shipmentPackageRepository, never()).findByTrackingNumber(any());
+    }
+
+    @Test
+    void orderWithoutARowIsAnsweredWithoutWriting() {
+        FulfillmentOrder order = mock(FulfillmentOrder.class);
+        when(order.getId()).thenReturn(ORDER_ID);
+        when(order.getStatus()).thenReturn(FulfillmentStatus.PROCESSING);
+        when(order.getOrderDate()).thenReturn(ORDERED);
+        when(trackingRepository.findById(ORDER_ID)).thenReturn(Optional.empty());
+        when(fulfillmentOrderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+
+        OrderTrackingResponse tracking = service.getOrderTracking(ORDER_ID);
+
+        assertEquals("PROCESSING", tracking.getStatus());
+        // Rows are only written by the projector
+        verify(trackingRepository, never()).save(any());
+        verify(trackingNumberRepository, never()).saveAll(any());
+        verify(trackingNumberRepository, never()).deleteByFulfillmentOrderId(any());
+    }
+
+    @Test
+    void removedOrderLosesItsRow() {
+        when(fulfillmentOrderRepository.findById(ORDER_ID)).thenReturn(Optional.empty());
+
+        service.project(List.of(ORDER_ID));
+
+        verify(trackingNumberRepository).deleteByFulfillmentOrderId(ORDER_ID);
+        verify(trackingRepository).deleteById(ORDER_ID);
+        verify(trackingRepository, never()).save(any());
+    }
+
+    @Test
+    void unknownTrackingNumberIsNotFound() {
+        when(trackingNumberRepository.findByTrackingNumber("NOPE")).thenReturn(List.of());
+        when(shipmentPackageRepository.findByTrackingNumber("nope")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getOrderTrackingByTrackingNumber("nope"));
+    }
+}
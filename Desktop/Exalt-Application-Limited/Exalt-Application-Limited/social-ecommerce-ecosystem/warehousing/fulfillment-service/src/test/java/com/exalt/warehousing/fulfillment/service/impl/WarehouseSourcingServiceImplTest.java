@@ -0,0 +1,125 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.dto.SourcingCandidate;
+import com.exalt.warehousing.fulfillment.dto.SourcingRequest;
+import com.exalt.warehousing.fulfillment.dto.inventory.WarehouseLocationDTO;
+import com.exalt.warehousing.fulfillment.entity.Address;
+import com.exalt.warehousing.fulfillment.sourcing.AvailabilityMatrixCache;
+import com.exalt.warehousing.fulfillment.sourcing.WarehouseCapacity;
+import com.exalt.warehousing.fulfillment.sourcing.WarehouseCapacityModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ranks a fixed set of warehouses whose scores can be worked out by hand.
+ */
+class WarehouseSourcingServiceImplTest {
+
+    // Warehouse keys on orders are the UUID's most significant bits, so these map to keys 1 to 6
+    private static final UUID NEAR = new UUID(1, 0);
+    private static final UUID SAME_STATE = new UUID(2, 0);
+    private static final UUID ABROAD = new UUID(3, 0);
+    private static final UUID CURRENT = new UUID(4, 0);
+    private static final UUID INACTIVE = new UUID(5, 0);
+    private static final UUID NO_STOCK = new UUID(6, 0);
+
+    private static final Address DESTINATION = Address.builder()
+            .country("US").state("CA").postalCode("94105").build();
+
+    private final AvailabilityMatrixCache availabilityCache = mock(AvailabilityMatrixCache.class);
+    private final WarehouseCapacityModel capacityModel = mock(WarehouseCapacityModel.class);
+
+    // Weights: distance 1, backlog 2, drain hours 10, shipping cost 10; shipping costs 5.00 plus 0.01 per km
+    private final WarehouseSourcingServiceImpl service = new WarehouseSourcingServiceImpl(availabilityCache,
+            capacityModel, 1.0, 2.0, 10.0, 10.0, new BigDecimal("5.00"), new BigDecimal("0.01"), 50, 200_000);
+
+    @BeforeEach
+    void setUp() {
+        when(availabilityCache.getActiveWarehouses()).thenReturn(List.of(
+                warehouse(ABROAD, "MX", "JA", "44100", true),
+                warehouse(SAME_STATE, "US", "CA", "90001", true),
+                warehouse(NEAR, "US", "CA", "94107", true),
+                warehouse(CURRENT, "US", "CA", "94105", true),
+                warehouse(INACTIVE, "US", "CA", "94105", false),
+                warehouse(NO_STOCK, "US", "CA", "94105", true)));
+        when(availabilityCache.getAvailability(any())).thenReturn(Map.of("SKU-1", Map.of(
+                NEAR, 10, SAME_STATE, 10, ABROAD, 10, CURRENT, 10, INACTIVE, 10, NO_STOCK, 1)));
+        when(capacityModel.getCapacity()).thenReturn(Map.of());
+    }
+
+    @Test
+    void idleWarehousesAreRankedByDistanceAndShippingCost() {
+        List<SourcingCandidate> ranked = service.rankWarehouses(Map.of("SKU-1", 5), DESTINATION, CURRENT);
+
+        assertEquals(List.of(NEAR, SAME_STATE, ABROAD), ids(ranked));
+        // 50 km + 10 x 5.50; 300 km + 10 x 8.00; 5000 km + 10 x 55.00
+        assertEquals(105.0, ranked.get(0).getScore(), 1e-9);
+        assertEquals(380.0, ranked.get(1).getScore(), 1e-9);
+        assertEquals(5550.0, ranked.get(2).getScore(), 1e-9);
+    }
+
+    @Test
+    void backlogCanOutweighDistance() {
+        // 200 orders waiting add 400 to the nearest warehouse's score
+        when(capacityModel.getCapacity()).thenReturn(Map.of(1L, new WarehouseCapacity(1L, 200, 200, 200, 0, 0, 0)));
+
+        List<SourcingCandidate> ranked = service.rankWarehouses(Map.of("SKU-1", 5), DESTINATION, CURRENT);
+
+        assertEquals(List.of(SAME_STATE, NEAR, ABROAD), ids(ranked));
+        assertEquals(505.0, ranked.get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    void saturatedWarehousesOnlyTakeWhatNoOtherCanFill() {
+        when(capacityModel.isSaturated(argThat(capacity -> capacity.warehouseId() == 1L))).thenReturn(true);
+
+        assertEquals(List.of(SAME_STATE, ABROAD),
+                ids(service.rankWarehouses(Map.of("SKU-1", 5), DESTINATION, CURRENT)));
+
+        when(availabilityCache.getAvailability(any())).thenReturn(Map.of("SKU-1", Map.of(NEAR, 10)));
+        assertEquals(List.of(NEAR), ids(service.rankWarehouses(Map.of("SKU-1", 5), DESTINATION, CURRENT)));
+    }
+
+    @Test
+    void batchDecisionsSeeTheStockTakenBeforeThem() {
+        Map<String, UUID> chosen = service.sourceWarehouses(List.of(
+                request("FIRST"), request("SECOND"), request("THIRD")), CURRENT);
+
+        assertEquals(Map.of("FIRST", NEAR, "SECOND", SAME_STATE, "THIRD", ABROAD), chosen);
+    }
+
+    private SourcingRequest request(String orderId) {
+        return SourcingRequest.builder()
+                .orderId(orderId)
+                .demand(Map.of("SKU-1", 6))
+                .destination(DESTINATION)
+                .build();
+    }
+
+    private WarehouseLocationDTO warehouse(UUID id, String country, String state, String postalCode, boolean active) {
+        return WarehouseLocationDTO.builder()
+                .id(id)
+                .name("WH-" + id.getMostSignificantBits())
+                .country(country)
+                .stateProvince(state)
+                .postalCode(postalCode)
+                .isActive(active)
+                .build();
+    }
+
+    private List<UUID> ids(List<SourcingCandidate> candidates) {
+        return candidates.stream().map(SourcingCandidate::getWarehouseId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,79 @@
+package com.exalt.warehousing.fulfillment.service.impl;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import com.exalt.warehousing.fulfillment.entity.PickingTask;
+import com.exalt.warehousing.fulfillment.enums.FulfillmentStatus;
+import com.exalt.warehousing.fulfillment.enums.Priority;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderItemRepository;
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.PickingTaskRepository;
+import com.exalt.warehousing.fulfillment.wave.WavePlanner;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the priority written to wave picking tasks to the ordinal used by other
+ * picking tasks, and releases waves against stubbed repositories.
+ */
+class WavePlanningServiceImplTest {
+
+    private static final String FREE = UUID.randomUUID().toString();
+    private static final String TAKEN = UUID.randomUUID().toString();
+
+    private final FulfillmentOrderRepository orderRepository = mock(FulfillmentOrderRepository.class);
+    private final FulfillmentOrderItemRepository itemRepository = mock(FulfillmentOrderItemRepository.class);
+    private final PickingTaskRepository pickingTaskRepository = mock(PickingTaskRepository.class);
+
+    private final WavePlanningServiceImpl service = new WavePlanningServiceImpl(new WavePlanner(50, 10, 100, 60),
+            orderRepository, itemRepository, pickingTaskRepository);
+
+    @Test
+    void wavePickingTasksCarryThePriorityOrdinal() {
+        for (Priority priority : Priority.values()) {
+            assertEquals(priority.ordinal(), WavePlanningServiceImpl.taskPriority(priority.getLevel()));
+        }
+        assertEquals(0, WavePlanningServiceImpl.taskPriority(Priority.CRITICAL.getLevel()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ordersReleasedByAnotherCallWhileWaitingForTheLockGetNoTasks() {
+        LocalDateTime orderDate = LocalDateTime.now().minusHours(1);
+        when(orderRepository.findWaveCandidates(1L)).thenReturn(List.of(
+                new Object[] {FREE, 1L, "UPS", null, Priority.STANDARD, orderDate},
+                new Object[] {TAKEN, 1L, "UPS", null, Priority.STANDARD, orderDate}));
+        when(itemRepository.summarizeWaveCandidateZones(1L)).thenReturn(List.of(
+                new Object[] {FREE, "A", 2, 4L},
+                new Object[] {TAKEN, "A", 1, 1L}));
+        // Read as candidates, but moved to picking by a concurrent release before the lock was granted
+        List<FulfillmentOrder> locked = List.of(order(FREE, FulfillmentStatus.ALLOCATED),
+                order(TAKEN, FulfillmentStatus.PICKING));
+        when(orderRepository.lockAllById(any())).thenReturn(locked);
+
+        service.releaseWaves(1L, 1);
+
+        verify(orderRepository, never()).findAllById(any());
+        ArgumentCaptor<List<PickingTask>> tasks = ArgumentCaptor.forClass(List.class);
+        verify(pickingTaskRepository).saveAll(tasks.capture());
+        assertEquals(1, tasks.getValue().size());
+        assertEquals(UUID.fromString(FREE), tasks.getValue().get(0).getFulfillmentOrderId());
+    }
+
+    private FulfillmentOrder order(String id, FulfillmentStatus status) {
+        FulfillmentOrder order = mock(FulfillmentOrder.class);
+        when(order.getId()).thenReturn(id);
+        when(order.getStatus()).thenReturn(status);
+        return order;
+    }
+}
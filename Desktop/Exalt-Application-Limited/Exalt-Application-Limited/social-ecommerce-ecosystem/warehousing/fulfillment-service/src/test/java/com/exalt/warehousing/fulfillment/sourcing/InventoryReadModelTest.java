@@ -0,0 +1,149 @@
+package com.exalt.warehousing.fulfillment.sourcing;
+
+import com.exalt.warehousing.fulfillment.client.InventoryClient;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryChangeDTO;
+import com.exalt.warehousing.fulfillment.dto.inventory.InventoryChangeFeedDTO;
+import com.exalt.warehousing.fulfillment.dto.inventory.SkuAvailability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Feeds the read model from a stubbed change feed and availability matrix.
+ */
+class InventoryReadModelTest {
+
+    private static final UUID WAREHOUSE = UUID.randomUUID();
+
+    private final InventoryClient inventoryClient = mock(InventoryClient.class);
+    private InventoryReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        readModel = new InventoryReadModel(inventoryClient, true, 60, 1000, 100);
+        when(inventoryClient.getInventoryChanges(0, 1)).thenReturn(page(List.of(), 10L, false));
+        readModel.sync();
+    }
+
+    @Test
+    void staleModelAnswersNothing() {
+        InventoryReadModel stale = new InventoryReadModel(inventoryClient, true, 60, 1000, 100);
+
+        assertTrue(stale.getAvailability(List.of("SKU-1")).isEmpty());
+    }
+
+    @Test
+    void seedsOnceThenAppliesFeedChanges() {
+        when(inventoryClient.getAvailabilityMatrix(anyCollection()))
+                .thenReturn(List.of(new SkuAvailability("SKU-1", WAREHOUSE, 50)));
+
+        assertEquals(50, available("SKU-1"));
+
+        // A first change of an allocation makes the residual unreliable, so the SKU is seeded again
+        when(inventoryClient.getInventoryChanges(10L, 100))
+                .thenReturn(page(List.of(allocationChange("alloc-1", "SKU-1", 20)), 11L, false));
+        readModel.sync();
+        when(inventoryClient.getAvailabilityMatrix(anyCollection()))
+                .thenReturn(List.of(new SkuAvailability("SKU-1", WAREHOUSE, 45)));
+        assertEquals(45, available("SKU-1"));
+
+        when(inventoryClient.getInventoryChanges(11L, 100))
+                .thenReturn(page(List.of(allocationChange("alloc-1", "SKU-1", 5)), 12L, false));
+        readModel.sync();
+
+        assertEquals(30, available("SKU-1"));
+        verify(inventoryClient, times(2)).getAvailabilityMatrix(anyCollection());
+    }
+
+    @Test
+    void promisedQuantityIsHeldUntilTheNextChange() {
+        when(inventoryClient.getAvailabilityMatrix(anyCollection())).thenReturn(List.of());
+        when(inventoryClient.getInventoryChanges(10L, 100))
+                .thenReturn(page(List.of(allocationChange("alloc-1", "SKU-1", 20)), 11L, false));
+        readModel.sync();
+        assertEquals(20, available("SKU-1"));
+
+        readModel.consume("SKU-1", WAREHOUSE, 8);
+        assertEquals(12, available("SKU-1"));
+
+        when(inventoryClient.getInventoryChanges(11L, 100))
+                .thenReturn(page(List.of(allocationChange("alloc-1", "SKU-1", 12)), 12L, false));
+        readModel.sync();
+        assertEquals(12, available("SKU-1"));
+    }
+
+    @Test
+    void reservationAgainstAnUnchangedAllocationReducesAvailability() {
+        // Two allocations of SKU-1 hold 30 and 20 in the same warehouse
+        when(inventoryClient.getAvailabilityMatrix(anyCollection()))
+                .thenReturn(List.of(new SkuAvailability("SKU-1", WAREHOUSE, 50)));
+        assertEquals(50, available("SKU-1"));
+
+        // Reserving 8 from the first allocation is reported as that allocation's new state
+        when(inventoryClient.getInventoryChanges(10L, 100))
+                .thenReturn(page(List.of(allocationChange("alloc-1", "SKU-1", 22)), 11L, false));
+        readModel.sync();
+        when(inventoryClient.getAvailabilityMatrix(anyCollection()))
+                .thenReturn(List.of(new SkuAvailability("SKU-1", WAREHOUSE, 42)));
+        assertEquals(42, available("SKU-1"));
+
+        when(inventoryClient.getInventoryChanges(11L, 100))
+                .thenReturn(page(List.of(allocationChange("alloc-1", "SKU-1", 17)), 12L, false));
+        readModel.sync();
+        assertEquals(37, available("SKU-1"));
+    }
+
+    @Test
+    void itemChangesDoNotOverrideAllocationStock() {
+        when(inventoryClient.getAvailabilityMatrix(anyCollection()))
+                .thenReturn(List.of(new SkuAvailability("SKU-1", WAREHOUSE, 50)));
+        assertEquals(50, available("SKU-1"));
+
+        InventoryChangeDTO itemChange = allocationChange("item-1", "SKU-1", 500);
+        itemChange.setEntityType(InventoryChangeDTO.ITEM);
+        when(inventoryClient.getInventoryChanges(10L, 100))
+                .thenReturn(page(List.of(itemChange), 11L, false));
+        readModel.sync();
+
+        assertEquals(50, available("SKU-1"));
+        verify(inventoryClient, times(1)).getAvailabilityMatrix(anyCollection());
+    }
+
+    private int available(String sku) {
+        Map<String, Map<UUID, Integer>> availability = readModel.getAvailability(List.of(sku)).orElseThrow();
+        return availability.get(sku).getOrDefault(WAREHOUSE, 0);
+    }
+
+    private static InventoryChangeFeedDTO page(List<InventoryChangeDTO> changes, long next, boolean hasMore) {
+        return InventoryChangeFeedDTO.builder()
+                .changes(changes)
+                .nextSequence(next)
+                .headSequence(next)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private static InventoryChangeDTO allocationChange(String allocationId, String sku, int available) {
+        return InventoryChangeDTO.builder()
+                .entityType(InventoryChangeDTO.ALLOCATION)
+                .changeType("UPSERT")
+                .entityId(allocationId)
+                .inventoryItemId("item-1")
+                .sku(sku)
+                .warehouseId(WAREHOUSE.toString())
+                .availableQuantity(BigDecimal.valueOf(available))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.exalt.warehousing.fulfillment.sourcing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Splits small demands whose best split is known and checks the search budget.
+ */
+class SplitOptimizerTest {
+
+    private final SplitOptimizer optimizer = new SplitOptimizer(1000, 1_000_000);
+
+    @Test
+    void prefersFewerShipmentsOverCheaperOnes() {
+        UUID cheapA = UUID.randomUUID();
+        UUID cheapB = UUID.randomUUID();
+        UUID pricey = UUID.randomUUID();
+        Map<String, Integer> demand = Map.of("SKU-1", 2, "SKU-2", 3);
+
+        SplitOptimizer.Split split = optimizer.optimize(demand, List.of(
+                new SplitOptimizer.Candidate(cheapA, 1.0, Map.of("SKU-1", 2)),
+                new SplitOptimizer.Candidate(cheapB, 1.0, Map.of("SKU-2", 3)),
+                new SplitOptimizer.Candidate(pricey, 5.0, Map.of("SKU-1", 2, "SKU-2", 3))))
+                .orElseThrow();
+
+        assertEquals(Map.of(pricey, Map.of("SKU-1", 2, "SKU-2", 3)), split.allocation());
+        assertTrue(split.optimal());
+    }
+
+    @Test
+    void picksTheCheapestSplitOfTheSameSize() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        Map<String, Integer> demand = Map.of("SKU-1", 4, "SKU-2", 1);
+
+        SplitOptimizer.Split split = optimizer.optimize(demand, List.of(
+                new SplitOptimizer.Candidate(a, 3.0, Map.of("SKU-1", 4)),
+                new SplitOptimizer.Candidate(b, 2.0, Map.of("SKU-1", 1, "SKU-2", 1)),
+                new SplitOptimizer.Candidate(c, 1.0, Map.of("SKU-1", 3))))
+                .orElseThrow();
+
+        assertEquals(Map.of(c, Map.of("SKU-1", 3), b, Map.of("SKU-1", 1, "SKU-2", 1)), split.allocation());
+    }
+
+    @Test
+    void returnsNothingWhenStockFallsShort() {
+        Optional<SplitOptimizer.Split> split = optimizer.optimize(Map.of("SKU-1", 5), List.of(
+                new SplitOptimizer.Candidate(UUID.randomUUID(), 1.0, Map.of("SKU-1", 2)),
+                new SplitOptimizer.Candidate(UUID.randomUUID(), 1.0, Map.of("SKU-1", 2))));
+
+        assertTrue(split.isEmpty());
+    }
+
+    @Test
+    void stopsAtTheNodeBudgetWithACompleteSplit() {
+        SplitOptimizer bounded = new SplitOptimizer(1000, 50);
+        Map<String, Integer> demand = new LinkedHashMap<>();
+        for (int s = 0; s < 40; s++) {
+            demand.put("SKU-" + s, 2);
+        }
+        List<SplitOptimizer.Candidate> candidates = new ArrayList<>();
+        for (int w = 0; w < 30; w++) {
+            Map<String, Integer> stock = new HashMap<>();
+            for (int s = w % 4; s < 40; s += 3) {
+                stock.put("SKU-" + s, 1);
+            }
+            candidates.add(new SplitOptimizer.Candidate(UUID.randomUUID(), w, stock));
+        }
+
+        SplitOptimizer.Split split = bounded.optimize(demand, candidates).orElseThrow();
+
+        assertFalse(split.optimal());
+        Map<String, Integer> shipped = new HashMap<>();
+        split.allocation().values().forEach(quantities -> quantities.forEach((sku, quantity) ->
+                shipped.merge(sku, quantity, Integer::sum)));
+        assertEquals(demand, shipped);
+    }
+}
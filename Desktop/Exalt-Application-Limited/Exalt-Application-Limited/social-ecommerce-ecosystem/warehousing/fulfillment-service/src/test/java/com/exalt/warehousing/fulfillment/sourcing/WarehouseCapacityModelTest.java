@@ -0,0 +1,83 @@
+package com.exalt.warehousing.fulfillment.sourcing;
+
+import com.exalt.warehousing.fulfillment.repository.FulfillmentOrderRepository;
+import com.exalt.warehousing.fulfillment.repository.PackingTaskRepository;
+import com.exalt.warehousing.fulfillment.repository.PickingTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Builds the capacity model from stubbed order counters and stage completions.
+ */
+class WarehouseCapacityModelTest {
+
+    private static final Long BUSY = 1L;
+    private static final Long QUIET = 2L;
+
+    private final FulfillmentOrderRepository orderRepository = mock(FulfillmentOrderRepository.class);
+    private final PickingTaskRepository pickingRepository = mock(PickingTaskRepository.class);
+    private final PackingTaskRepository packingRepository = mock(PackingTaskRepository.class);
+
+    // One hour window, at least 10 completions per stage, saturated past 8 hours
+    private final WarehouseCapacityModel model = new WarehouseCapacityModel(orderRepository, pickingRepository,
+            packingRepository, 60, 60, 10, 8);
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.sumOrderCountersByWarehouseAndStatus()).thenReturn(List.of(
+                new Object[] {BUSY, "ALLOCATED", 300L},
+                new Object[] {BUSY, "PACKING", 40L},
+                new Object[] {BUSY, "READY_TO_SHIP", 10L},
+                new Object[] {BUSY, "SHIPPED", 5000L},
+                new Object[] {QUIET, "RECEIVED", 20L}));
+        when(pickingRepository.countOrdersPickedByWarehouseSince(any())).thenReturn(List.of(
+                new Object[] {BUSY, 30L},
+                new Object[] {QUIET, 50L}));
+        when(packingRepository.countOrdersPackedByWarehouseSince(any())).thenReturn(List.<Object[]>of(
+                new Object[] {BUSY, 100L}));
+        when(orderRepository.countOrdersShippedByWarehouseSince(any())).thenReturn(List.<Object[]>of(
+                new Object[] {QUIET, 3L}));
+    }
+
+    @Test
+    void backlogOfAStageIncludesTheOrdersNotThroughEarlierStages() {
+        WarehouseCapacity busy = model.getCapacity(BUSY);
+
+        assertEquals(300, busy.pickBacklog());
+        assertEquals(340, busy.packBacklog());
+        assertEquals(350, busy.shipBacklog());
+    }
+
+    @Test
+    void slowestMeasuredStageDecidesSaturation() {
+        WarehouseCapacity busy = model.getCapacity(BUSY);
+        WarehouseCapacity quiet = model.getCapacity(QUIET);
+
+        // Picking clears 30 orders an hour against 300 waiting
+        assertEquals(10.0, busy.drainHours().getAsDouble(), 1e-9);
+        assertTrue(model.isSaturated(busy));
+        // Three shipments are too few to measure, so only picking counts
+        assertEquals(0.0, quiet.shipPerHour());
+        assertEquals(0.4, quiet.drainHours().getAsDouble(), 1e-9);
+        assertFalse(model.isSaturated(quiet));
+    }
+
+    @Test
+    void assignmentsCountUntilTheNextRefresh() {
+        model.recordAssignment(QUIET);
+        model.recordAssignment(3L);
+
+        assertEquals(21, model.getCapacity(QUIET).pickBacklog());
+        assertEquals(1, model.getCapacity(3L).shipBacklog());
+        assertTrue(model.getCapacity(3L).drainHours().isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package com.exalt.warehousing.fulfillment.util;
+
+import com.exalt.warehousing.fulfillment.entity.FulfillmentOrder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonAttributeMapTest {
+
+    @Test
+    void readingDoesNotWriteBack() {
+        List<String> written = new ArrayList<>();
+        Map<String, String> tags = JsonAttributeMap.read("{\"customerTier\":\"GOLD\"}", String.class, written::add);
+
+        assertEquals("GOLD", tags.get("customerTier"));
+        assertEquals(1, tags.size());
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    void changesAreWrittenBackAsJson() {
+        List<String> written = new ArrayList<>();
+        Map<String, Object> attributes = JsonAttributeMap.read("{\"gift\":true}", Object.class, written::add);
+
+        attributes.put("wrap", "red");
+        assertEquals("{\"gift\":true,\"wrap\":\"red\"}", written.get(written.size() - 1));
+
+        attributes.entrySet().removeIf(entry -> entry.getKey().equals("gift"));
+        assertEquals("{\"wrap\":\"red\"}", written.get(written.size() - 1));
+
+        attributes.clear();
+        assertNull(written.get(written.size() - 1));
+    }
+
+    @Test
+    void orderTagsKeepChangesMadeThroughTheView() {
+        FulfillmentOrder order = new FulfillmentOrder();
+        order.setTags(Map.of("customerTier", "GOLD"));
+        order.getTags().put("channel", "web");
+
+        FulfillmentOrder copy = new FulfillmentOrder();
+        copy.setTags(order.getTags());
+
+        assertEquals(Map.of("customerTier", "GOLD", "channel", "web"), copy.getTags());
+    }
+}
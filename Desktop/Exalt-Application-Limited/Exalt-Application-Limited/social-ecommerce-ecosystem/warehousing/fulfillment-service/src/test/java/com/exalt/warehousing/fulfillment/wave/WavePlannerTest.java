@@ -0,0 +1,100 @@
+package com.exalt.warehousing.fulfillment.wave;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Plans small candidate sets whose waves can be worked out by hand.
+ */
+class WavePlannerTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 3, 1, 10, 15);
+    private static final LocalDateTime ORDERED = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    // Five lines per picker, at most three zones and four orders per wave, hourly cutoff windows
+    private final WavePlanner planner = new WavePlanner(5, 3, 4, 60);
+
+    @Test
+    void ordersAreGroupedByWarehouseCarrierAndCutoffWindow() {
+        List<PlannedWave> waves = planner.plan(List.of(
+                candidate("A", 1L, "UPS", CUTOFF, 3, "Z1"),
+                candidate("B", 1L, "UPS", CUTOFF.plusMinutes(30), 3, "Z1"),
+                candidate("C", 1L, "UPS", CUTOFF.plusMinutes(50), 3, "Z1"),
+                candidate("D", 1L, "FEDEX", CUTOFF, 3, "Z1"),
+                candidate("E", 2L, "UPS", CUTOFF, 3, "Z1")), 2);
+
+        assertEquals(List.of(List.of("A", "B"), List.of("D"), List.of("E"), List.of("C")), orderIds(waves));
+    }
+
+    @Test
+    void mostUrgentOrderSeedsTheWaveAndCoveredZonesFillItFirst() {
+        List<PlannedWave> waves = planner.plan(List.of(
+                candidate("NEW_ZONE", 1L, "UPS", CUTOFF, 2, "Z1", "Z2"),
+                candidate("SAME_ZONE", 1L, "UPS", CUTOFF, 4, "Z1"),
+                candidate("URGENT", 1L, "UPS", CUTOFF, 1, "Z1")), 2);
+
+        assertEquals(List.of(List.of("URGENT", "SAME_ZONE", "NEW_ZONE")), orderIds(waves));
+        assertEquals(1, waves.get(0).getPriorityLevel());
+    }
+
+    @Test
+    void ordersSharingNoZoneStartTheirOwnWave() {
+        List<PlannedWave> waves = planner.plan(List.of(
+                candidate("A", 1L, "UPS", CUTOFF, 1, "Z1"),
+                candidate("B", 1L, "UPS", CUTOFF, 2, "Z2")), 2);
+
+        assertEquals(List.of(List.of("A"), List.of("B")), orderIds(waves));
+    }
+
+    @Test
+    void waveIsCappedAtThePickersLineCapacity() {
+        List<WaveCandidate> candidates = List.of(
+                candidate("A", 1L, "UPS", CUTOFF, 3, "Z1", "Z1", "Z1", "Z1"),
+                candidate("B", 1L, "UPS", CUTOFF, 3, "Z1", "Z1", "Z1", "Z1"),
+                candidate("C", 1L, "UPS", CUTOFF, 3, "Z1", "Z1", "Z1", "Z1"));
+
+        // One picker takes five lines, so every four-line order gets its own wave
+        assertEquals(3, planner.plan(candidates, 1).size());
+        // Two pickers take ten lines
+        assertEquals(List.of(List.of("A", "B"), List.of("C")), orderIds(planner.plan(candidates, 2)));
+    }
+
+    @Test
+    void wavesAreReleasedByCutoffThenPriority() {
+        List<PlannedWave> waves = planner.plan(List.of(
+                candidate("LATE_URGENT", 1L, "UPS", CUTOFF.plusHours(2), 1, "Z1"),
+                candidate("LOW", 1L, "DHL", CUTOFF, 4, "Z1"),
+                candidate("HIGH", 1L, "FEDEX", CUTOFF, 2, "Z1")), 2);
+
+        assertEquals(List.of(List.of("HIGH"), List.of("LOW"), List.of("LATE_URGENT")), orderIds(waves));
+    }
+
+    @Test
+    void planningNeedsAPicker() {
+        assertThrows(IllegalArgumentException.class, () -> planner.plan(List.of(), 0));
+    }
+
+    /**
+     * Candidate with one line and one unit per listed zone
+     */
+    private WaveCandidate candidate(String orderId, Long warehouseId, String carrier, LocalDateTime cutoff,
+                                    int priorityLevel, String... zones) {
+        WaveCandidate candidate = new WaveCandidate(orderId, warehouseId, carrier, cutoff, priorityLevel, ORDERED);
+        for (String zone : zones) {
+            candidate.addZoneLines(zone, 1, 1);
+        }
+        return candidate;
+    }
+
+    private List<List<String>> orderIds(List<PlannedWave> waves) {
+        return waves.stream()
+                .map(wave -> wave.getOrders().stream().map(WaveCandidate::getOrderId).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+}
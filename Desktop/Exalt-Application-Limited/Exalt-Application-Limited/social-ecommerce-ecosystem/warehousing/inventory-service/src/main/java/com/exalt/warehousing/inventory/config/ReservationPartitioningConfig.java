@@ -0,0 +1,112 @@
+package com.exalt.warehousing.inventory.config;
+
+import com.exalt.warehousing.inventory.partition.DiscoveryPartitionMembership;
+import com.exalt.warehousing.inventory.partition.HttpReservationForwarder;
+import com.exalt.warehousing.inventory.partition.JpaPartitionLeaseStore;
+import com.exalt.warehousing.inventory.partition.PartitionLeaseStore;
+import com.exalt.warehousing.inventory.partition.PartitionMembership;
+import com.exalt.warehousing.inventory.partition.ReservationForwarder;
+import com.exalt.warehousing.inventory.partition.ReservationPartitionCoordinator;
+import com.exalt.warehousing.inventory.partition.ReservationPartitionRebalancer;
+import com.exalt.warehousing.inventory.partition.SkuPartitioner;
+import com.exalt.warehousing.inventory.repository.ReservationPartitionLeaseRepository;
+import com.exalt.warehousing.inventory.service.impl.PartitionedReservationServiceImpl;
+import com.exalt.warehousing.inventory.service.impl.ReservationServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Configuration for SKU-partitioned reservation ownership.
+ *
+ * Enabled with {@code inventory.partitioning.enabled=true}. Each instance
+ * then owns a disjoint share of the reservation partitions and applies
+ * reservations for them on a single writer; other instances forward to it.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "inventory.partitioning", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReservationPartitioningConfig {
+
+    @Value("${spring.application.name}")
+    private String serviceId;
+
+    @Value("${inventory.partitioning.instance-id}")
+    private String instanceId;
+
+    @Value("${inventory.partitioning.partition-count:256}")
+    private int partitionCount;
+
+    @Value("${inventory.partitioning.virtual-nodes:64}")
+    private int virtualNodes;
+
+    @Value("${inventory.partitioning.lease-ttl-ms:15000}")
+    private long leaseTtlMillis;
+
+    @Value("${inventory.partitioning.drain-timeout-ms:10000}")
+    private long drainTimeoutMillis;
+
+    @Value("${inventory.partitioning.request-timeout-ms:5000}")
+    private long requestTimeoutMillis;
+
+    @Bean
+    public SkuPartitioner skuPartitioner() {
+        return new SkuPartitioner(partitionCount, virtualNodes);
+    }
+
+    @Bean
+    public PartitionMembership partitionMembership(DiscoveryClient discoveryClient) {
+        return new DiscoveryPartitionMembership(discoveryClient, serviceId, instanceId);
+    }
+
+    @Bean
+    public PartitionLeaseStore partitionLeaseStore(ReservationPartitionLeaseRepository leaseRepository) {
+        return new JpaPartitionLeaseStore(leaseRepository);
+    }
+
+    @Bean(destroyMethod = "releaseAll")
+    public ReservationPartitionCoordinator reservationPartitionCoordinator(SkuPartitioner partitioner,
+                                                                           PartitionMembership membership,
+                                                                           PartitionLeaseStore leaseStore) {
+        log.info("Reservation partitioning enabled for instance {} with {} partitions", instanceId, partitionCount);
+        return new ReservationPartitionCoordinator(partitioner, membership, leaseStore,
+                Duration.ofMillis(leaseTtlMillis),
+                Duration.ofMillis(drainTimeoutMillis),
+                Duration.ofMillis(requestTimeoutMillis));
+    }
+
+    @Bean
+    public ReservationForwarder reservationForwarder(RestTemplateBuilder restTemplateBuilder,
+                                                     SkuPartitioner partitioner) {
+        return new HttpReservationForwarder(restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(2))
+                .setReadTimeout(Duration.ofMillis(requestTimeoutMillis + 1000))
+                .build(), partitioner);
+    }
+
+    @Bean
+    @Primary
+    public PartitionedReservationServiceImpl partitionedReservationService(ReservationServiceImpl reservationService,
+                                                                           ReservationPartitionCoordinator coordinator,
+                                                                           ReservationForwarder forwarder,
+                                                                           PlatformTransactionManager transactionManager) {
+        return new PartitionedReservationServiceImpl(reservationService, coordinator, forwarder,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Bean
+    public ReservationPartitionRebalancer reservationPartitionRebalancer(ReservationPartitionCoordinator coordinator) {
+        return new ReservationPartitionRebalancer(coordinator);
+    }
+}
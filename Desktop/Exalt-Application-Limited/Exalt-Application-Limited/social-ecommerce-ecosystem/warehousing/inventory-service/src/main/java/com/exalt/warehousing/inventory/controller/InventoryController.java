@@ -3,6 +3,9 @@ package com.exalt.warehousing.inventory.controller;
 import com.exalt.warehousing.inventory.dto.*;
 import com.exalt.warehousing.inventory.entity.InventoryItem;
 import com.exalt.warehousing.inventory.enums.InventoryStatus;
+import com.exalt.warehousing.inventory.service.InventoryBatchService;
+import com.exalt.warehousing.inventory.service.InventoryChangeFeedService;
+import com.exalt.warehousing.inventory.service.InventoryRollupService;
 import com.exalt.warehousing.inventory.service.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,12 +17,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -53,6 +58,9 @@ import java.util.UUID;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final InventoryChangeFeedService changeFeedService;
+    private final InventoryRollupService rollupService;
+    private final InventoryBatchService batchService;
 
     // Core CRUD Operations
     @PostMapping
@@ -132,6 +140,89 @@ public class InventoryController {
         return ResponseEntity.ok(items);
     }
 
+    @GetMapping("/changes")
+    @Operation(summary = "Get inventory changes since a sequence", description = "Returns compacted item and allocation deltas, including deletions, recorded after the given change sequence")
+    @ApiResponse(responseCode = "200", description = "Change feed page retrieved successfully")
+    @PreAuthorize("hasRole('WAREHOUSE_STAFF') or hasRole('ADMIN')")
+    public ResponseEntity<InventoryChangeFeedDTO> getInventoryChanges(
+            @Parameter(description = "Last change sequence already applied by the caller") @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of change log entries to scan") @RequestParam(defaultValue = "500") int limit) {
+        
+        InventoryChangeFeedDTO changes = changeFeedService.getChangesSince(since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
+    @PostMapping("/availability")
+    @Operation(summary = "Get availability matrix", description = "Returns the unreserved quantity of each requested SKU at every warehouse that stocks it")
+    @ApiResponse(responseCode = "200", description = "Availability matrix retrieved successfully")
+    @PreAuthorize("hasRole('WAREHOUSE_STAFF') or hasRole('ADMIN')")
+    public ResponseEntity<List<SkuAvailabilityDTO>> getAvailabilityMatrix(
+            @Parameter(description = "SKUs to look up") @RequestBody List<String> skus) {
+        
+        List<SkuAvailabilityDTO> availability = inventoryService.getAvailabilityMatrix(skus);
+        return ResponseEntity.ok(availability);
+    }
+
+    // Batched Fulfillment Operations
+    @PostMapping("/check/batch")
+    @Operation(summary = "Check stock for a batch of orders", description = "Checks every order against one availability lookup and returns one result per order, in request order")
+    @ApiResponse(responseCode = "200", description = "Stock checked successfully")
+    @PreAuthorize("hasRole('FULFILLMENT_SERVICE') or hasRole('ADMIN')")
+    public ResponseEntity<List<InventoryCheckResponse>> checkAvailabilityBatch(
+            @RequestBody List<InventoryCheckRequest> requests) {
+        
+        log.debug("Checking stock for {} orders", requests.size());
+        return ResponseEntity.ok(batchService.checkAvailability(requests));
+    }
+
+    @PostMapping("/reserve/batch")
+    @Operation(summary = "Reserve stock for a batch of orders", description = "Reserves all items of each order or none of them and returns one result per order, in request order")
+    @ApiResponse(responseCode = "200", description = "Reservations processed; check each result for success")
+    @PreAuthorize("hasRole('FULFILLMENT_SERVICE') or hasRole('ADMIN')")
+    public ResponseEntity<List<InventoryReservationResponse>> reserveBatch(
+            @RequestBody List<InventoryReservationRequest> requests) {
+        
+        log.debug("Reserving stock for {} orders", requests.size());
+        return ResponseEntity.ok(batchService.reserve(requests));
+    }
+
+    @PostMapping("/release/batch")
+    @Operation(summary = "Release reserved stock for a batch of orders", description = "Cancels the reservations of each order and returns one result per order, in request order")
+    @ApiResponse(responseCode = "200", description = "Releases processed; check each result for success")
+    @PreAuthorize("hasRole('FULFILLMENT_SERVICE') or hasRole('ADMIN')")
+    public ResponseEntity<List<InventoryReleaseResponse>> releaseBatch(
+            @RequestBody List<InventoryReleaseRequest> requests) {
+        
+        log.debug("Releasing reserved stock for {} orders", requests.size());
+        return ResponseEntity.ok(batchService.release(requests));
+    }
+
+    // Reporting Rollups
+    @PostMapping("/rollups/rebuild")
+    @Operation(summary = "Rebuild reporting rollups", description = "Recomputes hourly and daily movement and transaction rollups for a range of days from raw history")
+    @ApiResponse(responseCode = "200", description = "Rollups rebuilt successfully")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildRollups(
+            @Parameter(description = "First day to rebuild") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day to rebuild (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        log.info("Rebuilding inventory rollups from {} to {}", from, to);
+        int rows = rollupService.rebuildRollups(from, to);
+        return ResponseEntity.ok(Map.of("fromDate", from, "toDate", to, "rowsWritten", rows));
+    }
+
+    @GetMapping("/rollups/consistency")
+    @Operation(summary = "Check reporting rollups", description = "Compares hourly and daily rollups against raw movement and transaction history for a range of days")
+    @ApiResponse(responseCode = "200", description = "Consistency report generated successfully")
+    @PreAuthorize("hasRole('WAREHOUSE_MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<RollupConsistencyReportDTO> checkRollupConsistency(
+            @Parameter(description = "First day to check") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day to check (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        RollupConsistencyReportDTO report = rollupService.checkConsistency(from, to);
+        return ResponseEntity.ok(report);
+    }
+
     // Stock Management Operations
     @PatchMapping("/{itemId}/stock/adjust")
     @Operation(summary = "Adjust stock levels", description = "Performs stock adjustments for various business scenarios")
@@ -209,24 +300,48 @@ public class InventoryController {
     @Operation(summary = "Get vendor inventory", description = "Retrieves all inventory items for a specific vendor")
     @ApiResponse(responseCode = "200", description = "Vendor inventory retrieved successfully")
     @PreAuthorize("hasRole('VENDOR') or hasRole('ADMIN')")
-    public ResponseEntity<List<InventoryItem>> getVendorInventory(
-            @Parameter(description = "Vendor ID") @PathVariable UUID vendorId) {
+    public ResponseEntity<Page<InventoryItem>> getVendorInventory(
+            @Parameter(description = "Vendor ID") @PathVariable Long vendorId,
+            @PageableDefault(size = 20) Pageable pageable) {
         
-        // Use searchInventoryItems as fallback
-        Page<InventoryItem> vendorItemsPage = inventoryService.searchInventoryItems("vendor:" + vendorId, Pageable.unpaged());
-        return ResponseEntity.ok(vendorItemsPage.getContent());
+        Page<InventoryItem> vendorItems = inventoryService.getVendorInventoryItems(vendorId, pageable);
+        return ResponseEntity.ok(vendorItems);
+    }
+
+    @GetMapping("/vendor/{vendorId}/search")
+    @Operation(summary = "Search vendor inventory", description = "Searches a single vendor's inventory items by name or SKU")
+    @ApiResponse(responseCode = "200", description = "Search results retrieved")
+    @PreAuthorize("hasRole('VENDOR') or hasRole('ADMIN')")
+    public ResponseEntity<Page<InventoryItem>> searchVendorInventory(
+            @Parameter(description = "Vendor ID") @PathVariable Long vendorId,
+            @Parameter(description = "Search term") @RequestParam String searchTerm,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        Page<InventoryItem> searchResults = inventoryService.searchVendorInventoryItems(vendorId, searchTerm, pageable);
+        return ResponseEntity.ok(searchResults);
     }
 
     @GetMapping("/vendor/{vendorId}/self-storage")
     @Operation(summary = "Get vendor self-storage items", description = "Retrieves items managed in vendor's own storage facilities")
     @ApiResponse(responseCode = "200", description = "Self-storage items retrieved successfully")
     @PreAuthorize("hasRole('VENDOR') or hasRole('ADMIN')")
-    public ResponseEntity<List<InventoryItem>> getVendorSelfStorageItems(
-            @Parameter(description = "Vendor ID") @PathVariable UUID vendorId) {
+    public ResponseEntity<Page<InventoryItem>> getVendorSelfStorageItems(
+            @Parameter(description = "Vendor ID") @PathVariable Long vendorId,
+            @PageableDefault(size = 20) Pageable pageable) {
         
-        // Use searchInventoryItems as fallback
-        Page<InventoryItem> selfStorageItemsPage = inventoryService.searchInventoryItems("self-storage:" + vendorId, Pageable.unpaged());
-        return ResponseEntity.ok(selfStorageItemsPage.getContent());
+        Page<InventoryItem> selfStorageItems = inventoryService.getVendorSelfStorageItems(vendorId, pageable);
+        return ResponseEntity.ok(selfStorageItems);
+    }
+
+    @PostMapping("/vendor/{vendorId}/partition")
+    @Operation(summary = "Dedicate vendor partition", description = "Moves a large vendor's items and allocations out of the shared partition into dedicated partitions")
+    @ApiResponse(responseCode = "200", description = "Vendor partition ensured")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> dedicateVendorPartition(
+            @Parameter(description = "Vendor ID") @PathVariable Long vendorId) {
+        
+        boolean created = inventoryService.dedicateVendorPartition(vendorId);
+        return ResponseEntity.ok(Map.of("vendorId", vendorId, "created", created));
     }
 
     @GetMapping("/warehouse/{warehouseId}")
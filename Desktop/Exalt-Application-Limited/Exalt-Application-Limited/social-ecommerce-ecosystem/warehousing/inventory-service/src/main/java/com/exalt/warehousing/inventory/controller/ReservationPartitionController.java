@@ -0,0 +1,53 @@
+package com.exalt.warehousing.inventory.controller;
+
+import com.exalt.warehousing.inventory.dto.PartitionedReservationRequest;
+import com.exalt.warehousing.inventory.model.InventoryReservation;
+import com.exalt.warehousing.inventory.partition.ReservationPartitionCoordinator;
+import com.exalt.warehousing.inventory.service.impl.PartitionedReservationServiceImpl;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Internal REST controller used between inventory-service instances when
+ * reservation partitioning is enabled
+ */
+@RestController
+@RequestMapping("/internal/reservation-partitions")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "inventory.partitioning", name = "enabled", havingValue = "true")
+@Tag(name = "Reservation Partitions", description = "Internal APIs for SKU-partitioned reservation ownership")
+public class ReservationPartitionController {
+
+    private final PartitionedReservationServiceImpl partitionedReservationService;
+    private final ReservationPartitionCoordinator coordinator;
+
+    @PostMapping("/reservations")
+    @Operation(summary = "Apply a forwarded reservation", description = "Applies a reservation on this instance's single writer; never forwards again")
+    @ApiResponse(responseCode = "201", description = "Reservation created")
+    @ApiResponse(responseCode = "409", description = "Insufficient inventory")
+    @ApiResponse(responseCode = "503", description = "Partition not owned by this instance")
+    public ResponseEntity<InventoryReservation> applyReservation(@Valid @RequestBody PartitionedReservationRequest request) {
+        log.debug("Applying forwarded reservation for item: {}, order: {}", request.getInventoryItemId(), request.getOrderId());
+        InventoryReservation reservation = partitionedReservationService.createOwnedReservation(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get owned partitions", description = "Lists the reservation partitions this instance currently holds a lease for")
+    @ApiResponse(responseCode = "200", description = "Owned partitions returned")
+    public ResponseEntity<Map<String, Set<Integer>>> getOwnedPartitions() {
+        return ResponseEntity.ok(Map.of("ownedPartitions", coordinator.getOwnedPartitions()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.exalt.warehousing.inventory.dto;
+
+import com.exalt.warehousing.inventory.entity.InventoryChangeLog;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for a single compacted change in the inventory change feed.
+ *
+ * Items and allocations use different key types, so identifiers are rendered
+ * as strings. Deletions carry only the identifying fields.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryChangeDTO {
+
+    private Long sequence;
+
+    private InventoryChangeLog.EntityType entityType;
+
+    private InventoryChangeLog.ChangeType changeType;
+
+    private String entityId;
+
+    // Allocation only: the item the allocation belongs to
+    private String inventoryItemId;
+
+    private String sku;
+
+    private String name;
+
+    private String productId;
+
+    private String vendorId;
+
+    private String warehouseId;
+
+    private BigDecimal totalQuantity;
+
+    private BigDecimal reservedQuantity;
+
+    private BigDecimal availableQuantity;
+
+    private String status;
+
+    private Boolean isActive;
+}
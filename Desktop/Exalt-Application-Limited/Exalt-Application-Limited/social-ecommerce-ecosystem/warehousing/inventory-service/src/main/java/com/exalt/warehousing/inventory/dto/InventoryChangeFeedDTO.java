@@ -0,0 +1,31 @@
+package com.exalt.warehousing.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the inventory change feed.
+ *
+ * Consumers pass {@code nextSequence} as the {@code since} parameter of the
+ * next request and keep paging while {@code hasMore} is true.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChangeFeedDTO {
+
+    private List<InventoryChangeDTO> changes;
+
+    // Cursor to resume from; equals the requested sequence when nothing changed
+    private Long nextSequence;
+
+    // Highest sequence recorded at the time of the request
+    private Long headSequence;
+
+    private Boolean hasMore;
+}
@@ -0,0 +1,39 @@
+package com.exalt.warehousing.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for checking whether the items of one order are in stock
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCheckRequest {
+
+    private UUID orderId;
+
+    private List<Item> items;
+
+    /**
+     * A requested SKU and quantity
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private UUID productId;
+
+        private String sku;
+
+        private int quantity;
+    }
+}
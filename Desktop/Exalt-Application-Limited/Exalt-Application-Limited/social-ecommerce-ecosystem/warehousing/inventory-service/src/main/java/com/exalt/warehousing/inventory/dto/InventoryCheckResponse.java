@@ -0,0 +1,56 @@
+package com.exalt.warehousing.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for the stock check of one order.
+ *
+ * An item is available when the unreserved quantity across all warehouses
+ * covers it; the recommended warehouse, if any, can ship every item alone.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCheckResponse {
+
+    private UUID orderId;
+
+    private boolean allItemsAvailable;
+
+    private List<ItemAvailability> items;
+
+    private UUID recommendedWarehouseId;
+
+    /**
+     * Availability of a single requested item
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemAvailability {
+
+        private UUID productId;
+
+        private String sku;
+
+        private int requestedQuantity;
+
+        // Unreserved quantity across all warehouses
+        private int availableQuantity;
+
+        private boolean available;
+
+        private String unavailableReason;
+
+        // Warehouse holding the most unreserved stock of the SKU
+        private UUID warehouseId;
+    }
+}
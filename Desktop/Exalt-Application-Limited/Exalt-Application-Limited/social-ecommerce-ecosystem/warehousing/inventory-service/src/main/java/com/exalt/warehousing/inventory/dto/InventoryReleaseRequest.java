@@ -0,0 +1,26 @@
+package com.exalt.warehousing.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for releasing the reserved stock of one order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReleaseRequest {
+
+    private UUID orderId;
+
+    private UUID fulfillmentOrderId;
+
+    private UUID reservationId;
+
+    private String reason;
+}
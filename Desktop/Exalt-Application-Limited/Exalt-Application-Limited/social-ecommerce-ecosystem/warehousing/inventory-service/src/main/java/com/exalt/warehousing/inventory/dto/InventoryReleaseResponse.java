@@ -0,0 +1,29 @@
+package com.exalt.warehousing.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for the outcome of releasing the reserved stock of one order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReleaseResponse {
+
+    private boolean success;
+
+    private UUID reservationId;
+
+    private UUID fulfillmentOrderId;
+
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,49 @@
+package com.exalt.warehousing.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for reserving the items of one order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservationRequest {
+
+    private UUID orderId;
+
+    private UUID fulfillmentOrderId;
+
+    private List<Item> items;
+
+    // Warehouse to reserve from, or null to allocate across warehouses
+    private UUID warehouseId;
+
+    private LocalDateTime expiresAt;
+
+    /**
+     * A SKU and quantity to reserve
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private UUID productId;
+
+        private String sku;
+
+        private int quantity;
+
+        private UUID fulfillmentOrderItemId;
+    }
+}
@@ -0,0 +1,55 @@
+package com.exalt.warehousing.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for the outcome of reserving the items of one order.
+ *
+ * Either every item is reserved or none is; each reserved item carries the
+ * ID of its inventory reservation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservationResponse {
+
+    private UUID orderId;
+
+    private UUID fulfillmentOrderId;
+
+    private boolean success;
+
+    private String errorMessage;
+
+    private LocalDateTime expiresAt;
+
+    private List<ReservedItem> items;
+
+    /**
+     * A single reserved item
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReservedItem {
+
+        private UUID productId;
+
+        private String sku;
+
+        private int quantity;
+
+        private UUID reservationItemId;
+
+        private UUID warehouseId;
+    }
+}
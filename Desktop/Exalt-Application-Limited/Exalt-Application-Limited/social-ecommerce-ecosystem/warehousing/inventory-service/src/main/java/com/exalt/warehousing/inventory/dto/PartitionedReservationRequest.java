@@ -0,0 +1,33 @@
+package com.exalt.warehousing.inventory.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for a reservation forwarded to the instance owning the item's partition
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionedReservationRequest {
+
+    @NotNull
+    private UUID inventoryItemId;
+
+    private UUID warehouseId;
+
+    @Min(1)
+    private int quantity;
+
+    @NotNull
+    private UUID orderId;
+
+    private int expirationMinutes;
+}
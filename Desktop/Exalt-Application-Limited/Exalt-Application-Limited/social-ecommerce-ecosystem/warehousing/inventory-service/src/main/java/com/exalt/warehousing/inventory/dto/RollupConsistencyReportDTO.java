@@ -0,0 +1,60 @@
+package com.exalt.warehousing.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO reporting differences between the reporting rollups and raw history.
+ *
+ * Every (day, key) bucket found on either side is compared; both the daily
+ * rollup and the hourly rollup summed to the day must match the raw totals.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupConsistencyReportDTO {
+
+    private LocalDate fromDate;
+
+    private LocalDate toDate;
+
+    private Integer checkedBuckets;
+
+    private Boolean consistent;
+
+    private List<Mismatch> mismatches;
+
+    /**
+     * A single bucket whose rollup totals differ from raw history
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mismatch {
+
+        // MOVEMENT or TRANSACTION
+        private String rollup;
+
+        private String granularity;
+
+        private String day;
+
+        // SKU or inventory item ID, warehouse ID and type joined with '|'
+        private String key;
+
+        private Long rawQuantity;
+
+        private Long rollupQuantity;
+
+        private Long rawCount;
+
+        private Long rollupCount;
+    }
+}
@@ -0,0 +1,27 @@
+package com.exalt.warehousing.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for the unreserved quantity of a SKU at one warehouse.
+ *
+ * A list of these is the availability matrix callers use to source orders
+ * across warehouses; warehouses without stock of a SKU are left out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkuAvailabilityDTO {
+
+    private String sku;
+
+    private UUID warehouseId;
+
+    private Integer availableQuantity;
+}
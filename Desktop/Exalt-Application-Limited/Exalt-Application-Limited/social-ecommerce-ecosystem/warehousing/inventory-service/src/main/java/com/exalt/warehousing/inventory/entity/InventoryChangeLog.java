@@ -0,0 +1,78 @@
+package com.exalt.warehousing.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only change log entry backing the inventory change feed.
+ *
+ * Every write to an inventory item or allocation appends one row in the
+ * same transaction. Entry ids are taken when the row is inserted, so they do
+ * not follow commit order and are never exposed as a cursor. The feed
+ * sequence is assigned afterwards, to committed rows only, by one sequencer
+ * at a time; a row that commits late therefore still lands after every
+ * sequence a consumer has already read.
+ */
+@Entity
+@Table(name = "inventory_change_log", indexes = {
+    @Index(name = "idx_change_log_recorded_at", columnList = "recorded_at"),
+    @Index(name = "idx_change_log_feed_sequence", columnList = "feed_sequence", unique = true),
+    @Index(name = "idx_change_log_entity", columnList = "entity_type, entity_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChangeLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_change_seq")
+    @SequenceGenerator(name = "inventory_change_seq", sequenceName = "inventory_change_seq", allocationSize = 1)
+    @Column(name = "entry_id")
+    private Long entryId;
+
+    @Column(name = "feed_sequence")
+    private Long sequence; // Null until the entry's transaction has committed and been sequenced
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false, length = 64)
+    private String entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ChangeType changeType;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @PrePersist
+    public void setDefaultRecordedAt() {
+        if (this.recordedAt == null) {
+            this.recordedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Kind of record the change applies to
+     */
+    public enum EntityType {
+        ITEM,
+        ALLOCATION
+    }
+
+    /**
+     * Kind of change that was applied
+     */
+    public enum ChangeType {
+        UPSERT,  // Created or updated; consumers should read the current state
+        DELETE   // Removed or discontinued; consumers should drop the record
+    }
+}
@@ -31,9 +31,10 @@ import java.util.Map;
  */
 @Entity
 @Table(name = "inventory_items", indexes = {
-    @Index(name = "idx_inventory_sku", columnList = "sku", unique = true),
+    @Index(name = "uk_inventory_vendor_sku", columnList = "vendorId, sku", unique = true),
+    @Index(name = "idx_inventory_sku", columnList = "sku"),
     @Index(name = "idx_inventory_product_id", columnList = "productId"),
-    @Index(name = "idx_inventory_vendor_id", columnList = "vendorId"),
+    @Index(name = "idx_inventory_vendor_status", columnList = "vendorId, status"),
     @Index(name = "idx_inventory_warehouse_id", columnList = "warehouseId"),
     @Index(name = "idx_inventory_status", columnList = "status"),
     @Index(name = "idx_inventory_location", columnList = "location"),
@@ -45,7 +46,8 @@ import java.util.Map;
     @Index(name = "idx_inventory_supplier", columnList = "supplierId"),
     @Index(name = "idx_inventory_batch", columnList = "batchNumber"),
     @Index(name = "idx_inventory_priority", columnList = "priorityLevel"),
-    @Index(name = "idx_inventory_compliance", columnList = "complianceStatus")
+    @Index(name = "idx_inventory_compliance", columnList = "complianceStatus"),
+    @Index(name = "idx_inventory_change_sequence", columnList = "changeSequence")
 })
 @Data
 @SuperBuilder
@@ -279,6 +281,10 @@ public class InventoryItem extends BaseEntity {
     @Size(max = 100, message = "RFID tag must not exceed 100 characters")
     private String rfidTag;
 
+    // Change Feed
+    @Column(name = "change_sequence")
+    private Long changeSequence; // Entry id of the latest inventory_change_log entry for this item
+
     // Custom Attributes
     @ElementCollection
     @CollectionTable(
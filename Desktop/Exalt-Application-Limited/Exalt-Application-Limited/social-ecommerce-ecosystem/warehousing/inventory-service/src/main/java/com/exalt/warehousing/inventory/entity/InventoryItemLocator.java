@@ -0,0 +1,36 @@
+package com.exalt.warehousing.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+/**
+ * Maps an inventory item ID to the vendor partition holding it.
+ *
+ * inventory_items is partitioned by vendor_id and PostgreSQL has no global
+ * indexes, so a lookup by ID alone probes every partition. Resolving the
+ * vendor here first lets ID lookups carry the partition key. Rows are
+ * written by a trigger on inventory_items and never by the application.
+ */
+@Entity
+@Immutable
+@Table(name = "inventory_item_locator")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryItemLocator {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+}
@@ -0,0 +1,61 @@
+package com.exalt.warehousing.inventory.entity;
+
+import com.exalt.warehousing.inventory.enums.RollupGranularity;
+import com.exalt.warehousing.inventory.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pre-aggregated inventory transaction totals per item, warehouse and transaction type.
+ *
+ * Rows are maintained incrementally as transactions are written and can be
+ * rebuilt from {@code inventory_transactions} at any time.
+ */
+@Entity
+@Table(name = "inventory_transaction_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_transaction_rollup_bucket",
+               columnNames = {"granularity", "bucket_start", "inventory_item_id", "warehouse_id", "transaction_type"}),
+       indexes = @Index(name = "idx_transaction_rollup_bucket",
+               columnList = "granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTransactionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "inventory_item_id", nullable = false)
+    private UUID inventoryItemId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private UUID warehouseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType type;
+
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
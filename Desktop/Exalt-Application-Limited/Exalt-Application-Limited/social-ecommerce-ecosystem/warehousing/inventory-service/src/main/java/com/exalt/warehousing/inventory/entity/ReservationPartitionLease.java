@@ -0,0 +1,38 @@
+package com.exalt.warehousing.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a reservation partition held by one inventory-service instance.
+ *
+ * The epoch increases every time the partition changes hands, so log lines
+ * and diagnostics can tell successive owners apart.
+ */
+@Entity
+@Table(name = "reservation_partition_lease")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationPartitionLease {
+
+    @Id
+    @Column(name = "partition_id")
+    private Integer partitionId;
+
+    // Null while the partition is not held by any instance
+    @Column(name = "owner_id", length = 255)
+    private String ownerId;
+
+    @Column(name = "epoch", nullable = false)
+    private Long epoch;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,32 @@
+package com.exalt.warehousing.inventory.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes maintained by the movement and transaction rollup tables
+ */
+public enum RollupGranularity {
+
+    HOURLY(ChronoUnit.HOURS, "hour"),
+    DAILY(ChronoUnit.DAYS, "day");
+
+    private final ChronoUnit unit;
+    private final String truncUnit; // PostgreSQL date_trunc field
+
+    RollupGranularity(ChronoUnit unit, String truncUnit) {
+        this.unit = unit;
+        this.truncUnit = truncUnit;
+    }
+
+    /**
+     * Get the start of the bucket containing a timestamp
+     */
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    public String getTruncUnit() {
+        return truncUnit;
+    }
+}
@@ -111,13 +111,16 @@ public class InventoryEventPublisher {
     
     /**
      * Generic method to publish any event to the specified topic.
+     * Events are keyed by their aggregate (the order for reservation events)
+     * so consumers see the events of one order in the order they happened.
      *
      * @param topic The topic to publish to
      * @param event The event to publish
      */
     private void publish(String topic, BaseEvent event) {
         try {
-            producer.send(topic, event);
+            String key = event.getAggregateId() != null ? event.getAggregateId().toString() : null;
+            producer.send(topic, key, event);
             log.debug("Published event {} to topic {}", 
                     event.getClass().getSimpleName(), topic);
         } catch (Exception e) {
@@ -129,6 +129,22 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(apiError, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handle PartitionNotOwnedException
+     */
+    @ExceptionHandler(PartitionNotOwnedException.class)
+    public ResponseEntity<Object> handlePartitionNotOwnedException(
+            PartitionNotOwnedException ex, WebRequest request) {
+        ApiError apiError = new ApiError(
+                HttpStatus.SERVICE_UNAVAILABLE, 
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(apiError, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Handle ValidationException
      */
@@ -0,0 +1,24 @@
+package com.exalt.warehousing.inventory.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a reservation reaches an instance that does not own
+ * the item's partition, typically while ownership is being handed over.
+ * Callers may retry shortly.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PartitionNotOwnedException extends RuntimeException {
+
+    private final int partition;
+
+    public PartitionNotOwnedException(int partition, String message) {
+        super(message);
+        this.partition = partition;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+}
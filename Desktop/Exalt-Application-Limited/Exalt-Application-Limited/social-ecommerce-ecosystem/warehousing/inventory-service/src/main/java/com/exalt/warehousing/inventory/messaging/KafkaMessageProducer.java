@@ -26,9 +26,14 @@ public class KafkaMessageProducer implements MessageQueueProducer {
     
     @Override
     public <T> void send(String topic, T message) {
+        send(topic, null, message);
+    }
+
+    @Override
+    public <T> void send(String topic, String key, T message) {
         try {
             String jsonMessage = objectMapper.writeValueAsString(message);
-            kafkaTemplate.send(topic, jsonMessage);
+            kafkaTemplate.send(topic, key, jsonMessage);
             log.debug("Sent message to topic {}: {}", topic, jsonMessage);
         } catch (Exception e) {
             log.error("Error sending message to topic {}: {}", topic, e.getMessage(), e);
@@ -15,4 +15,15 @@ public interface MessageQueueProducer {
      * @param <T>     The type of the message
      */
     <T> void send(String topic, T message);
+
+    /**
+     * Send a message to a topic with a partitioning key. Messages with the
+     * same key are delivered in the order they were sent.
+     *
+     * @param topic   The topic to send the message to
+     * @param key     The partitioning key, may be null
+     * @param message The message to send
+     * @param <T>     The type of the message
+     */
+    <T> void send(String topic, String key, T message);
 }
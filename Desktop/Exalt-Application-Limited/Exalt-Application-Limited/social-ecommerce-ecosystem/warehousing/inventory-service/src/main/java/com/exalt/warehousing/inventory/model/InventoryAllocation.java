@@ -18,7 +18,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "inventory_allocations", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"inventory_item_id", "warehouse_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"vendor_id", "inventory_item_id", "warehouse_id"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -33,6 +33,14 @@ public class InventoryAllocation {
     @Column(name = "inventory_item_id", nullable = false)
     private UUID inventoryItemId;
 
+    /**
+     * Vendor owning the item, copied from the inventory item; the table is partitioned by it
+     */
+    @NotNull
+    @Builder.Default
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId = 0L;
+
     @NotNull
     @Column(name = "warehouse_id", nullable = false)
     private UUID warehouseId;
@@ -57,6 +65,16 @@ public class InventoryAllocation {
     @Column(name = "notes")
     private String notes;
 
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    // Reservations for an item are serialized per partition, but order-level
+    // operations update allocations from any thread
+    @Version
+    @Builder.Default
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
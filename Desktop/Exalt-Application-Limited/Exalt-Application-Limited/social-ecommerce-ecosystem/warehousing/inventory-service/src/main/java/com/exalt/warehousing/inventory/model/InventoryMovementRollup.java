@@ -0,0 +1,62 @@
+package com.exalt.warehousing.inventory.model;
+
+import com.exalt.warehousing.inventory.enums.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pre-aggregated inventory movement totals per SKU, warehouse and movement type.
+ *
+ * A movement counts towards every warehouse it touches, so a transfer between
+ * two warehouses adds to one row on each side. Rows are maintained
+ * incrementally as movements are written and can be rebuilt from
+ * {@code inventory_movement} at any time.
+ */
+@Entity
+@Table(name = "inventory_movement_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_movement_rollup_bucket",
+               columnNames = {"granularity", "bucket_start", "sku", "warehouse_id", "movement_type"}),
+       indexes = @Index(name = "idx_movement_rollup_sku_warehouse",
+               columnList = "sku, warehouse_id, granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryMovementRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "sku", nullable = false)
+    private String sku;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private UUID warehouseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false)
+    private InventoryMovement.MovementType movementType;
+
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity;
+
+    @Column(name = "movement_count", nullable = false)
+    private Long movementCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.exalt.warehousing.inventory.partition;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.util.List;
+
+/**
+ * Partition membership taken from the service registry: every registered
+ * instance of this service takes part, identified by host:port.
+ */
+@RequiredArgsConstructor
+public class DiscoveryPartitionMembership implements PartitionMembership {
+
+    private final DiscoveryClient discoveryClient;
+    private final String serviceId;
+    private final String localInstanceId;
+
+    @Override
+    public String getLocalInstanceId() {
+        return localInstanceId;
+    }
+
+    @Override
+    public List<String> getMembers() {
+        return discoveryClient.getInstances(serviceId).stream()
+                .map(this::toInstanceId)
+                .toList();
+    }
+
+    private String toInstanceId(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,42 @@
+package com.exalt.warehousing.inventory.partition;
+
+import com.exalt.warehousing.inventory.dto.PartitionedReservationRequest;
+import com.exalt.warehousing.inventory.exception.InsufficientInventoryException;
+import com.exalt.warehousing.inventory.exception.PartitionNotOwnedException;
+import com.exalt.warehousing.inventory.model.InventoryReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Forwards reservations over HTTP to the owning instance's internal endpoint.
+ * Instance IDs are host:port pairs as reported by service discovery.
+ */
+@RequiredArgsConstructor
+public class HttpReservationForwarder implements ReservationForwarder {
+
+    private final RestTemplate restTemplate;
+    private final SkuPartitioner partitioner;
+
+    @Override
+    public InventoryReservation forward(String ownerInstanceId, PartitionedReservationRequest request) {
+        String url = "http://" + ownerInstanceId + "/internal/reservation-partitions/reservations";
+        try {
+            return restTemplate.postForObject(url, request, InventoryReservation.class);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                throw new InsufficientInventoryException("Insufficient inventory available", e);
+            }
+            throw e;
+        } catch (HttpServerErrorException e) {
+            if (e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+                int partition = partitioner.partitionOf(request.getInventoryItemId());
+                throw new PartitionNotOwnedException(partition, "Reservation partition " + partition
+                        + " is being handed over to " + ownerInstanceId + "; retry shortly");
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.exalt.warehousing.inventory.partition;
+
+import com.exalt.warehousing.inventory.repository.ReservationPartitionLeaseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Partition lease store backed by the reservation_partition_lease table.
+ *
+ * Lease rows are created lazily the first time a partition is claimed.
+ * Each call runs in its own transaction so a lease change is visible to
+ * the other instances as soon as the call returns.
+ */
+@RequiredArgsConstructor
+public class JpaPartitionLeaseStore implements PartitionLeaseStore {
+
+    private final ReservationPartitionLeaseRepository leaseRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(int partition, String ownerId, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+
+        if (leaseRepository.acquire(partition, ownerId, expiresAt, now) > 0) {
+            return true;
+        }
+        return leaseRepository.insertIfAbsent(partition, ownerId, expiresAt) > 0;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(int partition, String ownerId) {
+        leaseRepository.release(partition, ownerId);
+    }
+}
@@ -0,0 +1,107 @@
+package com.exalt.warehousing.inventory.partition;
+
+import com.exalt.warehousing.inventory.exception.PartitionNotOwnedException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer for one owned partition.
+ *
+ * All work for the partition runs on one thread in submission order, so two
+ * reservations for the same item never overlap and need no row locks.
+ */
+@Slf4j
+class PartitionLane {
+
+    // Lane whose thread is the current thread, for lease checks made by running tasks
+    private static final ThreadLocal<PartitionLane> CURRENT = new ThreadLocal<>();
+
+    private final int partition;
+    private final ExecutorService executor;
+    private volatile long leaseValidUntilMillis;
+
+    PartitionLane(int partition, long leaseValidUntilMillis) {
+        this.partition = partition;
+        this.leaseValidUntilMillis = leaseValidUntilMillis;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(() -> {
+                CURRENT.set(this);
+                runnable.run();
+            }, "reservation-partition-" + partition);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a task behind all earlier work for the partition
+     * @throws java.util.concurrent.RejectedExecutionException if the lane is closed
+     */
+    <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (System.currentTimeMillis() >= leaseValidUntilMillis) {
+                result.completeExceptionally(new PartitionNotOwnedException(partition,
+                        "Lease on reservation partition " + partition + " expired; retry shortly"));
+                return;
+            }
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    void extendLease(long leaseValidUntilMillis) {
+        this.leaseValidUntilMillis = leaseValidUntilMillis;
+    }
+
+    /**
+     * Fail every task that has not committed yet, e.g. after the lease was lost
+     */
+    void revokeLease() {
+        this.leaseValidUntilMillis = 0;
+    }
+
+    boolean holdsLease() {
+        return System.currentTimeMillis() < leaseValidUntilMillis;
+    }
+
+    int getPartition() {
+        return partition;
+    }
+
+    /**
+     * Get the lane running on the current thread
+     * @return the lane, or null when not called from a lane
+     */
+    static PartitionLane current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop accepting work and wait for queued work to finish
+     * @return true if the queue drained within the timeout
+     */
+    boolean drain(Duration timeout) {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Partition {} did not drain within {}; abandoning queued work", partition, timeout);
+        executor.shutdownNow();
+        return false;
+    }
+}
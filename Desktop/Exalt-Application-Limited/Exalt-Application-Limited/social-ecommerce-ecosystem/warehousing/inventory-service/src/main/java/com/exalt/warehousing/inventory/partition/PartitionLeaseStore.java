@@ -0,0 +1,29 @@
+package com.exalt.warehousing.inventory.partition;
+
+import java.time.Duration;
+
+/**
+ * Shared store of partition leases.
+ *
+ * A partition can only be leased by one instance at a time. An instance
+ * takes over a partition only once the previous owner has released it or
+ * its lease has expired, which is what keeps handover free of two writers.
+ */
+public interface PartitionLeaseStore {
+
+    /**
+     * Acquire or renew the lease on a partition
+     * @param partition the partition number
+     * @param ownerId the instance ID asking for the lease
+     * @param ttl how long the lease stays valid without renewal
+     * @return true if the caller holds the lease afterwards
+     */
+    boolean tryAcquire(int partition, String ownerId, Duration ttl);
+
+    /**
+     * Release a lease held by the caller; does nothing if another instance holds it
+     * @param partition the partition number
+     * @param ownerId the instance ID releasing the lease
+     */
+    void release(int partition, String ownerId);
+}
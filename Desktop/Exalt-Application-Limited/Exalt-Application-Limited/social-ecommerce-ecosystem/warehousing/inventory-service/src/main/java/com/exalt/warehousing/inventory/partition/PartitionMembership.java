@@ -0,0 +1,21 @@
+package com.exalt.warehousing.inventory.partition;
+
+import java.util.List;
+
+/**
+ * Source of the set of instances that share reservation partitions
+ */
+public interface PartitionMembership {
+
+    /**
+     * Get the ID of this instance
+     * @return the local instance ID
+     */
+    String getLocalInstanceId();
+
+    /**
+     * Get the IDs of all live instances, including this one
+     * @return list of instance IDs
+     */
+    List<String> getMembers();
+}
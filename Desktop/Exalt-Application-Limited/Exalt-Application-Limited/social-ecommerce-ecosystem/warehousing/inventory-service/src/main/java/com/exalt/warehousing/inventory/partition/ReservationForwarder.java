@@ -0,0 +1,18 @@
+package com.exalt.warehousing.inventory.partition;
+
+import com.exalt.warehousing.inventory.dto.PartitionedReservationRequest;
+import com.exalt.warehousing.inventory.model.InventoryReservation;
+
+/**
+ * Sends a reservation to the instance that owns the item's partition
+ */
+public interface ReservationForwarder {
+
+    /**
+     * Apply a reservation on another instance
+     * @param ownerInstanceId the owning instance
+     * @param request the reservation to apply
+     * @return the reservation created by the owner
+     */
+    InventoryReservation forward(String ownerInstanceId, PartitionedReservationRequest request);
+}
@@ -0,0 +1,200 @@
+package com.exalt.warehousing.inventory.partition;
+
+import com.exalt.warehousing.inventory.exception.PartitionNotOwnedException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tracks which reservation partitions this instance owns and runs work for
+ * them on single-writer lanes.
+ *
+ * Ownership follows the consistent hash assignment of the current members,
+ * but a partition is only served once its lease has been acquired. On
+ * rebalance a partition moving away stops accepting work, drains its queue
+ * and only then releases its lease; the new owner keeps retrying the lease
+ * on every rebalance until that happens. Requests for a partition in
+ * handover are rejected with {@link PartitionNotOwnedException} rather than
+ * risking two writers.
+ *
+ * This class has no Spring dependencies so several instances can be run
+ * in one JVM against a shared lease store.
+ */
+@Slf4j
+public class ReservationPartitionCoordinator {
+
+    private final SkuPartitioner partitioner;
+    private final PartitionMembership membership;
+    private final PartitionLeaseStore leaseStore;
+    private final Duration leaseTtl;
+    private final Duration drainTimeout;
+    private final Duration requestTimeout;
+
+    private final Map<Integer, PartitionLane> lanes = new ConcurrentHashMap<>();
+    private volatile Map<Integer, String> assignment = Map.of();
+
+    public ReservationPartitionCoordinator(SkuPartitioner partitioner,
+                                           PartitionMembership membership,
+                                           PartitionLeaseStore leaseStore,
+                                           Duration leaseTtl,
+                                           Duration drainTimeout,
+                                           Duration requestTimeout) {
+        this.partitioner = partitioner;
+        this.membership = membership;
+        this.leaseStore = leaseStore;
+        this.leaseTtl = leaseTtl;
+        this.drainTimeout = drainTimeout;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Recompute the assignment from the current members, hand over partitions
+     * that moved away, renew held leases and try to claim newly assigned ones.
+     * Must run well within the lease TTL.
+     */
+    public synchronized void rebalance() {
+        String self = membership.getLocalInstanceId();
+        Set<String> members = new TreeSet<>(membership.getMembers());
+        members.add(self);
+        Map<Integer, String> target = partitioner.assign(members);
+        assignment = target;
+
+        for (Integer partition : new ArrayList<>(lanes.keySet())) {
+            if (!self.equals(target.get(partition))) {
+                handOver(partition);
+            }
+        }
+
+        int claimed = 0;
+        for (Map.Entry<Integer, String> entry : target.entrySet()) {
+            if (!self.equals(entry.getValue())) {
+                continue;
+            }
+            int partition = entry.getKey();
+            long validUntil = System.currentTimeMillis() + leaseTtl.toMillis();
+            boolean held = leaseStore.tryAcquire(partition, self, leaseTtl);
+            PartitionLane lane = lanes.get(partition);
+
+            if (held && lane == null) {
+                lanes.put(partition, new PartitionLane(partition, validUntil));
+                claimed++;
+            } else if (held) {
+                lane.extendLease(validUntil);
+            } else if (lane != null) {
+                log.warn("Lost lease on partition {}; stopping local writes", partition);
+                lane.revokeLease();
+                lanes.remove(partition);
+                lane.drain(drainTimeout);
+            }
+        }
+
+        if (claimed > 0) {
+            log.info("Instance {} claimed {} reservation partitions, now owns {}", self, claimed, lanes.size());
+        }
+    }
+
+    /**
+     * Run a task on the single writer of the item's partition
+     * @param inventoryItemId the inventory item the task writes
+     * @param task the work to run
+     * @return the task result
+     * @throws PartitionNotOwnedException if this instance does not currently own the partition
+     */
+    public <T> T execute(UUID inventoryItemId, Callable<T> task) {
+        int partition = partitioner.partitionOf(inventoryItemId);
+        PartitionLane lane = lanes.get(partition);
+        if (lane == null) {
+            throw notOwned(partition);
+        }
+
+        try {
+            return lane.submit(task).get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            throw notOwned(partition);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Partitioned reservation failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for partition " + partition, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for partition " + partition, e);
+        }
+    }
+
+    /**
+     * Check, from a task running on a lane, that the lane still holds the lease
+     * of the item's partition. Called just before the task's writes commit so a
+     * lease that lapsed while the task ran rolls the writes back instead of
+     * letting them land after the next owner may have started.
+     * @param inventoryItemId the inventory item the task writes
+     * @throws PartitionNotOwnedException if the lease is no longer held
+     */
+    public void verifyLease(UUID inventoryItemId) {
+        int partition = partitioner.partitionOf(inventoryItemId);
+        PartitionLane lane = PartitionLane.current();
+        if (lane == null || lane.getPartition() != partition || !lane.holdsLease()) {
+            throw new PartitionNotOwnedException(partition, "Lease on reservation partition " + partition
+                    + " lapsed before the write committed; retry shortly");
+        }
+    }
+
+    /**
+     * Get the instance the current assignment routes an item to
+     * @param inventoryItemId the inventory item ID
+     * @return owner instance ID, or null before the first rebalance
+     */
+    public String ownerOf(UUID inventoryItemId) {
+        return assignment.get(partitioner.partitionOf(inventoryItemId));
+    }
+
+    public boolean isLocal(String instanceId) {
+        return membership.getLocalInstanceId().equals(instanceId);
+    }
+
+    /**
+     * Get the partitions this instance currently holds a lease for
+     */
+    public Set<Integer> getOwnedPartitions() {
+        return new TreeSet<>(lanes.keySet());
+    }
+
+    /**
+     * Hand over every owned partition, e.g. on shutdown
+     */
+    public synchronized void releaseAll() {
+        for (Integer partition : new ArrayList<>(lanes.keySet())) {
+            handOver(partition);
+        }
+    }
+
+    private void handOver(int partition) {
+        PartitionLane lane = lanes.remove(partition);
+        if (lane == null) {
+            return;
+        }
+        if (lane.drain(drainTimeout)) {
+            leaseStore.release(partition, membership.getLocalInstanceId());
+            log.debug("Released reservation partition {}", partition);
+        }
+        // Otherwise the lease is left to expire so a stuck task cannot overlap the next owner
+    }
+
+    private PartitionNotOwnedException notOwned(int partition) {
+        return new PartitionNotOwnedException(partition, "Reservation partition " + partition
+                + " is not owned by " + membership.getLocalInstanceId() + "; retry shortly");
+    }
+}
@@ -0,0 +1,28 @@
+package com.exalt.warehousing.inventory.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically rebalances reservation partitions so ownership follows
+ * membership changes and held leases are renewed
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationPartitionRebalancer {
+
+    private final ReservationPartitionCoordinator coordinator;
+
+    /**
+     * The interval must stay well below the lease TTL
+     */
+    @Scheduled(fixedDelayString = "${inventory.partitioning.rebalance-interval-ms:5000}")
+    public void rebalance() {
+        try {
+            coordinator.rebalance();
+        } catch (RuntimeException e) {
+            log.error("Reservation partition rebalance failed", e);
+        }
+    }
+}
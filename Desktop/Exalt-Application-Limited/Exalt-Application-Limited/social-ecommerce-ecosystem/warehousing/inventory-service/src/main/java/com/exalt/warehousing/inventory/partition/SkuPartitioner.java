@@ -0,0 +1,90 @@
+package com.exalt.warehousing.inventory.partition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Maps inventory items onto a fixed set of partitions and partitions onto instances.
+ *
+ * An inventory item is a single SKU, so items are hashed straight onto
+ * {@code partitionCount} partitions. Partitions are assigned to instances
+ * with a consistent hash ring using virtual nodes, so adding or removing an
+ * instance only moves the partitions next to it on the ring. The hash is
+ * stable across JVMs so every instance computes the same assignment from
+ * the same membership.
+ */
+public class SkuPartitioner {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int partitionCount;
+    private final int virtualNodes;
+
+    public SkuPartitioner(int partitionCount, int virtualNodes) {
+        if (partitionCount <= 0 || virtualNodes <= 0) {
+            throw new IllegalArgumentException("Partition count and virtual nodes must be positive");
+        }
+        this.partitionCount = partitionCount;
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Get the partition an inventory item belongs to
+     * @param inventoryItemId the inventory item ID
+     * @return partition number between 0 and partitionCount - 1
+     */
+    public int partitionOf(UUID inventoryItemId) {
+        return (int) Math.floorMod(hash(inventoryItemId.toString()), (long) partitionCount);
+    }
+
+    /**
+     * Assign every partition to one member
+     * @param members instance IDs of the current members
+     * @return owner instance ID per partition, empty if there are no members
+     */
+    public Map<Integer, String> assign(Collection<String> members) {
+        Map<Integer, String> assignment = new HashMap<>();
+        if (members.isEmpty()) {
+            return assignment;
+        }
+
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String member : members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member + "#" + i), member);
+            }
+        }
+
+        for (int partition = 0; partition < partitionCount; partition++) {
+            Map.Entry<Long, String> node = ring.ceilingEntry(hash("partition-" + partition));
+            assignment.put(partition, node != null ? node.getValue() : ring.firstEntry().getValue());
+        }
+        return assignment;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * 64-bit FNV-1a followed by a finalizer to spread nearby keys over the ring
+     */
+    static long hash(String key) {
+        long h = FNV_OFFSET;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
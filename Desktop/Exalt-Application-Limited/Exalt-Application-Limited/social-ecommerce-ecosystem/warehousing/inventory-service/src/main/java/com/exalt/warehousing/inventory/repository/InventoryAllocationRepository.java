@@ -4,8 +4,10 @@ import com.exalt.warehousing.inventory.model.InventoryAllocation;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -55,7 +57,8 @@ public interface InventoryAllocationRepository extends JpaRepository<InventoryAl
      * @return number of rows affected
      */
     @Modifying
-    @Query("UPDATE InventoryAllocation a SET a.reservedQuantity = a.reservedQuantity + :amount " +
+    @Query("UPDATE InventoryAllocation a SET a.reservedQuantity = a.reservedQuantity + :amount, " +
+           "a.version = a.version + 1 " +
            "WHERE a.id = :id AND (a.quantity - a.reservedQuantity) >= :amount")
     int reserveInventory(UUID id, int amount);
 
@@ -66,7 +69,8 @@ public interface InventoryAllocationRepository extends JpaRepository<InventoryAl
      * @return number of rows affected
      */
     @Modifying
-    @Query("UPDATE InventoryAllocation a SET a.reservedQuantity = a.reservedQuantity - :amount " +
+    @Query("UPDATE InventoryAllocation a SET a.reservedQuantity = a.reservedQuantity - :amount, " +
+           "a.version = a.version + 1 " +
            "WHERE a.id = :id AND a.reservedQuantity >= :amount")
     int releaseReservation(UUID id, int amount);
 
@@ -79,7 +83,8 @@ public interface InventoryAllocationRepository extends JpaRepository<InventoryAl
     @Modifying
     @Query("UPDATE InventoryAllocation a SET " +
            "a.quantity = a.quantity - :amount, " +
-           "a.reservedQuantity = a.reservedQuantity - :amount " +
+           "a.reservedQuantity = a.reservedQuantity - :amount, " +
+           "a.version = a.version + 1 " +
            "WHERE a.id = :id AND a.reservedQuantity >= :amount")
     int commitReservation(UUID id, int amount);
 
@@ -90,7 +95,7 @@ public interface InventoryAllocationRepository extends JpaRepository<InventoryAl
      * @return number of rows affected
      */
     @Modifying
-    @Query("UPDATE InventoryAllocation a SET a.quantity = a.quantity + :amount " +
+    @Query("UPDATE InventoryAllocation a SET a.quantity = a.quantity + :amount, a.version = a.version + 1 " +
            "WHERE a.id = :id")
     int addInventory(UUID id, int amount);
 
@@ -102,4 +107,16 @@ public interface InventoryAllocationRepository extends JpaRepository<InventoryAl
     @Query("SELECT a FROM InventoryAllocation a WHERE " +
            "(a.quantity - a.reservedQuantity) <= :threshold")
     List<InventoryAllocation> findLowStockAllocations(int threshold);
+
+    /**
+     * Sum the unreserved quantity of a set of SKUs per warehouse
+     * @param skus the SKUs to look up
+     * @return rows of SKU, warehouse ID and available quantity, only where stock is available
+     */
+    @Query("SELECT i.sku, a.warehouseId, SUM(a.quantity - a.reservedQuantity) " +
+           "FROM InventoryAllocation a, InventoryItem i " +
+           "WHERE a.inventoryItemId = i.id AND i.sku IN :skus " +
+           "GROUP BY i.sku, a.warehouseId " +
+           "HAVING SUM(a.quantity - a.reservedQuantity) > 0")
+    List<Object[]> summarizeAvailabilityBySku(@Param("skus") Collection<String> skus);
 }
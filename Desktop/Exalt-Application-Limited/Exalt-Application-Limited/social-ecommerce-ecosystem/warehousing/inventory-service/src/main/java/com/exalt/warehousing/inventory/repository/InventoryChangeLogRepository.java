@@ -0,0 +1,58 @@
+package com.exalt.warehousing.inventory.repository;
+
+import com.exalt.warehousing.inventory.entity.InventoryChangeLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the inventory change log
+ */
+@Repository
+public interface InventoryChangeLogRepository extends JpaRepository<InventoryChangeLog, Long> {
+
+    /**
+     * Find change log entries after a sequence, in sequence order
+     * @param sinceSequence the last sequence already seen by the consumer
+     * @param pageable page size (the page number is ignored by callers)
+     * @return ordered list of change log entries
+     */
+    @Query("SELECT c FROM InventoryChangeLog c " +
+           "WHERE c.sequence > :sinceSequence " +
+           "ORDER BY c.sequence ASC")
+    List<InventoryChangeLog> findChangesSince(
+            @Param("sinceSequence") long sinceSequence,
+            Pageable pageable);
+
+    /**
+     * Serialize sequencers across instances until the current transaction ends
+     * @param lockKey the advisory lock key
+     */
+    @Query(value = "SELECT CAST(pg_advisory_xact_lock(:lockKey) AS VARCHAR)", nativeQuery = true)
+    String lockSequencer(@Param("lockKey") long lockKey);
+
+    /**
+     * Assign feed sequences to committed entries that have none yet, oldest first.
+     * Must run under the sequencer lock, which is held until commit, so that every
+     * sequence assigned by a later run is visible only after this run's are.
+     * @param limit maximum number of entries to sequence
+     * @return number of entries sequenced
+     */
+    @Modifying
+    @Query(value = "UPDATE inventory_change_log SET feed_sequence = nextval('inventory_feed_seq') " +
+                   "WHERE entry_id IN (SELECT entry_id FROM inventory_change_log " +
+                   "WHERE feed_sequence IS NULL ORDER BY entry_id LIMIT :limit)", nativeQuery = true)
+    int assignFeedSequences(@Param("limit") int limit);
+
+    /**
+     * Get the highest sequence recorded so far
+     * @return the head sequence, or null if the log is empty
+     */
+    @Query("SELECT MAX(c.sequence) FROM InventoryChangeLog c")
+    Long findHeadSequence();
+}
@@ -2,13 +2,16 @@ package com.exalt.warehousing.inventory.repository;
 
 import com.exalt.warehousing.inventory.entity.InventoryItem;
 import com.exalt.warehousing.inventory.enums.InventoryStatus;
+import com.exalt.warehousing.inventory.util.FixedPointQuantity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,6 +29,14 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, UU
      */
     Optional<InventoryItem> findBySku(String sku);
 
+    /**
+     * Get the SKUs of a set of items without loading the entities
+     * @param ids the inventory item IDs
+     * @return rows of item ID and SKU
+     */
+    @Query("SELECT i.id, i.sku FROM InventoryItem i WHERE i.id IN :ids")
+    List<Object[]> findSkusByIdIn(@Param("ids") Collection<UUID> ids);
+
     /**
      * Find an inventory item by product ID
      * @param productId the product ID to search for
@@ -33,6 +44,44 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, UU
      */
     Optional<InventoryItem> findByProductId(Long productId);
 
+    /**
+     * Get the available quantity of an item as a fixed-point long without loading the entity
+     * @param id the inventory item ID
+     * @return available quantity in thousandths of a unit, or null if the item does not exist
+     */
+    @Query(value = "SELECT CAST(i.available_quantity * " + FixedPointQuantity.ONE + " AS BIGINT) " +
+                   "FROM inventory_items i WHERE i.id = :id", nativeQuery = true)
+    Long findAvailableQuantityFixedPoint(@Param("id") UUID id);
+
+    /**
+     * Get the available quantity of an item as a fixed-point long, reading only the vendor's partition.
+     * The vendor is resolved from the locator table in the same statement; the scalar subquery runs
+     * before the scan, so the other partitions are pruned at execution time.
+     * @param id the inventory item ID
+     * @return available quantity in thousandths of a unit, or null if the item or its locator entry does not exist
+     */
+    @Query(value = "SELECT CAST(i.available_quantity * " + FixedPointQuantity.ONE + " AS BIGINT) " +
+                   "FROM inventory_items i WHERE i.id = :id AND i.vendor_id = " +
+                   "(SELECT l.vendor_id FROM inventory_item_locator l WHERE l.id = :id)", nativeQuery = true)
+    Long findAvailableQuantityFixedPointByLocator(@Param("id") UUID id);
+
+    /**
+     * Find an inventory item within a single vendor partition
+     * @param id the inventory item ID
+     * @param vendorId the vendor owning the item
+     * @return the inventory item if found
+     */
+    Optional<InventoryItem> findByIdAndVendorId(UUID id, Long vendorId);
+
+    /**
+     * Resolve the vendor partition holding an item from the locator table,
+     * so that ID lookups can carry the partition key
+     * @param id the inventory item ID
+     * @return the vendor ID, or empty if the locator has no entry for the item
+     */
+    @Query("SELECT l.vendorId FROM InventoryItemLocator l WHERE l.id = :id")
+    Optional<Long> findVendorIdById(@Param("id") UUID id);
+
     /**
      * Find all inventory items with low stock
      * @return list of items with available quantity below threshold
@@ -74,6 +123,47 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, UU
            "AND i.isActive = true")
     Page<InventoryItem> searchByNameOrSku(String searchTerm, Pageable pageable);
 
+    /**
+     * Find all items of a vendor. The vendor_id predicate lets the database
+     * prune to the vendor's partition.
+     * @param vendorId the vendor ID
+     * @param pageable pagination information
+     * @return paged result of the vendor's inventory items
+     */
+    Page<InventoryItem> findAllByVendorId(Long vendorId, Pageable pageable);
+
+    /**
+     * Find the items a vendor manages in its own storage
+     * @param vendorId the vendor ID
+     * @param pageable pagination information
+     * @return paged result of the vendor's self-storage items
+     */
+    Page<InventoryItem> findAllByVendorIdAndIsVendorManagedTrue(Long vendorId, Pageable pageable);
+
+    /**
+     * Search a single vendor's inventory items by name or SKU
+     * @param vendorId the vendor ID
+     * @param searchTerm the search term
+     * @param pageable pagination information
+     * @return paged result of matching inventory items
+     */
+    @Query("SELECT i FROM InventoryItem i WHERE i.vendorId = :vendorId AND " +
+           "(LOWER(i.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(i.sku) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+           "AND i.isActive = true")
+    Page<InventoryItem> searchByVendorAndNameOrSku(@Param("vendorId") Long vendorId,
+                                                   @Param("searchTerm") String searchTerm,
+                                                   Pageable pageable);
+
+    /**
+     * Move a vendor's items and allocations out of the shared partition into
+     * dedicated partitions. Locks the shared partition while rows are copied.
+     * @param vendorId the vendor ID
+     * @return true if a partition was created, false if the vendor already had one
+     */
+    @Query(value = "SELECT inventory_dedicate_vendor_partition(:vendorId)", nativeQuery = true)
+    Boolean dedicateVendorPartition(@Param("vendorId") Long vendorId);
+
     /**
      * Update inventory status
      * @param id the inventory item ID
@@ -93,6 +93,33 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
      * Get daily movement totals for a product in a warehouse
      * Used for demand forecasting and trend analysis
      * 
+     * Served from the daily movement rollup, so the range is resolved to whole
+     * days: every day from the day of {@code startDate} up to {@code endDate}
+     * is included in full.
+     * 
+     * @param sku the product SKU
+     * @param warehouseId the warehouse ID
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return list of daily movement totals
+     */
+    @Query(value = 
+           "SELECT CAST(r.bucket_start AS DATE) as movement_day, SUM(r.total_quantity) as total_quantity " +
+           "FROM inventory_movement_rollup r " +
+           "WHERE r.granularity = 'DAILY' AND r.sku = :sku AND r.warehouse_id = :warehouseId AND " +
+           "r.bucket_start >= CAST(:startDate AS DATE) AND r.bucket_start <= :endDate " +
+           "GROUP BY CAST(r.bucket_start AS DATE) " +
+           "ORDER BY movement_day", nativeQuery = true)
+    List<Object[]> getDailyMovementTotals(
+            @Param("sku") String sku,
+            @Param("warehouseId") UUID warehouseId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Get daily movement totals for a product in a warehouse from raw movement history
+     * Used to verify the rollups; reporting should use {@link #getDailyMovementTotals}
+     * 
      * @param sku the product SKU
      * @param warehouseId the warehouse ID
      * @param startDate the start date
@@ -107,7 +134,7 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
            "m.movement_date BETWEEN :startDate AND :endDate " +
            "GROUP BY CAST(m.movement_date AS DATE) " +
            "ORDER BY movement_day", nativeQuery = true)
-    List<Object[]> getDailyMovementTotals(
+    List<Object[]> getDailyMovementTotalsFromRaw(
             @Param("sku") String sku,
             @Param("warehouseId") UUID warehouseId,
             @Param("startDate") LocalDateTime startDate,
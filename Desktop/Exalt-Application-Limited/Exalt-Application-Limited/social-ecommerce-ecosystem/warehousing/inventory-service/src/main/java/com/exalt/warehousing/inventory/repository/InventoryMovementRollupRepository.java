@@ -0,0 +1,131 @@
+package com.exalt.warehousing.inventory.repository;
+
+import com.exalt.warehousing.inventory.model.InventoryMovementRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for inventory movement rollups
+ */
+@Repository
+public interface InventoryMovementRollupRepository extends JpaRepository<InventoryMovementRollup, Long> {
+
+    /**
+     * Add one movement to a rollup bucket, creating the bucket if needed
+     * @param granularity the rollup granularity name
+     * @param bucketStart start of the bucket
+     * @param sku the product SKU
+     * @param warehouseId the warehouse the movement touched
+     * @param movementType the movement type name
+     * @param quantity the movement quantity
+     * @return number of rows affected
+     */
+    @Modifying
+    @Query(value =
+           "INSERT INTO inventory_movement_rollup " +
+           "(granularity, bucket_start, sku, warehouse_id, movement_type, total_quantity, movement_count, updated_at) " +
+           "VALUES (:granularity, :bucketStart, :sku, :warehouseId, :movementType, :quantity, 1, CURRENT_TIMESTAMP) " +
+           "ON CONFLICT (granularity, bucket_start, sku, warehouse_id, movement_type) DO UPDATE SET " +
+           "total_quantity = inventory_movement_rollup.total_quantity + EXCLUDED.total_quantity, " +
+           "movement_count = inventory_movement_rollup.movement_count + 1, " +
+           "updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int increment(
+            @Param("granularity") String granularity,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("sku") String sku,
+            @Param("warehouseId") UUID warehouseId,
+            @Param("movementType") String movementType,
+            @Param("quantity") long quantity);
+
+    /**
+     * Delete all rollup buckets starting in a range
+     * @param start inclusive range start
+     * @param end exclusive range end
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM InventoryMovementRollup r WHERE r.bucketStart >= :start AND r.bucketStart < :end")
+    int deleteBucketsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Recompute rollup buckets for a range from raw movement history.
+     * The range should be aligned to whole buckets of the given granularity.
+     * @param granularity the rollup granularity name
+     * @param truncUnit the matching date_trunc field
+     * @param start inclusive range start
+     * @param end exclusive range end
+     * @return number of rows inserted
+     */
+    @Modifying
+    @Query(value =
+           "INSERT INTO inventory_movement_rollup " +
+           "(granularity, bucket_start, sku, warehouse_id, movement_type, total_quantity, movement_count, updated_at) " +
+           "SELECT :granularity, b.bucket_start, b.sku, b.warehouse_id, b.movement_type, " +
+           "SUM(b.quantity), COUNT(*), CURRENT_TIMESTAMP " +
+           "FROM (" + RAW_MOVEMENT_SIDES + ") b " +
+           "GROUP BY b.bucket_start, b.sku, b.warehouse_id, b.movement_type", nativeQuery = true)
+    int rebuildFromRaw(
+            @Param("granularity") String granularity,
+            @Param("truncUnit") String truncUnit,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Aggregate raw movement history per bucket, SKU, warehouse and type
+     * @param truncUnit the date_trunc field used for buckets
+     * @param start inclusive range start
+     * @param end exclusive range end
+     * @return rows of (bucket, sku, warehouse_id, movement_type, total_quantity, movement_count)
+     */
+    @Query(value =
+           "SELECT b.bucket_start, b.sku, b.warehouse_id, b.movement_type, SUM(b.quantity), COUNT(*) " +
+           "FROM (" + RAW_MOVEMENT_SIDES + ") b " +
+           "GROUP BY b.bucket_start, b.sku, b.warehouse_id, b.movement_type", nativeQuery = true)
+    List<Object[]> aggregateRaw(
+            @Param("truncUnit") String truncUnit,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Sum rollup buckets of one granularity per day, SKU, warehouse and type
+     * @param granularity the rollup granularity name
+     * @param start inclusive range start
+     * @param end exclusive range end
+     * @return rows of (day, sku, warehouse_id, movement_type, total_quantity, movement_count)
+     */
+    @Query(value =
+           "SELECT date_trunc('day', r.bucket_start), r.sku, r.warehouse_id, r.movement_type, " +
+           "SUM(r.total_quantity), SUM(r.movement_count) " +
+           "FROM inventory_movement_rollup r " +
+           "WHERE r.granularity = :granularity AND r.bucket_start >= :start AND r.bucket_start < :end " +
+           "GROUP BY date_trunc('day', r.bucket_start), r.sku, r.warehouse_id, r.movement_type", nativeQuery = true)
+    List<Object[]> aggregateRollupByDay(
+            @Param("granularity") String granularity,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * One row per warehouse side of each movement in a range. A transfer inside
+     * a single warehouse is only counted once.
+     */
+    String RAW_MOVEMENT_SIDES =
+           "SELECT date_trunc(:truncUnit, m.movement_date) AS bucket_start, m.sku, " +
+           "m.source_warehouse_id AS warehouse_id, m.movement_type, m.quantity " +
+           "FROM inventory_movement m " +
+           "WHERE m.source_warehouse_id IS NOT NULL " +
+           "AND m.movement_date >= :start AND m.movement_date < :end " +
+           "UNION ALL " +
+           "SELECT date_trunc(:truncUnit, m.movement_date), m.sku, " +
+           "m.target_warehouse_id, m.movement_type, m.quantity " +
+           "FROM inventory_movement m " +
+           "WHERE m.target_warehouse_id IS NOT NULL " +
+           "AND (m.source_warehouse_id IS NULL OR m.target_warehouse_id <> m.source_warehouse_id) " +
+           "AND m.movement_date >= :start AND m.movement_date < :end";
+}
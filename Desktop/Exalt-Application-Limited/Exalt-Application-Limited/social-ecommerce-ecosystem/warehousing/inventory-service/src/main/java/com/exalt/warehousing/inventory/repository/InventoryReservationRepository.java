@@ -58,7 +58,7 @@ public interface InventoryReservationRepository extends JpaRepository<InventoryR
      * @return number of rows affected
      */
     @Modifying
-    @Query("UPDATE InventoryReservation r SET r.status = :status WHERE r.id = :id")
+    @Query("UPDATE InventoryReservation r SET r.status = :status, r.version = r.version + 1 WHERE r.id = :id")
     int updateStatus(UUID id, ReservationStatus status);
 
     /**
@@ -68,7 +68,8 @@ public interface InventoryReservationRepository extends JpaRepository<InventoryR
      * @return number of rows affected
      */
     @Modifying
-    @Query("UPDATE InventoryReservation r SET r.status = :status WHERE r.orderId = :orderId")
+    @Query("UPDATE InventoryReservation r SET r.status = :status, r.version = r.version + 1 " +
+           "WHERE r.orderId = :orderId")
     int updateStatusByOrderId(UUID orderId, ReservationStatus status);
 
     /**
@@ -78,7 +79,7 @@ public interface InventoryReservationRepository extends JpaRepository<InventoryR
      * @return number of rows affected
      */
     @Modifying
-    @Query("UPDATE InventoryReservation r SET r.expirationTime = :newExpirationTime " +
+    @Query("UPDATE InventoryReservation r SET r.expirationTime = :newExpirationTime, r.version = r.version + 1 " +
            "WHERE r.id = :id AND r.status IN (com.ecosystem.warehousing.inventory.model.ReservationStatus.PENDING, " +
            "com.ecosystem.warehousing.inventory.model.ReservationStatus.CONFIRMED)")
     int extendExpirationTime(UUID id, LocalDateTime newExpirationTime);
@@ -3,6 +3,7 @@ package com.exalt.warehousing.inventory.repository;
 import java.util.Map;
 
 import com.exalt.warehousing.inventory.entity.InventoryTransaction;
+import com.exalt.warehousing.inventory.enums.RollupGranularity;
 import com.exalt.warehousing.inventory.enums.TransactionType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -93,6 +94,35 @@ public interface InventoryTransactionRepository extends JpaRepository<InventoryT
 
     /**
      * Get current inventory movement data
+     * Served from the hourly transaction rollup, so the range is resolved to
+     * whole hours: every hour from the hour of {@code start} up to {@code end}
+     * is included in full.
+     * @param start start date
+     * @param end end date
+     * @return list of inventory movement data
+     */
+    default List<Object> getInventoryMovementData(LocalDateTime start, LocalDateTime end) {
+        return getInventoryMovementDataFromRollup(
+                RollupGranularity.HOURLY, RollupGranularity.HOURLY.bucketStart(start), end);
+    }
+
+    /**
+     * Get inventory movement data from a transaction rollup
+     * @param granularity the rollup granularity to read
+     * @param bucketStart start of the first bucket
+     * @param end end date
+     * @return list of inventory movement data
+     */
+    @Query("SELECT new map(r.inventoryItemId as itemId, r.type as type, SUM(r.totalQuantity) as total) " +
+           "FROM InventoryTransactionRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart BETWEEN :bucketStart AND :end " +
+           "GROUP BY r.inventoryItemId, r.type")
+    List<Object> getInventoryMovementDataFromRollup(RollupGranularity granularity,
+                                                    LocalDateTime bucketStart, LocalDateTime end);
+
+    /**
+     * Get inventory movement data from raw transaction history
+     * Used to verify the rollups; reporting should use {@link #getInventoryMovementData}
      * @param start start date
      * @param end end date
      * @return list of inventory movement data
@@ -101,6 +131,6 @@ public interface InventoryTransactionRepository extends JpaRepository<InventoryT
            "FROM InventoryTransaction t " +
            "WHERE t.timestamp BETWEEN :start AND :end " +
            "GROUP BY t.inventoryItemId, t.type")
-    List<Object> getInventoryMovementData(LocalDateTime start, LocalDateTime end);
+    List<Object> getInventoryMovementDataFromRaw(LocalDateTime start, LocalDateTime end);
 }
 
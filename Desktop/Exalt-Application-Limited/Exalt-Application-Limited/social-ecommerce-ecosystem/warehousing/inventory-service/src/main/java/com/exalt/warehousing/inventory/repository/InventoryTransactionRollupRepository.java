@@ -0,0 +1,118 @@
+package com.exalt.warehousing.inventory.repository;
+
+import com.exalt.warehousing.inventory.entity.InventoryTransactionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for inventory transaction rollups
+ */
+@Repository
+public interface InventoryTransactionRollupRepository extends JpaRepository<InventoryTransactionRollup, Long> {
+
+    /**
+     * Add one transaction to a rollup bucket, creating the bucket if needed
+     * @param granularity the rollup granularity name
+     * @param bucketStart start of the bucket
+     * @param inventoryItemId the inventory item ID
+     * @param warehouseId the warehouse ID
+     * @param transactionType the transaction type name
+     * @param quantity the signed transaction quantity
+     * @return number of rows affected
+     */
+    @Modifying
+    @Query(value =
+           "INSERT INTO inventory_transaction_rollup " +
+           "(granularity, bucket_start, inventory_item_id, warehouse_id, transaction_type, " +
+           "total_quantity, transaction_count, updated_at) " +
+           "VALUES (:granularity, :bucketStart, :inventoryItemId, :warehouseId, :transactionType, " +
+           ":quantity, 1, CURRENT_TIMESTAMP) " +
+           "ON CONFLICT (granularity, bucket_start, inventory_item_id, warehouse_id, transaction_type) DO UPDATE SET " +
+           "total_quantity = inventory_transaction_rollup.total_quantity + EXCLUDED.total_quantity, " +
+           "transaction_count = inventory_transaction_rollup.transaction_count + 1, " +
+           "updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int increment(
+            @Param("granularity") String granularity,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("inventoryItemId") UUID inventoryItemId,
+            @Param("warehouseId") UUID warehouseId,
+            @Param("transactionType") String transactionType,
+            @Param("quantity") long quantity);
+
+    /**
+     * Delete all rollup buckets starting in a range
+     * @param start inclusive range start
+     * @param end exclusive range end
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM InventoryTransactionRollup r WHERE r.bucketStart >= :start AND r.bucketStart < :end")
+    int deleteBucketsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Recompute rollup buckets for a range from raw transaction history.
+     * The range should be aligned to whole buckets of the given granularity.
+     * @param granularity the rollup granularity name
+     * @param truncUnit the matching date_trunc field
+     * @param start inclusive range start
+     * @param end exclusive range end
+     * @return number of rows inserted
+     */
+    @Modifying
+    @Query(value =
+           "INSERT INTO inventory_transaction_rollup " +
+           "(granularity, bucket_start, inventory_item_id, warehouse_id, transaction_type, " +
+           "total_quantity, transaction_count, updated_at) " +
+           "SELECT :granularity, date_trunc(:truncUnit, t.transaction_timestamp), t.inventory_item_id, " +
+           "t.warehouse_id, t.transaction_type, SUM(t.quantity), COUNT(*), CURRENT_TIMESTAMP " +
+           "FROM inventory_transactions t " +
+           "WHERE t.transaction_timestamp >= :start AND t.transaction_timestamp < :end " +
+           "GROUP BY date_trunc(:truncUnit, t.transaction_timestamp), t.inventory_item_id, " +
+           "t.warehouse_id, t.transaction_type", nativeQuery = true)
+    int rebuildFromRaw(
+            @Param("granularity") String granularity,
+            @Param("truncUnit") String truncUnit,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Aggregate raw transaction history per day, item, warehouse and type
+     * @param start inclusive range start
+     * @param end exclusive range end
+     * @return rows of (day, inventory_item_id, warehouse_id, transaction_type, total_quantity, transaction_count)
+     */
+    @Query(value =
+           "SELECT date_trunc('day', t.transaction_timestamp), t.inventory_item_id, t.warehouse_id, " +
+           "t.transaction_type, SUM(t.quantity), COUNT(*) " +
+           "FROM inventory_transactions t " +
+           "WHERE t.transaction_timestamp >= :start AND t.transaction_timestamp < :end " +
+           "GROUP BY date_trunc('day', t.transaction_timestamp), t.inventory_item_id, " +
+           "t.warehouse_id, t.transaction_type", nativeQuery = true)
+    List<Object[]> aggregateRawByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Sum rollup buckets of one granularity per day, item, warehouse and type
+     * @param granularity the rollup granularity name
+     * @param start inclusive range start
+     * @param end exclusive range end
+     * @return rows of (day, inventory_item_id, warehouse_id, transaction_type, total_quantity, transaction_count)
+     */
+    @Query(value =
+           "SELECT date_trunc('day', r.bucket_start), r.inventory_item_id, r.warehouse_id, r.transaction_type, " +
+           "SUM(r.total_quantity), SUM(r.transaction_count) " +
+           "FROM inventory_transaction_rollup r " +
+           "WHERE r.granularity = :granularity AND r.bucket_start >= :start AND r.bucket_start < :end " +
+           "GROUP BY date_trunc('day', r.bucket_start), r.inventory_item_id, r.warehouse_id, " +
+           "r.transaction_type", nativeQuery = true)
+    List<Object[]> aggregateRollupByDay(
+            @Param("granularity") String granularity,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,62 @@
+package com.exalt.warehousing.inventory.repository;
+
+import com.exalt.warehousing.inventory.entity.ReservationPartitionLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for reservation partition leases
+ */
+@Repository
+public interface ReservationPartitionLeaseRepository extends JpaRepository<ReservationPartitionLease, Integer> {
+
+    /**
+     * Take or renew a lease if it is free, expired or already held by the caller
+     * @param partitionId the partition number
+     * @param ownerId the instance asking for the lease
+     * @param expiresAt new expiry time
+     * @param now current time
+     * @return number of rows affected (1 if the caller holds the lease)
+     */
+    @Modifying
+    @Query("UPDATE ReservationPartitionLease l SET " +
+           "l.epoch = CASE WHEN l.ownerId = :ownerId THEN l.epoch ELSE l.epoch + 1 END, " +
+           "l.ownerId = :ownerId, l.expiresAt = :expiresAt " +
+           "WHERE l.partitionId = :partitionId " +
+           "AND (l.ownerId IS NULL OR l.ownerId = :ownerId OR l.expiresAt < :now)")
+    int acquire(@Param("partitionId") int partitionId,
+                @Param("ownerId") String ownerId,
+                @Param("expiresAt") LocalDateTime expiresAt,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Create the lease row for a partition claimed for the first time
+     * @param partitionId the partition number
+     * @param ownerId the instance asking for the lease
+     * @param expiresAt expiry time
+     * @return number of rows inserted (0 if another instance created it first)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO reservation_partition_lease (partition_id, owner_id, epoch, expires_at) " +
+                   "VALUES (:partitionId, :ownerId, 1, :expiresAt) " +
+                   "ON CONFLICT (partition_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("partitionId") int partitionId,
+                       @Param("ownerId") String ownerId,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Release a lease held by the caller
+     * @param partitionId the partition number
+     * @param ownerId the instance releasing the lease
+     * @return number of rows affected
+     */
+    @Modifying
+    @Query("UPDATE ReservationPartitionLease l SET l.ownerId = NULL " +
+           "WHERE l.partitionId = :partitionId AND l.ownerId = :ownerId")
+    int release(@Param("partitionId") int partitionId, @Param("ownerId") String ownerId);
+}
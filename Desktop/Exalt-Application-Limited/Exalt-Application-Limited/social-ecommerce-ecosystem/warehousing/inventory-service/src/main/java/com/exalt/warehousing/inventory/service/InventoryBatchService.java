@@ -0,0 +1,42 @@
+package com.exalt.warehousing.inventory.service;
+
+import com.exalt.warehousing.inventory.dto.InventoryCheckRequest;
+import com.exalt.warehousing.inventory.dto.InventoryCheckResponse;
+import com.exalt.warehousing.inventory.dto.InventoryReleaseRequest;
+import com.exalt.warehousing.inventory.dto.InventoryReleaseResponse;
+import com.exalt.warehousing.inventory.dto.InventoryReservationRequest;
+import com.exalt.warehousing.inventory.dto.InventoryReservationResponse;
+
+import java.util.List;
+
+/**
+ * Service interface for the per-order stock calls of the fulfillment service,
+ * taken a batch at a time.
+ *
+ * Each method answers with one response per request, in request order. A
+ * request that fails is reported in its own response and does not affect
+ * the rest of the batch.
+ */
+public interface InventoryBatchService {
+
+    /**
+     * Check stock for a batch of orders
+     * @param requests the check requests
+     * @return the check responses
+     */
+    List<InventoryCheckResponse> checkAvailability(List<InventoryCheckRequest> requests);
+
+    /**
+     * Reserve stock for a batch of orders
+     * @param requests the reservation requests
+     * @return the reservation responses
+     */
+    List<InventoryReservationResponse> reserve(List<InventoryReservationRequest> requests);
+
+    /**
+     * Release the reserved stock of a batch of orders
+     * @param requests the release requests
+     * @return the release responses
+     */
+    List<InventoryReleaseResponse> release(List<InventoryReleaseRequest> requests);
+}
@@ -0,0 +1,36 @@
+package com.exalt.warehousing.inventory.service;
+
+import com.exalt.warehousing.inventory.dto.InventoryChangeFeedDTO;
+import com.exalt.warehousing.inventory.entity.InventoryChangeLog;
+import com.exalt.warehousing.inventory.entity.InventoryItem;
+import com.exalt.warehousing.inventory.model.InventoryAllocation;
+
+/**
+ * Service interface for recording and reading the inventory change feed
+ */
+public interface InventoryChangeFeedService {
+
+    /**
+     * Record a change to an inventory item and stamp its change sequence.
+     * Must be called inside the transaction that writes the item.
+     * @param item the persisted inventory item
+     * @param changeType the kind of change
+     */
+    void recordItemChange(InventoryItem item, InventoryChangeLog.ChangeType changeType);
+
+    /**
+     * Record a change to an inventory allocation and stamp its change sequence.
+     * Must be called inside the transaction that writes the allocation.
+     * @param allocation the persisted allocation
+     * @param changeType the kind of change
+     */
+    void recordAllocationChange(InventoryAllocation allocation, InventoryChangeLog.ChangeType changeType);
+
+    /**
+     * Get compacted changes recorded after a sequence
+     * @param sinceSequence the last sequence already applied by the consumer
+     * @param limit maximum number of log entries to scan
+     * @return one page of the change feed
+     */
+    InventoryChangeFeedDTO getChangesSince(long sinceSequence, int limit);
+}
@@ -0,0 +1,43 @@
+package com.exalt.warehousing.inventory.service;
+
+import com.exalt.warehousing.inventory.dto.RollupConsistencyReportDTO;
+import com.exalt.warehousing.inventory.entity.InventoryTransaction;
+import com.exalt.warehousing.inventory.model.InventoryMovement;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for maintaining the hourly and daily reporting rollups
+ */
+public interface InventoryRollupService {
+
+    /**
+     * Add a persisted transaction to the transaction rollups.
+     * Must be called inside the transaction that writes it.
+     * @param transaction the persisted inventory transaction
+     */
+    void recordTransaction(InventoryTransaction transaction);
+
+    /**
+     * Add a persisted movement to the movement rollups of every warehouse it touches.
+     * Must be called inside the transaction that writes it.
+     * @param movement the persisted inventory movement
+     */
+    void recordMovement(InventoryMovement movement);
+
+    /**
+     * Recompute all rollups for a range of days from raw history
+     * @param fromDate first day to rebuild
+     * @param toDate last day to rebuild (inclusive)
+     * @return number of rollup rows written
+     */
+    int rebuildRollups(LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Compare rollups against raw history for a range of days
+     * @param fromDate first day to check
+     * @param toDate last day to check (inclusive)
+     * @return the consistency report
+     */
+    RollupConsistencyReportDTO checkConsistency(LocalDate fromDate, LocalDate toDate);
+}
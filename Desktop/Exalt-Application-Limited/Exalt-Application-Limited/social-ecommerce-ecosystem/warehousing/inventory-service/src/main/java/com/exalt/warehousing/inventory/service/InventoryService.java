@@ -1,11 +1,14 @@
 package com.exalt.warehousing.inventory.service;
 
+import com.exalt.warehousing.inventory.dto.SkuAvailabilityDTO;
 import com.exalt.warehousing.inventory.entity.InventoryItem;
 import com.exalt.warehousing.inventory.enums.InventoryStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -27,6 +30,13 @@ public interface InventoryService {
      */
     InventoryItem getInventoryItemBySku(String sku);
 
+    /**
+     * Get the SKUs of several inventory items in one lookup
+     * @param ids the inventory item IDs
+     * @return the SKU by item ID, without the items not found
+     */
+    Map<UUID, String> getSkusByIds(Collection<UUID> ids);
+
     /**
      * Get an inventory item by product ID
      * @param productId the product ID
@@ -77,6 +87,38 @@ public interface InventoryService {
      */
     Page<InventoryItem> searchInventoryItems(String searchTerm, Pageable pageable);
 
+    /**
+     * Get all inventory items of a vendor
+     * @param vendorId the vendor ID
+     * @param pageable pagination information
+     * @return paged result of the vendor's inventory items
+     */
+    Page<InventoryItem> getVendorInventoryItems(Long vendorId, Pageable pageable);
+
+    /**
+     * Get the items a vendor manages in its own storage facilities
+     * @param vendorId the vendor ID
+     * @param pageable pagination information
+     * @return paged result of the vendor's self-storage items
+     */
+    Page<InventoryItem> getVendorSelfStorageItems(Long vendorId, Pageable pageable);
+
+    /**
+     * Search a single vendor's inventory items by name or SKU
+     * @param vendorId the vendor ID
+     * @param searchTerm the search term
+     * @param pageable pagination information
+     * @return paged result of matching inventory items
+     */
+    Page<InventoryItem> searchVendorInventoryItems(Long vendorId, String searchTerm, Pageable pageable);
+
+    /**
+     * Move a large vendor out of the shared storage partition into its own
+     * @param vendorId the vendor ID
+     * @return true if a dedicated partition was created, false if one already existed
+     */
+    boolean dedicateVendorPartition(Long vendorId);
+
     /**
      * Update inventory status
      * @param id the inventory item ID
@@ -105,6 +147,13 @@ public interface InventoryService {
      */
     boolean checkAvailability(UUID itemId, int quantity);
 
+    /**
+     * Get the unreserved quantity of a set of SKUs at every warehouse that stocks them
+     * @param skus the SKUs to look up
+     * @return one entry per SKU and warehouse with available stock
+     */
+    List<SkuAvailabilityDTO> getAvailabilityMatrix(Collection<String> skus);
+
     /**
      * Get inventory items by status
      * @param status the status to filter by
@@ -0,0 +1,199 @@
+package com.exalt.warehousing.inventory.service.impl;
+
+import com.exalt.warehousing.inventory.dto.InventoryCheckRequest;
+import com.exalt.warehousing.inventory.dto.InventoryCheckResponse;
+import com.exalt.warehousing.inventory.dto.InventoryReleaseRequest;
+import com.exalt.warehousing.inventory.dto.InventoryReleaseResponse;
+import com.exalt.warehousing.inventory.dto.InventoryReservationRequest;
+import com.exalt.warehousing.inventory.dto.InventoryReservationResponse;
+import com.exalt.warehousing.inventory.dto.SkuAvailabilityDTO;
+import com.exalt.warehousing.inventory.entity.InventoryItem;
+import com.exalt.warehousing.inventory.model.InventoryReservation;
+import com.exalt.warehousing.inventory.service.InventoryBatchService;
+import com.exalt.warehousing.inventory.service.InventoryService;
+import com.exalt.warehousing.inventory.service.ReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the batched fulfillment stock calls.
+ *
+ * A check batch is answered from one availability matrix lookup covering
+ * every SKU in the batch. Reservations and releases go through the
+ * reservation service order by order, so each order keeps its own
+ * transaction and partition routing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryBatchServiceImpl implements InventoryBatchService {
+
+    private static final int DEFAULT_EXPIRATION_MINUTES = 30;
+
+    private final InventoryService inventoryService;
+    private final ReservationService reservationService;
+
+    @Override
+    public List<InventoryCheckResponse> checkAvailability(List<InventoryCheckRequest> requests) {
+        Set<String> skus = requests.stream()
+                .flatMap(request -> items(request.getItems()).stream())
+                .map(InventoryCheckRequest.Item::getSku)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<String, Map<UUID, Integer>> stock = new HashMap<>();
+        if (!skus.isEmpty()) {
+            for (SkuAvailabilityDTO row : inventoryService.getAvailabilityMatrix(skus)) {
+                stock.computeIfAbsent(row.getSku(), sku -> new HashMap<>())
+                        .merge(row.getWarehouseId(), row.getAvailableQuantity(), Integer::sum);
+            }
+        }
+        return requests.stream()
+                .map(request -> check(request, stock))
+                .collect(Collectors.toList());
+    }
+
+    private InventoryCheckResponse check(InventoryCheckRequest request, Map<String, Map<UUID, Integer>> stock) {
+        List<InventoryCheckResponse.ItemAvailability> items = new ArrayList<>();
+        // Warehouses that can ship every item checked so far on their own
+        Set<UUID> shipAlone = null;
+        boolean allAvailable = true;
+
+        for (InventoryCheckRequest.Item item : items(request.getItems())) {
+            Map<UUID, Integer> byWarehouse = stock.getOrDefault(item.getSku(), Map.of());
+            int total = byWarehouse.values().stream().mapToInt(Integer::intValue).sum();
+            boolean available = total >= item.getQuantity();
+            allAvailable &= available;
+
+            items.add(InventoryCheckResponse.ItemAvailability.builder()
+                    .productId(item.getProductId())
+                    .sku(item.getSku())
+                    .requestedQuantity(item.getQuantity())
+                    .availableQuantity(total)
+                    .available(available)
+                    .unavailableReason(available ? null
+                            : byWarehouse.isEmpty() ? "SKU not in stock" : "Insufficient stock")
+                    .warehouseId(byWarehouse.entrySet().stream()
+                            .max(Map.Entry.comparingByValue())
+                            .map(Map.Entry::getKey)
+                            .orElse(null))
+                    .build());
+
+            Set<UUID> covering = byWarehouse.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= item.getQuantity())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toCollection(HashSet::new));
+            if (shipAlone == null) {
+                shipAlone = covering;
+            } else {
+                shipAlone.retainAll(covering);
+            }
+        }
+
+        return InventoryCheckResponse.builder()
+                .orderId(request.getOrderId())
+                .allItemsAvailable(allAvailable)
+                .items(items)
+                .recommendedWarehouseId(shipAlone == null ? null
+                        : shipAlone.stream().min(Comparator.naturalOrder()).orElse(null))
+                .build();
+    }
+
+    @Override
+    public List<InventoryReservationResponse> reserve(List<InventoryReservationRequest> requests) {
+        return requests.stream()
+                .map(this::reserve)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reserve every item of one order, cancelling the order's reservations
+     * again if any item cannot be reserved
+     */
+    private InventoryReservationResponse reserve(InventoryReservationRequest request) {
+        int expirationMinutes = expirationMinutes(request.getExpiresAt());
+        List<InventoryReservationResponse.ReservedItem> reserved = new ArrayList<>();
+        try {
+            for (InventoryReservationRequest.Item item : items(request.getItems())) {
+                InventoryItem inventoryItem = inventoryService.getInventoryItemBySku(item.getSku());
+                InventoryReservation reservation = reservationService.createReservation(inventoryItem.getId(),
+                        request.getWarehouseId(), item.getQuantity(), request.getOrderId(), expirationMinutes);
+                reserved.add(InventoryReservationResponse.ReservedItem.builder()
+                        .productId(item.getProductId())
+                        .sku(item.getSku())
+                        .quantity(item.getQuantity())
+                        .reservationItemId(reservation.getId())
+                        .warehouseId(reservation.getWarehouseId())
+                        .build());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to reserve inventory for order {}: {}", request.getOrderId(), e.getMessage());
+            if (!reserved.isEmpty()) {
+                reservationService.cancelReservation(request.getOrderId());
+            }
+            return InventoryReservationResponse.builder()
+                    .orderId(request.getOrderId())
+                    .fulfillmentOrderId(request.getFulfillmentOrderId())
+                    .success(false)
+                    .errorMessage(e.getMessage())
+                    .items(List.of())
+                    .build();
+        }
+
+        return InventoryReservationResponse.builder()
+                .orderId(request.getOrderId())
+                .fulfillmentOrderId(request.getFulfillmentOrderId())
+                .success(true)
+                .expiresAt(LocalDateTime.now().plusMinutes(expirationMinutes))
+                .items(reserved)
+                .build();
+    }
+
+    @Override
+    public List<InventoryReleaseResponse> release(List<InventoryReleaseRequest> requests) {
+        return requests.stream()
+                .map(this::release)
+                .collect(Collectors.toList());
+    }
+
+    private InventoryReleaseResponse release(InventoryReleaseRequest request) {
+        InventoryReleaseResponse.InventoryReleaseResponseBuilder response = InventoryReleaseResponse.builder()
+                .reservationId(request.getReservationId())
+                .fulfillmentOrderId(request.getFulfillmentOrderId())
+                .createdAt(LocalDateTime.now());
+        try {
+            boolean released = reservationService.cancelReservation(request.getOrderId());
+            return response.success(released)
+                    .errorMessage(released ? null : "No releasable reservations for order " + request.getOrderId())
+                    .build();
+        } catch (RuntimeException e) {
+            log.warn("Failed to release inventory for order {}: {}", request.getOrderId(), e.getMessage());
+            return response.success(false).errorMessage(e.getMessage()).build();
+        }
+    }
+
+    private int expirationMinutes(LocalDateTime expiresAt) {
+        if (expiresAt == null) {
+            return DEFAULT_EXPIRATION_MINUTES;
+        }
+        return (int) Math.max(1, Duration.between(LocalDateTime.now(), expiresAt).toMinutes());
+    }
+
+    private static <T> List<T> items(List<T> items) {
+        return items != null ? items : List.of();
+    }
+}
@@ -0,0 +1,228 @@
+package com.exalt.warehousing.inventory.service.impl;
+
+import com.exalt.warehousing.inventory.dto.InventoryChangeDTO;
+import com.exalt.warehousing.inventory.dto.InventoryChangeFeedDTO;
+import com.exalt.warehousing.inventory.entity.InventoryChangeLog;
+import com.exalt.warehousing.inventory.entity.InventoryChangeLog.ChangeType;
+import com.exalt.warehousing.inventory.entity.InventoryChangeLog.EntityType;
+import com.exalt.warehousing.inventory.entity.InventoryItem;
+import com.exalt.warehousing.inventory.model.InventoryAllocation;
+import com.exalt.warehousing.inventory.repository.InventoryAllocationRepository;
+import com.exalt.warehousing.inventory.repository.InventoryChangeLogRepository;
+import com.exalt.warehousing.inventory.repository.InventoryItemRepository;
+import com.exalt.warehousing.inventory.service.InventoryChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the inventory change feed service.
+ *
+ * Reads are compacted per page: when a record changed several times within
+ * the scanned range only its latest change is returned, carrying the current
+ * state loaded in one bulk query per entity type.
+ *
+ * Every read first sequences the entries committed since the previous read.
+ * The sequencer lock is held until the read commits, so sequences become
+ * visible in the order they were assigned and a cursor never passes an entry
+ * that is still to be sequenced.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryChangeFeedServiceImpl implements InventoryChangeFeedService {
+
+    private final InventoryChangeLogRepository changeLogRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final InventoryAllocationRepository allocationRepository;
+
+    @Value("${inventory.change-feed.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${inventory.change-feed.sequence-batch-size:10000}")
+    private int sequenceBatchSize;
+
+    // Advisory lock key shared by all instances sequencing the change log
+    private static final long SEQUENCER_LOCK_KEY = 0x696e765f66656564L;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordItemChange(InventoryItem item, ChangeType changeType) {
+        InventoryChangeLog entry = changeLogRepository.save(InventoryChangeLog.builder()
+                .entityType(EntityType.ITEM)
+                .entityId(String.valueOf(item.getId()))
+                .changeType(changeType)
+                .build());
+        item.setChangeSequence(entry.getEntryId());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAllocationChange(InventoryAllocation allocation, ChangeType changeType) {
+        InventoryChangeLog entry = changeLogRepository.save(InventoryChangeLog.builder()
+                .entityType(EntityType.ALLOCATION)
+                .entityId(String.valueOf(allocation.getId()))
+                .changeType(changeType)
+                .build());
+        allocation.setChangeSequence(entry.getEntryId());
+    }
+
+    @Override
+    @Transactional
+    public InventoryChangeFeedDTO getChangesSince(long sinceSequence, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+
+        changeLogRepository.lockSequencer(SEQUENCER_LOCK_KEY);
+        int sequenced = changeLogRepository.assignFeedSequences(sequenceBatchSize);
+        if (sequenced > 0) {
+            log.debug("Sequenced {} committed change log entries", sequenced);
+        }
+
+        Long headSequence = changeLogRepository.findHeadSequence();
+        List<InventoryChangeLog> entries = changeLogRepository.findChangesSince(
+                sinceSequence, PageRequest.of(0, pageSize));
+
+        if (entries.isEmpty()) {
+            return InventoryChangeFeedDTO.builder()
+                    .changes(List.of())
+                    .nextSequence(sinceSequence)
+                    .headSequence(headSequence != null ? headSequence : 0L)
+                    .hasMore(sequenced == sequenceBatchSize)
+                    .build();
+        }
+
+        // Keep only the latest entry per record, ordered by that entry's sequence
+        Map<String, InventoryChangeLog> latest = new LinkedHashMap<>();
+        for (InventoryChangeLog entry : entries) {
+            String key = entry.getEntityType() + ":" + entry.getEntityId();
+            latest.remove(key);
+            latest.put(key, entry);
+        }
+
+        Map<String, InventoryAllocation> allocations = loadAllocations(latest.values());
+        Map<String, InventoryItem> items = loadItems(latest.values(), allocations.values());
+
+        List<InventoryChangeDTO> changes = new ArrayList<>(latest.size());
+        for (InventoryChangeLog entry : latest.values()) {
+            changes.add(toChange(entry, items, allocations));
+        }
+
+        long nextSequence = entries.get(entries.size() - 1).getSequence();
+        log.debug("Change feed since {} returned {} changes from {} log entries, next sequence {}",
+                sinceSequence, changes.size(), entries.size(), nextSequence);
+
+        return InventoryChangeFeedDTO.builder()
+                .changes(changes)
+                .nextSequence(nextSequence)
+                .headSequence(headSequence != null ? headSequence : nextSequence)
+                .hasMore(entries.size() == pageSize || sequenced == sequenceBatchSize)
+                .build();
+    }
+
+    /**
+     * Loads the items of item upserts, plus the items the allocations belong to for their SKU
+     */
+    private Map<String, InventoryItem> loadItems(Iterable<InventoryChangeLog> entries,
+                                                 Iterable<InventoryAllocation> allocations) {
+        List<UUID> ids = new ArrayList<>();
+        for (InventoryChangeLog entry : entries) {
+            if (entry.getEntityType() == EntityType.ITEM && entry.getChangeType() == ChangeType.UPSERT) {
+                ids.add(UUID.fromString(entry.getEntityId()));
+            }
+        }
+        for (InventoryAllocation allocation : allocations) {
+            if (allocation.getInventoryItemId() != null) {
+                ids.add(allocation.getInventoryItemId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return inventoryItemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(item -> String.valueOf(item.getId()), Function.identity()));
+    }
+
+    private Map<String, InventoryAllocation> loadAllocations(Iterable<InventoryChangeLog> entries) {
+        List<UUID> ids = new ArrayList<>();
+        for (InventoryChangeLog entry : entries) {
+            if (entry.getEntityType() == EntityType.ALLOCATION && entry.getChangeType() == ChangeType.UPSERT) {
+                ids.add(UUID.fromString(entry.getEntityId()));
+            }
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return allocationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(allocation -> String.valueOf(allocation.getId()), Function.identity()));
+    }
+
+    /**
+     * Builds the compact delta for a log entry. An upsert whose record no longer
+     * exists is reported as a deletion.
+     */
+    private InventoryChangeDTO toChange(InventoryChangeLog entry,
+                                        Map<String, InventoryItem> items,
+                                        Map<String, InventoryAllocation> allocations) {
+        InventoryChangeDTO.InventoryChangeDTOBuilder change = InventoryChangeDTO.builder()
+                .sequence(entry.getSequence())
+                .entityType(entry.getEntityType())
+                .entityId(entry.getEntityId())
+                .changeType(ChangeType.DELETE);
+
+        if (entry.getChangeType() == ChangeType.DELETE) {
+            return change.build();
+        }
+
+        if (entry.getEntityType() == EntityType.ITEM) {
+            InventoryItem item = items.get(entry.getEntityId());
+            if (item == null) {
+                return change.build();
+            }
+            return change
+                    .changeType(ChangeType.UPSERT)
+                    .sku(item.getSku())
+                    .name(item.getName())
+                    .productId(toStringOrNull(item.getProductId()))
+                    .vendorId(toStringOrNull(item.getVendorId()))
+                    .warehouseId(toStringOrNull(item.getWarehouseId()))
+                    .totalQuantity(item.getTotalQuantity())
+                    .reservedQuantity(item.getReservedQuantity())
+                    .availableQuantity(item.getAvailableForSale())
+                    .status(item.getStatus() != null ? item.getStatus().name() : null)
+                    .isActive(item.getIsActive())
+                    .build();
+        }
+
+        InventoryAllocation allocation = allocations.get(entry.getEntityId());
+        if (allocation == null) {
+            return change.build();
+        }
+        InventoryItem item = items.get(String.valueOf(allocation.getInventoryItemId()));
+        return change
+                .changeType(ChangeType.UPSERT)
+                .inventoryItemId(toStringOrNull(allocation.getInventoryItemId()))
+                .sku(item != null ? item.getSku() : null)
+                .warehouseId(toStringOrNull(allocation.getWarehouseId()))
+                .totalQuantity(BigDecimal.valueOf(allocation.getQuantity()))
+                .reservedQuantity(BigDecimal.valueOf(allocation.getReservedQuantity()))
+                .availableQuantity(BigDecimal.valueOf(allocation.getAvailableQuantity()))
+                .build();
+    }
+
+    private String toStringOrNull(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
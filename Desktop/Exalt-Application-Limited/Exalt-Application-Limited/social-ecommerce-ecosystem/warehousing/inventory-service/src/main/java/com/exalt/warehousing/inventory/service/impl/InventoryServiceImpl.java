@@ -1,13 +1,19 @@
 package com.exalt.warehousing.inventory.service.impl;
 
 import com.exalt.warehousing.inventory.exception.InventoryNotFoundException;
+import com.exalt.warehousing.inventory.entity.InventoryChangeLog;
 import com.exalt.warehousing.inventory.entity.InventoryItem;
 import com.exalt.warehousing.inventory.enums.InventoryStatus;
 import com.exalt.warehousing.inventory.entity.InventoryTransaction;
 import com.exalt.warehousing.inventory.enums.TransactionType;
+import com.exalt.warehousing.inventory.dto.SkuAvailabilityDTO;
+import com.exalt.warehousing.inventory.repository.InventoryAllocationRepository;
 import com.exalt.warehousing.inventory.repository.InventoryItemRepository;
 import com.exalt.warehousing.inventory.repository.InventoryTransactionRepository;
+import com.exalt.warehousing.inventory.service.InventoryChangeFeedService;
+import com.exalt.warehousing.inventory.service.InventoryRollupService;
 import com.exalt.warehousing.inventory.service.InventoryService;
+import com.exalt.warehousing.inventory.util.FixedPointQuantity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -16,8 +22,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the inventory service
@@ -28,12 +39,19 @@ import java.util.UUID;
 public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryItemRepository inventoryItemRepository;
+    private final InventoryAllocationRepository allocationRepository;
     private final InventoryTransactionRepository transactionRepository;
+    private final InventoryChangeFeedService changeFeedService;
+    private final InventoryRollupService rollupService;
 
     @Override
     public InventoryItem getInventoryItemById(UUID id) {
-        return inventoryItemRepository.findById(id)
-                .orElseThrow(() -> new InventoryNotFoundException("Inventory item not found with ID: " + id));
+        // Carry the partition key when the locator knows the vendor so only one partition is read
+        Optional<Long> vendorId = inventoryItemRepository.findVendorIdById(id);
+        Optional<InventoryItem> item = vendorId.isPresent()
+                ? inventoryItemRepository.findByIdAndVendorId(id, vendorId.get())
+                : inventoryItemRepository.findById(id);
+        return item.orElseThrow(() -> new InventoryNotFoundException("Inventory item not found with ID: " + id));
     }
 
     @Override
@@ -42,6 +60,18 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new InventoryNotFoundException("Inventory item not found with SKU: " + sku));
     }
 
+    @Override
+    public Map<UUID, String> getSkusByIds(Collection<UUID> ids) {
+        Map<UUID, String> skus = new HashMap<>();
+        if (ids.isEmpty()) {
+            return skus;
+        }
+        for (Object[] row : inventoryItemRepository.findSkusByIdIn(ids)) {
+            skus.put(UUID.fromString(String.valueOf(row[0])), (String) row[1]);
+        }
+        return skus;
+    }
+
     @Override
     public InventoryItem getInventoryItemByProductId(Long productId) {
         return inventoryItemRepository.findByProductId(productId)
@@ -66,7 +96,7 @@ public class InventoryServiceImpl implements InventoryService {
             inventoryItem.setStatus(determineInitialStatus(inventoryItem));
         }
         
-        return inventoryItemRepository.save(inventoryItem);
+        return saveAndRecordChange(inventoryItem);
     }
 
     @Override
@@ -91,7 +121,7 @@ public class InventoryServiceImpl implements InventoryService {
             existingItem.setStatus(determineStatus(existingItem));
         }
         
-        return inventoryItemRepository.save(existingItem);
+        return saveAndRecordChange(existingItem);
     }
 
     @Override
@@ -105,7 +135,8 @@ public class InventoryServiceImpl implements InventoryService {
         item.setIsActive(false);
         item.setStatus(InventoryStatus.DISCONTINUED);
         
-        inventoryItemRepository.save(item);
+        InventoryItem savedItem = inventoryItemRepository.save(item);
+        changeFeedService.recordItemChange(savedItem, InventoryChangeLog.ChangeType.DELETE);
         
         log.info("Inventory item with ID: {} has been marked as discontinued", id);
     }
@@ -125,6 +156,28 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryItemRepository.searchByNameOrSku(searchTerm, pageable);
     }
 
+    @Override
+    public Page<InventoryItem> getVendorInventoryItems(Long vendorId, Pageable pageable) {
+        return inventoryItemRepository.findAllByVendorId(vendorId, pageable);
+    }
+
+    @Override
+    public Page<InventoryItem> getVendorSelfStorageItems(Long vendorId, Pageable pageable) {
+        return inventoryItemRepository.findAllByVendorIdAndIsVendorManagedTrue(vendorId, pageable);
+    }
+
+    @Override
+    public Page<InventoryItem> searchVendorInventoryItems(Long vendorId, String searchTerm, Pageable pageable) {
+        return inventoryItemRepository.searchByVendorAndNameOrSku(vendorId, searchTerm, pageable);
+    }
+
+    @Override
+    @Transactional
+    public boolean dedicateVendorPartition(Long vendorId) {
+        log.info("Moving vendor {} into a dedicated inventory partition", vendorId);
+        return Boolean.TRUE.equals(inventoryItemRepository.dedicateVendorPartition(vendorId));
+    }
+
     @Override
     @Transactional
     public InventoryItem updateInventoryStatus(UUID id, InventoryStatus status) {
@@ -133,7 +186,7 @@ public class InventoryServiceImpl implements InventoryService {
         InventoryItem item = getInventoryItemById(id);
         item.setStatus(status);
         
-        return inventoryItemRepository.save(item);
+        return saveAndRecordChange(item);
     }
 
     @Override
@@ -148,8 +201,31 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     public boolean checkAvailability(UUID itemId, int quantity) {
-        InventoryItem item = getInventoryItemById(itemId);
-        return item.getAvailableQuantity().compareTo(BigDecimal.valueOf(quantity)) >= 0;
+        // Hot path: compare fixed-point longs instead of loading the entity, in one statement
+        // when the locator knows the item; items missing from it are read from every partition
+        Long available = inventoryItemRepository.findAvailableQuantityFixedPointByLocator(itemId);
+        if (available == null) {
+            available = inventoryItemRepository.findAvailableQuantityFixedPoint(itemId);
+        }
+        if (available == null) {
+            throw new InventoryNotFoundException("Inventory item not found with ID: " + itemId);
+        }
+        return available >= FixedPointQuantity.fromUnits(quantity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SkuAvailabilityDTO> getAvailabilityMatrix(Collection<String> skus) {
+        if (skus.isEmpty()) {
+            return List.of();
+        }
+        return allocationRepository.summarizeAvailabilityBySku(skus).stream()
+                .map(row -> SkuAvailabilityDTO.builder()
+                        .sku((String) row[0])
+                        .warehouseId((UUID) row[1])
+                        .availableQuantity(((Number) row[2]).intValue())
+                        .build())
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -169,7 +245,7 @@ public class InventoryServiceImpl implements InventoryService {
         // Recalculate status based on new thresholds
         item.setStatus(determineStatus(item));
         
-        return inventoryItemRepository.save(item);
+        return saveAndRecordChange(item);
     }
 
     @Override
@@ -189,7 +265,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .notes(reason)
                 .build();
         
-        transactionRepository.save(transaction);
+        saveTransaction(transaction);
         
         // Update inventory quantity
         item.setTotalQuantity(item.getTotalQuantity().add(BigDecimal.valueOf(adjustment)));
@@ -197,7 +273,7 @@ public class InventoryServiceImpl implements InventoryService {
         // Update status based on new quantity
         item.setStatus(determineStatus(item));
         
-        return inventoryItemRepository.save(item);
+        return saveAndRecordChange(item);
     }
     
     /**
@@ -222,7 +298,7 @@ public class InventoryServiceImpl implements InventoryService {
         log.info("Marking inventory item {} for quality check. Reason: {}", id, reason);
         
         item.setStatus(InventoryStatus.QUALITY_HOLD);
-        item = inventoryItemRepository.save(item);
+        item = saveAndRecordChange(item);
         
         // Create transaction record
         InventoryTransaction transaction = InventoryTransaction.builder()
@@ -233,7 +309,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .userId(getCurrentUserId())
                 .notes(reason)
                 .build();
-        transactionRepository.save(transaction);
+        saveTransaction(transaction);
         
         return item;
     }
@@ -246,7 +322,7 @@ public class InventoryServiceImpl implements InventoryService {
         log.info("Quarantining inventory item {}. Reason: {}", id, reason);
         
         item.setStatus(InventoryStatus.QUARANTINED);
-        item = inventoryItemRepository.save(item);
+        item = saveAndRecordChange(item);
         
         // Create transaction record
         InventoryTransaction transaction = InventoryTransaction.builder()
@@ -257,7 +333,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .userId(getCurrentUserId())
                 .notes(reason)
                 .build();
-        transactionRepository.save(transaction);
+        saveTransaction(transaction);
         
         return item;
     }
@@ -274,6 +350,25 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryItemRepository.findByZone(zone);
     }
 
+    /**
+     * Saves an inventory item and appends an upsert to the change feed
+     * @param item the inventory item to save
+     * @return the saved inventory item
+     */
+    private InventoryItem saveAndRecordChange(InventoryItem item) {
+        InventoryItem savedItem = inventoryItemRepository.save(item);
+        changeFeedService.recordItemChange(savedItem, InventoryChangeLog.ChangeType.UPSERT);
+        return savedItem;
+    }
+
+    /**
+     * Saves an inventory transaction and adds it to the reporting rollups
+     * @param transaction the transaction to save
+     */
+    private void saveTransaction(InventoryTransaction transaction) {
+        rollupService.recordTransaction(transactionRepository.save(transaction));
+    }
+
     /**
      * Get current user ID (placeholder implementation)
      * In a real application, this would get the user from security context
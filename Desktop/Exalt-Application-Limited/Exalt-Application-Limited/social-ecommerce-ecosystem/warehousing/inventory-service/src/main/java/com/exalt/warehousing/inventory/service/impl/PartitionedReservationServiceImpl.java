@@ -0,0 +1,154 @@
+package com.exalt.warehousing.inventory.service.impl;
+
+import com.exalt.warehousing.inventory.dto.PartitionedReservationRequest;
+import com.exalt.warehousing.inventory.model.InventoryReservation;
+import com.exalt.warehousing.inventory.model.ReservationStatus;
+import com.exalt.warehousing.inventory.partition.ReservationForwarder;
+import com.exalt.warehousing.inventory.partition.ReservationPartitionCoordinator;
+import com.exalt.warehousing.inventory.service.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reservation service that routes item reservations to the instance owning
+ * the item's SKU partition.
+ *
+ * Reservation creation is the contended path: on the owner it runs on the
+ * partition's single writer, so concurrent requests for a hot item queue in
+ * memory instead of competing for the same allocation rows. Order-level
+ * and single-reservation operations span items of several partitions, or
+ * cannot be forwarded, and are passed straight to the delegate. Allocations
+ * and reservations are versioned, so when one of those races the partition
+ * writer on the same row the later commit fails instead of overwriting it.
+ *
+ * The writer's transaction checks the partition lease again just before it
+ * commits, so a write that outlived the lease is rolled back.
+ */
+@Slf4j
+public class PartitionedReservationServiceImpl implements ReservationService {
+
+    private final ReservationService delegate;
+    private final ReservationPartitionCoordinator coordinator;
+    private final ReservationForwarder forwarder;
+    private final TransactionOperations transactions;
+
+    public PartitionedReservationServiceImpl(ReservationService delegate,
+                                             ReservationPartitionCoordinator coordinator,
+                                             ReservationForwarder forwarder) {
+        this(delegate, coordinator, forwarder, TransactionOperations.withoutTransaction());
+    }
+
+    public PartitionedReservationServiceImpl(ReservationService delegate,
+                                             ReservationPartitionCoordinator coordinator,
+                                             ReservationForwarder forwarder,
+                                             TransactionOperations transactions) {
+        this.delegate = delegate;
+        this.coordinator = coordinator;
+        this.forwarder = forwarder;
+        this.transactions = transactions;
+    }
+
+    @Override
+    public InventoryReservation createReservation(UUID inventoryItemId, UUID warehouseId,
+                                                  int quantity, UUID orderId, int expirationMinutes) {
+        PartitionedReservationRequest request = PartitionedReservationRequest.builder()
+                .inventoryItemId(inventoryItemId)
+                .warehouseId(warehouseId)
+                .quantity(quantity)
+                .orderId(orderId)
+                .expirationMinutes(expirationMinutes)
+                .build();
+
+        String owner = coordinator.ownerOf(inventoryItemId);
+        if (owner == null || coordinator.isLocal(owner)) {
+            return createOwnedReservation(request);
+        }
+
+        log.debug("Forwarding reservation for item {} to partition owner {}", inventoryItemId, owner);
+        return forwarder.forward(owner, request);
+    }
+
+    /**
+     * Apply a reservation on this instance's single writer without forwarding
+     * @param request the reservation to apply
+     * @return the created reservation
+     * @throws com.exalt.warehousing.inventory.exception.PartitionNotOwnedException if the partition is not owned here
+     */
+    public InventoryReservation createOwnedReservation(PartitionedReservationRequest request) {
+        UUID inventoryItemId = request.getInventoryItemId();
+        return coordinator.execute(inventoryItemId, () -> transactions.execute(status -> {
+            InventoryReservation reservation = delegate.createReservation(
+                    inventoryItemId,
+                    request.getWarehouseId(),
+                    request.getQuantity(),
+                    request.getOrderId(),
+                    request.getExpirationMinutes());
+            coordinator.verifyLease(inventoryItemId);
+            return reservation;
+        }));
+    }
+
+    @Override
+    public InventoryReservation getReservationById(UUID id) {
+        return delegate.getReservationById(id);
+    }
+
+    @Override
+    public List<InventoryReservation> getReservationsByOrderId(UUID orderId) {
+        return delegate.getReservationsByOrderId(orderId);
+    }
+
+    @Override
+    public List<InventoryReservation> getActiveReservationsByItemId(UUID inventoryItemId) {
+        return delegate.getActiveReservationsByItemId(inventoryItemId);
+    }
+
+    @Override
+    public InventoryReservation updateReservationStatus(UUID id, ReservationStatus status) {
+        return delegate.updateReservationStatus(id, status);
+    }
+
+    @Override
+    public int updateReservationStatusByOrderId(UUID orderId, ReservationStatus status) {
+        return delegate.updateReservationStatusByOrderId(orderId, status);
+    }
+
+    @Override
+    public InventoryReservation extendReservation(UUID id, int minutes) {
+        return delegate.extendReservation(id, minutes);
+    }
+
+    @Override
+    public boolean completeReservation(UUID orderId, UUID userId) {
+        return delegate.completeReservation(orderId, userId);
+    }
+
+    @Override
+    public boolean cancelReservation(UUID orderId) {
+        return delegate.cancelReservation(orderId);
+    }
+
+    @Override
+    public int processExpiredReservations(LocalDateTime currentTime) {
+        return delegate.processExpiredReservations(currentTime);
+    }
+
+    @Override
+    public boolean hasActiveReservations(UUID orderId) {
+        return delegate.hasActiveReservations(orderId);
+    }
+
+    @Override
+    public int getTotalReservedQuantity(UUID inventoryItemId) {
+        return delegate.getTotalReservedQuantity(inventoryItemId);
+    }
+
+    @Override
+    public int getTotalReservedQuantityAtWarehouse(UUID inventoryItemId, UUID warehouseId) {
+        return delegate.getTotalReservedQuantityAtWarehouse(inventoryItemId, warehouseId);
+    }
+}
@@ -3,16 +3,21 @@ package com.exalt.warehousing.inventory.service.impl;
 import com.exalt.warehousing.inventory.client.OrderServiceClient;
 import com.exalt.warehousing.inventory.event.InventoryEventPublisher;
 import com.exalt.warehousing.inventory.exception.InsufficientInventoryException;
+import com.exalt.warehousing.inventory.exception.InventoryNotFoundException;
 import com.exalt.warehousing.inventory.exception.ReservationNotFoundException;
 import com.exalt.warehousing.inventory.entity.*;
 import com.exalt.warehousing.inventory.model.InventoryReservation;
 import com.exalt.warehousing.inventory.model.InventoryAllocation;
+import com.exalt.warehousing.inventory.model.InventoryMovement;
 import com.exalt.warehousing.inventory.model.ReservationItem;
 import com.exalt.warehousing.inventory.model.ReservationStatus;
 import com.exalt.warehousing.inventory.enums.TransactionType;
 import com.exalt.warehousing.inventory.repository.InventoryAllocationRepository;
+import com.exalt.warehousing.inventory.repository.InventoryMovementRepository;
 import com.exalt.warehousing.inventory.repository.InventoryReservationRepository;
 import com.exalt.warehousing.inventory.repository.InventoryTransactionRepository;
+import com.exalt.warehousing.inventory.service.InventoryChangeFeedService;
+import com.exalt.warehousing.inventory.service.InventoryRollupService;
 import com.exalt.warehousing.inventory.service.InventoryService;
 import com.exalt.warehousing.inventory.service.ReservationService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -27,6 +32,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the reservation service
@@ -38,23 +44,32 @@ public class ReservationServiceImpl implements ReservationService {
     private final InventoryReservationRepository reservationRepository;
     private final InventoryAllocationRepository allocationRepository;
     private final InventoryTransactionRepository transactionRepository;
+    private final InventoryMovementRepository movementRepository;
     private final InventoryService inventoryService;
     private final OrderServiceClient orderServiceClient;
     private final InventoryEventPublisher eventPublisher;
+    private final InventoryChangeFeedService changeFeedService;
+    private final InventoryRollupService rollupService;
     
     public ReservationServiceImpl(
             InventoryReservationRepository reservationRepository,
             InventoryAllocationRepository allocationRepository,
             InventoryTransactionRepository transactionRepository,
+            InventoryMovementRepository movementRepository,
             InventoryService inventoryService,
             OrderServiceClient orderServiceClient,
-            InventoryEventPublisher eventPublisher) {
+            InventoryEventPublisher eventPublisher,
+            InventoryChangeFeedService changeFeedService,
+            InventoryRollupService rollupService) {
         this.reservationRepository = reservationRepository;
         this.allocationRepository = allocationRepository;
         this.transactionRepository = transactionRepository;
+        this.movementRepository = movementRepository;
         this.inventoryService = inventoryService;
         this.orderServiceClient = orderServiceClient;
         this.eventPublisher = eventPublisher;
+        this.changeFeedService = changeFeedService;
+        this.rollupService = rollupService;
     }
 
     @Override
@@ -87,7 +102,7 @@ public class ReservationServiceImpl implements ReservationService {
             if (!reserved) {
                 throw new InsufficientInventoryException("Failed to reserve inventory");
             }
-            allocationRepository.save(allocation);
+            saveAllocation(allocation);
         } else {
             // Auto-allocate across warehouses (simplified implementation)
             List<InventoryAllocation> availableAllocations = allocationRepository.findAvailableAllocations(inventoryItemId);
@@ -99,7 +114,7 @@ public class ReservationServiceImpl implements ReservationService {
                 if (quantityToReserve > 0) {
                     boolean reserved = allocation.reserve(quantityToReserve);
                     if (reserved) {
-                        allocationRepository.save(allocation);
+                        saveAllocation(allocation);
                         remainingQuantity -= quantityToReserve;
                     }
                 }
@@ -145,7 +160,7 @@ public class ReservationServiceImpl implements ReservationService {
                 .notes("Reservation for order: " + orderId)
                 .build();
         
-        transactionRepository.save(transaction);
+        saveTransaction(transaction);
         
         // Publish event for the reservation creation
         eventPublisher.publishReservationCreated(savedReservation);
@@ -229,11 +244,9 @@ public class ReservationServiceImpl implements ReservationService {
             return reservation;
         }
         
-        LocalDateTime newExpirationTime = reservation.getExpirationTime().plusMinutes(minutes);
-        reservationRepository.extendExpirationTime(id, newExpirationTime);
-        
-        reservation.setExpirationTime(newExpirationTime);
-        return reservation;
+        // Saved through the entity so a concurrent change fails the version check
+        reservation.setExpirationTime(reservation.getExpirationTime().plusMinutes(minutes));
+        return reservationRepository.save(reservation);
     }
 
     @Override
@@ -249,6 +262,12 @@ public class ReservationServiceImpl implements ReservationService {
         }
         
         boolean allCompleted = true;
+
+        // SKUs for the pick movements, read once for the whole order
+        Map<UUID, String> skus = inventoryService.getSkusByIds(reservations.stream()
+                .filter(reservation -> reservation.getStatus() == ReservationStatus.CONFIRMED)
+                .map(InventoryReservation::getInventoryItemId)
+                .collect(Collectors.toSet()));
         
         for (InventoryReservation reservation : reservations) {
             // Skip if already completed
@@ -284,7 +303,7 @@ public class ReservationServiceImpl implements ReservationService {
                 continue;
             }
             
-            allocationRepository.save(allocation);
+            saveAllocation(allocation);
             
             // Store the previous status
             ReservationStatus previousStatus = reservation.getStatus();
@@ -311,7 +330,24 @@ public class ReservationServiceImpl implements ReservationService {
                     orderId,
                     userId);
             
-            transactionRepository.save(transaction);
+            saveTransaction(transaction);
+
+            // Record the stock leaving the warehouse for movement reporting
+            String sku = skus.get(reservation.getInventoryItemId());
+            if (sku == null) {
+                throw new InventoryNotFoundException("Inventory item not found with ID: "
+                        + reservation.getInventoryItemId());
+            }
+            saveMovement(InventoryMovement.builder()
+                    .sku(sku)
+                    .sourceWarehouseId(reservation.getWarehouseId())
+                    .quantity(reservation.getQuantity())
+                    .movementType(InventoryMovement.MovementType.PICK)
+                    .referenceId(orderId)
+                    .referenceType("ORDER")
+                    .movementDate(LocalDateTime.now())
+                    .initiatedBy(userId)
+                    .build());
         }
         
         // Notify order service
@@ -374,7 +410,7 @@ public class ReservationServiceImpl implements ReservationService {
                 continue;
             }
             
-            allocationRepository.save(allocation);
+            saveAllocation(allocation);
             
             // Store previous status
             ReservationStatus previousStatus = reservation.getStatus();
@@ -405,7 +441,7 @@ public class ReservationServiceImpl implements ReservationService {
                     .notes("Cancelled reservation for order: " + orderId)
                     .build();
             
-            transactionRepository.save(transaction);
+            saveTransaction(transaction);
         }
         
         return allCancelled;
@@ -448,7 +484,7 @@ public class ReservationServiceImpl implements ReservationService {
                 continue;
             }
             
-            allocationRepository.save(allocation);
+            saveAllocation(allocation);
             
             // Store previous status
             ReservationStatus previousStatus = reservation.getStatus();
@@ -479,7 +515,7 @@ public class ReservationServiceImpl implements ReservationService {
                     .notes("Released expired reservation: " + reservation.getId())
                     .build();
             
-            transactionRepository.save(transaction);
+            saveTransaction(transaction);
             
             // Notify order service
             try {
@@ -521,6 +557,31 @@ public class ReservationServiceImpl implements ReservationService {
         return total != null ? total : 0;
     }
 
+    /**
+     * Saves an allocation and appends an upsert to the change feed
+     * @param allocation the allocation to save
+     */
+    private void saveAllocation(InventoryAllocation allocation) {
+        InventoryAllocation savedAllocation = allocationRepository.save(allocation);
+        changeFeedService.recordAllocationChange(savedAllocation, InventoryChangeLog.ChangeType.UPSERT);
+    }
+
+    /**
+     * Saves an inventory transaction and adds it to the reporting rollups
+     * @param transaction the transaction to save
+     */
+    private void saveTransaction(InventoryTransaction transaction) {
+        rollupService.recordTransaction(transactionRepository.save(transaction));
+    }
+
+    /**
+     * Saves an inventory movement and adds it to the reporting rollups
+     * @param movement the movement to save
+     */
+    private void saveMovement(InventoryMovement movement) {
+        rollupService.recordMovement(movementRepository.save(movement));
+    }
+
     /**
      * Notifies the Order Service about inventory reservation/allocation status
      * @param orderId the order ID
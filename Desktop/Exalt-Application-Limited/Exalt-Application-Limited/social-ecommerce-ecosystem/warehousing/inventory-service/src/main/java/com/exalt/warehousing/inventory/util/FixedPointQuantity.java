@@ -0,0 +1,29 @@
+package com.exalt.warehousing.inventory.util;
+
+/**
+ * Fixed-point representation of inventory quantities as a primitive long.
+ *
+ * Quantities are persisted as DECIMAL(12,3), so a long counting thousandths
+ * of a unit represents every stored value exactly. It is used on hot paths
+ * such as availability checks to avoid allocating BigDecimal objects;
+ * stored values are converted in SQL by scaling with {@link #ONE}.
+ */
+public final class FixedPointQuantity {
+
+    /**
+     * Fixed-point value of one whole unit, for the three decimal places of the
+     * quantity columns
+     */
+    public static final long ONE = 1_000L;
+
+    private FixedPointQuantity() {
+    }
+
+    /**
+     * Convert a whole-unit quantity
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long fromUnits(long quantity) {
+        return Math.multiplyExact(quantity, ONE);
+    }
+}
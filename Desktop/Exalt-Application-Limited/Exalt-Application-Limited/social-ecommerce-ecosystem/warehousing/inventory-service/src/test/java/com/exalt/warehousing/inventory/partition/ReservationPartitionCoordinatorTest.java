@@ -0,0 +1,252 @@
+package com.exalt.warehousing.inventory.partition;
+
+import com.exalt.warehousing.inventory.exception.PartitionNotOwnedException;
+import com.exalt.warehousing.inventory.model.InventoryReservation;
+import com.exalt.warehousing.inventory.service.ReservationService;
+import com.exalt.warehousing.inventory.service.impl.PartitionedReservationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs several partition coordinators in one JVM against a shared in-memory
+ * lease store and membership list, with forwarding done by direct calls.
+ */
+class ReservationPartitionCoordinatorTest {
+
+    private static final int PARTITIONS = 32;
+
+    private final SkuPartitioner partitioner = new SkuPartitioner(PARTITIONS, 16);
+    private final InMemoryLeaseStore leaseStore = new InMemoryLeaseStore();
+    private final List<String> members = new CopyOnWriteArrayList<>();
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+
+    // Shared "allocation row": reserved quantity per item, updated without locks
+    private final Map<UUID, Integer> reserved = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> activeWriters = new ConcurrentHashMap<>();
+    private final AtomicInteger maxConcurrentWriters = new AtomicInteger();
+    private volatile long writeDelayMillis = 1;
+
+    @AfterEach
+    void tearDown() {
+        nodes.values().forEach(node -> node.coordinator.releaseAll());
+    }
+
+    @Test
+    void everyPartitionIsOwnedByExactlyOneInstance() {
+        startNodes(Duration.ofSeconds(30), "a:1", "b:1", "c:1");
+        rebalanceAll();
+
+        assertDisjointAndComplete();
+        nodes.values().forEach(node -> assertFalse(node.coordinator.getOwnedPartitions().isEmpty()));
+    }
+
+    @Test
+    void concurrentReservationsForHotItemAreAppliedBySingleWriter() throws Exception {
+        startNodes(Duration.ofSeconds(30), "a:1", "b:1", "c:1");
+        rebalanceAll();
+
+        UUID hotItem = UUID.randomUUID();
+        List<Node> entryPoints = new ArrayList<>(nodes.values());
+        ExecutorService clients = Executors.newFixedThreadPool(12);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Node entry = entryPoints.get(i % entryPoints.size());
+            results.add(clients.submit(() -> entry.service.createReservation(
+                    hotItem, null, 1, UUID.randomUUID(), 30)));
+        }
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        clients.shutdown();
+
+        assertEquals(300, reserved.get(hotItem));
+        assertEquals(1, maxConcurrentWriters.get());
+
+        String owner = nodes.get("a:1").coordinator.ownerOf(hotItem);
+        nodes.forEach((id, node) -> assertEquals(id.equals(owner) ? 300 : 0, node.applied.get()));
+    }
+
+    @Test
+    void scaleOutHandsPartitionsOverWithoutTwoOwners() {
+        startNodes(Duration.ofSeconds(30), "a:1", "b:1");
+        rebalanceAll();
+
+        startNodes(Duration.ofSeconds(30), "c:1");
+        Node joiner = nodes.get("c:1");
+
+        // The new instance cannot claim anything until the old owners let go
+        joiner.coordinator.rebalance();
+        assertTrue(joiner.coordinator.getOwnedPartitions().isEmpty());
+        assertDisjointAndComplete();
+
+        UUID movedItem = itemOwnedBy(joiner);
+        assertThrows(PartitionNotOwnedException.class,
+                () -> joiner.service.createReservation(movedItem, null, 1, UUID.randomUUID(), 30));
+
+        nodes.get("a:1").coordinator.rebalance();
+        nodes.get("b:1").coordinator.rebalance();
+        joiner.coordinator.rebalance();
+
+        assertFalse(joiner.coordinator.getOwnedPartitions().isEmpty());
+        assertDisjointAndComplete();
+        joiner.service.createReservation(movedItem, null, 1, UUID.randomUUID(), 30);
+        assertEquals(1, joiner.applied.get());
+    }
+
+    @Test
+    void crashedInstancePartitionsAreTakenOverAfterLeaseExpiry() throws Exception {
+        startNodes(Duration.ofMillis(200), "a:1", "b:1");
+        rebalanceAll();
+
+        // b stops renewing without releasing anything
+        Node crashed = nodes.remove("b:1");
+        members.remove("b:1");
+        Set<Integer> orphaned = crashed.coordinator.getOwnedPartitions();
+
+        Node survivor = nodes.get("a:1");
+        survivor.coordinator.rebalance();
+        assertTrue(survivor.coordinator.getOwnedPartitions().stream().noneMatch(orphaned::contains));
+
+        Thread.sleep(300);
+        survivor.coordinator.rebalance();
+        assertEquals(PARTITIONS, survivor.coordinator.getOwnedPartitions().size());
+    }
+
+    @Test
+    void writeThatOutlivesTheLeaseIsNotCommitted() {
+        startNodes(Duration.ofMillis(200), "a:1");
+        rebalanceAll();
+        Node node = nodes.get("a:1");
+        UUID itemId = itemOwnedBy(node);
+
+        // No rebalance renews the lease while the write runs
+        writeDelayMillis = 400;
+        assertThrows(PartitionNotOwnedException.class,
+                () -> node.service.createReservation(itemId, null, 1, UUID.randomUUID(), 30));
+        assertEquals(1, node.applied.get());
+    }
+
+    private void startNodes(Duration leaseTtl, String... instanceIds) {
+        for (String instanceId : instanceIds) {
+            members.add(instanceId);
+            PartitionMembership membership = new PartitionMembership() {
+                @Override
+                public String getLocalInstanceId() {
+                    return instanceId;
+                }
+
+                @Override
+                public List<String> getMembers() {
+                    return List.copyOf(members);
+                }
+            };
+            ReservationPartitionCoordinator coordinator = new ReservationPartitionCoordinator(
+                    partitioner, membership, leaseStore, leaseTtl, Duration.ofSeconds(5), Duration.ofSeconds(5));
+            nodes.put(instanceId, new Node(coordinator));
+        }
+    }
+
+    private void rebalanceAll() {
+        nodes.values().forEach(node -> node.coordinator.rebalance());
+    }
+
+    private void assertDisjointAndComplete() {
+        Set<Integer> seen = new HashSet<>();
+        for (Node node : nodes.values()) {
+            for (Integer partition : node.coordinator.getOwnedPartitions()) {
+                assertTrue(seen.add(partition), "Partition " + partition + " has two owners");
+            }
+        }
+        assertEquals(PARTITIONS, seen.size());
+    }
+
+    private UUID itemOwnedBy(Node node) {
+        while (true) {
+            UUID itemId = UUID.randomUUID();
+            if (node.coordinator.isLocal(node.coordinator.ownerOf(itemId))) {
+                return itemId;
+            }
+        }
+    }
+
+    /**
+     * Applies a reservation with a deliberately racy read-modify-write so
+     * that any overlap between writers shows up as a lost update
+     */
+    private InventoryReservation applyReservation(UUID itemId, int quantity) throws InterruptedException {
+        AtomicInteger active = activeWriters.computeIfAbsent(itemId, id -> new AtomicInteger());
+        maxConcurrentWriters.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            int current = reserved.getOrDefault(itemId, 0);
+            Thread.sleep(writeDelayMillis);
+            reserved.put(itemId, current + quantity);
+            return InventoryReservation.builder().inventoryItemId(itemId).quantity(quantity).build();
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private class Node {
+        private final ReservationPartitionCoordinator coordinator;
+        private final PartitionedReservationServiceImpl service;
+        private final AtomicInteger applied = new AtomicInteger();
+
+        Node(ReservationPartitionCoordinator coordinator) {
+            this.coordinator = coordinator;
+            ReservationService delegate = mock(ReservationService.class);
+            when(delegate.createReservation(any(), any(), anyInt(), any(), anyInt())).thenAnswer(invocation -> {
+                applied.incrementAndGet();
+                return applyReservation(invocation.getArgument(0), invocation.getArgument(2));
+            });
+            ReservationForwarder forwarder = (owner, request) -> nodes.get(owner).service.createOwnedReservation(request);
+            this.service = new PartitionedReservationServiceImpl(delegate, coordinator, forwarder);
+        }
+    }
+
+    private static class InMemoryLeaseStore implements PartitionLeaseStore {
+
+        private final Map<Integer, String> owners = new ConcurrentHashMap<>();
+        private final Map<Integer, Long> expiries = new ConcurrentHashMap<>();
+
+        @Override
+        public synchronized boolean tryAcquire(int partition, String ownerId, Duration ttl) {
+            long now = System.currentTimeMillis();
+            String owner = owners.get(partition);
+            if (owner == null || owner.equals(ownerId) || expiries.get(partition) < now) {
+                owners.put(partition, ownerId);
+                expiries.put(partition, now + ttl.toMillis());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized void release(int partition, String ownerId) {
+            owners.remove(partition, ownerId);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.exalt.warehousing.inventory.service.impl;
+
+import com.exalt.warehousing.inventory.dto.InventoryCheckRequest;
+import com.exalt.warehousing.inventory.dto.InventoryCheckResponse;
+import com.exalt.warehousing.inventory.dto.InventoryReservationRequest;
+import com.exalt.warehousing.inventory.dto.InventoryReservationResponse;
+import com.exalt.warehousing.inventory.dto.SkuAvailabilityDTO;
+import com.exalt.warehousing.inventory.entity.InventoryItem;
+import com.exalt.warehousing.inventory.exception.InsufficientInventoryException;
+import com.exalt.warehousing.inventory.model.InventoryReservation;
+import com.exalt.warehousing.inventory.service.InventoryService;
+import com.exalt.warehousing.inventory.service.ReservationService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs batches against a mocked inventory and reservation service and
+ * checks that every order gets its own result, in request order.
+ */
+class InventoryBatchServiceImplTest {
+
+    private static final UUID EAST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID WEST = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final ReservationService reservationService = mock(ReservationService.class);
+    private final InventoryBatchServiceImpl batchService = new InventoryBatchServiceImpl(inventoryService, reservationService);
+
+    @Test
+    void everyOrderInTheBatchIsAnsweredFromOneAvailabilityLookup() {
+        when(inventoryService.getAvailabilityMatrix(Set.of("SKU-A", "SKU-B"))).thenReturn(List.of(
+                new SkuAvailabilityDTO("SKU-A", EAST, 4),
+                new SkuAvailabilityDTO("SKU-A", WEST, 6),
+                new SkuAvailabilityDTO("SKU-B", WEST, 1)));
+
+        List<InventoryCheckResponse> responses = batchService.checkAvailability(List.of(
+                checkRequest(item("SKU-A", 5), item("SKU-B", 1)),
+                checkRequest(item("SKU-A", 11))));
+
+        verify(inventoryService, times(1)).getAvailabilityMatrix(any());
+        assertEquals(2, responses.size());
+
+        InventoryCheckResponse first = responses.get(0);
+        assertTrue(first.isAllItemsAvailable());
+        assertEquals(WEST, first.getRecommendedWarehouseId());
+        assertEquals(10, first.getItems().get(0).getAvailableQuantity());
+
+        InventoryCheckResponse second = responses.get(1);
+        assertFalse(second.isAllItemsAvailable());
+        assertNull(second.getRecommendedWarehouseId());
+        assertEquals("Insufficient stock", second.getItems().get(0).getUnavailableReason());
+    }
+
+    @Test
+    void orderWithAnItemThatCannotBeReservedIsCancelledWithoutFailingTheBatch() {
+        UUID failingOrder = UUID.randomUUID();
+        UUID otherOrder = UUID.randomUUID();
+        UUID itemA = stockedItem("SKU-A");
+        UUID itemB = stockedItem("SKU-B");
+        when(reservationService.createReservation(eq(itemA), any(), anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> InventoryReservation.builder()
+                        .id(UUID.randomUUID())
+                        .inventoryItemId(itemA)
+                        .warehouseId(EAST)
+                        .build());
+        when(reservationService.createReservation(eq(itemB), any(), anyInt(), eq(failingOrder), anyInt()))
+                .thenThrow(new InsufficientInventoryException("Insufficient inventory available"));
+
+        List<InventoryReservationResponse> responses = batchService.reserve(List.of(
+                reservationRequest(failingOrder, "SKU-A", "SKU-B"),
+                reservationRequest(otherOrder, "SKU-A")));
+
+        assertFalse(responses.get(0).isSuccess());
+        assertEquals("Insufficient inventory available", responses.get(0).getErrorMessage());
+        verify(reservationService).cancelReservation(failingOrder);
+
+        assertTrue(responses.get(1).isSuccess());
+        assertEquals(otherOrder, responses.get(1).getOrderId());
+        assertEquals(EAST, responses.get(1).getItems().get(0).getWarehouseId());
+        verify(reservationService, never()).cancelReservation(otherOrder);
+    }
+
+    private UUID stockedItem(String sku) {
+        UUID id = UUID.randomUUID();
+        InventoryItem item = mock(InventoryItem.class);
+        when(item.getId()).thenReturn(id);
+        when(inventoryService.getInventoryItemBySku(sku)).thenReturn(item);
+        return id;
+    }
+
+    private InventoryCheckRequest checkRequest(InventoryCheckRequest.Item... items) {
+        return InventoryCheckRequest.builder()
+                .orderId(UUID.randomUUID())
+                .items(List.of(items))
+                .build();
+    }
+
+    private InventoryCheckRequest.Item item(String sku, int quantity) {
+        return InventoryCheckRequest.Item.builder()
+                .sku(sku)
+                .quantity(quantity)
+                .build();
+    }
+
+    private InventoryReservationRequest reservationRequest(UUID orderId, String... skus) {
+        return InventoryReservationRequest.builder()
+                .orderId(orderId)
+                .items(Arrays.stream(skus)
+                        .map(sku -> InventoryReservationRequest.Item.builder().sku(sku).quantity(1).build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.exalt.warehousing.inventory.service.impl;
+
+import com.exalt.warehousing.inventory.entity.InventoryItem;
+import com.exalt.warehousing.inventory.exception.InventoryNotFoundException;
+import com.exalt.warehousing.inventory.repository.InventoryAllocationRepository;
+import com.exalt.warehousing.inventory.repository.InventoryItemRepository;
+import com.exalt.warehousing.inventory.repository.InventoryTransactionRepository;
+import com.exalt.warehousing.inventory.service.InventoryChangeFeedService;
+import com.exalt.warehousing.inventory.service.InventoryRollupService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryServiceImplTest {
+
+    private final InventoryItemRepository inventoryItemRepository = mock(InventoryItemRepository.class);
+
+    private final InventoryServiceImpl inventoryService = new InventoryServiceImpl(
+            inventoryItemRepository,
+            mock(InventoryAllocationRepository.class),
+            mock(InventoryTransactionRepository.class),
+            mock(InventoryChangeFeedService.class),
+            mock(InventoryRollupService.class));
+
+    @Test
+    void availabilityComparesFixedPointWithoutLoadingTheItem() {
+        UUID itemId = UUID.randomUUID();
+        // 4.5 units available
+        when(inventoryItemRepository.findAvailableQuantityFixedPoint(itemId)).thenReturn(4_500L);
+
+        assertTrue(inventoryService.checkAvailability(itemId, 4));
+        assertFalse(inventoryService.checkAvailability(itemId, 5));
+        verify(inventoryItemRepository, never()).findById(any());
+    }
+
+    @Test
+    void availabilityOfUnknownItemThrows() {
+        UUID itemId = UUID.randomUUID();
+        when(inventoryItemRepository.findAvailableQuantityFixedPoint(itemId)).thenReturn(null);
+
+        assertThrows(InventoryNotFoundException.class, () -> inventoryService.checkAvailability(itemId, 1));
+    }
+
+    @Test
+    void lookupByIdCarriesTheVendorPartitionKey() {
+        UUID itemId = UUID.randomUUID();
+        InventoryItem item = new InventoryItem();
+        when(inventoryItemRepository.findVendorIdById(itemId)).thenReturn(Optional.of(42L));
+        when(inventoryItemRepository.findByIdAndVendorId(itemId, 42L)).thenReturn(Optional.of(item));
+
+        assertSame(item, inventoryService.getInventoryItemById(itemId));
+        verify(inventoryItemRepository, never()).findById(any());
+    }
+
+    @Test
+    void lookupByIdFallsBackWhenTheLocatorHasNoEntry() {
+        UUID itemId = UUID.randomUUID();
+        InventoryItem item = new InventoryItem();
+        when(inventoryItemRepository.findVendorIdById(itemId)).thenReturn(Optional.empty());
+        when(inventoryItemRepository.findById(itemId)).thenReturn(Optional.of(item));
+
+        assertSame(item, inventoryService.getInventoryItemById(itemId));
+    }
+
+    @Test
+    void availabilityReadsOnlyTheVendorPartitionWhenKnown() {
+        UUID itemId = UUID.randomUUID();
+        when(inventoryItemRepository.findAvailableQuantityFixedPointByLocator(itemId)).thenReturn(2_000L);
+
+        assertTrue(inventoryService.checkAvailability(itemId, 2));
+        verify(inventoryItemRepository, never()).findVendorIdById(any());
+        verify(inventoryItemRepository, never()).findAvailableQuantityFixedPoint(any());
+    }
+}
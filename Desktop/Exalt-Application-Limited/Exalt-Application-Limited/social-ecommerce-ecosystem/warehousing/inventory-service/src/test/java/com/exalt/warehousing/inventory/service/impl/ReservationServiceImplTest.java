@@ -0,0 +1,137 @@
+package com.exalt.warehousing.inventory.service.impl;
+
+import com.exalt.warehousing.inventory.client.OrderServiceClient;
+import com.exalt.warehousing.inventory.event.InventoryEventPublisher;
+import com.exalt.warehousing.inventory.model.InventoryAllocation;
+import com.exalt.warehousing.inventory.model.InventoryMovement;
+import com.exalt.warehousing.inventory.model.InventoryReservation;
+import com.exalt.warehousing.inventory.model.ReservationStatus;
+import com.exalt.warehousing.inventory.repository.InventoryAllocationRepository;
+import com.exalt.warehousing.inventory.repository.InventoryMovementRepository;
+import com.exalt.warehousing.inventory.repository.InventoryMovementRollupRepository;
+import com.exalt.warehousing.inventory.repository.InventoryReservationRepository;
+import com.exalt.warehousing.inventory.repository.InventoryTransactionRepository;
+import com.exalt.warehousing.inventory.repository.InventoryTransactionRollupRepository;
+import com.exalt.warehousing.inventory.service.InventoryChangeFeedService;
+import com.exalt.warehousing.inventory.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Completes reservations against mocked repositories and a real rollup
+ * service whose movement buckets are kept in memory.
+ */
+class ReservationServiceImplTest {
+
+    private static final String SKU = "SKU-1";
+
+    private final InventoryReservationRepository reservationRepository = mock(InventoryReservationRepository.class);
+    private final InventoryAllocationRepository allocationRepository = mock(InventoryAllocationRepository.class);
+    private final InventoryTransactionRepository transactionRepository = mock(InventoryTransactionRepository.class);
+    private final InventoryMovementRepository movementRepository = mock(InventoryMovementRepository.class);
+    private final InventoryMovementRollupRepository movementRollupRepository = mock(InventoryMovementRollupRepository.class);
+    private final InventoryService inventoryService = mock(InventoryService.class);
+
+    // Rollup rows keyed the way getDailyMovementTotals filters them: granularity|bucket|sku|warehouse
+    private final Map<String, Long> rollupBuckets = new HashMap<>();
+
+    private ReservationServiceImpl reservationService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(movementRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(allocationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(movementRollupRepository.increment(anyString(), any(), anyString(), any(), anyString(), anyLong()))
+                .thenAnswer(invocation -> {
+                    String key = invocation.getArgument(0) + "|" + invocation.getArgument(1) + "|"
+                            + invocation.getArgument(2) + "|" + invocation.getArgument(3);
+                    rollupBuckets.merge(key, invocation.<Long>getArgument(5), Long::sum);
+                    return 1;
+                });
+
+        InventoryRollupServiceImpl rollupService = new InventoryRollupServiceImpl(
+                movementRollupRepository, mock(InventoryTransactionRollupRepository.class));
+
+        reservationService = new ReservationServiceImpl(
+                reservationRepository,
+                allocationRepository,
+                transactionRepository,
+                movementRepository,
+                inventoryService,
+                mock(OrderServiceClient.class),
+                mock(InventoryEventPublisher.class),
+                mock(InventoryChangeFeedService.class),
+                rollupService);
+    }
+
+    @Test
+    void completedReservationShowsUpInDailyMovementTotals() {
+        UUID itemId = UUID.randomUUID();
+        UUID warehouseId = UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+
+        when(inventoryService.getSkusByIds(Set.of(itemId))).thenReturn(Map.of(itemId, SKU));
+        when(reservationRepository.findAllByOrderId(orderId)).thenReturn(List.of(InventoryReservation.builder()
+                .id(UUID.randomUUID())
+                .inventoryItemId(itemId)
+                .warehouseId(warehouseId)
+                .orderId(orderId)
+                .quantity(3)
+                .status(ReservationStatus.CONFIRMED)
+                .build()));
+        when(allocationRepository.findByInventoryItemIdAndWarehouseId(itemId, warehouseId))
+                .thenReturn(Optional.of(InventoryAllocation.builder()
+                        .inventoryItemId(itemId)
+                        .warehouseId(warehouseId)
+                        .quantity(10)
+                        .reservedQuantity(3)
+                        .build()));
+
+        assertTrue(reservationService.completeReservation(orderId, UUID.randomUUID()));
+
+        assertEquals(3L, dailyTotal(warehouseId, LocalDate.now()));
+        assertEquals(0L, dailyTotal(UUID.randomUUID(), LocalDate.now()));
+    }
+
+    @Test
+    void transferCountsForBothWarehouses() {
+        UUID source = UUID.randomUUID();
+        UUID target = UUID.randomUUID();
+        InventoryMovement transfer = InventoryMovement.createTransfer(
+                SKU, null, source, null, target, null, 4, UUID.randomUUID(), UUID.randomUUID(), "rebalance");
+
+        new InventoryRollupServiceImpl(movementRollupRepository, mock(InventoryTransactionRollupRepository.class))
+                .recordMovement(transfer);
+
+        LocalDate day = transfer.getMovementDate().toLocalDate();
+        assertEquals(4L, dailyTotal(source, day));
+        assertEquals(4L, dailyTotal(target, day));
+    }
+
+    /**
+     * Sum the daily rollup buckets of one SKU, warehouse and day
+     */
+    private long dailyTotal(UUID warehouseId, LocalDate day) {
+        LocalDateTime bucket = day.atStartOfDay();
+        return rollupBuckets.getOrDefault("DAILY|" + bucket + "|" + SKU + "|" + warehouseId, 0L);
+    }
+}
@@ -0,0 +1,21 @@
+package com.exalt.warehousing.inventory.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FixedPointQuantityTest {
+
+    @Test
+    void wholeUnitsScaleByOneThousand() {
+        assertEquals(0L, FixedPointQuantity.fromUnits(0));
+        assertEquals(FixedPointQuantity.ONE, FixedPointQuantity.fromUnits(1));
+        assertEquals(-12_000L, FixedPointQuantity.fromUnits(-12));
+    }
+
+    @Test
+    void overflowThrowsInsteadOfWrapping() {
+        assertThrows(ArithmeticException.class, () -> FixedPointQuantity.fromUnits(Long.MAX_VALUE / 10));
+    }
+}
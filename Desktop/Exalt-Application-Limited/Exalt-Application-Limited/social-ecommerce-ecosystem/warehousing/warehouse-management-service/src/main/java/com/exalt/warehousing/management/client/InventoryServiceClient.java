@@ -1,5 +1,6 @@
 package com.exalt.warehousing.management.client;
 
+import com.exalt.warehousing.management.dto.InventoryChangeFeedDTO;
 import com.exalt.warehousing.management.dto.InventoryItemDTO;
 import com.exalt.warehousing.management.dto.InventoryLocationDTO;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -23,6 +24,17 @@ public interface InventoryServiceClient {
     @GetMapping("/api/v1/inventory/items")
     ResponseEntity<List<InventoryItemDTO>> getAllInventoryItems();
 
+    /**
+     * Get inventory item and allocation changes recorded after a change sequence
+     *
+     * @param since the last change sequence already applied
+     * @param limit the maximum number of change log entries to scan
+     * @return one page of compacted changes
+     */
+    @GetMapping("/api/v1/inventory/changes")
+    ResponseEntity<InventoryChangeFeedDTO> getInventoryChanges(@RequestParam("since") long since,
+                                                               @RequestParam("limit") int limit);
+
     /**
      * Get inventory items by location id
      *
@@ -1,5 +1,6 @@
 package com.exalt.warehousing.management.client;
 
+import com.exalt.warehousing.management.dto.InventoryChangeFeedDTO;
 import com.exalt.warehousing.management.dto.InventoryItemDTO;
 import com.exalt.warehousing.management.dto.InventoryLocationDTO;
 import org.slf4j.Logger;
@@ -31,6 +32,17 @@ public class InventoryServiceClientFallbackFactory implements FallbackFactory<In
                 return ResponseEntity.ok(Collections.emptyList());
             }
 
+            @Override
+            public ResponseEntity<InventoryChangeFeedDTO> getInventoryChanges(long since, int limit) {
+                log.warn("Fallback: getInventoryChanges since sequence: {}", since);
+                // No head sequence, so callers keep their cursor where it is
+                return ResponseEntity.ok(InventoryChangeFeedDTO.builder()
+                        .changes(Collections.emptyList())
+                        .nextSequence(since)
+                        .hasMore(false)
+                        .build());
+            }
+
             @Override
             public ResponseEntity<List<InventoryItemDTO>> getInventoryByLocationId(UUID locationId) {
                 log.warn("Fallback: getInventoryByLocationId for locationId: {}", locationId);
@@ -0,0 +1,54 @@
+package com.exalt.warehousing.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for a single change from the inventory service change feed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryChangeDTO {
+
+    public static final String ENTITY_TYPE_ITEM = "ITEM";
+    public static final String ENTITY_TYPE_ALLOCATION = "ALLOCATION";
+    public static final String CHANGE_TYPE_DELETE = "DELETE";
+
+    private Long sequence;
+
+    private String entityType;
+
+    private String changeType;
+
+    private String entityId;
+
+    private String inventoryItemId;
+
+    private String sku;
+
+    private String name;
+
+    private String productId;
+
+    private String vendorId;
+
+    private String warehouseId;
+
+    private BigDecimal totalQuantity;
+
+    private BigDecimal reservedQuantity;
+
+    private BigDecimal availableQuantity;
+
+    private String status;
+
+    private Boolean isActive;
+}
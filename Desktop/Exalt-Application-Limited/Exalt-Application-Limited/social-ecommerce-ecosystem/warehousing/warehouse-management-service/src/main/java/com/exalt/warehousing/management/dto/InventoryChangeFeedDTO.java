@@ -0,0 +1,26 @@
+package com.exalt.warehousing.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of the inventory service change feed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChangeFeedDTO {
+
+    private List<InventoryChangeDTO> changes;
+
+    private Long nextSequence;
+
+    private Long headSequence;
+
+    private Boolean hasMore;
+}
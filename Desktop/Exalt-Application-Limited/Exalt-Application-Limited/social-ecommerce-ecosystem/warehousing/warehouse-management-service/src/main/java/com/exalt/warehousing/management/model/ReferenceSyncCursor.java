@@ -0,0 +1,40 @@
+package com.exalt.warehousing.management.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Last applied position of an external change feed used for reference data synchronization
+ */
+@Entity
+@Table(name = "reference_sync_cursor")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferenceSyncCursor {
+
+    @Id
+    @Column(name = "feed_name", length = 100)
+    private String feedName;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+
+    @Column(name = "full_synced_at")
+    private LocalDateTime fullSyncedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
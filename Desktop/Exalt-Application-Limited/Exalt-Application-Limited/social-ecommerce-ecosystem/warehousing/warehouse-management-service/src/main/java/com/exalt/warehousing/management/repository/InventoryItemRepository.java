@@ -67,4 +67,12 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItemRefe
      */
     @Query("SELECT i.availableQuantity FROM InventoryItemReference i WHERE i.id = :itemId")
     Integer findQuantityByItemId(UUID itemId);
+
+    /**
+     * Find the IDs of all inventory item references
+     *
+     * @return the reference IDs
+     */
+    @Query("SELECT i.id FROM InventoryItemReference i")
+    List<String> findAllIds();
 } 
@@ -0,0 +1,12 @@
+package com.exalt.warehousing.management.repository;
+
+import com.exalt.warehousing.management.model.ReferenceSyncCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for change feed cursors used by reference data synchronization
+ */
+@Repository
+public interface ReferenceSyncCursorRepository extends JpaRepository<ReferenceSyncCursor, String> {
+}
@@ -3,12 +3,17 @@ package com.exalt.warehousing.management.service;
 import com.exalt.warehousing.management.client.InventoryServiceClient;
 import com.exalt.warehousing.management.client.OrderServiceClient;
 import com.exalt.warehousing.management.config.CacheConfig;
+import com.exalt.warehousing.management.dto.InventoryChangeDTO;
+import com.exalt.warehousing.management.dto.InventoryChangeFeedDTO;
 import com.exalt.warehousing.management.model.InventoryItemReference;
 import com.exalt.warehousing.management.model.OrderItemReference;
+import com.exalt.warehousing.management.model.ReferenceSyncCursor;
 import com.exalt.warehousing.management.repository.InventoryItemRepository;
 import com.exalt.warehousing.management.repository.OrderItemRepository;
+import com.exalt.warehousing.management.repository.ReferenceSyncCursorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -16,8 +21,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,10 +40,22 @@ public class ReferenceDataSyncService {
     private final OrderServiceClient orderServiceClient;
     private final InventoryItemRepository inventoryItemRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ReferenceSyncCursorRepository syncCursorRepository;
+
+    private static final String INVENTORY_CHANGE_FEED = "inventory-items";
+
+    @Value("${reference.sync.change-feed-page-size:500}")
+    private int changeFeedPageSize;
+
+    @Value("${reference.sync.full-resync-interval-hours:24}")
+    private long fullResyncIntervalHours;
 
     /**
      * Synchronize inventory item reference data
-     * Scheduled to run every 15 minutes
+     * Scheduled to run every 15 minutes. Pulls only the changes recorded since the
+     * last run from the inventory change feed; the full catalogue is fetched when
+     * no cursor has been stored yet and again once per full resync interval, which
+     * repairs references that drifted for any reason the feed cannot show.
      */
     @Scheduled(fixedRateString = "${reference.sync.interval:900000}")
     @Transactional
@@ -44,27 +63,157 @@ public class ReferenceDataSyncService {
     public void syncInventoryItemReferences() {
         log.info("Starting inventory item reference data synchronization");
         try {
-            List<InventoryItemReference> references = inventoryServiceClient.getAllInventoryItems().getBody()
-                    .stream()
-                    .map(item -> InventoryItemReference.builder()
-                            .id(item.getId().toString())
-                            .productId(item.getProductId())
-                            .sku(item.getProductSku())
-                            .productName(item.getProductName())
-                            .warehouseId(item.getWarehouseId())
-                            .locationId(item.getLocationId())
-                            .availableQuantity(item.getAvailableQuantity())
-                            .lastSyncedAt(LocalDateTime.now())
-                            .build())
-                    .collect(Collectors.toList());
+            Optional<ReferenceSyncCursor> cursor = syncCursorRepository.findById(INVENTORY_CHANGE_FEED);
+            if (cursor.isEmpty() || isFullResyncDue(cursor.get())) {
+                fullSyncInventoryItemReferences();
+                return;
+            }
 
-            inventoryItemRepository.saveAll(references);
-            log.info("Successfully synchronized {} inventory item references", references.size());
+            long since = cursor.get().getLastSequence();
+            int applied = 0;
+            InventoryChangeFeedDTO page;
+            do {
+                page = inventoryServiceClient.getInventoryChanges(since, changeFeedPageSize).getBody();
+                if (page == null || page.getChanges() == null) {
+                    break;
+                }
+                applied += applyInventoryChanges(page.getChanges());
+                since = page.getNextSequence();
+            } while (Boolean.TRUE.equals(page.getHasMore()));
+
+            saveInventoryCursor(since, cursor.get().getFullSyncedAt());
+            log.info("Successfully applied {} inventory item changes up to sequence {}", applied, since);
         } catch (Exception e) {
             log.error("Failed to synchronize inventory item references", e);
         }
     }
 
+    private boolean isFullResyncDue(ReferenceSyncCursor cursor) {
+        return cursor.getFullSyncedAt() == null
+                || cursor.getFullSyncedAt().isBefore(LocalDateTime.now().minusHours(fullResyncIntervalHours));
+    }
+
+    /**
+     * Load the full inventory catalogue, drop references to items no longer in it
+     * and start the change feed cursor at the head sequence read before the load,
+     * so changes made during it are replayed
+     */
+    private void fullSyncInventoryItemReferences() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        InventoryChangeFeedDTO head = inventoryServiceClient.getInventoryChanges(0L, 1).getBody();
+        Long headSequence = head != null ? head.getHeadSequence() : null;
+
+        List<InventoryItemReference> references = inventoryServiceClient.getAllInventoryItems().getBody()
+                .stream()
+                .map(item -> InventoryItemReference.builder()
+                        .id(item.getId().toString())
+                        .productId(item.getProductId())
+                        .sku(item.getProductSku())
+                        .productName(item.getProductName())
+                        .warehouseId(item.getWarehouseId())
+                        .locationId(item.getLocationId())
+                        .availableQuantity(item.getAvailableQuantity())
+                        .lastSyncedAt(LocalDateTime.now())
+                        .build())
+                .collect(Collectors.toList());
+
+        inventoryItemRepository.saveAll(references);
+
+        Set<String> current = references.stream()
+                .map(InventoryItemReference::getId)
+                .collect(Collectors.toSet());
+        List<String> stale = inventoryItemRepository.findAllIds().stream()
+                .filter(id -> !current.contains(id))
+                .collect(Collectors.toList());
+        inventoryItemRepository.deleteAllById(stale);
+
+        if (headSequence != null) {
+            saveInventoryCursor(headSequence, startedAt);
+        }
+        log.info("Successfully synchronized {} inventory item references and removed {} stale ones, " +
+                "change feed cursor at {}", references.size(), stale.size(), headSequence);
+    }
+
+    /**
+     * Apply changes from the inventory change feed to the local references.
+     * The available quantity of a reference is the item's available-for-sale
+     * quantity, so only item changes are applied; allocation changes are skipped.
+     *
+     * @param changes the compacted changes of one feed page
+     * @return number of references updated or removed
+     */
+    private int applyInventoryChanges(List<InventoryChangeDTO> changes) {
+        List<InventoryItemReference> upserts = new ArrayList<>();
+        List<String> deletions = new ArrayList<>();
+
+        for (InventoryChangeDTO change : changes) {
+            if (!InventoryChangeDTO.ENTITY_TYPE_ITEM.equals(change.getEntityType())) {
+                continue;
+            }
+            if (InventoryChangeDTO.CHANGE_TYPE_DELETE.equals(change.getChangeType())
+                    || Boolean.FALSE.equals(change.getIsActive())) {
+                deletions.add(change.getEntityId());
+                continue;
+            }
+
+            InventoryItemReference reference = inventoryItemRepository.findById(change.getEntityId())
+                    .orElseGet(() -> InventoryItemReference.builder().id(change.getEntityId()).build());
+            reference.setSku(change.getSku());
+            reference.setProductName(change.getName());
+            UUID productId = toReferenceUuid(change.getProductId());
+            if (productId != null) {
+                reference.setProductId(productId);
+            }
+            UUID warehouseId = toReferenceUuid(change.getWarehouseId());
+            if (warehouseId != null) {
+                reference.setWarehouseId(warehouseId);
+            }
+            if (reference.getWarehouseId() == null) {
+                log.debug("Skipping inventory item {} without a warehouse reference", change.getEntityId());
+                continue;
+            }
+            if (change.getAvailableQuantity() != null) {
+                reference.setAvailableQuantity(change.getAvailableQuantity().intValue());
+            }
+            reference.setLastSyncedAt(LocalDateTime.now());
+            upserts.add(reference);
+        }
+
+        inventoryItemRepository.saveAll(upserts);
+        deletions.stream()
+                .filter(inventoryItemRepository::existsById)
+                .forEach(inventoryItemRepository::deleteById);
+        return upserts.size() + deletions.size();
+    }
+
+    private void saveInventoryCursor(long sequence, LocalDateTime fullSyncedAt) {
+        syncCursorRepository.save(ReferenceSyncCursor.builder()
+                .feedName(INVENTORY_CHANGE_FEED)
+                .lastSequence(sequence)
+                .fullSyncedAt(fullSyncedAt)
+                .build());
+    }
+
+    /**
+     * Inventory items key their product and warehouse with Long IDs, which are held
+     * here as UUIDs carrying the ID in their most significant bits, the form the
+     * fulfillment service uses for the same warehouses
+     */
+    private UUID toReferenceUuid(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new UUID(Long.parseLong(value), 0);
+        } catch (NumberFormatException e) {
+            try {
+                return UUID.fromString(value);
+            } catch (IllegalArgumentException invalid) {
+                return null;
+            }
+        }
+    }
+
     /**
      * Synchronize order item reference data
      * Scheduled to run every 15 minutes
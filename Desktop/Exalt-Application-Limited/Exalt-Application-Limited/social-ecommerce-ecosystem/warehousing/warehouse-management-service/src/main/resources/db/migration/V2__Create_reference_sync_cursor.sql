@@ -0,0 +1,8 @@
+-- V2__Create_reference_sync_cursor.sql
+
+-- Change feed cursors for reference data synchronization
+CREATE TABLE IF NOT EXISTS reference_sync_cursor (
+    feed_name VARCHAR(100) PRIMARY KEY,
+    last_sequence BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
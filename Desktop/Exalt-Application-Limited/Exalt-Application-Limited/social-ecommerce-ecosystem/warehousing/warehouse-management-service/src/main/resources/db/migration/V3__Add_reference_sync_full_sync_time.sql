@@ -0,0 +1,4 @@
+-- V3__Add_reference_sync_full_sync_time.sql
+
+-- Time of the last full catalogue load per feed, used to schedule periodic full resyncs
+ALTER TABLE reference_sync_cursor ADD COLUMN IF NOT EXISTS full_synced_at TIMESTAMP;
@@ -0,0 +1,122 @@
+package com.exalt.warehousing.management.service;
+
+import com.exalt.warehousing.management.client.InventoryServiceClient;
+import com.exalt.warehousing.management.client.OrderServiceClient;
+import com.exalt.warehousing.management.dto.InventoryChangeDTO;
+import com.exalt.warehousing.management.dto.InventoryChangeFeedDTO;
+import com.exalt.warehousing.management.model.InventoryItemReference;
+import com.exalt.warehousing.management.model.ReferenceSyncCursor;
+import com.exalt.warehousing.management.repository.InventoryItemRepository;
+import com.exalt.warehousing.management.repository.OrderItemRepository;
+import com.exalt.warehousing.management.repository.ReferenceSyncCursorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Applies pages of the inventory change feed to stubbed reference repositories.
+ */
+class ReferenceDataSyncServiceTest {
+
+    private final InventoryServiceClient inventoryServiceClient = mock(InventoryServiceClient.class);
+    private final InventoryItemRepository inventoryItemRepository = mock(InventoryItemRepository.class);
+    private final ReferenceSyncCursorRepository syncCursorRepository = mock(ReferenceSyncCursorRepository.class);
+
+    private final ReferenceDataSyncService service = new ReferenceDataSyncService(inventoryServiceClient,
+            mock(OrderServiceClient.class), inventoryItemRepository, mock(OrderItemRepository.class),
+            syncCursorRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "changeFeedPageSize", 500);
+        ReflectionTestUtils.setField(service, "fullResyncIntervalHours", 24L);
+        // Fully synced an hour ago, so the next run reads the feed
+        when(syncCursorRepository.findById("inventory-items")).thenReturn(Optional.of(ReferenceSyncCursor.builder()
+                .feedName("inventory-items")
+                .lastSequence(10L)
+                .fullSyncedAt(LocalDateTime.now().minusHours(1))
+                .build()));
+        when(inventoryItemRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void itemFirstSeenInTheFeedIsReferencedUnderItsWarehouse() {
+        feed(InventoryChangeDTO.builder()
+                .entityType(InventoryChangeDTO.ENTITY_TYPE_ITEM)
+                .changeType("UPSERT")
+                .entityId("42")
+                .sku("SKU-42")
+                .productId("9")
+                .warehouseId("7")
+                .availableQuantity(new BigDecimal("5.000"))
+                .isActive(true)
+                .build());
+
+        service.syncInventoryItemReferences();
+
+        InventoryItemReference reference = savedReferences().get(0);
+        assertEquals("42", reference.getId());
+        assertEquals(new UUID(7, 0), reference.getWarehouseId());
+        assertEquals(new UUID(9, 0), reference.getProductId());
+        assertEquals(Integer.valueOf(5), reference.getAvailableQuantity());
+    }
+
+    @Test
+    void allocationChangesLeaveTheItemAvailabilityAlone() {
+        feed(InventoryChangeDTO.builder()
+                        .entityType(InventoryChangeDTO.ENTITY_TYPE_ITEM)
+                        .changeType("UPSERT")
+                        .entityId("42")
+                        .warehouseId("7")
+                        .availableQuantity(new BigDecimal("5"))
+                        .isActive(true)
+                        .build(),
+                InventoryChangeDTO.builder()
+                        .entityType(InventoryChangeDTO.ENTITY_TYPE_ALLOCATION)
+                        .changeType("UPSERT")
+                        .entityId(UUID.randomUUID().toString())
+                        .inventoryItemId("42")
+                        .warehouseId(new UUID(7, 0).toString())
+                        .availableQuantity(new BigDecimal("2"))
+                        .build());
+
+        service.syncInventoryItemReferences();
+
+        List<InventoryItemReference> saved = savedReferences();
+        assertEquals(1, saved.size());
+        assertEquals(Integer.valueOf(5), saved.get(0).getAvailableQuantity());
+    }
+
+    private void feed(InventoryChangeDTO... changes) {
+        when(inventoryServiceClient.getInventoryChanges(eq(10L), anyInt())).thenReturn(ResponseEntity.ok(
+                InventoryChangeFeedDTO.builder()
+                        .changes(List.of(changes))
+                        .nextSequence(11L)
+                        .headSequence(11L)
+                        .hasMore(false)
+                        .build()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryItemReference> savedReferences() {
+        ArgumentCaptor<List<InventoryItemReference>> saved = ArgumentCaptor.forClass(List.class);
+        verify(inventoryItemRepository).saveAll(saved.capture());
+        return saved.getValue();
+    }
+}